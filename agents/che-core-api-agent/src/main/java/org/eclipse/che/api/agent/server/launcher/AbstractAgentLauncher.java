@@ -28,6 +28,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -36,8 +38,11 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
 
 /**
- * Launch agent script asynchronously over target instance and wait when it run.
+ * Launch agent script asynchronously over target instance, the returned future
+ * is completed when the agent is run, see {@link #launchAsync(Instance, Agent)}.
  * The policy of checking if agent is run might be different for agents.
+ * Checks are performed by {@link AgentReadinessMonitor}, the agent may also
+ * report its readiness with an output line, see {@link #isReadinessOutput(String)}.
  *
  * @see Agent#getScript()
  * @see AgentLaunchingChecker
@@ -57,44 +62,65 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
     private final AgentLaunchingChecker agentLaunchingChecker;
     private final long                  agentPingDelayMs;
     private final long                  agentMaxStartTimeMs;
+    private final AgentReadinessMonitor readinessMonitor;
 
     public AbstractAgentLauncher(long agentMaxStartTimeMs,
                                  long agentPingDelayMs,
-                                 AgentLaunchingChecker agentLaunchingChecker) {
+                                 AgentLaunchingChecker agentLaunchingChecker,
+                                 AgentReadinessMonitor readinessMonitor) {
         this.agentPingDelayMs = agentPingDelayMs;
         this.agentMaxStartTimeMs = agentMaxStartTimeMs;
         this.agentLaunchingChecker = agentLaunchingChecker;
+        this.readinessMonitor = readinessMonitor;
     }
 
     @Override
     public void launch(Instance machine, Agent agent) throws ServerException {
-        if (isNullOrEmpty(agent.getScript())) {
-            return;
-        }
         try {
-            final InstanceProcess process = start(machine, agent);
-            LOG.debug("Waiting for agent {} is launched. Workspace ID:{}", agent.getId(), machine.getWorkspaceId());
-
-            final long pingStartTimestamp = System.currentTimeMillis();
-            while (System.currentTimeMillis() - pingStartTimestamp < agentMaxStartTimeMs) {
-                if (agentLaunchingChecker.isLaunched(agent, process, machine)) {
-                    return;
-                } else {
-                    Thread.sleep(agentPingDelayMs);
-                }
-            }
-
-            process.kill();
-        } catch (MachineException e) {
-            throw new ServerException(e.getServiceError());
+            readinessMonitor.await(launchAsync(machine, agent));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ServerException(format("Launching agent %s is interrupted", agent.getName()));
         }
+    }
 
-        final String errMsg = format("Fail launching agent %s. Workspace ID:%s", agent.getName(), machine.getWorkspaceId());
-        LOG.error(errMsg);
-        throw new ServerException(errMsg);
+    @Override
+    public CompletableFuture<Void> launchAsync(Instance machine, Agent agent) {
+        if (isNullOrEmpty(agent.getScript())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // start waiting before the agent is started to not miss the readiness output,
+        // the checks are started when the process is started
+        final CompletableFuture<InstanceProcess> process = new CompletableFuture<>();
+        final CompletableFuture<Boolean> readiness =
+                readinessMonitor.watch(machine.getId(),
+                                       agent.getId(),
+                                       process,
+                                       () -> agentLaunchingChecker.isLaunched(agent, process.getNow(null), machine),
+                                       agentPingDelayMs,
+                                       agentMaxStartTimeMs);
+        try {
+            process.complete(start(machine, agent));
+        } catch (ServerException | RuntimeException e) {
+            process.completeExceptionally(e);
+        }
+        LOG.debug("Waiting for agent {} is launched. Workspace ID:{}", agent.getId(), machine.getWorkspaceId());
+
+        final CompletableFuture<Void> launched = process.thenCombine(readiness, (started, ready) -> {
+            if (ready) {
+                return null;
+            }
+            try {
+                started.kill();
+            } catch (MachineException e) {
+                throw new CompletionException(new ServerException(e.getServiceError()));
+            }
+            final String errMsg = format("Fail launching agent %s. Workspace ID:%s", agent.getName(), machine.getWorkspaceId());
+            LOG.error(errMsg);
+            throw new CompletionException(new ServerException(errMsg));
+        });
+        launched.whenComplete((ignored, error) -> readiness.cancel(false));
+        return launched;
     }
 
     protected InstanceProcess start(Instance machine, Agent agent) throws ServerException {
@@ -104,6 +130,9 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
             @Override
             public void writeLine(String line) throws IOException {
                 machine.getLogger().writeLine(line);
+                if (isReadinessOutput(line)) {
+                    readinessMonitor.notifyReady(machine.getId(), agent.getId());
+                }
             }
         };
 
@@ -133,4 +162,13 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
 
         return process;
     }
+
+    /**
+     * Returns true if the given line of the agent output means that the agent is ready,
+     * so the launching is finished without waiting for the next check.
+     * By default the agent output is not taken into account.
+     */
+    protected boolean isReadinessOutput(String line) {
+        return false;
+    }
 }
@@ -14,6 +14,8 @@ import org.eclipse.che.api.agent.shared.model.Agent;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.machine.server.spi.Instance;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Launches {@link Agent#getScript()} on the {@link Instance}.
  *
@@ -48,4 +50,30 @@ public interface AgentLauncher {
      *      if script execution failed
      */
     void launch(Instance machine, Agent agent) throws ServerException;
+
+    /**
+     * Executes agents scripts over target machine without waiting for the agent in the calling thread.
+     * The machine should be started.
+     *
+     * <p>By default the launching is performed by {@link #launch(Instance, Agent)}
+     * in the calling thread, launchers which wait for the agent should override this method.
+     *
+     * @param machine
+     *      the machine instance
+     * @param agent
+     *      the agent
+     * @return the future which is completed when the agent is launched
+     *      or completed exceptionally with {@link ServerException} if script execution failed,
+     *      cancellation of the future stops waiting for the agent
+     */
+    default CompletableFuture<Void> launchAsync(Instance machine, Agent agent) {
+        final CompletableFuture<Void> launched = new CompletableFuture<>();
+        try {
+            launch(machine, agent);
+            launched.complete(null);
+        } catch (ServerException | RuntimeException x) {
+            launched.completeExceptionally(x);
+        }
+        return launched;
+    }
 }
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.agent.server.launcher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Waits until agents are ready.
+ *
+ * <p>A single scheduler thread only keeps the timing of the checks and timeouts,
+ * checks themselves are performed by a separate pool of {@code che.agent.readiness.check_threads}
+ * threads shared by all the agents, so a slow check of one agent does not delay the checks
+ * of other agents while there are free threads. The checks of the same agent are sequential,
+ * the next one starts {@code checkDelayMs} after the end of the previous one.
+ * The {@link org.eclipse.che.commons.env.EnvironmentContext} of the thread which started
+ * waiting is propagated to the checks.
+ *
+ * <p>The waiting can also be finished by the agent itself or by any other
+ * source of readiness events with {@link #notifyReady(String, String)},
+ * in this case the waiting is finished immediately instead of waiting
+ * for the next check.
+ */
+@Singleton
+public class AgentReadinessMonitor {
+
+    private final ScheduledExecutorService                                scheduler;
+    private final ExecutorService                                         checkExecutor;
+    private final ConcurrentMap<String, Set<CompletableFuture<Boolean>>> pending;
+
+    @Inject
+    public AgentReadinessMonitor(@Named("che.agent.readiness.check_threads") int checkThreads) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("AgentReadinessMonitor-%d")
+                                                                                         .setUncaughtExceptionHandler(
+                                                                                                 LoggingUncaughtExceptionHandler.getInstance())
+                                                                                         .setDaemon(true)
+                                                                                         .build());
+        checkExecutor = Executors.newFixedThreadPool(checkThreads,
+                                                     new ThreadFactoryBuilder().setNameFormat("AgentReadinessCheck-%d")
+                                                                               .setUncaughtExceptionHandler(
+                                                                                       LoggingUncaughtExceptionHandler.getInstance())
+                                                                               .setDaemon(true)
+                                                                               .build());
+        pending = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks if agent is ready, implementation may block for a short time.
+     */
+    @FunctionalInterface
+    public interface ReadinessCheck {
+        boolean isReady() throws MachineException;
+    }
+
+    /**
+     * Starts waiting for the agent, the returned future is completed with
+     * <ul>
+     * <li>{@code true} when {@code check} passes or readiness is reported with {@link #notifyReady(String, String)}</li>
+     * <li>{@code false} when the agent is not ready after {@code timeoutMs}</li>
+     * <li>an exception thrown by {@code check}</li>
+     * </ul>
+     * Cancellation of the returned future stops the checks.
+     * Dependent stages of the returned future may be executed by the check pool.
+     *
+     * @param machineId
+     *         the id of the machine where agent is launched
+     * @param agentId
+     *         the id of the agent
+     * @param check
+     *         readiness check which is performed with {@code checkDelayMs} delay between checks
+     * @param checkDelayMs
+     *         delay between the end of the check and the start of the next one
+     * @param timeoutMs
+     *         the maximum time to wait for the agent
+     * @return the future of agent readiness
+     */
+    public CompletableFuture<Boolean> watch(String machineId,
+                                            String agentId,
+                                            ReadinessCheck check,
+                                            long checkDelayMs,
+                                            long timeoutMs) {
+        return watch(machineId, agentId, CompletableFuture.completedFuture(null), check, checkDelayMs, timeoutMs);
+    }
+
+    /**
+     * Same as {@link #watch(String, String, ReadinessCheck, long, long)} but the first check
+     * is performed only when {@code started} is completed, e.g. when the agent process is started,
+     * while readiness notifications and the timeout are taken into account from the moment of this call.
+     * If {@code started} is completed exceptionally the returned future is completed with the same exception.
+     */
+    public CompletableFuture<Boolean> watch(String machineId,
+                                            String agentId,
+                                            CompletionStage<?> started,
+                                            ReadinessCheck check,
+                                            long checkDelayMs,
+                                            long timeoutMs) {
+        final String key = keyOf(machineId, agentId);
+        final CompletableFuture<Boolean> readiness = new CompletableFuture<>();
+        pending.compute(key, (k, futures) -> {
+            final Set<CompletableFuture<Boolean>> result = futures == null ? ConcurrentHashMap.newKeySet() : futures;
+            result.add(readiness);
+            return result;
+        });
+
+        final ReadinessChecks checks = new ReadinessChecks(readiness, check, checkDelayMs);
+        started.whenComplete((value, error) -> {
+            if (error != null) {
+                readiness.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                schedule(readiness, checks, 0);
+            }
+        });
+        final ScheduledFuture<?> timeout = schedule(readiness, checks::timeout, timeoutMs);
+
+        readiness.whenComplete((ready, error) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            pending.computeIfPresent(key, (k, futures) -> {
+                futures.remove(readiness);
+                return futures.isEmpty() ? null : futures;
+            });
+        });
+        return readiness;
+    }
+
+    /**
+     * Waits for the result of {@link #watch(String, String, ReadinessCheck, long, long)}
+     * or of a launching composed from it, for the callers which have to be synchronous.
+     * The future is cancelled if the waiting thread is interrupted.
+     *
+     * @param future
+     *         the future to wait for
+     * @return the result of the future
+     * @throws ServerException
+     *         when the future is completed with {@link ServerException}, is cancelled or the monitor is stopped
+     * @throws InterruptedException
+     *         when the waiting thread is interrupted
+     */
+    public <T> T await(CompletableFuture<T> future) throws ServerException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException x) {
+            future.cancel(false);
+            throw x;
+        } catch (CancellationException x) {
+            throw new MachineException("Waiting for the agent is cancelled");
+        } catch (ExecutionException x) {
+            final Throwable cause = x.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new MachineException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    /**
+     * Reports that the agent is ready.
+     *
+     * @param machineId
+     *         the id of the machine where agent is launched
+     * @param agentId
+     *         the id of the agent
+     * @return true if someone was waiting for the agent, false otherwise
+     */
+    public boolean notifyReady(String machineId, String agentId) {
+        final Set<CompletableFuture<Boolean>> futures = pending.get(keyOf(machineId, agentId));
+        if (futures == null) {
+            return false;
+        }
+        boolean notified = false;
+        for (CompletableFuture<Boolean> readiness : futures) {
+            notified |= readiness.complete(true);
+        }
+        return notified;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        checkExecutor.shutdownNow();
+        final MachineException stopped = new MachineException("Agent readiness monitor is stopped");
+        pending.values().forEach(futures -> futures.forEach(readiness -> readiness.completeExceptionally(stopped)));
+    }
+
+    private ScheduledFuture<?> schedule(CompletableFuture<Boolean> readiness, Runnable task, long delayMs) {
+        try {
+            return scheduler.schedule(task, delayMs, MILLISECONDS);
+        } catch (RejectedExecutionException x) {
+            readiness.completeExceptionally(new MachineException("Agent readiness monitor is stopped"));
+            return null;
+        }
+    }
+
+    private static String keyOf(String machineId, String agentId) {
+        return machineId + '/' + agentId;
+    }
+
+    /**
+     * Hands the checks of a single agent over to the check pool,
+     * the next check is scheduled when the previous one is finished.
+     */
+    private class ReadinessChecks implements Runnable {
+        private final CompletableFuture<Boolean> readiness;
+        private final ReadinessCheck             check;
+        private final long                       checkDelayMs;
+        private final Runnable                   checkTask;
+
+        private ReadinessChecks(CompletableFuture<Boolean> readiness, ReadinessCheck check, long checkDelayMs) {
+            this.readiness = readiness;
+            this.check = check;
+            this.checkDelayMs = checkDelayMs;
+            // captures the context of the thread which started waiting
+            this.checkTask = ThreadLocalPropagateContext.wrap(this::check);
+        }
+
+        @Override
+        public void run() {
+            execute(checkTask);
+        }
+
+        /**
+         * Completes the waiting with {@code false} on the check pool,
+         * so the dependent stages never block the scheduler.
+         */
+        private void timeout() {
+            execute(() -> readiness.complete(false));
+        }
+
+        private void execute(Runnable task) {
+            if (readiness.isDone()) {
+                return;
+            }
+            try {
+                checkExecutor.execute(task);
+            } catch (RejectedExecutionException x) {
+                readiness.completeExceptionally(new MachineException("Agent readiness monitor is stopped"));
+            }
+        }
+
+        private void check() {
+            if (readiness.isDone()) {
+                return;
+            }
+            try {
+                if (check.isReady()) {
+                    readiness.complete(true);
+                } else {
+                    schedule(readiness, this, checkDelayMs);
+                }
+            } catch (Exception x) {
+                readiness.completeExceptionally(x);
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ package org.eclipse.che.api.agent.server.launcher;
 
 import org.eclipse.che.api.agent.shared.model.Agent;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
@@ -19,15 +20,21 @@ import org.eclipse.che.api.machine.server.spi.InstanceProcess;
 import org.mockito.Mock;
 import org.mockito.stubbing.Answer;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -36,7 +43,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * @author Alexander Garagatyi
@@ -51,12 +60,16 @@ public class AbstractAgentLauncherTest {
     private InstanceProcess       process;
     @Mock
     private AgentLaunchingChecker agentChecker;
+    @Mock
+    private LineConsumer          logger;
 
+    private AgentReadinessMonitor readinessMonitor;
     private AbstractAgentLauncher launcher;
 
     @BeforeMethod
     public void setUp() throws Exception {
-        launcher = spy(new TestAgentLauncher(500, 100, agentChecker));
+        readinessMonitor = new AgentReadinessMonitor(2);
+        launcher = spy(new TestAgentLauncher(500, 100, agentChecker, readinessMonitor));
 
         when(agent.getScript()).thenReturn("script content");
         doReturn(process).when(launcher).start(any(Instance.class), any(Agent.class));
@@ -65,6 +78,11 @@ public class AbstractAgentLauncherTest {
                                      any(Instance.class))).thenReturn(true);
     }
 
+    @AfterMethod
+    public void tearDown() {
+        readinessMonitor.shutdown();
+    }
+
     @Test
     public void shouldBeAbleToCheckAgentState() throws Exception {
         // when
@@ -129,7 +147,7 @@ public class AbstractAgentLauncherTest {
     @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "Fail launching agent .*. Workspace ID:.*")
     public void shouldNotCheckIfAgentIsLaunchedMoreThanAgentMaxStartTime() throws Exception {
         // given
-        launcher = spy(new TestAgentLauncher(200, 100, agentChecker));
+        launcher = spy(new TestAgentLauncher(200, 100, agentChecker, readinessMonitor));
         doReturn(process).when(launcher).start(any(Instance.class), any(Agent.class));
         when(agentChecker.isLaunched(any(Agent.class),
                                      any(InstanceProcess.class),
@@ -152,7 +170,7 @@ public class AbstractAgentLauncherTest {
     @Test
     public void shouldNotCheckMoreFrequentThanAgentCheckDelay() throws Exception {
         // given
-        launcher = spy(new TestAgentLauncher(200, 10, agentChecker));
+        launcher = spy(new TestAgentLauncher(200, 10, agentChecker, readinessMonitor));
         doReturn(process).when(launcher).start(any(Instance.class), any(Agent.class));
         // record time of each check of agent state
         ArrayList<Long> checkTimestamps = new ArrayList<>(5);
@@ -197,13 +215,14 @@ public class AbstractAgentLauncherTest {
     @Test
     public void shouldSetBackInterruptedFlagIfThreadWasInterrupted() throws Exception {
         try {
-            // imitate interruption of launching thread
+            // imitate interruption of launching thread, checks are performed by another thread
+            final Thread launchingThread = Thread.currentThread();
             when(agentChecker.isLaunched(any(Agent.class),
                                          any(InstanceProcess.class),
                                          any(Instance.class))).thenAnswer(invocationOnMock -> {
-                Thread.currentThread().interrupt();
+                launchingThread.interrupt();
                 return false;
-            });
+            }).thenReturn(false);
 
             // when
             launcher.launch(machine, agent);
@@ -219,12 +238,13 @@ public class AbstractAgentLauncherTest {
     @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "Launching agent .* is interrupted")
     public void shouldThrowServerExceptionIfAgentCheckWasInterrupted() throws Exception {
         try {
+            final Thread launchingThread = Thread.currentThread();
             when(agentChecker.isLaunched(any(Agent.class),
                                          any(InstanceProcess.class),
                                          any(Instance.class))).thenAnswer(invocationOnMock -> {
-                Thread.currentThread().interrupt();
+                launchingThread.interrupt();
                 return false;
-            });
+            }).thenReturn(false);
 
             // when
             launcher.launch(machine, agent);
@@ -250,11 +270,105 @@ public class AbstractAgentLauncherTest {
         verify(machine).createProcess(eq(new CommandImpl(agentId, agentScript, "agent")), eq(null));
     }
 
+    @Test
+    public void shouldStopWaitingWhenAgentNotifiesItIsReady() throws Exception {
+        // given
+        when(machine.getId()).thenReturn("machineId");
+        when(agent.getId()).thenReturn("agentId");
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenAnswer(invocationOnMock -> {
+            readinessMonitor.notifyReady("machineId", "agentId");
+            return false;
+        });
+
+        // when
+        launcher.launch(machine, agent);
+
+        // then
+        verify(agentChecker).isLaunched(any(Agent.class),
+                                        any(InstanceProcess.class),
+                                        any(Instance.class));
+        verify(process, never()).kill();
+    }
+
+    @Test
+    public void shouldStopWaitingWhenAgentPrintsReadinessOutput() throws Exception {
+        // given
+        launcher = spy(new TestAgentLauncher(10_000, 100, agentChecker, readinessMonitor));
+        when(machine.getId()).thenReturn("machineId");
+        when(agent.getId()).thenReturn("agentId");
+        when(machine.getLogger()).thenReturn(logger);
+        when(machine.createProcess(any(), any())).thenReturn(process);
+        doAnswer(invocationOnMock -> {
+            final LineConsumer output = (LineConsumer)invocationOnMock.getArguments()[0];
+            output.writeLine("starting");
+            output.writeLine(TestAgentLauncher.READY_OUTPUT);
+            return null;
+        }).when(process).start(any(LineConsumer.class));
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenReturn(false);
+
+        // when
+        launcher.launch(machine, agent);
+
+        // then
+        verify(logger).writeLine(TestAgentLauncher.READY_OUTPUT);
+        verify(process, never()).kill();
+    }
+
+    @Test
+    public void shouldNotBlockCallerWhileAgentIsLaunching() throws Exception {
+        // given
+        final CountDownLatch agentLaunched = new CountDownLatch(1);
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenAnswer(invocationOnMock -> agentLaunched.getCount() == 0);
+
+        // when
+        final CompletableFuture<Void> launched = launcher.launchAsync(machine, agent);
+
+        // then
+        assertFalse(launched.isDone());
+        agentLaunched.countDown();
+        launched.get(5, SECONDS);
+        verify(process, never()).kill();
+    }
+
+    @Test
+    public void shouldKillAgentProcessWhenAgentIsNotLaunchedInTime() throws Exception {
+        // given
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenReturn(false);
+
+        // when
+        final CompletableFuture<Void> launched = launcher.launchAsync(machine, agent);
+
+        // then
+        try {
+            launched.get(5, SECONDS);
+            fail("Launching should fail");
+        } catch (ExecutionException x) {
+            assertTrue(x.getCause() instanceof ServerException);
+        }
+        verify(process).kill();
+    }
+
     private static class TestAgentLauncher extends AbstractAgentLauncher {
+        static final String READY_OUTPUT = "agent is ready";
+
         public TestAgentLauncher(long agentMaxStartTimeMs,
                                  long agentPingDelayMs,
-                                 AgentLaunchingChecker agentLaunchingChecker) {
-            super(agentMaxStartTimeMs, agentPingDelayMs, agentLaunchingChecker);
+                                 AgentLaunchingChecker agentLaunchingChecker,
+                                 AgentReadinessMonitor readinessMonitor) {
+            super(agentMaxStartTimeMs, agentPingDelayMs, agentLaunchingChecker, readinessMonitor);
+        }
+
+        @Override
+        protected boolean isReadinessOutput(String line) {
+            return READY_OUTPUT.equals(line);
         }
 
         @Override
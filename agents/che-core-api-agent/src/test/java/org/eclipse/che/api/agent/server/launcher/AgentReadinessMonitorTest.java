@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.agent.server.launcher;
+
+import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.subject.Subject;
+import org.eclipse.che.commons.subject.SubjectImpl;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link AgentReadinessMonitor}.
+ */
+public class AgentReadinessMonitorTest {
+
+    private AgentReadinessMonitor monitor;
+
+    @BeforeMethod
+    public void setUp() {
+        monitor = new AgentReadinessMonitor(2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        monitor.shutdown();
+        EnvironmentContext.reset();
+    }
+
+    @Test
+    public void shouldCompleteWithFalseWhenAgentIsNotReadyAfterTimeout() throws Exception {
+        final CompletableFuture<Boolean> readiness = monitor.watch("machine", "agent", () -> false, 10, 100);
+
+        assertFalse(monitor.await(readiness));
+    }
+
+    @Test
+    public void shouldNotDelayChecksOfOtherAgentsWhenCheckIsSlow() throws Exception {
+        final CountDownLatch slowCheckReleased = new CountDownLatch(1);
+        final CompletableFuture<Boolean> slow = monitor.watch("machine", "slow", () -> {
+            try {
+                return slowCheckReleased.await(10, SECONDS);
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }, 10, 10_000);
+
+        final CompletableFuture<Boolean> fast = monitor.watch("machine", "fast", () -> true, 10, 10_000);
+
+        assertTrue(fast.get(5, SECONDS));
+        assertFalse(slow.isDone());
+        slowCheckReleased.countDown();
+        assertTrue(monitor.await(slow));
+    }
+
+    @Test
+    public void shouldNotifyAllWaitersOfTheSameAgent() throws Exception {
+        final CompletableFuture<Boolean> first = monitor.watch("machine", "agent", () -> false, 10, 10_000);
+        final CompletableFuture<Boolean> second = monitor.watch("machine", "agent", () -> false, 10, 10_000);
+
+        assertTrue(monitor.notifyReady("machine", "agent"));
+
+        assertTrue(monitor.await(first));
+        assertTrue(monitor.await(second));
+        assertFalse(monitor.notifyReady("machine", "agent"));
+    }
+
+    @Test
+    public void shouldPropagateEnvironmentContextToChecks() throws Exception {
+        final Subject subject = new SubjectImpl("name", "id", "token", false);
+        EnvironmentContext.getCurrent().setSubject(subject);
+        final AtomicReference<Subject> checkSubject = new AtomicReference<>();
+
+        monitor.await(monitor.watch("machine", "agent", () -> {
+            checkSubject.set(EnvironmentContext.getCurrent().getSubject());
+            return true;
+        }, 10, 10_000));
+
+        assertEquals(checkSubject.get(), subject);
+    }
+
+    @Test(expectedExceptions = MachineException.class, expectedExceptionsMessageRegExp = "check failed")
+    public void shouldRethrowCheckException() throws Exception {
+        monitor.await(monitor.watch("machine", "agent", () -> {
+            throw new MachineException("check failed");
+        }, 10, 10_000));
+    }
+
+    @Test
+    public void shouldNotCheckUntilAgentIsStarted() throws Exception {
+        final CompletableFuture<Object> started = new CompletableFuture<>();
+        final AtomicInteger checks = new AtomicInteger();
+
+        final CompletableFuture<Boolean> readiness = monitor.watch("machine", "agent", started, () -> {
+            checks.incrementAndGet();
+            return true;
+        }, 10, 10_000);
+
+        SECONDS.sleep(1);
+        assertEquals(checks.get(), 0);
+        assertFalse(readiness.isDone());
+        started.complete(new Object());
+        assertTrue(monitor.await(readiness));
+        assertEquals(checks.get(), 1);
+    }
+
+    @Test(expectedExceptions = MachineException.class, expectedExceptionsMessageRegExp = "start failed")
+    public void shouldFailWaitingWhenAgentIsNotStarted() throws Exception {
+        final CompletableFuture<Object> started = new CompletableFuture<>();
+        final CompletableFuture<Boolean> readiness = monitor.watch("machine", "agent", started, () -> true, 10, 10_000);
+
+        started.completeExceptionally(new MachineException("start failed"));
+
+        monitor.await(readiness);
+    }
+
+    @Test
+    public void shouldLimitTheNumberOfConcurrentChecks() throws Exception {
+        final CountDownLatch checksReleased = new CountDownLatch(1);
+        final AtomicInteger concurrentChecks = new AtomicInteger();
+        final AtomicInteger maxConcurrentChecks = new AtomicInteger();
+        final AgentReadinessMonitor.ReadinessCheck check = () -> {
+            maxConcurrentChecks.accumulateAndGet(concurrentChecks.incrementAndGet(), Math::max);
+            try {
+                return checksReleased.await(200, MILLISECONDS);
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                concurrentChecks.decrementAndGet();
+            }
+        };
+        final List<CompletableFuture<Boolean>> readiness = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            readiness.add(monitor.watch("machine", "agent" + i, check, 10, 10_000));
+        }
+
+        SECONDS.sleep(1);
+        checksReleased.countDown();
+        for (CompletableFuture<Boolean> agentReadiness : readiness) {
+            assertTrue(monitor.await(agentReadiness));
+        }
+        assertEquals(maxConcurrentChecks.get(), 2);
+    }
+
+    @Test(expectedExceptions = MachineException.class)
+    public void shouldFailWaitingWhenMonitorIsStopped() throws Exception {
+        final CompletableFuture<Boolean> readiness = monitor.watch("machine", "agent", () -> false, 10, 10_000);
+
+        monitor.shutdown();
+
+        monitor.await(readiness);
+    }
+}
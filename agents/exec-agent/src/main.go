@@ -15,6 +15,7 @@ import (
 	"flag"
 	"fmt"
 	"log"
+	"net"
 	"net/http"
 	"net/url"
 	"os"
@@ -255,7 +256,13 @@ func main() {
 		WriteTimeout: 10 * time.Second,
 		ReadTimeout:  10 * time.Second,
 	}
-	log.Fatal(server.ListenAndServe())
+	listener, err := net.Listen("tcp", serverAddress)
+	if err != nil {
+		log.Fatal(err)
+	}
+	// master waits for this line to know that the agent is ready
+	fmt.Printf("Exec-agent server is listening on %s\n", listener.Addr())
+	log.Fatal(server.Serve(listener))
 }
 
 func dropChannelsWithExpiredToken(token string) {
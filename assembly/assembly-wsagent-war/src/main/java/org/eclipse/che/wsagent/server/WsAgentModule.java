@@ -25,6 +25,9 @@ import org.eclipse.che.api.core.jsonrpc.RequestTransmitter;
 import org.eclipse.che.api.core.jsonrpc.impl.WebSocketToJsonRpcDispatcher;
 import org.eclipse.che.api.core.jsonrpc.impl.WebSocketTransmitter;
 import org.eclipse.che.api.core.rest.ApiInfoService;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactoryProvider;
+import org.eclipse.che.api.core.rest.HttpJsonRequestMetricsService;
 import org.eclipse.che.api.core.rest.CoreRestModule;
 import org.eclipse.che.api.core.util.FileCleaner.FileCleanerModule;
 import org.eclipse.che.api.core.websocket.WebSocketMessageReceiver;
@@ -55,6 +58,8 @@ public class WsAgentModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(ApiInfoService.class);
+        bind(HttpJsonRequestFactory.class).toProvider(HttpJsonRequestFactoryProvider.class);
+        bind(HttpJsonRequestMetricsService.class);
 
         bind(PreferenceDao.class).to(org.eclipse.che.RemotePreferenceDao.class);
 
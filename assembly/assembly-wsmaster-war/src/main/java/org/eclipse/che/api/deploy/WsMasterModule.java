@@ -59,6 +59,9 @@ public class WsMasterModule extends AbstractModule {
         bind(org.eclipse.che.api.local.LocalDataMigrator.class).asEagerSingleton();
 
         bind(org.eclipse.che.api.core.rest.ApiInfoService.class);
+        bind(org.eclipse.che.api.core.rest.HttpJsonRequestFactory.class)
+                .toProvider(org.eclipse.che.api.core.rest.HttpJsonRequestFactoryProvider.class);
+        bind(org.eclipse.che.api.core.rest.HttpJsonRequestMetricsService.class);
         bind(org.eclipse.che.api.project.server.template.ProjectTemplateDescriptionLoader.class).asEagerSingleton();
         bind(org.eclipse.che.api.project.server.template.ProjectTemplateRegistry.class);
         bind(org.eclipse.che.api.project.server.template.ProjectTemplateService.class);
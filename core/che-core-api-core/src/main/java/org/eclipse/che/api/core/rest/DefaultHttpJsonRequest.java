@@ -220,9 +220,10 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
             }
             url = ub.build().toString();
         }
-        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
+        final HttpURLConnection conn = openConnection(url);
         conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
         conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        boolean responseConsumed = false;
         try {
             conn.setRequestMethod(method);
             //drop a hint for server side that we want to receive application/json
@@ -256,6 +257,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 try (Reader reader = new InputStreamReader(in)) {
                     str = CharStreams.toString(reader);
                 }
+                responseConsumed = true;
                 final String contentType = conn.getContentType();
                 if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
                     final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
@@ -285,14 +287,58 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 throw new IOException(conn.getResponseMessage());
             }
 
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
+            final DefaultHttpJsonResponse response = readResponse(conn, responseCode);
+            responseConsumed = true;
+            return response;
         } finally {
-            conn.disconnect();
+            releaseConnection(conn, responseConsumed);
         }
     }
 
+    /**
+     * Opens a connection to the given {@code url}.
+     *
+     * @param url
+     *         request url, query parameters are already applied
+     * @return opened connection
+     * @throws IOException
+     *         when any i/o error occurs
+     */
+    protected HttpURLConnection openConnection(String url) throws IOException {
+        return (HttpURLConnection)new URL(url).openConnection();
+    }
+
+    /**
+     * Reads the body of successful response.
+     *
+     * @param conn
+     *         the connection to read the response from
+     * @param responseCode
+     *         the code of the response
+     * @return response to this request
+     * @throws IOException
+     *         when any i/o error occurs while reading response
+     */
+    protected DefaultHttpJsonResponse readResponse(HttpURLConnection conn, int responseCode) throws IOException {
+        try (Reader reader = new InputStreamReader(conn.getInputStream())) {
+            return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
+        }
+    }
+
+    /**
+     * Releases the connection after the request is done,
+     * the default implementation closes the underlying socket.
+     *
+     * @param conn
+     *         the connection to release
+     * @param responseConsumed
+     *         whether the response body was read to the end and its stream
+     *         was closed, {@code false} when the request failed before that
+     */
+    protected void releaseConnection(HttpURLConnection conn, boolean responseConsumed) {
+        conn.disconnect();
+    }
+
     private String getAuthenticationToken() {
         final Subject subject = EnvironmentContext.getCurrent().getSubject();
         if (subject != null) {
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * Provides {@link HttpJsonRequestFactory} selected by {@code che.http.client.keep_alive} property,
+ * {@link KeepAliveHttpJsonRequestFactory} when the property is {@code true},
+ * {@link DefaultHttpJsonRequestFactory} otherwise.
+ *
+ * <p>To use it bind it in the module:
+ * <pre>
+ *     bind(HttpJsonRequestFactory.class).toProvider(HttpJsonRequestFactoryProvider.class);
+ * </pre>
+ */
+@Singleton
+public class HttpJsonRequestFactoryProvider implements Provider<HttpJsonRequestFactory> {
+
+    private final HttpJsonRequestFactory factory;
+
+    @Inject
+    public HttpJsonRequestFactoryProvider(@Named("che.http.client.keep_alive") boolean keepAlive,
+                                          Provider<KeepAliveHttpJsonRequestFactory> keepAliveFactoryProvider,
+                                          Provider<DefaultHttpJsonRequestFactory> defaultFactoryProvider) {
+        this.factory = keepAlive ? keepAliveFactoryProvider.get() : defaultFactoryProvider.get();
+    }
+
+    @Override
+    public HttpJsonRequestFactory get() {
+        return factory;
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import javax.inject.Singleton;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Collects per-host statistics of the requests performed by {@link KeepAliveHttpJsonRequest}.
+ *
+ * <p>The statistics are cumulative since the moment of the component creation,
+ * use {@link #getHostMetrics()} to get the snapshot of the current values.
+ */
+@Singleton
+public class HttpJsonRequestMetrics {
+
+    private final ConcurrentHashMap<String, HostMetrics> metrics = new ConcurrentHashMap<>();
+
+    /** Returns the snapshot of the statistics, the key is a {@code host:port} pair. */
+    public Map<String, HostMetrics> getHostMetrics() {
+        return metrics.entrySet()
+                      .stream()
+                      .collect(toMap(Map.Entry::getKey, entry -> new HostMetrics(entry.getValue())));
+    }
+
+    /** Called right before the request to the given {@code url} is sent. */
+    void requestStarted(String url) {
+        metricsOf(url).active.incrementAndGet();
+    }
+
+    /**
+     * Called after the request to the given {@code url} is done.
+     *
+     * @param url
+     *         request url
+     * @param latencyNanos
+     *         the time spent on the request including the response reading
+     * @param failed
+     *         whether the request failed with an i/o error or an error response
+     */
+    void requestFinished(String url, long latencyNanos, boolean failed) {
+        final HostMetrics host = metricsOf(url);
+        host.active.decrementAndGet();
+        host.requests.incrementAndGet();
+        host.totalLatencyNanos.addAndGet(latencyNanos);
+        host.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        if (failed) {
+            host.failures.incrementAndGet();
+        }
+    }
+
+    private HostMetrics metricsOf(String url) {
+        return metrics.computeIfAbsent(hostOf(url), host -> new HostMetrics());
+    }
+
+    /** Returns the {@code host:port} pair of the given {@code url} which is used as a key of the statistics. */
+    static String hostOf(String url) {
+        try {
+            final URI uri = URI.create(url);
+            return uri.getHost() + ':' + uri.getPort();
+        } catch (IllegalArgumentException x) {
+            return url;
+        }
+    }
+
+    /** Statistics of the requests to a single host. */
+    public static class HostMetrics {
+        private final AtomicLong active;
+        private final AtomicLong requests;
+        private final AtomicLong failures;
+        private final AtomicLong totalLatencyNanos;
+        private final AtomicLong maxLatencyNanos;
+
+        private HostMetrics() {
+            active = new AtomicLong();
+            requests = new AtomicLong();
+            failures = new AtomicLong();
+            totalLatencyNanos = new AtomicLong();
+            maxLatencyNanos = new AtomicLong();
+        }
+
+        private HostMetrics(HostMetrics metrics) {
+            active = new AtomicLong(metrics.active.get());
+            requests = new AtomicLong(metrics.requests.get());
+            failures = new AtomicLong(metrics.failures.get());
+            totalLatencyNanos = new AtomicLong(metrics.totalLatencyNanos.get());
+            maxLatencyNanos = new AtomicLong(metrics.maxLatencyNanos.get());
+        }
+
+        /** Returns the number of the requests which are in progress, equal to the number of busy connections. */
+        public long getActiveRequests() {
+            return active.get();
+        }
+
+        /** Returns the number of the finished requests. */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /** Returns the number of the failed requests. */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /** Returns the average request latency in milliseconds. */
+        public double getAverageLatencyMs() {
+            final long count = requests.get();
+            return count == 0 ? 0 : totalLatencyNanos.get() / 1_000_000D / count;
+        }
+
+        /** Returns the maximum request latency in milliseconds. */
+        public double getMaxLatencyMs() {
+            return maxLatencyNanos.get() / 1_000_000D;
+        }
+
+        @Override
+        public String toString() {
+            return "HostMetrics{" +
+                   "active=" + active +
+                   ", requests=" + requests +
+                   ", failures=" + failures +
+                   ", averageLatencyMs=" + getAverageLatencyMs() +
+                   ", maxLatencyMs=" + getMaxLatencyMs() +
+                   '}';
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.HttpJsonRequestMetrics.HostMetrics;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Exposes per-host statistics of the requests performed by {@link KeepAliveHttpJsonRequestFactory}.
+ *
+ * <p>Statistics are returned as a flat map, the key is the {@code host:port} pair
+ * followed by the name of the value, e.g. {@code localhost:8080.requests}.
+ */
+@Path("/http-client")
+@Singleton
+public class HttpJsonRequestMetricsService {
+
+    private final HttpJsonRequestMetrics metrics;
+
+    @Inject
+    public HttpJsonRequestMetricsService(HttpJsonRequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GET
+    @Path("/metrics")
+    @Produces(APPLICATION_JSON)
+    public Map<String, String> getMetrics() {
+        final Map<String, String> result = new TreeMap<>();
+        for (Map.Entry<String, HostMetrics> entry : metrics.getHostMetrics().entrySet()) {
+            final String host = entry.getKey();
+            final HostMetrics hostMetrics = entry.getValue();
+            result.put(host + ".active_requests", Long.toString(hostMetrics.getActiveRequests()));
+            result.put(host + ".requests", Long.toString(hostMetrics.getRequests()));
+            result.put(host + ".failures", Long.toString(hostMetrics.getFailures()));
+            result.put(host + ".average_latency_ms", Double.toString(hostMetrics.getAverageLatencyMs()));
+            result.put(host + ".max_latency_ms", Double.toString(hostMetrics.getMaxLatencyMs()));
+        }
+        return result;
+    }
+}
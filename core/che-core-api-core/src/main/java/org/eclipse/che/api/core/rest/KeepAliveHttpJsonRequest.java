@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.commons.lang.Pair;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * {@link DefaultHttpJsonRequest} which reuses connections.
+ *
+ * <p>Connections are not closed after the request is done,
+ * response streams are fully read and closed instead, which returns
+ * the underlying socket to the JDK keep-alive connection cache,
+ * so the subsequent request to the same host doesn't pay for connection setup.
+ * The number of connections to the host is limited by the given permits, a request waits
+ * for a free connection up to its timeout. JSON response body is decoded while it is read,
+ * see {@link StreamingHttpJsonResponse}.
+ *
+ * @see KeepAliveHttpJsonRequestFactory
+ */
+public class KeepAliveHttpJsonRequest extends DefaultHttpJsonRequest {
+
+    private static final int DEFAULT_TIMEOUT = 60000;
+
+    private final HttpJsonRequestMetrics metrics;
+    private final Semaphore              connections;
+
+    protected KeepAliveHttpJsonRequest(String url, HttpJsonRequestMetrics metrics, Semaphore connections) {
+        super(url);
+        this.metrics = metrics;
+        this.connections = connections;
+    }
+
+    protected KeepAliveHttpJsonRequest(Link link, HttpJsonRequestMetrics metrics, Semaphore connections) {
+        super(link);
+        this.metrics = metrics;
+        this.connections = connections;
+    }
+
+    @Override
+    protected DefaultHttpJsonResponse doRequest(int timeout,
+                                                String url,
+                                                String method,
+                                                Object body,
+                                                List<Pair<String, ?>> parameters,
+                                                String authorizationHeaderValue) throws IOException,
+                                                                                        ServerException,
+                                                                                        ForbiddenException,
+                                                                                        NotFoundException,
+                                                                                        UnauthorizedException,
+                                                                                        ConflictException,
+                                                                                        BadRequestException {
+        acquireConnection(url, timeout > 0 ? timeout : DEFAULT_TIMEOUT);
+        metrics.requestStarted(url);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final DefaultHttpJsonResponse response = super.doRequest(timeout,
+                                                                     url,
+                                                                     method,
+                                                                     body,
+                                                                     parameters,
+                                                                     authorizationHeaderValue);
+            failed = false;
+            return response;
+        } finally {
+            metrics.requestFinished(url, System.nanoTime() - start, failed);
+            connections.release();
+        }
+    }
+
+    private void acquireConnection(String url, int timeoutMs) throws IOException {
+        try {
+            if (!connections.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for a free connection to " + HttpJsonRequestMetrics.hostOf(url));
+            }
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free connection to " + HttpJsonRequestMetrics.hostOf(url));
+        }
+    }
+
+    @Override
+    protected HttpURLConnection openConnection(String url) throws IOException {
+        final HttpURLConnection conn = super.openConnection(url);
+        conn.setRequestProperty("Connection", "keep-alive");
+        return conn;
+    }
+
+    @Override
+    protected DefaultHttpJsonResponse readResponse(HttpURLConnection conn, int responseCode) throws IOException {
+        final String contentType = conn.getContentType();
+        try (InputStream in = conn.getInputStream()) {
+            if (contentType == null || !contentType.startsWith(APPLICATION_JSON)) {
+                try (Reader reader = new InputStreamReader(in, UTF_8)) {
+                    return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
+                }
+            }
+            final StreamingHttpJsonResponse response = StreamingHttpJsonResponse.read(in, responseCode);
+            // the parser stops at the end of the value, the rest must be read for the connection to be reused
+            ByteStreams.exhaust(in);
+            return response;
+        }
+    }
+
+    @Override
+    protected void releaseConnection(HttpURLConnection conn, boolean responseConsumed) {
+        // Fully read and closed response stream returns the socket to the keep-alive cache,
+        // the socket with unread response can't be reused so it is closed
+        if (!responseConsumed) {
+            conn.disconnect();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeepAliveHttpJsonRequest{" +
+               "url='" + getUrl() + '\'' +
+               '}';
+    }
+}
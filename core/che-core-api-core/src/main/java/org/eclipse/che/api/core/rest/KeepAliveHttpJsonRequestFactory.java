@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Creates {@link KeepAliveHttpJsonRequest} instances.
+ *
+ * <p>The factory is selected by {@code che.http.client.keep_alive} property,
+ * see {@link HttpJsonRequestFactoryProvider}.
+ *
+ * <p>The number of connections opened by the requests of this factory to a single host
+ * is limited by {@code che.http.client.max_connections_per_host} property, a request
+ * waits for a free connection up to its timeout. Released connections are kept
+ * by the JDK keep-alive cache, this factory doesn't change its JVM-wide settings.
+ * Per-host statistics are available from {@link HttpJsonRequestMetrics}.
+ */
+@Singleton
+public class KeepAliveHttpJsonRequestFactory implements HttpJsonRequestFactory {
+
+    private final HttpJsonRequestMetrics                metrics;
+    private final int                                   maxConnectionsPerHost;
+    private final ConcurrentHashMap<String, Semaphore> connections;
+
+    @Inject
+    public KeepAliveHttpJsonRequestFactory(HttpJsonRequestMetrics metrics,
+                                           @Named("che.http.client.max_connections_per_host") int maxConnectionsPerHost) {
+        checkArgument(maxConnectionsPerHost > 0, "The number of connections per host must be positive");
+        this.metrics = metrics;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.connections = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public HttpJsonRequest fromUrl(@NotNull String url) {
+        return new KeepAliveHttpJsonRequest(url, metrics, connectionsOf(url));
+    }
+
+    @Override
+    public HttpJsonRequest fromLink(@NotNull Link link) {
+        return new KeepAliveHttpJsonRequest(link, metrics, connectionsOf(link.getHref()));
+    }
+
+    /** Returns the statistics of the requests created by this factory. */
+    public HttpJsonRequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    private Semaphore connectionsOf(String url) {
+        return connections.computeIfAbsent(HttpJsonRequestMetrics.hostOf(url),
+                                           host -> new Semaphore(maxConnectionsPerHost, true));
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import org.eclipse.che.commons.json.JsonHelper;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link HttpJsonResponse} which decodes JSON body while it is read from the connection.
+ *
+ * <p>The body is parsed into a JSON tree straight from the response stream,
+ * neither the raw bytes nor the string representation of the body is kept,
+ * DTOs are created from the tree when requested. {@link #asString()}
+ * returns the compact serialization of the tree.
+ */
+public class StreamingHttpJsonResponse extends DefaultHttpJsonResponse {
+
+    private static final Type STRING_MAP_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+    private final JsonElement body;
+
+    protected StreamingHttpJsonResponse(JsonElement body, int responseCode) {
+        super(null, responseCode);
+        this.body = requireNonNull(body, "Required non-null response body");
+    }
+
+    /**
+     * Reads JSON response body from the given stream.
+     *
+     * @param in
+     *         the stream to read the body from, it is not closed by this method
+     * @param responseCode
+     *         the code of the response
+     * @return response with the decoded body
+     * @throws IOException
+     *         when any i/o error occurs or the body is not a valid JSON
+     */
+    static StreamingHttpJsonResponse read(InputStream in, int responseCode) throws IOException {
+        try {
+            return new StreamingHttpJsonResponse(new JsonParser().parse(new InputStreamReader(in, UTF_8)), responseCode);
+        } catch (JsonParseException x) {
+            if (x.getCause() instanceof IOException) {
+                throw (IOException)x.getCause();
+            }
+            throw new IOException("Response body is not a valid JSON: " + x.getLocalizedMessage(), x);
+        }
+    }
+
+    @Override
+    public String asString() {
+        return body.isJsonNull() ? "" : body.toString();
+    }
+
+    @Override
+    public <T> T asDto(Class<T> dtoInterface) {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        return DtoFactory.getInstance().createDtoFromJson(body, dtoInterface);
+    }
+
+    @Override
+    public <T> List<T> asList(Class<T> dtoInterface) {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        if (!body.isJsonArray()) {
+            throw new IllegalArgumentException("Response body is not a JSON array");
+        }
+        final List<T> result = new ArrayList<>(body.getAsJsonArray().size());
+        for (JsonElement element : body.getAsJsonArray()) {
+            result.add(DtoFactory.getInstance().createDtoFromJson(element, dtoInterface));
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> asProperties() throws IOException {
+        return as(Map.class, STRING_MAP_TYPE);
+    }
+
+    @Override
+    public <T> T as(Class<T> clazz, Type genericType) throws IOException {
+        requireNonNull(clazz, "Required non-null class");
+        try {
+            return JsonHelper.fromJson(body.toString(), clazz, genericType);
+        } catch (org.eclipse.che.commons.json.JsonParseException jsonEx) {
+            throw new IOException(jsonEx.getLocalizedMessage(), jsonEx);
+        }
+    }
+}
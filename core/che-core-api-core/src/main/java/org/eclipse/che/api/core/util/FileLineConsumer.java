@@ -11,30 +11,63 @@
 package org.eclipse.che.api.core.util;
 
 import org.eclipse.che.api.core.util.lineconsumer.ConsumerAlreadyClosedException;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.slf4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Consumes logs and writes them into file.
  * <br/>
- * This class is not thread safe.
+ * By default each line is written into file right away.
+ * If flusher is provided, lines are buffered and written into file when buffer is full, on {@link #flush()},
+ * on closing and not later than the given flush delay after they are consumed,
+ * so file stays up to date while producer is silent.
+ * <br/>
+ * This class is not designed for writing from multiple threads.
  * Also see multithreaded implementation {@link org.eclipse.che.api.core.util.lineconsumer.ConcurrentFileLineConsumer}
  *
  * @author andrew00x
  * @author Mykola Morhun
  */
 public class FileLineConsumer implements LineConsumer {
-    private final File   file;
-    private final Writer writer;
+    private static final Logger LOG = getLogger(FileLineConsumer.class);
+
+    private final File                     file;
+    private final Writer                   writer;
+    private final ScheduledExecutorService flusher;
+    private final long                     flushDelayMs;
 
     private boolean isOpen;
+    private boolean isFlushScheduled;
 
     public FileLineConsumer(File file) throws IOException {
+        this(file, null, 0);
+    }
+
+    /**
+     * Creates consumer which writes buffered lines into file not later than {@code flushDelayMs} after they are consumed.
+     *
+     * @param file
+     *         file to write lines into
+     * @param flusher
+     *         executor which writes buffered lines into file, {@code null} if each line should be written right away
+     * @param flushDelayMs
+     *         max delay in milliseconds between consuming of a line and writing it into file
+     */
+    public FileLineConsumer(File file, @Nullable ScheduledExecutorService flusher, long flushDelayMs) throws IOException {
         this.file = file;
+        this.flusher = flusher;
+        this.flushDelayMs = flushDelayMs;
         writer = Files.newBufferedWriter(file.toPath(), Charset.defaultCharset());
         isOpen = true;
     }
@@ -44,14 +77,24 @@ public class FileLineConsumer implements LineConsumer {
     }
 
     @Override
-    public void writeLine(String line) throws IOException {
+    public synchronized void writeLine(String line) throws IOException {
         if (isOpen) {
             try {
                 if (line != null) {
                     writer.write(line);
                 }
                 writer.write('\n');
-                writer.flush();
+                if (flusher == null) {
+                    writer.flush();
+                } else if (!isFlushScheduled) {
+                    try {
+                        flusher.schedule(this::scheduledFlush, flushDelayMs, TimeUnit.MILLISECONDS);
+                        isFlushScheduled = true;
+                    } catch (RejectedExecutionException e) {
+                        // flusher is shut down, lines are written into file right away
+                        writer.flush();
+                    }
+                }
             } catch (IOException e) {
                 if ("Stream closed".equals(e.getMessage())) {
                     throw new ConsumerAlreadyClosedException(e.getMessage());
@@ -61,11 +104,27 @@ public class FileLineConsumer implements LineConsumer {
         }
     }
 
+    /** Writes buffered lines into file. */
+    public synchronized void flush() throws IOException {
+        if (isOpen) {
+            writer.flush();
+        }
+    }
+
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
         if (isOpen) {
             isOpen = false;
             writer.close();
         }
     }
+
+    private synchronized void scheduledFlush() {
+        isFlushScheduled = false;
+        try {
+            flush();
+        } catch (IOException e) {
+            LOG.error(String.format("Unable to write logs into file %s. %s", file, e.getMessage()), e);
+        }
+    }
 }
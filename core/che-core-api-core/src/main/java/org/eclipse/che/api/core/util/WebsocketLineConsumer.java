@@ -10,40 +10,115 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
+import org.eclipse.che.commons.annotation.Nullable;
 import org.everrest.websockets.WSConnectionContext;
 import org.everrest.websockets.message.ChannelBroadcastMessage;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Line consumer that send messages to specified websocket channel
+ * <br/>
+ * If sender is provided, lines are sent in batches: lines consumed within the latency budget
+ * are joined with line separator and sent as a single message, in the order they were consumed.
+ * Batch is sent right away when it reaches the max size and on closing.
  *
  * @author Alexander Garagatyi
  */
 public class WebsocketLineConsumer implements LineConsumer {
     private static final Logger LOG = getLogger(WebsocketLineConsumer.class);
-    private final String channel;
+
+    /** Max number of lines sent in a single message. */
+    static final int MAX_BATCH_LINES = 500;
+
+    private final String                   channel;
+    private final ScheduledExecutorService sender;
+    private final long                     latencyBudgetMs;
+    private final StringBuilder            batch;
+
+    private int     batchLines;
+    private boolean isSendScheduled;
 
     public WebsocketLineConsumer(String channel) {
+        this(channel, null, 0);
+    }
+
+    /**
+     * Creates consumer which sends lines in batches.
+     *
+     * @param channel
+     *         websocket channel to send lines to
+     * @param sender
+     *         executor which sends batches of lines, {@code null} if each line should be sent right away
+     * @param latencyBudgetMs
+     *         max delay in milliseconds between consuming of a line and sending it
+     */
+    public WebsocketLineConsumer(String channel, @Nullable ScheduledExecutorService sender, long latencyBudgetMs) {
         this.channel = channel;
+        this.sender = sender;
+        this.latencyBudgetMs = latencyBudgetMs;
+        this.batch = new StringBuilder();
     }
 
     @Override
     public void writeLine(String line) throws IOException {
+        if (sender == null) {
+            send(line);
+            return;
+        }
+        synchronized (batch) {
+            if (batchLines > 0) {
+                batch.append('\n');
+            }
+            if (line != null) {
+                batch.append(line);
+            }
+            if (++batchLines >= MAX_BATCH_LINES) {
+                sendBatch();
+            } else if (!isSendScheduled) {
+                try {
+                    sender.schedule(this::sendBatch, latencyBudgetMs, TimeUnit.MILLISECONDS);
+                    isSendScheduled = true;
+                } catch (RejectedExecutionException e) {
+                    sendBatch();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sender != null) {
+            sendBatch();
+        }
+    }
+
+    private void sendBatch() {
+        // batch is sent under the lock, so the following lines can't be sent before it
+        synchronized (batch) {
+            isSendScheduled = false;
+            if (batchLines > 0) {
+                send(batch.toString());
+                batch.setLength(0);
+                batchLines = 0;
+            }
+        }
+    }
+
+    private void send(String message) {
         final ChannelBroadcastMessage bm = new ChannelBroadcastMessage();
         bm.setChannel(channel);
-        bm.setBody(line);
+        bm.setBody(message);
         try {
             WSConnectionContext.sendMessage(bm);
         } catch (Exception e) {
             LOG.error("A problem occurred while sending websocket message", e);
         }
     }
-
-    @Override
-    public void close() throws IOException {
-    }
 }
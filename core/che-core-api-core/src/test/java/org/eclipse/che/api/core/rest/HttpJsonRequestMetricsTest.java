@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.HttpJsonRequestMetrics.HostMetrics;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests of {@link HttpJsonRequestMetrics}.
+ */
+public class HttpJsonRequestMetricsTest {
+
+    private HttpJsonRequestMetrics metrics;
+
+    @BeforeMethod
+    public void setUp() {
+        metrics = new HttpJsonRequestMetrics();
+    }
+
+    @Test
+    public void shouldCountActiveRequests() {
+        metrics.requestStarted("http://host1:8080/api/workspace");
+        metrics.requestStarted("http://host1:8080/api/user");
+
+        assertEquals(metrics.getHostMetrics().get("host1:8080").getActiveRequests(), 2);
+
+        metrics.requestFinished("http://host1:8080/api/user", MILLISECONDS.toNanos(10), false);
+
+        final HostMetrics host = metrics.getHostMetrics().get("host1:8080");
+        assertEquals(host.getActiveRequests(), 1);
+        assertEquals(host.getRequests(), 1);
+    }
+
+    @Test
+    public void shouldCollectLatencyAndFailures() {
+        metrics.requestStarted("http://host1:8080/api");
+        metrics.requestFinished("http://host1:8080/api", MILLISECONDS.toNanos(10), false);
+        metrics.requestStarted("http://host1:8080/api");
+        metrics.requestFinished("http://host1:8080/api", MILLISECONDS.toNanos(30), true);
+
+        final HostMetrics host = metrics.getHostMetrics().get("host1:8080");
+        assertEquals(host.getRequests(), 2);
+        assertEquals(host.getFailures(), 1);
+        assertEquals(host.getAverageLatencyMs(), 20D);
+        assertEquals(host.getMaxLatencyMs(), 30D);
+    }
+
+    @Test
+    public void shouldSeparateMetricsByHostAndPort() {
+        metrics.requestStarted("http://host1:8080/api");
+        metrics.requestFinished("http://host1:8080/api", 1, false);
+        metrics.requestStarted("http://host1:9090/api");
+        metrics.requestFinished("http://host1:9090/api", 1, true);
+        metrics.requestStarted("http://host2:8080/api");
+        metrics.requestFinished("http://host2:8080/api", 1, false);
+
+        final Map<String, HostMetrics> hosts = metrics.getHostMetrics();
+        assertEquals(hosts.size(), 3);
+        assertEquals(hosts.get("host1:9090").getFailures(), 1);
+        assertEquals(hosts.get("host2:8080").getFailures(), 0);
+    }
+
+    @Test
+    public void shouldReturnSnapshotOfMetrics() {
+        metrics.requestStarted("http://host1:8080/api");
+        final HostMetrics snapshot = metrics.getHostMetrics().get("host1:8080");
+
+        metrics.requestFinished("http://host1:8080/api", 1, false);
+
+        assertEquals(snapshot.getActiveRequests(), 1);
+        assertEquals(snapshot.getRequests(), 0);
+    }
+}
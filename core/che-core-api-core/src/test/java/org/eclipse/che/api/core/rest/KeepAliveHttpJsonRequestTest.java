@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.rest.HttpJsonRequestMetrics.HostMetrics;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.everrest.assured.EverrestJetty;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of {@link KeepAliveHttpJsonRequest}.
+ */
+@Listeners(EverrestJetty.class)
+public class KeepAliveHttpJsonRequestTest {
+
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final ApiExceptionMapper EXCEPTION_MAPPER = new ApiExceptionMapper();
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final TestService        TEST_SERVICE     = new TestService();
+
+    private HttpJsonRequestMetrics metrics;
+    private Semaphore              connections;
+
+    @BeforeMethod
+    public void setUp() {
+        metrics = new HttpJsonRequestMetrics();
+        connections = new Semaphore(1);
+    }
+
+    @Test
+    public void shouldReadJsonResponseAndKeepConnection(ITestContext ctx) throws Exception {
+        final RecordingRequest request = new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections);
+
+        final HttpJsonResponse response = request.useGetMethod().request();
+
+        assertEquals(response.asString(), TestService.JSON_OBJECT);
+        assertTrue(response instanceof StreamingHttpJsonResponse);
+        assertTrue(request.released);
+        assertTrue(request.responseConsumed);
+    }
+
+    @Test
+    public void shouldDecodeListResponse(ITestContext ctx) throws Exception {
+        final List<Link> links = singletonList(createLink("POST", "http://localhost:8080", "rel"));
+
+        final List<Link> result = new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections)
+                .usePostMethod()
+                .setBody(links)
+                .request()
+                .asList(Link.class);
+
+        assertEquals(result, links);
+    }
+
+    @Test
+    public void shouldKeepConnectionWhenErrorResponseIsRead(ITestContext ctx) throws Exception {
+        final RecordingRequest request = new RecordingRequest(getUrl(ctx) + "/404/response-code-test", metrics, connections);
+
+        try {
+            request.useGetMethod().request();
+            fail("NotFoundException expected");
+        } catch (NotFoundException ignored) {
+        }
+
+        assertTrue(request.released);
+        assertTrue(request.responseConsumed);
+    }
+
+    @Test
+    public void shouldDisconnectWhenResponseIsNotRead(ITestContext ctx) throws Exception {
+        final RecordingRequest request = new RecordingRequest(getUrl(ctx) + "/text-plain", metrics, connections);
+
+        try {
+            request.useGetMethod().request();
+            fail("IOException expected");
+        } catch (IOException ignored) {
+        }
+
+        assertTrue(request.released);
+        assertFalse(request.responseConsumed);
+    }
+
+    @Test
+    public void shouldCollectPerHostMetrics(ITestContext ctx) throws Exception {
+        new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections).useGetMethod().request();
+        new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections).useGetMethod().request();
+        try {
+            new RecordingRequest(getUrl(ctx) + "/404/response-code-test", metrics, connections).useGetMethod().request();
+        } catch (NotFoundException ignored) {
+        }
+
+        final HostMetrics host = metrics.getHostMetrics().get("localhost:" + ctx.getAttribute(EverrestJetty.JETTY_PORT));
+        assertEquals(host.getRequests(), 3);
+        assertEquals(host.getFailures(), 1);
+        assertEquals(host.getActiveRequests(), 0);
+    }
+
+    @Test
+    public void shouldReleaseConnectionPermitAfterRequest(ITestContext ctx) throws Exception {
+        new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections).useGetMethod().request();
+        try {
+            new RecordingRequest(getUrl(ctx) + "/404/response-code-test", metrics, connections).useGetMethod().request();
+        } catch (NotFoundException ignored) {
+        }
+
+        assertEquals(connections.availablePermits(), 1);
+    }
+
+    @Test(expectedExceptions = IOException.class,
+          expectedExceptionsMessageRegExp = "Timed out waiting for a free connection to .*")
+    public void shouldFailWhenNoConnectionIsFreedWithinTimeout(ITestContext ctx) throws Exception {
+        connections.acquire();
+
+        new RecordingRequest(getUrl(ctx) + "/application-json", metrics, connections).setTimeout(100)
+                                                                                   .useGetMethod()
+                                                                                   .request();
+    }
+
+    private String getUrl(ITestContext ctx) {
+        return "http://localhost:" + ctx.getAttribute(EverrestJetty.JETTY_PORT) + "/rest/test";
+    }
+
+    private static class RecordingRequest extends KeepAliveHttpJsonRequest {
+        boolean released;
+        boolean responseConsumed;
+
+        RecordingRequest(String url, HttpJsonRequestMetrics metrics, Semaphore connections) {
+            super(url, metrics, connections);
+        }
+
+        @Override
+        protected void releaseConnection(HttpURLConnection conn, boolean responseConsumed) {
+            this.released = true;
+            this.responseConsumed = responseConsumed;
+            super.releaseConnection(conn, responseConsumed);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.reflect.TypeToken;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.eclipse.che.dto.server.JsonStringMapImpl;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests of {@link StreamingHttpJsonResponse}.
+ */
+public class StreamingHttpJsonResponseTest {
+
+    @Test
+    public void shouldReturnCompactJsonIfStringIsRequested() throws Exception {
+        final StreamingHttpJsonResponse response = responseOf("{ \"key\" : \"value ąęś\" }");
+
+        assertEquals(response.asString(), "{\"key\":\"value ąęś\"}");
+    }
+
+    @Test
+    public void shouldReturnEmptyStringIfBodyIsEmpty() throws Exception {
+        assertEquals(responseOf("").asString(), "");
+    }
+
+    @Test
+    public void shouldReturnJsonSerializableInstanceIfItWasRequested() throws Exception {
+        final Link testLink = createLink("POST", "http://localhost:8080", "rel");
+        final StreamingHttpJsonResponse response = responseOf(DtoFactory.getInstance().toJson(testLink));
+
+        assertEquals(response.asDto(Link.class), testLink);
+    }
+
+    @Test
+    public void shouldDeserializeResponseToGivenType() throws Exception {
+        final String responseBody = DtoFactory.getInstance().toJson(new JsonArrayImpl<>(singletonList("element")));
+        final StreamingHttpJsonResponse response = responseOf(responseBody);
+
+        assertEquals(response.as(Set.class, new TypeToken<Set<String>>() { }.getType()), singleton("element"));
+    }
+
+    @Test
+    public void shouldBeAbleToRequestProperties() throws Exception {
+        final String responseBody = DtoFactory.getInstance().toJson(new JsonStringMapImpl<>(singletonMap("key", "value")));
+        final StreamingHttpJsonResponse response = responseOf(responseBody);
+
+        assertEquals(response.asProperties(), singletonMap("key", "value"));
+    }
+
+    @Test
+    public void shouldBeAbleToRequestListOfJsonSerializableElements() throws Exception {
+        final Link testLink = createLink("POST", "http://localhost:8080", "rel");
+        final String responseBody = DtoFactory.getInstance().toJson(new JsonArrayImpl<>(singletonList(testLink)));
+        final StreamingHttpJsonResponse response = responseOf(responseBody);
+
+        assertEquals(response.asList(Link.class), singletonList(testLink));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowIOExceptionWhenReadingNotValidJsonContent() throws Exception {
+        responseOf("{not valid json");
+    }
+
+    private static StreamingHttpJsonResponse responseOf(String body) throws IOException {
+        return StreamingHttpJsonResponse.read(new ByteArrayInputStream(body.getBytes(UTF_8)), 200);
+    }
+}
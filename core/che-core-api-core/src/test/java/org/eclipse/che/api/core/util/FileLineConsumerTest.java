@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.slf4j.Logger;
@@ -22,10 +23,13 @@ import java.io.File;
 import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -37,7 +41,9 @@ public class FileLineConsumerTest {
     private static final Logger LOG = getLogger(FileLineConsumerTest.class);
 
     @Mock
-    private Writer writer;
+    private Writer                   writer;
+    @Mock
+    private ScheduledExecutorService flusher;
 
     private FileLineConsumer fileLineConsumer;
 
@@ -82,6 +88,34 @@ public class FileLineConsumerTest {
         verify(writer, never()).write(anyString());
     }
 
+    @Test
+    public void shouldFlushEachLineWhenFlusherIsNotProvided() throws Exception {
+        // when
+        fileLineConsumer.writeLine("first");
+        fileLineConsumer.writeLine("second");
+
+        // then
+        verify(writer, times(2)).flush();
+    }
+
+    @Test
+    public void shouldFlushBufferedLinesAfterFlushDelay() throws Exception {
+        // given
+        final FileLineConsumer consumer = new FileLineConsumer(file, flusher, 500);
+        injectWriterMock(consumer, writer);
+
+        // when
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+
+        // then
+        final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(flusher).schedule(flushCaptor.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        verify(writer, never()).flush();
+        flushCaptor.getValue().run();
+        verify(writer).flush();
+    }
+
     /**
      * Inject Writer mock into FileLineConsumer class.
      * This allow to test the FileLineConsumer operations.
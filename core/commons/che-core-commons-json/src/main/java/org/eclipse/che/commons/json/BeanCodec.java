@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import org.everrest.core.impl.provider.json.ArrayValue;
+import org.everrest.core.impl.provider.json.BooleanValue;
+import org.everrest.core.impl.provider.json.DoubleValue;
+import org.everrest.core.impl.provider.json.JsonException;
+import org.everrest.core.impl.provider.json.JsonGenerator;
+import org.everrest.core.impl.provider.json.JsonValue;
+import org.everrest.core.impl.provider.json.LongValue;
+import org.everrest.core.impl.provider.json.NullValue;
+import org.everrest.core.impl.provider.json.ObjectBuilder;
+import org.everrest.core.impl.provider.json.ObjectValue;
+import org.everrest.core.impl.provider.json.StringValue;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Serializes/deserializes Java beans to/from {@link JsonValue} without reflection.
+ *
+ * <p>Codec of a class is built once, on the first use of the class: bean properties are resolved
+ * the same way as {@link JsonGenerator} and {@link ObjectBuilder} do it, i.e. public getters
+ * and setters excluding {@code getClass} and transient fields, and bound to method handles.
+ * Next calls invoke the bound method handles instead of looking up and invoking methods reflectively.
+ *
+ * <p>Values of strings, numbers, booleans, characters, enums, nested beans, collections and maps of them
+ * are converted by codecs, other values are converted by everrest {@link JsonGenerator} and {@link ObjectBuilder}.
+ * Classes which can't be handled by codec, e.g. not public classes, are always handled by everrest,
+ * as well as deserialization of classes with properties of the other types.
+ */
+final class BeanCodec {
+    private static final ConcurrentHashMap<Class<?>, Optional<BeanCodec>> CODECS = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Returns codec of the given class or {@code null} if the class should be handled by everrest.
+     */
+    static BeanCodec forClass(Class<?> klass) {
+        Optional<BeanCodec> codec = CODECS.get(klass);
+        if (codec == null) {
+            // codec may be created twice by concurrent calls, it is cheaper than locking on each call
+            codec = Optional.ofNullable(isBean(klass) ? create(klass) : null);
+            CODECS.putIfAbsent(klass, codec);
+        }
+        return codec.orElse(null);
+    }
+
+    /**
+     * Converts given object to json value, uses codecs whenever it is possible.
+     */
+    @SuppressWarnings("unchecked")
+    static JsonValue toJsonValue(Object value) throws JsonException {
+        if (value == null) {
+            return new NullValue();
+        }
+        if (value instanceof String) {
+            return new StringValue((String)value);
+        }
+        if (value instanceof Boolean) {
+            return new BooleanValue((Boolean)value);
+        }
+        if (value instanceof Float || value instanceof Double) {
+            return new DoubleValue(((Number)value).doubleValue());
+        }
+        if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+            return new LongValue(((Number)value).longValue());
+        }
+        if (value instanceof Character) {
+            return new StringValue(value.toString());
+        }
+        if (value instanceof Enum) {
+            return new StringValue(((Enum<?>)value).name());
+        }
+        if (value instanceof Collection) {
+            final JsonValue array = new ArrayValue();
+            for (Object element : (Collection<?>)value) {
+                array.addElement(toJsonValue(element));
+            }
+            return array;
+        }
+        if (value instanceof Map) {
+            final JsonValue object = new ObjectValue();
+            for (Map.Entry<String, ?> entry : ((Map<String, ?>)value).entrySet()) {
+                object.addElement(entry.getKey(), toJsonValue(entry.getValue()));
+            }
+            return object;
+        }
+        if (value.getClass().isArray()) {
+            return JsonGenerator.createJsonArray(value);
+        }
+        final BeanCodec codec = forClass(value.getClass());
+        if (codec != null) {
+            return codec.toJson(value);
+        }
+        // everrest converts single values of the other types only as elements of arrays
+        return JsonGenerator.createJsonArray(singletonList(value)).getElements().next();
+    }
+
+    /**
+     * Converts given json value to object of the given class, uses codecs whenever it is possible.
+     */
+    @SuppressWarnings("unchecked")
+    static Object fromJsonValue(Class<?> klass, Type genericType, JsonValue value) throws JsonException {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (klass == String.class) {
+            return value.getStringValue();
+        }
+        if (klass == boolean.class || klass == Boolean.class) {
+            return value.getBooleanValue();
+        }
+        if (klass == int.class || klass == Integer.class) {
+            return value.getIntValue();
+        }
+        if (klass == long.class || klass == Long.class) {
+            return value.getLongValue();
+        }
+        if (klass == double.class || klass == Double.class) {
+            return value.getDoubleValue();
+        }
+        if (klass == float.class || klass == Float.class) {
+            return value.getFloatValue();
+        }
+        if (klass == short.class || klass == Short.class) {
+            return value.getShortValue();
+        }
+        if (klass == byte.class || klass == Byte.class) {
+            return value.getByteValue();
+        }
+        if (klass == char.class || klass == Character.class) {
+            final String string = value.getStringValue();
+            return string.isEmpty() ? null : string.charAt(0);
+        }
+        if (klass.isEnum()) {
+            return Enum.valueOf(klass.asSubclass(Enum.class), value.getStringValue());
+        }
+        if (klass.isArray()) {
+            return ObjectBuilder.createArray(klass, value);
+        }
+        if (Collection.class.isAssignableFrom(klass)) {
+            final Class collectionClass = klass;
+            return ObjectBuilder.createCollection(collectionClass, genericType, value);
+        }
+        if (Map.class.isAssignableFrom(klass)) {
+            final Class mapClass = klass;
+            return ObjectBuilder.createObject(mapClass, genericType, value);
+        }
+        final BeanCodec codec = forClass(klass);
+        if (codec != null && codec.canCreate()) {
+            return codec.fromJson(value);
+        }
+        return ObjectBuilder.createObject(klass, value);
+    }
+
+    private final List<Getter> getters;
+    private final List<Setter> setters;
+    private final MethodHandle constructor;
+
+    private BeanCodec(List<Getter> getters, List<Setter> setters, MethodHandle constructor) {
+        this.getters = getters;
+        this.setters = setters;
+        this.constructor = constructor;
+    }
+
+    /** Serializes given bean to json object. */
+    JsonValue toJson(Object bean) throws JsonException {
+        final JsonValue object = new ObjectValue();
+        for (Getter getter : getters) {
+            final Object value;
+            try {
+                value = getter.handle.invokeExact(bean);
+            } catch (Throwable x) {
+                throw new JsonException(x.getMessage(), x);
+            }
+            object.addElement(getter.key, toJsonValue(value));
+        }
+        return object;
+    }
+
+    /** Deserializes bean from given json object. */
+    Object fromJson(JsonValue object) throws JsonException {
+        final Object bean;
+        try {
+            bean = constructor.invoke();
+        } catch (Throwable x) {
+            throw new JsonException(x.getMessage(), x);
+        }
+        for (Setter setter : setters) {
+            final JsonValue value = object.getElement(setter.key);
+            if (value == null || (value.isNull() && setter.type.isPrimitive())) {
+                continue;
+            }
+            final Object converted = fromJsonValue(setter.type, setter.genericType, value);
+            try {
+                setter.handle.invokeExact(bean, converted);
+            } catch (Throwable x) {
+                throw new JsonException(x.getMessage(), x);
+            }
+        }
+        return bean;
+    }
+
+    /** Returns true if codec is able to deserialize beans, otherwise everrest should be used. */
+    boolean canCreate() {
+        return constructor != null;
+    }
+
+    private static boolean isBean(Class<?> klass) {
+        return Modifier.isPublic(klass.getModifiers())
+               && !klass.isPrimitive()
+               && !klass.isArray()
+               && !klass.isEnum()
+               && !klass.isInterface()
+               && klass != Object.class
+               && klass != Class.class
+               && !klass.getName().startsWith("java.")
+               && !Collection.class.isAssignableFrom(klass)
+               && !Map.class.isAssignableFrom(klass)
+               && !hasJsonTransientAnnotations(klass);
+    }
+
+    private static BeanCodec create(Class<?> klass) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final Set<String> transientFields = transientFields(klass);
+        final List<Getter> getters = new ArrayList<>();
+        final List<Setter> setters = new ArrayList<>();
+        boolean decodable = true;
+        try {
+            for (Method method : klass.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                final String name = method.getName();
+                final int parameters = method.getParameterCount();
+                final String key;
+                if (parameters == 0 && name.startsWith("get") && name.length() > 3 && !"getClass".equals(name)) {
+                    key = propertyName(name.substring(3));
+                } else if (parameters == 0 && name.startsWith("is") && name.length() > 2
+                           && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                    key = propertyName(name.substring(2));
+                } else if (parameters == 1 && name.startsWith("set") && name.length() > 3) {
+                    final String setterKey = propertyName(name.substring(3));
+                    if (!isSupported(method.getParameterTypes()[0])) {
+                        decodable = false;
+                    } else if (!transientFields.contains(setterKey)) {
+                        setters.add(new Setter(setterKey,
+                                               method.getParameterTypes()[0],
+                                               method.getGenericParameterTypes()[0],
+                                               lookup.unreflect(method).asType(SETTER_TYPE)));
+                    }
+                    continue;
+                } else {
+                    continue;
+                }
+                if (!transientFields.contains(key)) {
+                    getters.add(new Getter(key, lookup.unreflect(method).asType(GETTER_TYPE)));
+                }
+            }
+            MethodHandle constructor = null;
+            if (decodable && !Modifier.isAbstract(klass.getModifiers())) {
+                for (Constructor<?> candidate : klass.getConstructors()) {
+                    if (candidate.getParameterCount() == 0) {
+                        constructor = lookup.unreflectConstructor(candidate);
+                    }
+                }
+            }
+            return new BeanCodec(getters, setters, constructor);
+        } catch (IllegalAccessException x) {
+            // e.g. public method declared in not public class, everrest is used for such classes
+            return null;
+        }
+    }
+
+    /** Returns true if property of the given type can be deserialized by codecs. */
+    private static boolean isSupported(Class<?> type) {
+        return type.isPrimitive()
+               || type == String.class
+               || type == Boolean.class
+               || type == Integer.class
+               || type == Long.class
+               || type == Double.class
+               || type == Float.class
+               || type == Short.class
+               || type == Byte.class
+               || type == Character.class
+               || type.isEnum()
+               || type.isArray()
+               || Collection.class.isAssignableFrom(type)
+               || Map.class.isAssignableFrom(type)
+               || isBean(type);
+    }
+
+    /** The same as everrest does, 'Name' -> 'name', but 'URL' -> 'URL'. */
+    private static String propertyName(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Set<String> transientFields(Class<?> klass) {
+        final Set<String> names = new HashSet<>();
+        for (Class<?> current = klass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isTransient(field.getModifiers())) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    /** Classes with fields or methods annotated as transient for json are left to everrest. */
+    private static boolean hasJsonTransientAnnotations(Class<?> klass) {
+        for (Method method : klass.getMethods()) {
+            if (isJsonTransient(method.getAnnotations())) {
+                return true;
+            }
+        }
+        for (Class<?> current = klass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (isJsonTransient(field.getAnnotations())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJsonTransient(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if ("JsonTransient".equals(annotation.annotationType().getSimpleName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Getter {
+        final String       key;
+        final MethodHandle handle;
+
+        Getter(String key, MethodHandle handle) {
+            this.key = key;
+            this.handle = handle;
+        }
+    }
+
+    private static class Setter {
+        final String       key;
+        final Class<?>     type;
+        final Type         genericType;
+        final MethodHandle handle;
+
+        Setter(String key, Class<?> type, Type genericType, MethodHandle handle) {
+            this.key = key;
+            this.type = type;
+            this.genericType = genericType;
+            this.handle = handle;
+        }
+    }
+}
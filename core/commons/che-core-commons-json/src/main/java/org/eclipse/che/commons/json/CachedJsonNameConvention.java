@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Name convention which caches names converted by the given convention.
+ * Names are the same for each serialization of the same class, so they are converted only once.
+ * Cache is bounded, names which come after the cache is full, e.g. keys of large maps, are converted each time.
+ */
+final class CachedJsonNameConvention implements JsonNameConvention {
+    private static final int MAX_CACHED_NAMES = 4096;
+
+    private static final Map<JsonNameConventions, JsonNameConvention> CONVENTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns caching wrapper of the given convention.
+     * Only predefined {@link JsonNameConventions} are cached, the other conventions are returned as is.
+     */
+    static JsonNameConvention of(JsonNameConvention convention) {
+        if (convention == JsonNameConventions.DEFAULT || !(convention instanceof JsonNameConventions)) {
+            return convention;
+        }
+        return CONVENTIONS.computeIfAbsent((JsonNameConventions)convention, CachedJsonNameConvention::new);
+    }
+
+    private final JsonNameConvention  delegate;
+    private final Map<String, String> jsonNames;
+    private final Map<String, String> javaNames;
+
+    private CachedJsonNameConvention(JsonNameConvention delegate) {
+        this.delegate = delegate;
+        this.jsonNames = new ConcurrentHashMap<>();
+        this.javaNames = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public String toJsonName(String javaName) {
+        return convert(jsonNames, javaName, delegate::toJsonName);
+    }
+
+    @Override
+    public String toJavaName(String jsonName) {
+        return convert(javaNames, jsonName, delegate::toJavaName);
+    }
+
+    private static String convert(Map<String, String> cache, String name, Function<String, String> converter) {
+        String converted = cache.get(name);
+        if (converted == null) {
+            converted = converter.apply(name);
+            if (cache.size() < MAX_CACHED_NAMES) {
+                cache.put(name, converted);
+            }
+        }
+        return converted;
+    }
+}
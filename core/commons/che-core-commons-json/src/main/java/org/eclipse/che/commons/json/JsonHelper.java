@@ -18,7 +18,12 @@ import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
 
-/** Tool to serialize/deserialize Java objects to/from JSON representation. */
+/**
+ * Tool to serialize/deserialize Java objects to/from JSON representation.
+ * <p>
+ * Java beans are serialized/deserialized by codecs which are created once per class,
+ * see {@link BeanCodec}. Names conversions of the name conventions are cached.
+ */
 public class JsonHelper {
     @SuppressWarnings("unchecked")
     public static <O> String toJson(O instance) {
@@ -31,16 +36,15 @@ public class JsonHelper {
             JsonValue json;
             if (instance.getClass().isArray()) {
                 json = JsonGenerator.createJsonArray(instance);
-            } else if (instance instanceof Collection) {
-                json = JsonGenerator.createJsonArray((Collection<?>)instance);
-            } else if (instance instanceof Map) {
-                json = JsonGenerator.createJsonObjectFromMap((Map<String, ?>)instance);
+            } else if (instance instanceof Collection || instance instanceof Map) {
+                json = BeanCodec.toJsonValue(instance);
             } else {
-                json = JsonGenerator.createJsonObject(instance);
+                final BeanCodec codec = BeanCodec.forClass(instance.getClass());
+                json = codec != null ? codec.toJson(instance) : JsonGenerator.createJsonObject(instance);
             }
 
             Writer w = new StringWriter();
-            json.writeTo(new NameConventionJsonWriter(w, nameConvention));
+            json.writeTo(new NameConventionJsonWriter(w, CachedJsonNameConvention.of(nameConvention)));
             return w.toString();
         } catch (JsonException jsone) {
             // Must not happen since serialize well known object.
@@ -87,7 +91,9 @@ public class JsonHelper {
                 Class k = klass;
                 instance = (O)ObjectBuilder.createObject(k, type, jsonValue);
             } else {
-                instance = ObjectBuilder.createObject(klass, jsonValue);
+                final BeanCodec codec = BeanCodec.forClass(klass);
+                instance = codec != null && codec.canCreate() ? klass.cast(codec.fromJson(jsonValue))
+                                                              : ObjectBuilder.createObject(klass, jsonValue);
             }
             return instance;
         } catch (JsonException jsone) {
@@ -119,7 +125,7 @@ public class JsonHelper {
 
     public static JsonValue parseJson(Reader json, JsonNameConvention nameConvention) throws JsonParseException {
         try {
-            JsonParser parser = new NameConventionJsonParser(nameConvention);
+            JsonParser parser = new NameConventionJsonParser(CachedJsonNameConvention.of(nameConvention));
             parser.parse(json);
             return parser.getJsonObject();
         } catch (JsonException jsone) {
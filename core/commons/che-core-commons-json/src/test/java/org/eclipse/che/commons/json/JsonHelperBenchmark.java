@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import org.everrest.core.impl.provider.json.JsonException;
+import org.everrest.core.impl.provider.json.JsonGenerator;
+import org.everrest.core.impl.provider.json.JsonValue;
+import org.everrest.core.impl.provider.json.ObjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares bean serialization through the cached codecs of {@link JsonHelper}
+ * with the reflective serialization of everrest.
+ * It is not a test, run it with {@code main} method from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonHelperBenchmark {
+
+    private JsonTest.Bar bar;
+    private JsonValue    json;
+
+    @Setup
+    public void setUp() throws Exception {
+        final JsonTest.Foo foo = new JsonTest.Foo();
+        foo.setFooBar("foo bar");
+        final Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            attributes.put("key" + i, "value" + i);
+        }
+        bar = new JsonTest.Bar();
+        bar.setCount(42);
+        bar.setEnabled(true);
+        bar.setFoo(foo);
+        bar.setTags(asList("first", "second", "third"));
+        bar.setAttributes(attributes);
+        json = JsonHelper.parseJson(JsonHelper.toJson(bar));
+    }
+
+    @Benchmark
+    public String toJsonWithCodec() {
+        return JsonHelper.toJson(bar);
+    }
+
+    @Benchmark
+    public String toJsonWithEverrest() throws JsonException {
+        return JsonGenerator.createJsonObject(bar).toString();
+    }
+
+    @Benchmark
+    public JsonTest.Bar fromJsonWithCodec() throws JsonParseException {
+        return JsonHelper.fromJson(json, JsonTest.Bar.class, null);
+    }
+
+    @Benchmark
+    public JsonTest.Bar fromJsonWithEverrest() throws JsonException {
+        return ObjectBuilder.createObject(JsonTest.Bar.class, json);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonHelperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
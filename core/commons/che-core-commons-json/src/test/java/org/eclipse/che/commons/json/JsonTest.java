@@ -13,7 +13,15 @@ package org.eclipse.che.commons.json;
 
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class JsonTest {
     public static class Foo {
@@ -28,6 +36,63 @@ public class JsonTest {
         }
     }
 
+    public static class Bar {
+        private int                       count;
+        private boolean                   enabled;
+        private Foo                       foo;
+        private List<String>              tags;
+        private Map<String, String>       attributes;
+        private transient String          secret;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Foo getFoo() {
+            return foo;
+        }
+
+        public void setFoo(Foo foo) {
+            this.foo = foo;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
     @Test
     public void testSerializeDefault() throws Exception {
         String expectedJson = "{\"fooBar\":\"test\"}";
@@ -72,4 +137,38 @@ public class JsonTest {
         Foo foo = JsonHelper.fromJson(json, Foo.class, null, JsonNameConventions.CAMEL_DASH);
         assertEquals("test", foo.getFooBar());
     }
+
+    @Test
+    public void testSerializeAndDeserializeNestedBeans() throws Exception {
+        Foo foo = new Foo();
+        foo.setFooBar("test");
+        Bar bar = new Bar();
+        bar.setCount(3);
+        bar.setEnabled(true);
+        bar.setFoo(foo);
+        bar.setTags(asList("a", "b"));
+        bar.setAttributes(singletonMap("key", "value"));
+
+        Bar result = JsonHelper.fromJson(JsonHelper.toJson(bar, JsonNameConventions.CAMEL_UNDERSCORE),
+                                         Bar.class,
+                                         null,
+                                         JsonNameConventions.CAMEL_UNDERSCORE);
+
+        assertEquals(result.getCount(), 3);
+        assertTrue(result.isEnabled());
+        assertEquals(result.getFoo().getFooBar(), "test");
+        assertEquals(result.getTags(), asList("a", "b"));
+        assertEquals(result.getAttributes(), singletonMap("key", "value"));
+    }
+
+    @Test
+    public void testSkipTransientFields() throws Exception {
+        Bar bar = new Bar();
+        bar.setSecret("secret");
+
+        String json = JsonHelper.toJson(bar);
+
+        assertFalse(json.contains("secret"));
+        assertNull(JsonHelper.fromJson("{\"secret\":\"secret\"}", Bar.class, null).getSecret());
+    }
 }
@@ -21,7 +21,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import javax.xml.xpath.XPathFactoryConfigurationException;
@@ -34,6 +34,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,14 +47,10 @@ import static org.eclipse.che.commons.xml.XMLTreeUtil.UTF_8;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.asElement;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.asElements;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.closeTagLength;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.indexOf;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.indexOfAttributeName;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.replaceAll;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.rootStart;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.single;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.level;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.openTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.tabulate;
@@ -90,6 +87,9 @@ import static org.w3c.dom.Node.TEXT_NODE;
  * tree rewrites source bytes with new information,
  * indexes new elements, updates delegated document,
  * shifts needed existed elements positions.
+ * Source bytes are kept in {@link XMLTreeBuffer}, so
+ * updates located close to each other don't copy
+ * the whole source.
  * As you may see there are a lot of data manipulations
  * when update is going, so <b>you should not use this tool for
  * parsing huge xml documents or for often complex updates.</b>
@@ -98,6 +98,8 @@ import static org.w3c.dom.Node.TEXT_NODE;
  * is xpath query. You will be able to select/update
  * content provided with XMLTree elements or attributes
  * without working with xpath directly.
+ * Compiled expressions are cached per thread,
+ * so repeated queries are not compiled again.
  * <p>
  * XMLTree provides methods which do the same
  * as model methods but sometimes they are more convenient,
@@ -174,6 +176,15 @@ public final class XMLTree {
     private static final XPathFactory           XPATH_FACTORY            = XPathFactory.newInstance();
     private static final String                 ROOT_TEMPLATE            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<%s>\n</%s>";
     private static final int                    EXPECTED_NAMESPACES_SIZE = 2;
+    private static final int                    XPATH_CACHE_SIZE         = 256;
+
+    private static final ThreadLocal<Map<String, XPathExpression>> XPATH_CACHE =
+            ThreadLocal.withInitial(() -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > XPATH_CACHE_SIZE;
+                }
+            });
 
     /** Factories configuration. */
     static {
@@ -202,7 +213,7 @@ public final class XMLTree {
     private Document            document;
     private Map<String, String> namespaces;
     private List<Element>       elements;
-    private byte[]              xml;
+    private XMLTreeBuffer       xml;
 
     private XMLTree(byte[] xml) {
         if (xml.length == 0) {
@@ -210,12 +221,13 @@ public final class XMLTree {
         }
         elements = new LinkedList<>();
         namespaces = newHashMapWithExpectedSize(EXPECTED_NAMESPACES_SIZE);
-        this.xml = normalizeLineEndings(xml);
+        final byte[] source = normalizeLineEndings(xml);
         //reason: parser is going to replace all '\r\n' sequences with single '\n'
         //which will affect elements position in source xml and produce incorrect XMLTree behaviour
         //it comes from spec http://www.w3.org/TR/2004/REC-xml11-20040204/
-        document = parseQuietly(this.xml);
-        constructTreeQuietly();
+        document = parseQuietly(source);
+        constructTreeQuietly(source);
+        this.xml = new XMLTreeBuffer(source);
     }
 
     /**
@@ -381,9 +393,9 @@ public final class XMLTree {
     public byte[] getBytes() {
         final String separator = System.getProperty("line.separator");
         if (!"\n".equals(separator)) {
-            return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+            return replaceAll(xml.toByteArray(), "\n".getBytes(), separator.getBytes());
         }
-        return Arrays.copyOf(xml, xml.length);
+        return xml.toByteArray();
     }
 
     /**
@@ -414,14 +426,27 @@ public final class XMLTree {
      */
     @SuppressWarnings("unchecked")
     private Object evaluateXPath(String expression, QName returnType) {
-        final XPath xpath = XPATH_FACTORY.newXPath();
         try {
-            return xpath.evaluate(expression, document, returnType);
+            return compile(expression).evaluate(document, returnType);
         } catch (XPathExpressionException xpathEx) {
             throw XMLTreeException.wrap(xpathEx);
         }
     }
 
+    /**
+     * Returns compiled xpath expression from the cache of the current thread,
+     * compiled expressions are not thread-safe so they can't be shared between threads.
+     */
+    private static XPathExpression compile(String expression) throws XPathExpressionException {
+        final Map<String, XPathExpression> cache = XPATH_CACHE.get();
+        XPathExpression compiled = cache.get(expression);
+        if (compiled == null) {
+            compiled = XPATH_FACTORY.newXPath().compile(expression);
+            cache.put(expression, compiled);
+        }
+        return compiled;
+    }
+
     /**
      * Parses document using {@link DocumentBuilder}
      * Rethrows all exceptions as {@link XMLTreeException}
@@ -455,8 +480,8 @@ public final class XMLTree {
      * start of source array bytes, so we can fetch position of elements and text.
      * Each created element associated with related {@link Node} and vise-versa.
      */
-    private void constructTree() throws XMLStreamException {
-        final XMLStreamReader reader = newXMLStreamReader();
+    private void constructTree(byte[] xml) throws XMLStreamException {
+        final XMLStreamReader reader = newXMLStreamReader(xml);
         final LinkedList<Element> stack = new LinkedList<>();
         //before element open tag index
         int beforeStart = rootStart(xml) - 1;
@@ -468,7 +493,7 @@ public final class XMLTree {
             switch (reader.next()) {
                 case START_ELEMENT:
                     final Element newElement = new Element(this);
-                    newElement.start = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
+                    newElement.start = new Segment(beforeStart + 1, elementRight(xml, beforeStart + 1, reader));
                     //if new node is not xml root - set up relationships
                     if (!stack.isEmpty()) {
                         node = deepNext(node, true);
@@ -485,7 +510,7 @@ public final class XMLTree {
                     break;
                 case END_ELEMENT:
                     final Element element = stack.pop();
-                    element.end = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
+                    element.end = new Segment(beforeStart + 1, elementRight(xml, beforeStart + 1, reader));
                     elements.add(element);
                     beforeStart = element.end.right;
                     break;
@@ -585,7 +610,7 @@ public final class XMLTree {
      * Searches for the element start right bound index.
      * TODO respect element attributes text content while checking '<'
      */
-    private int elementRight(int left, XMLStreamReader reader) {
+    private int elementRight(byte[] xml, int left, XMLStreamReader reader) {
         int rightIdx = lastIndexOf(xml, '>', reader.getLocation().getCharacterOffset());
         int leftIdx = lastIndexOf(xml, '<', rightIdx);
         while (leftIdx > left) {
@@ -609,12 +634,12 @@ public final class XMLTree {
     }
 
     /**
-     * Same as {@link #constructTree()}, only difference
+     * Same as {@link #constructTree(byte[])}, only difference
      * that it wraps {@link XMLStreamException} to {@link XMLTreeException}
      */
-    private void constructTreeQuietly() {
+    private void constructTreeQuietly(byte[] xml) {
         try {
-            constructTree();
+            constructTree(xml);
         } catch (XMLStreamException xmlEx) {
             throw XMLTreeException.wrap(xmlEx);
         }
@@ -635,7 +660,7 @@ public final class XMLTree {
     /**
      * Creates new stream reader instance
      */
-    private XMLStreamReader newXMLStreamReader() {
+    private XMLStreamReader newXMLStreamReader(byte[] xml) {
         try {
             return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml), "UTF-8");
         } catch (Exception xmlEx) {
@@ -679,14 +704,13 @@ public final class XMLTree {
      */
     void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
-        final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
+        final int lengthBefore = xml.length();
+        final int insertHere = xml.lastIndexOf('>', parent.end.left) + 1;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         insertHere,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insert(insertHere,
+                   '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(insertHere, xml.length - lengthBefore);
+        shiftSegments(insertHere, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, insertHere - 1, level);
         //let tree know about added element
@@ -698,13 +722,12 @@ public final class XMLTree {
      */
     void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
         final int level = level(refElement);
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         refElement.end.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insert(refElement.end.right + 1,
+                   '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(refElement.end.right, xml.length - lengthBefore);
+        shiftSegments(refElement.end.right, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         //+1 because of \n
         applySegments(newElement, relatedToNew, refElement.end.right, level);
@@ -722,13 +745,12 @@ public final class XMLTree {
      */
     void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         //inserting after parent
-        xml = insertInto(xml,
-                         parent.start.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insert(parent.start.right + 1,
+                   '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(parent.start.right, xml.length - lengthBefore);
+        shiftSegments(parent.start.right, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, parent.start.right, level);
         //let tree know about inserted element
@@ -760,20 +782,19 @@ public final class XMLTree {
      * good and pretty formatted before document.
      */
     void removeElement(Element element) {
-        final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-        final int lengthBefore = xml.length;
+        final int leftBound = xml.lastIndexOf('>', element.start.left) + 1;
+        final int lengthBefore = xml.length();
         //if text segment before removal element
         //exists it should go to hell with removal
         if (leftBound != element.start.left - 1) {
             removeSegmentFromElement(element.getParent(), leftBound);
         }
         //replacing content with nothing
-        xml = insertBetween(xml,
-                            leftBound,
-                            element.end.right,
-                            "");
+        xml.replace(leftBound,
+                    element.end.right,
+                    "");
         //shift all elements which are right from removed element
-        shiftSegments(element.end.right, xml.length - lengthBefore);
+        shiftSegments(element.end.right, xml.length() - lengthBefore);
         //let tree know that element is not a family member
         unregisterElement(element);
     }
@@ -782,13 +803,12 @@ public final class XMLTree {
      * Inserts new attribute value content to tree bytes
      */
     void insertAttribute(NewAttribute attribute, Element owner) {
-        final int len = xml.length;
+        final int len = xml.length();
         //inserting new attribute content
-        xml = insertInto(xml,
-                         owner.start.right,
-                         ' ' + attribute.asString());
+        xml.insert(owner.start.right,
+                   ' ' + attribute.asString());
         //shift all elements which are right from removed element
-        shiftSegments(owner.start.left - 1, xml.length - len);
+        shiftSegments(owner.start.left - 1, xml.length() - len);
     }
 
     /**
@@ -796,15 +816,14 @@ public final class XMLTree {
      */
     void removeAttribute(Attribute attribute) {
         final Element element = attribute.getElement();
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         final Segment segment = attributeSegment(attribute);
         //replacing attribute segment with nothing
-        xml = insertBetween(xml,
-                            segment.left - 1,
-                            segment.right,
-                            "");
+        xml.replace(segment.left - 1,
+                    segment.right,
+                    "");
         //shift all elements which are left from owner left
-        shiftSegments(element.start.left, xml.length - lengthBefore);
+        shiftSegments(element.start.left, xml.length() - lengthBefore);
     }
 
     //TODO should it be public?
@@ -869,9 +888,9 @@ public final class XMLTree {
      * on offset equal to removal segment length
      */
     private void removeSegment(Segment segment) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, "");
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = xml.length();
+        xml.replace(segment.left, segment.right, "");
+        shiftSegments(segment.left, xml.length() - lengthBefore);
     }
 
     /**
@@ -880,9 +899,9 @@ public final class XMLTree {
      * source bytes length
      */
     private void updateSegmentContent(Segment segment, String content) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, content);
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = xml.length();
+        xml.replace(segment.left, segment.right, content);
+        shiftSegments(segment.left, xml.length() - lengthBefore);
         segment.right = segment.left + content.length() - 1;
     }
 
@@ -915,8 +934,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = attribute.getValue().getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = xml.indexOfAttributeName(name, owner.start.left + owner.getName().length());
+        final int valueLeft = xml.indexOf(value, attrLeft + name.length);
 
         return new Segment(attrLeft, valueLeft + value.length);
     }
@@ -930,8 +949,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = oldValue.getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = xml.indexOfAttributeName(name, owner.start.left + owner.getName().length());
+        final int valueLeft = xml.indexOf(value, attrLeft + name.length);
 
         return new Segment(valueLeft, valueLeft + value.length - 1);
     }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import static java.lang.Character.isWhitespace;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+import static org.eclipse.che.commons.xml.XMLTreeUtil.UTF_8;
+
+/**
+ * Source bytes of {@link XMLTree} stored as a gap buffer.
+ * <p>
+ * Bytes are kept in a single array with a gap of unused space,
+ * the gap is moved to the position of each modification, so
+ * modification copies only bytes between the previous and the current
+ * modification positions instead of copying the whole source, while
+ * access to any byte by its index stays constant time.
+ * Tree modifications are usually located close to each other,
+ * e.g. dependencies are added one after another, so a sequence
+ * of modifications doesn't depend on the size of the source.
+ *
+ * @see XMLTreeUtil#insertBetween(byte[], int, int, String)
+ * @see XMLTreeUtil#insertInto(byte[], int, String)
+ */
+final class XMLTreeBuffer {
+    private static final int MIN_GAP_SIZE = 256;
+
+    private byte[] buffer;
+    private int    gapStart;
+    private int    gapEnd;
+
+    XMLTreeBuffer(byte[] src) {
+        buffer = new byte[src.length + max(MIN_GAP_SIZE, src.length >> 3)];
+        arraycopy(src, 0, buffer, 0, src.length);
+        gapStart = src.length;
+        gapEnd = buffer.length;
+    }
+
+    /** Returns source length in bytes. */
+    int length() {
+        return buffer.length - gapEnd + gapStart;
+    }
+
+    /** Returns source byte with given index. */
+    byte get(int idx) {
+        return idx < gapStart ? buffer[idx] : buffer[idx + gapEnd - gapStart];
+    }
+
+    /**
+     * Replaces source bytes from {@code left} to {@code right} inclusive with content bytes,
+     * it is the same as {@link XMLTreeUtil#insertBetween(byte[], int, int, String)}.
+     */
+    void replace(int left, int right, String content) {
+        final byte[] contentSrc = content.getBytes(UTF_8);
+        moveGap(left);
+        gapEnd += right - left + 1;
+        ensureGap(contentSrc.length);
+        arraycopy(contentSrc, 0, buffer, gapStart, contentSrc.length);
+        gapStart += contentSrc.length;
+    }
+
+    /**
+     * Inserts content bytes before source byte with index {@code pos},
+     * it is the same as {@link XMLTreeUtil#insertInto(byte[], int, String)}.
+     */
+    void insert(int pos, String content) {
+        replace(pos, pos - 1, content);
+    }
+
+    /** @see XMLTreeUtil#lastIndexOf(byte[], char, int) */
+    int lastIndexOf(char c, int fromIdx) {
+        for (int i = min(fromIdx, length() - 1); i >= 0; i--) {
+            if (get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** @see XMLTreeUtil#indexOf(byte[], byte[], int) */
+    int indexOf(byte[] target, int fromIdx) {
+        final int to = length() - target.length + 1;
+        for (int i = fromIdx; i < to; i++) {
+            int j = 0;
+            while (j < target.length && get(i + j) == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** @see XMLTreeUtil#indexOfAttributeName(byte[], byte[], int) */
+    int indexOfAttributeName(byte[] target, int fromIdx) {
+        int idx = indexOf(target, fromIdx);
+        while (idx != -1) {
+            final int next = idx + target.length;
+            if (next == length() || isWhitespace(get(next)) || get(next) == '=') {
+                return idx;
+            }
+            idx = indexOf(target, idx + 1);
+        }
+        return -1;
+    }
+
+    /** Returns copy of source bytes. */
+    byte[] toByteArray() {
+        final byte[] result = new byte[length()];
+        arraycopy(buffer, 0, result, 0, gapStart);
+        arraycopy(buffer, gapEnd, result, gapStart, buffer.length - gapEnd);
+        return result;
+    }
+
+    private void moveGap(int pos) {
+        if (pos < gapStart) {
+            final int count = gapStart - pos;
+            arraycopy(buffer, pos, buffer, gapEnd - count, count);
+            gapStart = pos;
+            gapEnd -= count;
+        } else if (pos > gapStart) {
+            final int count = pos - gapStart;
+            arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(int size) {
+        if (gapEnd - gapStart >= size) {
+            return;
+        }
+        final int tail = buffer.length - gapEnd;
+        final byte[] newBuffer = new byte[max(buffer.length * 2, length() + size + MIN_GAP_SIZE)];
+        arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        arraycopy(buffer, gapEnd, newBuffer, newBuffer.length - tail, tail);
+        gapEnd = newBuffer.length - tail;
+        buffer = newBuffer;
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.commons.xml.NewElement.createElement;
+
+/**
+ * Benchmark of the typical pom modifications and queries on a large pom.
+ * It is not a test, run it with {@code main} method from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XMLTreeBenchmark {
+
+    /** Number of dependencies in the pom, each one takes 5 lines. */
+    @Param({"100", "1000"})
+    public int dependencies;
+
+    /** Number of modifications or queries done by one benchmark invocation. */
+    @Param({"100"})
+    public int operations;
+
+    private byte[] pom;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                                                   "<project>\n" +
+                                                   "    <modelVersion>4.0.0</modelVersion>\n" +
+                                                   "    <artifactId>benchmark</artifactId>\n" +
+                                                   "    <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("        <dependency>\n")
+              .append("            <groupId>org.eclipse.che</groupId>\n")
+              .append("            <artifactId>artifact-").append(i).append("</artifactId>\n")
+              .append("            <version>1.0.0</version>\n")
+              .append("        </dependency>\n");
+        }
+        sb.append("    </dependencies>\n" +
+                  "</project>\n");
+        pom = sb.toString().getBytes(XMLTreeUtil.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] appendDependencies() {
+        final XMLTree tree = XMLTree.from(pom);
+        final Element dependenciesElement = tree.getSingleElement("/project/dependencies");
+        for (int i = 0; i < operations; i++) {
+            dependenciesElement.appendChild(createElement("dependency",
+                                                          createElement("groupId", "org.eclipse.che"),
+                                                          createElement("artifactId", "new-artifact-" + i),
+                                                          createElement("version", "2.0.0")));
+        }
+        return tree.getBytes();
+    }
+
+    @Benchmark
+    public byte[] updateVersions() {
+        final XMLTree tree = XMLTree.from(pom);
+        final List<Element> versions = tree.getElements("/project/dependencies/dependency/version");
+        for (int i = 0; i < operations; i++) {
+            versions.get(i % versions.size()).setText("2.0." + i);
+        }
+        return tree.getBytes();
+    }
+
+    @Benchmark
+    public int queryDependencies() {
+        final XMLTree tree = XMLTree.from(pom);
+        int found = 0;
+        for (int i = 0; i < operations; i++) {
+            found += tree.getElements("/project/dependencies/dependency[artifactId='artifact-" + i % 10 + "']").size();
+            found += tree.getSingleText("/project/artifactId").length();
+        }
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(XMLTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
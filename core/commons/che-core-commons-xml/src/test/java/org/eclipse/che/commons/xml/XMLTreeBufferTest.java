@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.eclipse.che.commons.xml.XMLTreeUtil.UTF_8;
+import static org.eclipse.che.commons.xml.XMLTreeUtil.indexOf;
+import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
+import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
+import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link XMLTreeBuffer}
+ */
+public class XMLTreeBufferTest {
+
+    @Test
+    public void shouldInsertContent() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a></a>".getBytes(UTF_8));
+
+        buffer.insert(3, "<b/>");
+
+        assertEquals(new String(buffer.toByteArray(), UTF_8), "<a><b/></a>");
+    }
+
+    @Test
+    public void shouldReplaceContent() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a>text</a>".getBytes(UTF_8));
+
+        buffer.replace(3, 6, "new text");
+
+        assertEquals(new String(buffer.toByteArray(), UTF_8), "<a>new text</a>");
+        assertEquals(buffer.length(), 15);
+        assertEquals(buffer.get(11), (byte)'<');
+    }
+
+    @Test
+    public void shouldSearchContentAcrossGap() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a><b/></a>".getBytes(UTF_8));
+
+        buffer.insert(5, "c");
+
+        assertEquals(buffer.indexOf("bc/>".getBytes(UTF_8), 0), 4);
+        assertEquals(buffer.lastIndexOf('<', 7), 3);
+        assertEquals(buffer.indexOfAttributeName("c".getBytes(UTF_8), 0), -1);
+    }
+
+    @Test
+    public void shouldModifyContentTheSameWayAsUtilMethods() {
+        final Random random = new Random(42);
+        byte[] expected = "<project><name>name</name><version>1.0</version></project>".getBytes(UTF_8);
+        final XMLTreeBuffer buffer = new XMLTreeBuffer(expected);
+
+        for (int i = 0; i < 10_000; i++) {
+            final String content = Integer.toString(random.nextInt(1000));
+            final int left = random.nextInt(expected.length);
+            if (random.nextBoolean()) {
+                expected = insertInto(expected, left, content);
+                buffer.insert(left, content);
+            } else {
+                final int right = Math.min(expected.length - 1, left + random.nextInt(3));
+                expected = insertBetween(expected, left, right, content);
+                buffer.replace(left, right, content);
+            }
+            final int from = random.nextInt(expected.length);
+            assertEquals(buffer.lastIndexOf('<', from), lastIndexOf(expected, '<', from));
+            assertEquals(buffer.indexOf(new byte[] {'1', '2'}, from), indexOf(expected, new byte[] {'1', '2'}, from));
+        }
+
+        assertEquals(buffer.toByteArray(), expected);
+    }
+}
@@ -24,6 +24,12 @@ import java.util.List;
 public interface CLibrary extends Library {
     int AF_UNIX     = 1; // Defined in 'sys/socket.h'
     int SOCK_STREAM = 1; // Defined in 'sys/socket.h'
+    int MSG_PEEK     = 0x02; // Defined in 'sys/socket.h'
+    int MSG_DONTWAIT = 0x40; // Defined in 'sys/socket.h'
+    int EAGAIN       = 11; // Defined in 'errno.h', the same as EWOULDBLOCK
+    int EINTR        = 4; // Defined in 'errno.h'
+    int EFD_NONBLOCK = 0x800; // Defined in 'sys/eventfd.h'
+    short POLLIN     = 0x01; // Defined in 'poll.h'
 
     // Defined in 'unix.h', see http://man7.org/linux/man-pages/man7/unix.7.html
     class SockAddrUn extends Structure {
@@ -49,6 +55,18 @@ public interface CLibrary extends Library {
         }
     }
 
+    // Defined in 'poll.h', see http://man7.org/linux/man-pages/man2/poll.2.html
+    class PollFd extends Structure {
+        public int   fd;
+        public short events;
+        public short revents;
+
+        @Override
+        protected List getFieldOrder() {
+            return Arrays.asList("fd", "events", "revents");
+        }
+    }
+
     int socket(int domain, int type, int protocol);
 
     int connect(int fd, SockAddrUn sock_addr, int addr_len);
@@ -69,6 +87,9 @@ public interface CLibrary extends Library {
 
     int eventfd_read(int fd, LongByReference val);
 
+    /** Array of structures must be allocated contiguously with {@link Structure#toArray(int)}. */
+    int poll(PollFd[] fds, int nfds, int timeout);
+
     int open(String path, int mode);
 
     int O_RDONLY = 0x00;
@@ -27,10 +27,13 @@ import org.eclipse.che.plugin.docker.client.connection.CloseConnectionInputStrea
 import org.eclipse.che.plugin.docker.client.connection.DockerConnection;
 import org.eclipse.che.plugin.docker.client.connection.DockerConnectionFactory;
 import org.eclipse.che.plugin.docker.client.connection.DockerResponse;
+import org.eclipse.che.plugin.docker.client.connection.DockerStream;
+import org.eclipse.che.plugin.docker.client.connection.DockerStreamSelector;
 import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
 import org.eclipse.che.plugin.docker.client.exception.DockerException;
 import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
 import org.eclipse.che.plugin.docker.client.exception.NetworkNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.ContainerChange;
 import org.eclipse.che.plugin.docker.client.json.ContainerCommitted;
 import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerExitStatus;
@@ -57,6 +60,7 @@ import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetContainerChangesParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
@@ -88,7 +92,6 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.MediaType;
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -98,8 +101,7 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -419,6 +421,29 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Gets changes of the container filesystem in comparison to the image the container was created from.
+     *
+     * @return list of changed paths, empty list when container filesystem is not changed
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public List<ContainerChange> getContainerChanges(final GetContainerChangesParams params) throws IOException {
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("GET")
+                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
+                                                                  "/changes")) {
+            final DockerResponse response = connection.request();
+            if (OK.getStatusCode() != response.getStatus()) {
+                throw getDockerException(response);
+            }
+            final List<ContainerChange> changes = parseResponseStreamAndClose(response.getInputStream(),
+                                                                               new TypeToken<List<ContainerChange>>() {});
+            // docker responds with null instead of empty array when nothing is changed
+            return changes == null ? new ArrayList<>() : changes;
+        }
+    }
+
     /**
      * Attaches to the container with specified id.
      * <br/>
@@ -489,6 +514,61 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Opens followed stream of container logs, the stream is read without blocking once it is registered
+     * in the selector returned by {@link #openStreamSelector()}, its body is decoded with {@link LogMessageDecoder}.
+     *
+     * @param params
+     *         parameters of the logs, logs should be followed
+     * @return stream of container logs, it must be closed by the caller
+     * @throws ContainerNotFoundException
+     *         when container not found by docker (docker api returns 404)
+     * @throws UnsupportedOperationException
+     *         when non-blocking streams are not supported for the docker daemon
+     * @throws IOException
+     *         when a problem occurs with docker api calls
+     */
+    public DockerStream openContainerLogsStream(final GetContainerLogsParams params) throws IOException {
+        final DockerStream stream;
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("GET")
+                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/logs")
+                                                            .query("stdout", 1)
+                                                            .query("stderr", 1)) {
+            addQueryParamIfNotNull(connection, "details", params.isDetails());
+            addQueryParamIfNotNull(connection, "follow", params.isFollow());
+            addQueryParamIfNotNull(connection, "since", params.getSince());
+            addQueryParamIfNotNull(connection, "timestamps", params.isTimestamps());
+            addQueryParamIfNotNull(connection, "tail", params.getTail());
+            stream = connection.stream();
+        }
+        final int status = stream.getStatus();
+        if (status == OK.getStatusCode()) {
+            return stream;
+        }
+        try {
+            final String error = stream.readError();
+            if (status == 404) {
+                throw new ContainerNotFoundException(error);
+            }
+            throw new DockerException("Error response from docker API, status: " + status + ", message: " + error, error, status);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Opens selector which multiplexes reading of the streams opened by this connector.
+     *
+     * @return selector, or null when non-blocking streams are not supported for the docker daemon,
+     * which is the case of https daemon
+     * @throws IOException
+     *         when selector can't be opened
+     */
+    public DockerStreamSelector openStreamSelector() throws IOException {
+        return connectionFactory.openStreamSelector(dockerDaemonUri);
+    }
+
     /**
      * Sets up an exec instance in a running container.
      *
@@ -649,35 +729,21 @@ public class DockerConnector {
      * @apiNote this method implements 1.20 docker API and requires docker not less than 1.8 version
      */
     public void putResource(final PutResourceParams params) throws IOException {
-        File tarFile;
-        long length;
-        try (InputStream sourceData = params.getSourceStream()) {
-            // TODO according to http spec http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.4,
-            // it is possible to send request without specifying content length if chunked encoding header is set
-            // Investigate is it possible to write the stream to request directly
-
-            // we save stream to file, because we have to know its length
-            Path tarFilePath = Files.createTempFile("compressed-resources", ".tar");
-            tarFile = tarFilePath.toFile();
-            length = Files.copy(sourceData, tarFilePath, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        try (InputStream tarStream = new BufferedInputStream(new FileInputStream(tarFile));
+        // archive is sent with chunked transfer encoding, so it is streamed to docker
+        // as it is read from the source without saving it to a temporary file to compute its length
+        try (InputStream sourceData = params.getSourceStream();
              DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
                                                             .method("PUT")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/archive")
                                                             .query("path", params.getTargetPath())
                                                             .header("Content-Type", ExtMediaType.APPLICATION_X_TAR)
-                                                            .header("Content-Length", length)
-                                                            .entity(tarStream)) {
+                                                            .entity(sourceData)) {
             addQueryParamIfNotNull(connection, "noOverwriteDirNonDir", params.isNoOverwriteDirNonDir());
             final DockerResponse response = connection.request();
             if (response.getStatus() != OK.getStatusCode()) {
                 throw getDockerException(response);
             }
-        } finally {
-            FileCleaner.addFile(tarFile);
         }
     }
 
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Keeps the single long-lived stream of docker events and dispatches
+ * container events to the subscribers interested in them.
+ *
+ * <p>When the stream is interrupted (e.g. by read timeout or daemon restart)
+ * it is reopened since the time of the last received event, events
+ * which were already dispatched are not dispatched again.
+ * The containers index is listed again only when events might be lost,
+ * that is when the daemon closed the stream or wasn't reachable.
+ *
+ * <p>Bus also maintains in-memory index of the containers which is filled with a single
+ * {@link DockerConnector#listContainers()} call and then is kept up to date by the events,
+ * so components which need containers list should use {@link #getContainers()}
+ * instead of listing containers periodically.
+ *
+ * <p>Events stream is opened on the first subscription or request to the containers index.
+ */
+@Singleton
+public class DockerEventBus {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerEventBus.class);
+
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final DockerConnector                 dockerConnector;
+    private final ExecutorService                 executor;
+    private final List<Subscription>              subscriptions;
+    private final Map<String, ContainerListEntry> containers;
+    private final Set<String>                     lastSecondEvents;
+
+    private volatile boolean streaming;
+    private volatile boolean stopped;
+    private boolean          indexed;
+    private long             lastEventTime;
+
+    @Inject
+    public DockerEventBus(DockerConnector dockerConnector) {
+        this.dockerConnector = dockerConnector;
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.containers = new HashMap<>();
+        this.lastSecondEvents = new HashSet<>();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("DockerEventBus-%d")
+                                                                                    .setUncaughtExceptionHandler(
+                                                                                            LoggingUncaughtExceptionHandler.getInstance())
+                                                                                    .setDaemon(true)
+                                                                                    .build());
+    }
+
+    /**
+     * Subscribes to the events of all the containers.
+     *
+     * @param processor
+     *         processor of the events, it is called in the events dispatching thread so it must not block
+     * @param statuses
+     *         statuses of the events (e.g. die, oom, destroy) processor is interested in, all the events if empty
+     * @return subscription which should be cancelled when processor isn't interested in events any more
+     */
+    public Subscription subscribe(MessageProcessor<Event> processor, String... statuses) {
+        return subscribe(null, processor, statuses);
+    }
+
+    /**
+     * Subscribes to the events of the container with the given id.
+     *
+     * @param containerId
+     *         id of the container, events of all the containers are dispatched to processor if it is null
+     * @param processor
+     *         processor of the events, it is called in the events dispatching thread so it must not block
+     * @param statuses
+     *         statuses of the events (e.g. die, oom, destroy) processor is interested in, all the events if empty
+     * @return subscription which should be cancelled when processor isn't interested in events any more
+     */
+    public Subscription subscribe(@Nullable String containerId, MessageProcessor<Event> processor, String... statuses) {
+        final Subscription subscription = new Subscription(containerId,
+                                                           statuses.length == 0 ? emptySet() : new HashSet<>(Arrays.asList(statuses)),
+                                                           processor);
+        subscriptions.add(subscription);
+        startStreaming();
+        return subscription;
+    }
+
+    /**
+     * Returns all the containers known by docker, including not running ones.
+     * Returned entries have id, names, image, labels and status filled,
+     * status is either 'Created', 'Up ...', 'Exited ...' or the status reported by docker on the initial listing.
+     *
+     * @throws IOException
+     *         when the containers index needs to be filled and docker containers can't be listed
+     */
+    public List<ContainerListEntry> getContainers() throws IOException {
+        startStreaming();
+        synchronized (containers) {
+            if (!indexed) {
+                // lock is held while containers are listed so concurrently received events
+                // are applied on top of the listing rather than overwritten by it
+                containers.clear();
+                for (ContainerListEntry container : dockerConnector.listContainers()) {
+                    containers.put(container.getId(), container);
+                }
+                indexed = true;
+            }
+            return new ArrayList<>(containers.values());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        executor.shutdownNow();
+    }
+
+    private void startStreaming() {
+        if (streaming) {
+            return;
+        }
+        synchronized (this) {
+            if (streaming) {
+                return;
+            }
+            streaming = true;
+            lastEventTime = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            executor.execute(this::streamEvents);
+        }
+    }
+
+    private void streamEvents() {
+        while (!stopped && !Thread.currentThread().isInterrupted()) {
+            try {
+                dockerConnector.getEvents(GetEventsParams.create().withSinceSecond(lastEventTime), this::dispatch);
+                // stream is closed by docker daemon, e.g. on its shutdown, events which happen
+                // until daemon is back are lost
+                invalidateIndex();
+                sleepBeforeReconnect();
+            } catch (ConnectException e) {
+                // docker daemon is not reachable, it might be restarted and events are lost
+                LOG.debug(e.getLocalizedMessage(), e);
+                invalidateIndex();
+                sleepBeforeReconnect();
+            } catch (IOException e) {
+                // usually read timeout, events which happen while stream is reopened
+                // are replayed by docker since the time of the last received event, so index is still valid
+                LOG.debug(e.getLocalizedMessage(), e);
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void invalidateIndex() {
+        synchronized (containers) {
+            indexed = false;
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Event event) {
+        if (event.getType() != null && !"container".equals(event.getType())) {
+            // docker swarm doesn't filter events, so events of other types must be skipped explicitly
+            return;
+        }
+        final String status = event.getStatus() != null ? event.getStatus() : event.getAction();
+        final String containerId = event.getId() != null ? event.getId() : event.getActor() != null ? event.getActor().getId() : null;
+        if (status == null || containerId == null || isAlreadyDispatched(event, status, containerId)) {
+            return;
+        }
+        updateIndex(containerId, status, event);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.accepts(containerId, status)) {
+                try {
+                    subscription.processor.process(event);
+                } catch (RuntimeException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+    }
+
+    /** Events of the last second are replayed when the stream is reopened, they must be skipped. */
+    private boolean isAlreadyDispatched(Event event, String status, String containerId) {
+        if (event.getTime() < lastEventTime) {
+            return true;
+        }
+        if (event.getTime() > lastEventTime) {
+            lastEventTime = event.getTime();
+            lastSecondEvents.clear();
+        }
+        return !lastSecondEvents.add(event.getTimeNano() + ":" + containerId + ':' + status);
+    }
+
+    private void updateIndex(String containerId, String status, Event event) {
+        synchronized (containers) {
+            if (!indexed) {
+                return;
+            }
+            final ContainerListEntry container = containers.get(containerId);
+            switch (status) {
+                case "create":
+                    if (container == null) {
+                        final ContainerListEntry created = newContainer(containerId, event);
+                        if (created != null) {
+                            containers.put(containerId, created);
+                        }
+                    }
+                    break;
+                case "destroy":
+                    containers.remove(containerId);
+                    break;
+                case "start":
+                case "restart":
+                case "unpause":
+                    updateStatus(container, "Up");
+                    break;
+                case "pause":
+                    updateStatus(container, "Up (Paused)");
+                    break;
+                case "die":
+                    updateStatus(container, "Exited");
+                    break;
+                default:
+                    // other events don't change container state
+            }
+        }
+    }
+
+    private void updateStatus(ContainerListEntry container, String status) {
+        if (container != null) {
+            // entries are replaced rather than modified as they may be used by the callers of getContainers
+            final ContainerListEntry updated = copyOf(container);
+            updated.setStatus(status);
+            containers.put(container.getId(), updated);
+        }
+    }
+
+    private ContainerListEntry newContainer(String containerId, Event event) {
+        final ContainerListEntry container = new ContainerListEntry();
+        container.setId(containerId);
+        container.setImage(event.getFrom());
+        container.setStatus("Created");
+        final Map<String, String> attributes = event.getActor() != null ? event.getActor().getAttributes() : null;
+        if (attributes != null && attributes.get("name") != null) {
+            container.setNames(new String[] {'/' + attributes.get("name")});
+            return container;
+        }
+        // old api versions don't send container attributes with events
+        try {
+            container.setNames(new String[] {dockerConnector.inspectContainer(containerId).getName()});
+            return container;
+        } catch (IOException e) {
+            LOG.warn("Unable to get name of container '{}', containers will be listed again. Cause: {}",
+                     containerId, e.getLocalizedMessage());
+            indexed = false;
+            return null;
+        }
+    }
+
+    private static ContainerListEntry copyOf(ContainerListEntry container) {
+        final ContainerListEntry copy = new ContainerListEntry();
+        copy.setId(container.getId());
+        copy.setNames(container.getNames());
+        copy.setImage(container.getImage());
+        copy.setImageID(container.getImageID());
+        copy.setCommand(container.getCommand());
+        copy.setCreated(container.getCreated());
+        copy.setStatus(container.getStatus());
+        copy.setPorts(container.getPorts());
+        copy.setLabels(container.getLabels());
+        return copy;
+    }
+
+    /** Subscription to the docker events, must be cancelled when events are not needed any more. */
+    public class Subscription {
+        private final String                  containerId;
+        private final Set<String>             statuses;
+        private final MessageProcessor<Event> processor;
+
+        private Subscription(String containerId, Set<String> statuses, MessageProcessor<Event> processor) {
+            this.containerId = containerId;
+            this.statuses = statuses;
+            this.processor = processor;
+        }
+
+        /** Stops dispatching of the events to the subscriber. */
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        private boolean accepts(String eventContainerId, String status) {
+            return (containerId == null || eventContainerId.startsWith(containerId))
+                   && (statuses.isEmpty() || statuses.contains(status));
+        }
+    }
+}
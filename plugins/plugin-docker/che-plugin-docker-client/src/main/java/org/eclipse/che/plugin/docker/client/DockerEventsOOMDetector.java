@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.commons.lang.Size;
+import org.eclipse.che.plugin.docker.client.DockerEventBus.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Docker container OOM detector based on the 'oom' events of docker daemon.
+ *
+ * <p>Unlike {@link CgroupOOMDetector} it doesn't need a thread per container
+ * and works with remote docker daemons, events are received through the shared {@link DockerEventBus}.
+ */
+@Singleton
+public class DockerEventsOOMDetector implements DockerOOMDetector {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerEventsOOMDetector.class);
+
+    private final DockerEventBus            eventBus;
+    private final DockerConnector           dockerConnector;
+    private final Map<String, Subscription> subscriptions;
+
+    @Inject
+    public DockerEventsOOMDetector(DockerEventBus eventBus, DockerConnector dockerConnector) {
+        this.eventBus = eventBus;
+        this.dockerConnector = dockerConnector;
+        this.subscriptions = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void stopDetection(String container) {
+        final Subscription subscription = subscriptions.remove(container);
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    @Override
+    public void startDetection(String container, MessageProcessor<LogMessage> containerLogProcessor) {
+        if (subscriptions.containsKey(container)) {
+            return;
+        }
+        final long memory;
+        try {
+            memory = dockerConnector.inspectContainer(container).getConfig().getHostConfig().getMemory();
+        } catch (IOException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return;
+        }
+        subscriptions.computeIfAbsent(container, id -> eventBus.subscribe(id, event -> {
+            if ("destroy".equals(event.getStatus())) {
+                stopDetection(container);
+                return;
+            }
+            LOG.warn("OOM event received for container '{}'", container);
+            containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
+                                                         "[ERROR] The processes in this machine need more RAM. This machine started with " +
+                                                         Size.toHumanSize(memory)));
+            containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
+                                                         "[ERROR] Create a new machine configuration that allocates additional RAM or increase" +
+                                                         " the workspace RAM limit in the user dashboard."));
+        }, "oom", "destroy"));
+    }
+}
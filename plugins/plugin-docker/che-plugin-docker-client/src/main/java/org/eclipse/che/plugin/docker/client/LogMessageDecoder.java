@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes multiplexed docker logs stream which is received in parts, e.g. from non-blocking
+ * {@link org.eclipse.che.plugin.docker.client.connection.DockerStream}. This is the incremental
+ * counterpart of {@link LogMessagePumper}, lines are split the same way.
+ */
+public class LogMessageDecoder {
+    private static final int STREAM_HEADER_LENGTH = 8;
+    private static final int MAX_LINE_LENGTH      = 1024;
+
+    private final MessageProcessor<LogMessage> target;
+    private final byte[]                       header;
+    private final ByteArrayOutputStream        line;
+
+    private int             headerLength;
+    private int             remaining;
+    private boolean         carriageReturn;
+    private LogMessage.Type type;
+
+    public LogMessageDecoder(MessageProcessor<LogMessage> target) {
+        this.target = target;
+        this.header = new byte[STREAM_HEADER_LENGTH];
+        this.line = new ByteArrayOutputStream(MAX_LINE_LENGTH);
+        this.type = LogMessage.Type.DOCKER;
+    }
+
+    /**
+     * Decodes all the bytes of the buffer, passes each complete line to the target.
+     *
+     * @throws IOException
+     *         when the stream is not a valid docker logs stream
+     */
+    public void decode(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (remaining == 0) {
+                header[headerLength++] = buffer.get();
+                if (headerLength == STREAM_HEADER_LENGTH) {
+                    headerLength = 0;
+                    type = getLogMessageType(header);
+                    remaining = getPayloadLength(header);
+                }
+                continue;
+            }
+            remaining--;
+            final byte b = buffer.get();
+            if (carriageReturn) {
+                carriageReturn = false;
+                if (b == '\n') {
+                    emit();
+                    continue;
+                }
+                // <CR> which is not followed by <LF> is included in log message
+                line.write('\r');
+                emit();
+            }
+            if (b == '\r') {
+                carriageReturn = true;
+            } else if (b == '\n') {
+                emit();
+            } else {
+                line.write(b);
+                if (line.size() > MAX_LINE_LENGTH) {
+                    emit();
+                }
+            }
+        }
+    }
+
+    /** Passes the rest of the last line to the target, must be called at the end of the stream. */
+    public void finish() {
+        if (carriageReturn) {
+            carriageReturn = false;
+            line.write('\r');
+        }
+        if (line.size() > 0) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        target.process(new LogMessage(type, new String(line.toByteArray(), StandardCharsets.UTF_8)));
+        line.reset();
+    }
+
+    private static int getPayloadLength(byte[] header) {
+        return (header[7] & 0xFF) + ((header[6] & 0xFF) << 8) + ((header[5] & 0xFF) << 16) + ((header[4] & 0xFF) << 24);
+    }
+
+    private static LogMessage.Type getLogMessageType(byte[] header) throws IOException {
+        switch (header[0]) {
+            case 0:
+                return LogMessage.Type.STDIN;
+            case 1:
+                return LogMessage.Type.STDOUT;
+            case 2:
+                return LogMessage.Type.STDERR;
+            default:
+                throw new IOException(String.format("Invalid docker stream type %d", header[0]));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes data in HTTP chunked transfer encoding, each chunk is at most of the size of the buffer.
+ * {@link #finish()} must be called to write the last chunk, it does not close the underlying stream.
+ */
+public class ChunkedOutputStream extends OutputStream {
+    private static final byte[] CRLF       = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private final OutputStream output;
+    private final byte[]       buffer;
+    private int                count;
+    private boolean            finished;
+
+    ChunkedOutputStream(OutputStream output, int chunkSize) {
+        this.output = output;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureNotFinished();
+        if (count == buffer.length) {
+            writeChunk();
+        }
+        buffer[count++] = (byte)b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureNotFinished();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (count == buffer.length) {
+                writeChunk();
+            }
+            final int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /** Writes buffered data as a chunk and flushes the underlying stream. */
+    @Override
+    public void flush() throws IOException {
+        ensureNotFinished();
+        writeChunk();
+        output.flush();
+    }
+
+    /** Writes buffered data and the last chunk, the underlying stream is flushed but stays open. */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        writeChunk();
+        output.write(LAST_CHUNK);
+        output.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void writeChunk() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        output.write(Integer.toHexString(count).getBytes(StandardCharsets.US_ASCII));
+        output.write(CRLF);
+        output.write(buffer, 0, count);
+        output.write(CRLF);
+        count = 0;
+    }
+
+    private void ensureNotFinished() throws IOException {
+        if (finished) {
+            throw new IOException("Chunked stream is already finished");
+        }
+    }
+}
@@ -10,14 +10,19 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client.connection;
 
+import com.google.common.base.Strings;
 import com.google.common.io.ByteStreams;
 
 import org.eclipse.che.commons.lang.Pair;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -27,12 +32,23 @@ import java.util.List;
  * @author Mykola Morhun
  */
 public abstract class DockerConnection implements Closeable {
+    /**
+     * Size of the chunk used when stream entity is sent without {@code Content-Length} header,
+     * this is also the maximum amount of the entity data buffered in memory.
+     */
+    static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    /** The maximum size of the unread response body which is skipped to reuse the connection. */
+    static final int MAX_DRAIN_BYTES = 64 * 1024;
+
     private String    method;
     private String    path;
     private Entity<?> entity;
     private StringBuilder         query   = new StringBuilder();
     private List<Pair<String, ?>> headers = new LinkedList<>();
 
+    private DockerConnectionMetrics metrics;
+
     public DockerConnection method(String method) {
         this.method = method;
         return this;
@@ -72,6 +88,10 @@ public abstract class DockerConnection implements Closeable {
         return this;
     }
 
+    /**
+     * Sets stream entity of the request. If {@code Content-Length} header is not set
+     * the entity is sent with chunked transfer encoding, so its length does not have to be known in advance.
+     */
     public DockerConnection entity(InputStream entity) {
         this.entity = new StreamEntity(entity);
         return this;
@@ -91,8 +111,53 @@ public abstract class DockerConnection implements Closeable {
         return this;
     }
 
+    /** Sets the statistics collector the requests of this connection are accounted in. */
+    DockerConnection metrics(DockerConnectionMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     public DockerResponse request() throws IOException {
-        return request(method, path, query.toString(), headers, entity);
+        if (metrics == null) {
+            return request(method, path, query.toString(), headers, entity);
+        }
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final DockerResponse response = request(method, path, query.toString(), headers, entity);
+            // status is read by each caller anyway, reading it here makes latency include waiting for the response headers
+            failed = response.getStatus() / 100 != 2;
+            return response;
+        } finally {
+            metrics.requestFinished(method, path, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Sends the request on a dedicated connection and returns the response whose body may be read
+     * without blocking once it is registered in {@link DockerStreamSelector} opened for the same daemon,
+     * response status and headers are read before returning. Entity of the request is not sent.
+     *
+     * @throws UnsupportedOperationException
+     *         when non-blocking streams are not supported by the connection
+     */
+    public DockerStream stream() throws IOException {
+        if (metrics == null) {
+            return stream(method, path, query.toString(), headers);
+        }
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final DockerStream stream = stream(method, path, query.toString(), headers);
+            failed = stream.getStatus() / 100 != 2;
+            return stream;
+        } finally {
+            metrics.requestFinished(method, path, System.nanoTime() - start, failed);
+        }
+    }
+
+    protected DockerStream stream(String method, String path, String query, List<Pair<String, ?>> headers) throws IOException {
+        throw new UnsupportedOperationException("Non-blocking streams are not supported by " + getClass().getSimpleName());
     }
 
     protected abstract DockerResponse request(String method,
@@ -103,6 +168,113 @@ public abstract class DockerConnection implements Closeable {
 
     public abstract void close();
 
+    /** Returns true when entity should be sent with chunked transfer encoding. */
+    static boolean isChunked(Entity<?> entity, List<Pair<String, ?>> headers) {
+        return entity instanceof StreamEntity && getHeader(headers, "Content-Length") == null;
+    }
+
+    /**
+     * Returns true when the request may be sent once more on a new connection
+     * if it failed on a reused one, which is possible for idempotent requests
+     * whose entity can be written again.
+     */
+    static boolean isRetriable(String method, Entity<?> entity) {
+        if (entity instanceof StreamEntity) {
+            return false;
+        }
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns true when the connection which received the {@code response} may be used for the next request,
+     * the short rest of the response body is skipped if it was not read by the caller.
+     */
+    static boolean isReusable(UnixSocketDockerResponse response, BufferedInputStream input) {
+        try {
+            if (response == null) {
+                return false;
+            }
+            response.drain(MAX_DRAIN_BYTES);
+            return response.isReusable() && input.available() == 0;
+        } catch (IOException x) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes HTTP request to the raw connection {@code output},
+     * the entity without {@code Content-Length} header is sent with chunked transfer encoding.
+     */
+    static void writeRequest(OutputStream output,
+                             String method,
+                             String path,
+                             String query,
+                             List<Pair<String, ?>> headers,
+                             Entity<?> entity,
+                             String host) throws IOException {
+        if (isChunked(entity, headers)) {
+            final List<Pair<String, ?>> chunkedHeaders = new ArrayList<>(headers);
+            chunkedHeaders.add(Pair.of("Transfer-Encoding", "chunked"));
+            writeHttpHeaders(output, method, path, query, chunkedHeaders, host);
+            final ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output, STREAM_CHUNK_SIZE);
+            entity.writeTo(chunkedOutput);
+            chunkedOutput.finish();
+        } else {
+            writeHttpHeaders(output, method, path, query, headers, host);
+            if (entity != null) {
+                entity.writeTo(output);
+            }
+        }
+        output.flush();
+    }
+
+    private static void writeHttpHeaders(OutputStream output,
+                                         String method,
+                                         String path,
+                                         String query,
+                                         List<Pair<String, ?>> headers,
+                                         String host) throws IOException {
+        final Writer writer = new OutputStreamWriter(output);
+        writer.write(method);
+        writer.write(' ');
+        writer.write(path);
+        if (!Strings.isNullOrEmpty(query)) {
+            writer.write("?");
+            writer.write(query);
+        }
+        writer.write(" HTTP/1.1\r\n");
+        for (Pair<String, ?> header : headers) {
+            writer.write(header.first);
+            writer.write(": ");
+            writer.write(String.valueOf(header.second));
+            writer.write("\r\n");
+        }
+        // Host header is mandatory in HTTP 1.1
+        writer.write("Host: ");
+        writer.write(host);
+        writer.write("\r\n\r\n");
+        writer.flush();
+    }
+
+    /** Returns value of the header with given name, header name is case insensitive. */
+    static Object getHeader(List<Pair<String, ?>> headers, String name) {
+        for (Pair<String, ?> header : headers) {
+            if (name.equalsIgnoreCase(header.first)) {
+                return header.second;
+            }
+        }
+        return null;
+    }
+
     static abstract class Entity<T> {
         final T entity;
 
@@ -16,7 +16,11 @@ import org.eclipse.che.plugin.docker.client.DockerCertificates;
 import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
 
 import javax.inject.Named;
+import javax.net.SocketFactory;
+import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory for connections to docker API.
@@ -28,6 +32,8 @@ import java.net.URI;
 public class DockerConnectionFactory {
     public static final String CONNECTION_TIMEOUT_MS_PROPERTY      = "che.docker.tcp_connection_timeout_ms";
     public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY = "che.docker.tcp_connection_read_timeout_ms";
+    public static final String POOL_MAX_IDLE_PROPERTY              = "che.docker.connection_pool.max_idle";
+    public static final String POOL_IDLE_TIMEOUT_MS_PROPERTY       = "che.docker.connection_pool.idle_timeout_ms";
 
     @Inject(optional = true)
     @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -37,18 +43,84 @@ public class DockerConnectionFactory {
     @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
     private int connectionReadTimeoutMs = 60000;
 
-    private final DockerCertificates dockerCertificates;
+    /** Maximum number of idle connections kept per docker daemon, 0 disables connections reuse. */
+    @Inject(optional = true)
+    @Named(POOL_MAX_IDLE_PROPERTY)
+    private int poolMaxIdle = 10;
+
+    @Inject(optional = true)
+    @Named(POOL_IDLE_TIMEOUT_MS_PROPERTY)
+    private long poolIdleTimeoutMs = 30000;
+
+    private final DockerCertificates                             dockerCertificates;
+    private final DockerConnectionMetrics                        metrics;
+    private final ConcurrentMap<String, UnixSocketConnectionPool> pools;
+    private final ConcurrentMap<String, TcpConnectionPool>        tcpPools;
 
     @Inject
     public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
         this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+        this.metrics = new DockerConnectionMetrics();
+        this.pools = new ConcurrentHashMap<>();
+        this.tcpPools = new ConcurrentHashMap<>();
     }
 
     public DockerConnection openConnection(URI dockerDaemonUri) {
+        final DockerConnection connection;
         if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
-            return new UnixSocketConnection(dockerDaemonUri.getPath());
+            if (poolMaxIdle > 0) {
+                connection = new UnixSocketConnection(dockerDaemonUri.getPath(),
+                                                      pools.computeIfAbsent(dockerDaemonUri.getPath(),
+                                                                            path -> new UnixSocketConnectionPool(path,
+                                                                                                                 poolMaxIdle,
+                                                                                                                 poolIdleTimeoutMs)));
+            } else {
+                connection = new UnixSocketConnection(dockerDaemonUri.getPath());
+            }
         } else {
-            return new TcpConnection(dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
+            connection = new TcpConnection(dockerDaemonUri,
+                                           dockerCertificates,
+                                           connectionTimeoutMs,
+                                           connectionReadTimeoutMs,
+                                           poolMaxIdle > 0 ? tcpPools.computeIfAbsent(dockerDaemonUri.getScheme() + "://" +
+                                                                                      dockerDaemonUri.getAuthority(),
+                                                                                      key -> createTcpPool(dockerDaemonUri))
+                                                           : null);
         }
+        return connection.metrics(metrics);
+    }
+
+    /**
+     * Opens selector of the streams opened by connections to the given docker daemon.
+     *
+     * @return selector, or null when non-blocking streams are not supported for the daemon, which is the case of https daemon
+     * @see DockerConnection#stream()
+     */
+    public DockerStreamSelector openStreamSelector(URI dockerDaemonUri) throws IOException {
+        if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
+            return new UnixSocketStreamSelector();
+        }
+        if ("http".equals(dockerDaemonUri.getScheme())) {
+            return new TcpStreamSelector();
+        }
+        return null;
+    }
+
+    private TcpConnectionPool createTcpPool(URI dockerDaemonUri) {
+        final boolean https = "https".equals(dockerDaemonUri.getScheme());
+        final int port = dockerDaemonUri.getPort() != -1 ? dockerDaemonUri.getPort() : https ? 443 : 80;
+        return new TcpConnectionPool(dockerDaemonUri.getHost(),
+                                     port,
+                                     https && dockerCertificates != null ? dockerCertificates.getSslContext().getSocketFactory()
+                                                                         : SocketFactory.getDefault(),
+                                     connectionTimeoutMs,
+                                     connectionReadTimeoutMs,
+                                     poolMaxIdle,
+                                     poolIdleTimeoutMs);
+    }
+
+    /** Returns statistics of the requests performed through the connections opened by this factory. */
+    public DockerConnectionMetrics getMetrics() {
+        return metrics;
     }
 }
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Collects per-endpoint statistics of the requests to docker API.
+ *
+ * <p>Endpoint is a request method along with normalized request path,
+ * api version prefix is removed from the path and identifiers of docker objects
+ * are replaced with {@code *}, e.g. {@code GET /v1.20/containers/abc/json}
+ * is accounted as {@code GET /containers/&#42;/json}.
+ */
+public class DockerConnectionMetrics {
+    private static final Pattern VERSION_PREFIX = Pattern.compile("^/v[0-9.]+(?=/)");
+
+    private final ConcurrentHashMap<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    /** Returns the snapshot of the statistics, the key is a {@code METHOD /path} pair. */
+    public Map<String, EndpointMetrics> getEndpointMetrics() {
+        return metrics.entrySet()
+                      .stream()
+                      .collect(toMap(Map.Entry::getKey, entry -> new EndpointMetrics(entry.getValue())));
+    }
+
+    /**
+     * Called after the response headers of the request are received or the request failed.
+     *
+     * @param method
+     *         request method
+     * @param path
+     *         request path
+     * @param latencyNanos
+     *         the time spent to send the request and receive response status
+     * @param failed
+     *         whether the request failed with an i/o error or an error response
+     */
+    void requestFinished(String method, String path, long latencyNanos, boolean failed) {
+        final EndpointMetrics endpoint = metrics.computeIfAbsent(method + ' ' + normalize(path), key -> new EndpointMetrics());
+        endpoint.requests.incrementAndGet();
+        endpoint.totalLatencyNanos.addAndGet(latencyNanos);
+        endpoint.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        if (failed) {
+            endpoint.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes api version prefix and replaces identifiers with {@code *}.
+     * Resource is the first segment of the path, e.g. containers, images, exec,
+     * second segment is either an operation on the resource (e.g. {@code /containers/create})
+     * or an identifier which may be followed by an operation on the identified object.
+     * Identifiers may contain slashes (e.g. image names), so all the segments after the resource
+     * are collapsed into a single {@code *} except the last one if it is a known operation.
+     */
+    static String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        final String[] segments = VERSION_PREFIX.matcher(path).replaceFirst("").split("/");
+        // segments[0] is an empty string as path starts with '/'
+        if (segments.length < 2) {
+            return "/";
+        }
+        final StringBuilder sb = new StringBuilder().append('/').append(segments[1]);
+        if (segments.length == 2) {
+            return sb.toString();
+        }
+        if (segments.length == 3 && isResourceOperation(segments[2])) {
+            return sb.append('/').append(segments[2]).toString();
+        }
+        sb.append("/*");
+        final String last = segments[segments.length - 1];
+        if (segments.length > 3 && isObjectOperation(last)) {
+            sb.append('/').append(last);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isResourceOperation(String segment) {
+        switch (segment) {
+            case "json":
+            case "create":
+            case "load":
+            case "search":
+            case "prune":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isObjectOperation(String segment) {
+        switch (segment) {
+            case "json":
+            case "start":
+            case "stop":
+            case "restart":
+            case "kill":
+            case "wait":
+            case "attach":
+            case "logs":
+            case "top":
+            case "changes":
+            case "export":
+            case "stats":
+            case "resize":
+            case "archive":
+            case "exec":
+            case "pause":
+            case "unpause":
+            case "rename":
+            case "update":
+            case "history":
+            case "push":
+            case "tag":
+            case "get":
+            case "connect":
+            case "disconnect":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Statistics of the requests to a single endpoint. */
+    public static class EndpointMetrics {
+        private final AtomicLong requests;
+        private final AtomicLong failures;
+        private final AtomicLong totalLatencyNanos;
+        private final AtomicLong maxLatencyNanos;
+
+        private EndpointMetrics() {
+            requests = new AtomicLong();
+            failures = new AtomicLong();
+            totalLatencyNanos = new AtomicLong();
+            maxLatencyNanos = new AtomicLong();
+        }
+
+        private EndpointMetrics(EndpointMetrics metrics) {
+            requests = new AtomicLong(metrics.requests.get());
+            failures = new AtomicLong(metrics.failures.get());
+            totalLatencyNanos = new AtomicLong(metrics.totalLatencyNanos.get());
+            maxLatencyNanos = new AtomicLong(metrics.maxLatencyNanos.get());
+        }
+
+        /** Returns the number of the finished requests. */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /** Returns the number of the failed requests. */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /** Returns the average time to response headers in milliseconds. */
+        public double getAverageLatencyMs() {
+            final long count = requests.get();
+            return count == 0 ? 0 : totalLatencyNanos.get() / 1_000_000D / count;
+        }
+
+        /** Returns the maximum time to response headers in milliseconds. */
+        public double getMaxLatencyMs() {
+            return maxLatencyNanos.get() / 1_000_000D;
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointMetrics{" +
+                   "requests=" + requests +
+                   ", failures=" + failures +
+                   ", averageLatencyMs=" + getAverageLatencyMs() +
+                   ", maxLatencyMs=" + getMaxLatencyMs() +
+                   '}';
+        }
+    }
+}
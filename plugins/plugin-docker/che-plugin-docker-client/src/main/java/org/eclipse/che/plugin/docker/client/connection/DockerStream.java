@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response of docker API sent on a dedicated connection, whose body is read as it arrives.
+ *
+ * <p>Stream is opened in blocking mode, so its status and body may be read as of usual response.
+ * Once the stream is registered in {@link DockerStreamSelector} its reads never block,
+ * {@link #read(ByteBuffer)} returns 0 when no data is available at the moment.
+ *
+ * <p>Body sent with chunked transfer encoding is decoded incrementally.
+ * The stream is not thread safe.
+ */
+public abstract class DockerStream implements Closeable {
+    private static final int BUFFER_SIZE      = 8 * 1024;
+    private static final int MAX_LINE_LENGTH  = 8 * 1024;
+    private static final int MAX_ERROR_LENGTH = 64 * 1024;
+
+    private enum ChunkState {
+        SIZE, DATA, DATA_END, TRAILER
+    }
+
+    /** Raw bytes received from the daemon, the buffer is kept ready for reading between the calls. */
+    private final ByteBuffer    raw;
+    private final StringBuilder line;
+
+    private int        status;
+    private boolean    chunked;
+    private ChunkState chunkState;
+    /** Bytes remaining in the current chunk or in the body, -1 when body lasts until the end of the stream. */
+    private long       remaining;
+    private boolean    eof;
+    private boolean    done;
+
+    /** Creates stream whose body lasts until the end of the connection, status and headers are read by subclass if any. */
+    protected DockerStream() {
+        raw = ByteBuffer.allocate(BUFFER_SIZE);
+        raw.flip();
+        line = new StringBuilder();
+        remaining = -1;
+    }
+
+    /**
+     * Reads bytes received from the daemon to the given heap buffer.
+     *
+     * @return number of bytes read, 0 when the stream is in non-blocking mode
+     * and no data is available, -1 at the end of the stream
+     */
+    protected abstract int readRaw(ByteBuffer dst) throws IOException;
+
+    /** Closes the connection and cancels registration of the stream in selector if any. */
+    @Override
+    public abstract void close();
+
+    /** Returns HTTP status of the response. */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Reads decoded response body to the given buffer.
+     *
+     * @return number of bytes read, 0 when no data is available at the moment, -1 at the end of the body
+     * @throws IOException
+     *         when the connection fails or chunked body is malformed
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        final int start = dst.position();
+        while (dst.hasRemaining() && !done) {
+            if (!raw.hasRemaining()) {
+                // data which is already read is returned before the next read from the connection, which may fail
+                if (dst.position() > start || !fill()) {
+                    if (eof) {
+                        if (chunked) {
+                            throw new EOFException("Unexpected end of chunked docker response");
+                        }
+                        done = true;
+                    }
+                    break;
+                }
+            }
+            if (!chunked) {
+                copy(dst);
+                done = remaining == 0;
+                continue;
+            }
+            switch (chunkState) {
+                case SIZE:
+                    final String size = readLine();
+                    if (size != null) {
+                        remaining = parseChunkSize(size);
+                        chunkState = remaining == 0 ? ChunkState.TRAILER : ChunkState.DATA;
+                    }
+                    break;
+                case DATA:
+                    copy(dst);
+                    if (remaining == 0) {
+                        chunkState = ChunkState.DATA_END;
+                    }
+                    break;
+                case DATA_END:
+                    if (readLine() != null) {
+                        chunkState = ChunkState.SIZE;
+                    }
+                    break;
+                case TRAILER:
+                    final String trailer = readLine();
+                    done = trailer != null && trailer.isEmpty();
+                    break;
+            }
+        }
+        final int read = dst.position() - start;
+        return read == 0 && done ? -1 : read;
+    }
+
+    /**
+     * Reads body of unsuccessful response, the stream must be in blocking mode.
+     * Only the beginning of a long body is returned.
+     */
+    public String readError() throws IOException {
+        final ByteBuffer body = ByteBuffer.allocate(MAX_ERROR_LENGTH);
+        while (body.hasRemaining() && read(body) != -1) {
+            // read until the end of the body
+        }
+        return new String(body.array(), 0, body.position(), StandardCharsets.UTF_8);
+    }
+
+    /** Reads status line and headers of the response, the stream must be in blocking mode. */
+    void readHeaders() throws IOException {
+        final String statusLine = readHeaderLine();
+        final String[] parts = statusLine.split(" ", 3);
+        try {
+            status = Integer.parseInt(parts.length > 1 ? parts[1] : "");
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid status line of docker response: " + statusLine);
+        }
+        String header;
+        while (!(header = readHeaderLine()).isEmpty()) {
+            final int separator = header.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            final String name = header.substring(0, separator).trim();
+            final String value = header.substring(separator + 1).trim();
+            if ("Transfer-Encoding".equalsIgnoreCase(name) && "chunked".equalsIgnoreCase(value)) {
+                chunked = true;
+                chunkState = ChunkState.SIZE;
+            } else if ("Content-Length".equalsIgnoreCase(name)) {
+                try {
+                    remaining = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid content length of docker response: " + value);
+                }
+            }
+        }
+        done = !chunked && remaining == 0;
+    }
+
+    private String readHeaderLine() throws IOException {
+        String header;
+        while ((header = readLine()) == null) {
+            if (!fill() && eof) {
+                throw new EOFException("Unexpected end of docker response headers");
+            }
+        }
+        return header;
+    }
+
+    /** Reads the received bytes to the buffer, returns true if anything was read. */
+    private boolean fill() throws IOException {
+        raw.compact();
+        try {
+            final int read = readRaw(raw);
+            eof = read == -1;
+            return read > 0;
+        } finally {
+            raw.flip();
+        }
+    }
+
+    private void copy(ByteBuffer dst) {
+        int length = Math.min(raw.remaining(), dst.remaining());
+        if (remaining >= 0) {
+            length = (int)Math.min(length, remaining);
+            remaining -= length;
+        }
+        final int limit = raw.limit();
+        raw.limit(raw.position() + length);
+        dst.put(raw);
+        raw.limit(limit);
+    }
+
+    /** Returns the line without line separator, or null if the line is not received completely yet. */
+    private String readLine() throws IOException {
+        while (raw.hasRemaining()) {
+            final char ch = (char)(raw.get() & 0xFF);
+            if (ch == '\n') {
+                final int length = line.length();
+                final String result = line.substring(0, length > 0 && line.charAt(length - 1) == '\r' ? length - 1 : length);
+                line.setLength(0);
+                return result;
+            }
+            if (line.length() == MAX_LINE_LENGTH) {
+                throw new IOException("Too long line in docker response");
+            }
+            line.append(ch);
+        }
+        return null;
+    }
+
+    private static long parseChunkSize(String line) throws IOException {
+        final int extension = line.indexOf(';');
+        final String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+        try {
+            final long result = Long.parseLong(size, 16);
+            if (result < 0) {
+                throw new NumberFormatException();
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid chunk size in docker response: " + line);
+        }
+    }
+}
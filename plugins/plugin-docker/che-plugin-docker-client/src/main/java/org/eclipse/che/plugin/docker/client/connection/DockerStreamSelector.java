@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Multiplexes reading of many {@link DockerStream}s by a single thread.
+ *
+ * <p>Registered streams are switched to non-blocking mode,
+ * {@link #select(long)} waits until any of them has data to read.
+ * Selector is used by a single thread, only {@link #wakeup()} may be called from any thread.
+ * Closing of the selector closes all the registered streams.
+ */
+public abstract class DockerStreamSelector implements Closeable {
+
+    /**
+     * Switches the stream to non-blocking mode and starts waiting for its data.
+     * The stream must be opened by connection to the same daemon as this selector is opened for.
+     *
+     * @param attachment
+     *         object returned by {@link #select(long)} when the stream has data to read
+     */
+    public abstract void register(DockerStream stream, Object attachment) throws IOException;
+
+    /** Stops or resumes waiting for data of the registered stream, e.g. when its reader can't accept more data. */
+    public abstract void setReadInterest(DockerStream stream, boolean interested);
+
+    /**
+     * Waits until any of the registered streams has data to read,
+     * or the stream is closed by the daemon, or selector is woken up, or timeout expires.
+     *
+     * @return attachments of the streams which are ready to be read
+     */
+    public abstract List<Object> select(long timeoutMs) throws IOException;
+
+    /** Makes the blocked {@link #select(long)} return immediately. */
+    public abstract void wakeup();
+
+    @Override
+    public abstract void close();
+}
@@ -59,6 +59,16 @@ public class LimitedInputStream extends InputStream {
         return doRead(b, 0, len);
     }
 
+    /** Returns true when all the {@code limit} bytes are read. */
+    synchronized boolean isEof() {
+        return pos >= limit;
+    }
+
+    /** Returns the number of bytes which are left to read. */
+    synchronized int remaining() {
+        return limit - pos;
+    }
+
     private int doRead(byte[] b, int off, int len) throws IOException {
         if (pos >= limit) {
             return -1;
@@ -16,11 +16,14 @@ import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.plugin.docker.client.DockerCertificates;
 
 import javax.net.ssl.HttpsURLConnection;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.SocketChannel;
 import java.util.List;
 
 /**
@@ -32,10 +35,30 @@ public class TcpConnection extends DockerConnection {
     private final DockerCertificates certificates;
     private final int                connectionTimeout;
     private final int                readTimeout;
+    private final TcpConnectionPool  pool;
 
-    private HttpURLConnection connection;
+    private HttpURLConnection              connection;
+    private TcpConnectionPool.PooledSocket socket;
+    private UnixSocketDockerResponse       response;
 
     public TcpConnection(URI baseUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs) {
+        this(baseUri, certificates, connectionTimeoutMs, readTimeoutMs, null);
+    }
+
+    /**
+     * Creates tcp connection which takes connected socket from the given {@code pool}
+     * and returns it back to the pool on {@link #close()} when it is possible.
+     * Idempotent request which fails on a socket taken from the pool is sent once more on a new socket.
+     *
+     * @param pool
+     *         pool of idle connections to the docker daemon identified by {@code baseUri},
+     *         if it is null then a new connection is opened for each request and closed after it
+     */
+    public TcpConnection(URI baseUri,
+                         DockerCertificates certificates,
+                         int connectionTimeoutMs,
+                         int readTimeoutMs,
+                         TcpConnectionPool pool) {
         if ("https".equals(baseUri.getScheme())) {
             if (certificates == null) {
                 throw new IllegalArgumentException("Certificates are required for https connection.");
@@ -47,11 +70,90 @@ public class TcpConnection extends DockerConnection {
         this.certificates = certificates;
         this.connectionTimeout = connectionTimeoutMs;
         this.readTimeout = readTimeoutMs;
+        this.pool = pool;
     }
 
     @Override
     protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
             throws IOException {
+        if (pool == null) {
+            return requestNewConnection(method, path, query, headers, entity);
+        }
+        final String requestPath = baseUri.resolve(path).getRawPath();
+        final TcpConnectionPool.PooledSocket reused = pool.acquire();
+        if (reused != null) {
+            final boolean retriable = isRetriable(method, entity);
+            try {
+                return send(reused, method, requestPath, query, headers, entity, retriable);
+            } catch (IOException x) {
+                if (!retriable) {
+                    throw x;
+                }
+                // the daemon closed idle connection, the request is sent once more on a new connection
+            }
+        }
+        return send(pool.open(), method, requestPath, query, headers, entity, false);
+    }
+
+    /**
+     * Sends the request through the pooled socket, when {@code readHeaders} is true response headers
+     * are read before returning, so the failure of a stale connection is detected by this method.
+     */
+    private DockerResponse send(TcpConnectionPool.PooledSocket socket,
+                                String method,
+                                String path,
+                                String query,
+                                List<Pair<String, ?>> headers,
+                                Entity<?> entity,
+                                boolean readHeaders) throws IOException {
+        this.socket = socket;
+        this.response = null;
+        try {
+            writeRequest(socket.output, method, path, query, headers, entity, pool.getHostHeader());
+            response = new UnixSocketDockerResponse(socket.input);
+            if (readHeaders) {
+                response.getInputStream();
+            }
+            return response;
+        } catch (IOException x) {
+            socket.close();
+            this.socket = null;
+            throw x;
+        }
+    }
+
+    /** Streams are opened through the plain socket channel, so they are not supported for https daemon. */
+    @Override
+    protected DockerStream stream(String method, String path, String query, List<Pair<String, ?>> headers) throws IOException {
+        if (!"http".equals(baseUri.getScheme())) {
+            throw new UnsupportedOperationException("Non-blocking streams are not supported for https docker daemon");
+        }
+        final int port = baseUri.getPort() != -1 ? baseUri.getPort() : 80;
+        final SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(baseUri.getHost(), port), connectionTimeout);
+            channel.socket().setSoTimeout(readTimeout);
+            final TcpDockerStream stream = new TcpDockerStream(channel);
+            writeRequest(new BufferedOutputStream(channel.socket().getOutputStream()),
+                         method,
+                         baseUri.resolve(path).getRawPath(),
+                         query,
+                         headers,
+                         null,
+                         baseUri.getHost() + ':' + port);
+            stream.readHeaders();
+            return stream;
+        } catch (IOException x) {
+            channel.close();
+            throw x;
+        }
+    }
+
+    private DockerResponse requestNewConnection(String method,
+                                                String path,
+                                                String query,
+                                                List<Pair<String, ?>> headers,
+                                                Entity<?> entity) throws IOException {
         final String requestUri = path + (Strings.isNullOrEmpty(query) ? "" : "?" + query);
         final URL url = baseUri.resolve(requestUri).toURL();
         final String protocol = url.getProtocol();
@@ -74,6 +176,12 @@ public class TcpConnection extends DockerConnection {
         // Host header is mandatory in HTTP 1.1
         connection.setRequestProperty("Host", host);
         if (entity != null) {
+            // without streaming mode whole entity is buffered in memory to compute its length
+            if (isChunked(entity, headers)) {
+                connection.setChunkedStreamingMode(STREAM_CHUNK_SIZE);
+            } else if (entity instanceof StreamEntity) {
+                connection.setFixedLengthStreamingMode(Long.parseLong(String.valueOf(getHeader(headers, "Content-Length"))));
+            }
             connection.setDoOutput(true);
             try (OutputStream output = connection.getOutputStream()) {
                 entity.writeTo(output);
@@ -84,6 +192,14 @@ public class TcpConnection extends DockerConnection {
 
     @Override
     public void close() {
+        if (socket != null) {
+            if (isReusable(response, socket.input)) {
+                pool.release(socket);
+            } else {
+                socket.close();
+            }
+            socket = null;
+        }
         if (connection != null) {
             connection.disconnect();
         }
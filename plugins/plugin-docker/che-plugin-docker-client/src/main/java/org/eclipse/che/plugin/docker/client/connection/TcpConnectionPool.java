@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps idle tcp connections to docker daemon, so subsequent requests
+ * reuse already connected sockets instead of opening a new one for each request.
+ *
+ * <p>Sockets which are idle longer than idle timeout are closed,
+ * as well as sockets which were closed by docker daemon while being idle.
+ * The pool never keeps more than {@code maxIdle} idle sockets.
+ */
+public class TcpConnectionPool {
+    private final String        host;
+    private final int           port;
+    private final SocketFactory socketFactory;
+    private final int           connectionTimeoutMs;
+    private final int           readTimeoutMs;
+    private final int           maxIdle;
+    private final long          idleTimeoutMs;
+
+    private final Deque<PooledSocket> idle;
+
+    /**
+     * Creates pool of connections to the given docker daemon.
+     *
+     * @param socketFactory
+     *         factory of plain sockets for http or of ssl sockets for https daemon
+     */
+    public TcpConnectionPool(String host,
+                             int port,
+                             SocketFactory socketFactory,
+                             int connectionTimeoutMs,
+                             int readTimeoutMs,
+                             int maxIdle,
+                             long idleTimeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.socketFactory = socketFactory;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.idle = new ArrayDeque<>(maxIdle);
+    }
+
+    /** Returns the value of {@code Host} header of the requests sent through the connections of this pool. */
+    public String getHostHeader() {
+        return host + ':' + port;
+    }
+
+    /** Returns the number of the idle connections in the pool. */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /** Opens a new connection to docker daemon, the connection is not tracked by the pool until it is released. */
+    PooledSocket open() throws IOException {
+        final Socket socket = socketFactory.createSocket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), connectionTimeoutMs);
+            socket.setSoTimeout(readTimeoutMs);
+            if (socket instanceof SSLSocket) {
+                final SSLSocket sslSocket = (SSLSocket)socket;
+                final SSLParameters parameters = sslSocket.getSSLParameters();
+                // same host verification as https url connection performs
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(parameters);
+                sslSocket.startHandshake();
+            }
+            return new PooledSocket(socket,
+                                    new BufferedInputStream(socket.getInputStream()),
+                                    new BufferedOutputStream(socket.getOutputStream()));
+        } catch (IOException x) {
+            closeQuietly(socket);
+            throw x;
+        }
+    }
+
+    /**
+     * Takes the most recently released connection from the pool.
+     *
+     * @return idle connection or null if there is no live idle connection in the pool
+     */
+    synchronized PooledSocket acquire() {
+        evictExpired();
+        PooledSocket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            if (isAlive(socket)) {
+                return socket;
+            }
+            socket.close();
+        }
+        return null;
+    }
+
+    /**
+     * Returns connection to the pool, closes it if the pool is full.
+     */
+    synchronized void release(PooledSocket socket) {
+        evictExpired();
+        if (idle.size() < maxIdle) {
+            socket.releasedAt = System.currentTimeMillis();
+            idle.addFirst(socket);
+        } else {
+            socket.close();
+        }
+    }
+
+    /** Closes all the idle connections. */
+    public synchronized void close() {
+        PooledSocket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            socket.close();
+        }
+    }
+
+    private void evictExpired() {
+        final long expirationTime = System.currentTimeMillis() - idleTimeoutMs;
+        PooledSocket socket;
+        while ((socket = idle.peekLast()) != null && socket.releasedAt < expirationTime) {
+            idle.pollLast();
+            socket.close();
+        }
+    }
+
+    /**
+     * Idle socket must not have anything to read, the read with the shortest timeout
+     * returns -1 when the peer closed the socket and times out when there is no data available.
+     */
+    private boolean isAlive(PooledSocket pooled) {
+        if (pooled.socket.isClosed() || pooled.socket.isInputShutdown()) {
+            return false;
+        }
+        try {
+            if (pooled.input.available() > 0) {
+                return false;
+            }
+            pooled.socket.setSoTimeout(1);
+            try {
+                pooled.input.read();
+                // either the end of the stream or unexpected data
+                return false;
+            } catch (SocketTimeoutException x) {
+                return true;
+            } finally {
+                pooled.socket.setSoTimeout(readTimeoutMs);
+            }
+        } catch (IOException x) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Connected socket along with its buffered streams which are bound to the socket for its whole life. */
+    static class PooledSocket {
+        final Socket              socket;
+        final BufferedInputStream input;
+        final OutputStream        output;
+
+        long releasedAt;
+
+        PooledSocket(Socket socket, BufferedInputStream input, OutputStream output) {
+            this.socket = socket;
+            this.input = input;
+            this.output = output;
+        }
+
+        void close() {
+            closeQuietly(socket);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Stream of docker response received through a plain tcp socket channel.
+ * In blocking mode reads time out as reads of usual connection do.
+ */
+class TcpDockerStream extends DockerStream {
+    final SocketChannel channel;
+
+    private final InputStream input;
+
+    SelectionKey key;
+
+    TcpDockerStream(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        // unlike the channel itself the stream of its socket respects read timeout
+        this.input = channel.socket().getInputStream();
+    }
+
+    @Override
+    protected int readRaw(ByteBuffer dst) throws IOException {
+        if (!channel.isBlocking()) {
+            return channel.read(dst);
+        }
+        final int read = input.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+        if (read > 0) {
+            dst.position(dst.position() + read);
+        }
+        return read;
+    }
+
+    @Override
+    public void close() {
+        try {
+            // closing of the channel cancels its selection key
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
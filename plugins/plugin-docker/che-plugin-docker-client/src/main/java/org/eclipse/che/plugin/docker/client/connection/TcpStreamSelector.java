@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Selector of the streams opened by {@link TcpConnection} to plain http docker daemon,
+ * based on {@link Selector}.
+ */
+class TcpStreamSelector extends DockerStreamSelector {
+    private final Selector selector;
+
+    TcpStreamSelector() throws IOException {
+        this.selector = Selector.open();
+    }
+
+    @Override
+    public void register(DockerStream stream, Object attachment) throws IOException {
+        final TcpDockerStream tcpStream = (TcpDockerStream)stream;
+        tcpStream.channel.configureBlocking(false);
+        tcpStream.key = tcpStream.channel.register(selector, SelectionKey.OP_READ, attachment);
+    }
+
+    @Override
+    public void setReadInterest(DockerStream stream, boolean interested) {
+        final SelectionKey key = ((TcpDockerStream)stream).key;
+        if (key != null && key.isValid()) {
+            key.interestOps(interested ? SelectionKey.OP_READ : 0);
+        }
+    }
+
+    @Override
+    public List<Object> select(long timeoutMs) throws IOException {
+        selector.select(timeoutMs);
+        final List<Object> ready = new ArrayList<>(selector.selectedKeys().size());
+        for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+            ready.add(it.next().attachment());
+            it.remove();
+        }
+        return ready;
+    }
+
+    @Override
+    public void wakeup() {
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
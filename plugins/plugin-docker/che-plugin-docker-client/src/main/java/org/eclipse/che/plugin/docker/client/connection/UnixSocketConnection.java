@@ -10,18 +10,15 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client.connection;
 
-import com.google.common.base.Strings;
-
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.plugin.docker.client.CLibrary;
+import org.eclipse.che.plugin.docker.client.connection.UnixSocketConnectionPool.PooledSocket;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.ConnectException;
 import java.util.List;
 
@@ -35,32 +32,101 @@ import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
  * @author Alexander Garagatyi
  */
 public class UnixSocketConnection extends DockerConnection {
-    private final String dockerSocketPath;
+    private final String                   dockerSocketPath;
+    private final UnixSocketConnectionPool pool;
 
-    private int fd = -1;
+    private PooledSocket             socket;
+    private UnixSocketDockerResponse response;
 
     public UnixSocketConnection(String dockerSocketPath) {
+        this(dockerSocketPath, null);
+    }
+
+    /**
+     * Creates connection which takes connected socket from the given {@code pool}
+     * and returns it back to the pool on {@link #close()} when it is possible.
+     * Idempotent request which fails on a socket taken from the pool is sent once more on a new socket.
+     *
+     * @param dockerSocketPath
+     *         path to docker unix socket
+     * @param pool
+     *         pool of idle connections, if it is null then connection is always closed
+     */
+    public UnixSocketConnection(String dockerSocketPath, UnixSocketConnectionPool pool) {
         this.dockerSocketPath = dockerSocketPath;
+        this.pool = pool;
     }
 
     @Override
     protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
             throws IOException {
-        fd = connect();
-        final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
-        writeHttpHeaders(output, method, path, query, headers);
-        if (entity != null) {
-            entity.writeTo(output);
+        final PooledSocket reused = pool != null ? pool.acquire() : null;
+        if (reused != null) {
+            final boolean retriable = isRetriable(method, entity);
+            try {
+                return send(reused, method, path, query, headers, entity, retriable);
+            } catch (IOException x) {
+                if (!retriable) {
+                    throw x;
+                }
+                // the daemon closed idle socket, the request is sent once more on a new socket
+            }
         }
-        return new UnixSocketDockerResponse(new BufferedInputStream(openInputStream(fd)));
+        final int fd = connect();
+        return send(new PooledSocket(fd, new BufferedInputStream(openInputStream(fd))), method, path, query, headers, entity, false);
     }
 
+    /**
+     * Sends the request, when {@code readHeaders} is true response headers are read before returning,
+     * so the failure of a stale connection is detected by this method.
+     */
+    private DockerResponse send(PooledSocket socket,
+                                String method,
+                                String path,
+                                String query,
+                                List<Pair<String, ?>> headers,
+                                Entity<?> entity,
+                                boolean readHeaders) throws IOException {
+        this.socket = socket;
+        this.response = null;
+        try {
+            writeRequest(new BufferedOutputStream(openOutputStream(socket.fd)), method, path, query, headers, entity, "");
+            response = new UnixSocketDockerResponse(socket.input);
+            if (readHeaders) {
+                response.getInputStream();
+            }
+            return response;
+        } catch (IOException x) {
+            getCLibrary().close(socket.fd);
+            this.socket = null;
+            throw x;
+        }
+    }
+
+    @Override
+    protected DockerStream stream(String method, String path, String query, List<Pair<String, ?>> headers) throws IOException {
+        final UnixSocketDockerStream stream = new UnixSocketDockerStream(connect());
+        try {
+            writeRequest(new BufferedOutputStream(openOutputStream(stream.fd)), method, path, query, headers, null, "");
+            stream.readHeaders();
+            return stream;
+        } catch (IOException x) {
+            stream.close();
+            throw x;
+        }
+    }
 
     @Override
     public void close() {
-        if (fd != -1) {
-            getCLibrary().close(fd);
+        if (socket == null) {
+            return;
+        }
+        if (pool != null && isReusable(response, socket.input)) {
+            pool.release(socket);
+        } else {
+            getCLibrary().close(socket.fd);
         }
+        socket = null;
     }
 
     private int connect() throws IOException {
@@ -77,28 +143,6 @@ public class UnixSocketConnection extends DockerConnection {
         return fd;
     }
 
-    private void writeHttpHeaders(OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
-            throws IOException {
-        final Writer writer = new OutputStreamWriter(output);
-        writer.write(method);
-        writer.write(' ');
-        writer.write(path);
-        if (!Strings.isNullOrEmpty(query)) {
-            writer.write("?");
-            writer.write(query);
-        }
-        writer.write(" HTTP/1.1\r\n");
-        for (Pair<String, ?> header : headers) {
-            writer.write(header.first);
-            writer.write(": ");
-            writer.write(String.valueOf(header.second));
-            writer.write("\r\n");
-        }
-        // Host header is mandatory in HTTP 1.1
-        writer.write("Host: \r\n\r\n");
-        writer.flush();
-    }
-
     private InputStream openInputStream(int fd) {
         return new UnixSocketInputStream(fd);
     }
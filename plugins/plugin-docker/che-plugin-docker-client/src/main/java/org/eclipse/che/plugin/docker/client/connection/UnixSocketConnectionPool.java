@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.sun.jna.Native;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+
+import java.io.BufferedInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.EAGAIN;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_PEEK;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Keeps idle connections to docker unix socket, so subsequent requests
+ * reuse already connected sockets instead of opening a new one for each request.
+ *
+ * <p>Sockets which are idle longer than idle timeout are closed,
+ * as well as sockets which were closed by docker daemon while being idle.
+ * The pool never keeps more than {@code maxIdle} idle sockets.
+ */
+public class UnixSocketConnectionPool {
+    private final String dockerSocketPath;
+    private final int    maxIdle;
+    private final long   idleTimeoutMs;
+
+    private final CLibrary            cLib;
+    private final Deque<PooledSocket> idle;
+
+    public UnixSocketConnectionPool(String dockerSocketPath, int maxIdle, long idleTimeoutMs) {
+        this(dockerSocketPath, maxIdle, idleTimeoutMs, getCLibrary());
+    }
+
+    @VisibleForTesting
+    UnixSocketConnectionPool(String dockerSocketPath, int maxIdle, long idleTimeoutMs, CLibrary cLib) {
+        this.dockerSocketPath = dockerSocketPath;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.cLib = cLib;
+        this.idle = new ArrayDeque<>(maxIdle);
+    }
+
+    /** Returns the path of the socket connections of this pool are opened to. */
+    public String getDockerSocketPath() {
+        return dockerSocketPath;
+    }
+
+    /** Returns the number of the idle connections in the pool. */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Takes the most recently released connection from the pool.
+     *
+     * @return idle connection or null if there is no live idle connection in the pool
+     */
+    synchronized PooledSocket acquire() {
+        evictExpired();
+        PooledSocket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            if (isAlive(socket.fd)) {
+                return socket;
+            }
+            cLib.close(socket.fd);
+        }
+        return null;
+    }
+
+    /**
+     * Returns connection to the pool, closes it if the pool is full.
+     */
+    synchronized void release(PooledSocket socket) {
+        evictExpired();
+        if (idle.size() < maxIdle) {
+            socket.releasedAt = System.currentTimeMillis();
+            idle.addFirst(socket);
+        } else {
+            cLib.close(socket.fd);
+        }
+    }
+
+    /** Closes all the idle connections. */
+    public synchronized void close() {
+        PooledSocket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            cLib.close(socket.fd);
+        }
+    }
+
+    private void evictExpired() {
+        final long expirationTime = System.currentTimeMillis() - idleTimeoutMs;
+        PooledSocket socket;
+        while ((socket = idle.peekLast()) != null && socket.releasedAt < expirationTime) {
+            idle.pollLast();
+            cLib.close(socket.fd);
+        }
+    }
+
+    /**
+     * Idle socket must not have anything to read, 0 is returned
+     * when the peer closed the socket, -1 with {@code EAGAIN} error when there is no data available,
+     * any other error means that the socket is broken.
+     */
+    private boolean isAlive(int fd) {
+        return cLib.recv(fd, new byte[1], 1, MSG_PEEK | MSG_DONTWAIT) == -1 && lastError() == EAGAIN;
+    }
+
+    /** Returns {@code errno} set by the last native call of the current thread. */
+    @VisibleForTesting
+    int lastError() {
+        return Native.getLastError();
+    }
+
+    /** Connected socket along with its buffered input which is bound to the socket for its whole life. */
+    static class PooledSocket {
+        final int                 fd;
+        final BufferedInputStream input;
+
+        long releasedAt;
+
+        PooledSocket(int fd, BufferedInputStream input) {
+            this.fd = fd;
+            this.input = input;
+        }
+    }
+}
@@ -109,6 +109,39 @@ public class UnixSocketDockerResponse implements DockerResponse {
         return headers.toArray(new String[headers.size()]);
     }
 
+    /**
+     * Returns true if the connection which received this response
+     * may be used for the next request, which is possible only when
+     * the response body was entirely read and the server didn't ask to close connection.
+     */
+    synchronized boolean isReusable() throws IOException {
+        if (headersFields == null || "close".equalsIgnoreCase(getHeader("Connection"))) {
+            return false;
+        }
+        if (data == EMPTY) {
+            return true;
+        }
+        if (data instanceof LimitedInputStream) {
+            return ((LimitedInputStream)data).isEof();
+        }
+        return data instanceof ChunkedInputStream && ((ChunkedInputStream)data).isEof();
+    }
+
+    /**
+     * Reads the rest of the response body when its length is known and
+     * doesn't exceed {@code maxBytes}, so the connection may be reused even
+     * if the caller didn't read the whole body. Chunked and unbounded bodies
+     * are never drained as reading them may block for a long time.
+     */
+    synchronized void drain(int maxBytes) throws IOException {
+        if (data instanceof LimitedInputStream && ((LimitedInputStream)data).remaining() <= maxBytes) {
+            final byte[] buf = new byte[8192];
+            while (data.read(buf) != -1) {
+                // skip the rest of the body
+            }
+        }
+    }
+
     @Override
     public synchronized InputStream getInputStream() throws IOException {
         if (this.headersFields != null) {
@@ -143,6 +176,11 @@ public class UnixSocketDockerResponse implements DockerResponse {
             }
         }
         this.headersFields = headerFields.toArray(new String[headerFields.size()]);
+        final int statusCode = getStatus();
+        if (statusCode == 204 || statusCode == 304) {
+            // response without body, see https://tools.ietf.org/html/rfc7230#section-3.3.3
+            return data = EMPTY;
+        }
         final int contentLength = getContentLength();
         if (contentLength == 0) {
             return data = EMPTY;
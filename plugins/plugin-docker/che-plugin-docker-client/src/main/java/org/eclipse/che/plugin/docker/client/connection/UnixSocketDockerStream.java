@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.sun.jna.Native;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.EAGAIN;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Stream of docker response received through unix socket.
+ */
+class UnixSocketDockerStream extends DockerStream {
+    final int fd;
+
+    private final CLibrary cLib;
+    private final byte[]   buffer;
+
+    UnixSocketStreamSelector selector;
+    Object                   attachment;
+    boolean                  interested;
+
+    private boolean closed;
+
+    UnixSocketDockerStream(int fd) {
+        this.fd = fd;
+        this.cLib = getCLibrary();
+        this.buffer = new byte[8 * 1024];
+    }
+
+    @Override
+    protected int readRaw(ByteBuffer dst) throws IOException {
+        final boolean nonBlocking = selector != null;
+        final int read = cLib.recv(fd, buffer, Math.min(buffer.length, dst.remaining()), nonBlocking ? MSG_DONTWAIT : 0);
+        if (read == -1) {
+            final int errno = Native.getLastError();
+            if (nonBlocking && errno == EAGAIN) {
+                return 0;
+            }
+            throw new IOException(cLib.strerror(errno));
+        }
+        if (read == 0) {
+            return -1;
+        }
+        dst.put(buffer, 0, read);
+        return read;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (selector != null) {
+            selector.remove(this);
+        }
+        cLib.close(fd);
+    }
+}
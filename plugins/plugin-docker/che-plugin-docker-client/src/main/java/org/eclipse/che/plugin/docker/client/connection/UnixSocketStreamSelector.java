@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.sun.jna.Native;
+import com.sun.jna.ptr.LongByReference;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+import org.eclipse.che.plugin.docker.client.CLibrary.PollFd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.EFD_NONBLOCK;
+import static org.eclipse.che.plugin.docker.client.CLibrary.EINTR;
+import static org.eclipse.che.plugin.docker.client.CLibrary.POLLIN;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Selector of the streams opened by {@link UnixSocketConnection}, based on {@code poll}.
+ * Blocked poll is woken up by the signal written to {@code eventfd}.
+ */
+class UnixSocketStreamSelector extends DockerStreamSelector {
+    private final CLibrary                     cLib;
+    private final int                          wakeupFd;
+    private final byte[]                       wakeupSignal;
+    private final List<UnixSocketDockerStream> streams;
+
+    UnixSocketStreamSelector() throws IOException {
+        this.cLib = getCLibrary();
+        this.wakeupFd = cLib.eventfd(0, EFD_NONBLOCK);
+        if (wakeupFd == -1) {
+            throw new IOException("Unable to create eventfd: " + cLib.strerror(Native.getLastError()));
+        }
+        // eventfd counter is incremented by 8 bytes integer in native byte order
+        this.wakeupSignal = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()).putLong(1).array();
+        this.streams = new ArrayList<>();
+    }
+
+    @Override
+    public void register(DockerStream stream, Object attachment) {
+        final UnixSocketDockerStream unixStream = (UnixSocketDockerStream)stream;
+        unixStream.selector = this;
+        unixStream.attachment = attachment;
+        unixStream.interested = true;
+        streams.add(unixStream);
+    }
+
+    @Override
+    public void setReadInterest(DockerStream stream, boolean interested) {
+        ((UnixSocketDockerStream)stream).interested = interested;
+    }
+
+    @Override
+    public List<Object> select(long timeoutMs) throws IOException {
+        final List<UnixSocketDockerStream> polled = new ArrayList<>(streams.size());
+        for (UnixSocketDockerStream stream : streams) {
+            if (stream.interested) {
+                polled.add(stream);
+            }
+        }
+        final PollFd[] fds = (PollFd[])new PollFd().toArray(polled.size() + 1);
+        fds[0].fd = wakeupFd;
+        fds[0].events = POLLIN;
+        for (int i = 0; i < polled.size(); i++) {
+            fds[i + 1].fd = polled.get(i).fd;
+            fds[i + 1].events = POLLIN;
+        }
+        if (cLib.poll(fds, fds.length, (int)Math.min(timeoutMs, Integer.MAX_VALUE)) == -1) {
+            final int errno = Native.getLastError();
+            if (errno == EINTR) {
+                return Collections.emptyList();
+            }
+            throw new IOException("Unable to poll docker streams: " + cLib.strerror(errno));
+        }
+        if (fds[0].revents != 0) {
+            cLib.eventfd_read(wakeupFd, new LongByReference());
+        }
+        final List<Object> ready = new ArrayList<>();
+        for (int i = 0; i < polled.size(); i++) {
+            // errors and hang up are reported as well, they are detected by the following read
+            if (fds[i + 1].revents != 0) {
+                ready.add(polled.get(i).attachment);
+            }
+        }
+        return ready;
+    }
+
+    @Override
+    public void wakeup() {
+        cLib.write(wakeupFd, wakeupSignal, wakeupSignal.length);
+    }
+
+    @Override
+    public void close() {
+        for (UnixSocketDockerStream stream : new ArrayList<>(streams)) {
+            stream.close();
+        }
+        cLib.close(wakeupFd);
+    }
+
+    void remove(UnixSocketDockerStream stream) {
+        streams.remove(stream);
+    }
+}
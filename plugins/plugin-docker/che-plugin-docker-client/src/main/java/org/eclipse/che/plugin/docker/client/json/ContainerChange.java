@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json;
+
+/**
+ * Describes a change of the container filesystem in comparison to the image the container was created from.
+ */
+public class ContainerChange {
+    /** Kind of the change when path was modified. */
+    public static final int MODIFIED = 0;
+    /** Kind of the change when path was added. */
+    public static final int ADDED    = 1;
+    /** Kind of the change when path was deleted. */
+    public static final int DELETED  = 2;
+
+    private String path;
+    private int    kind;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public void setKind(int kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerChange{" +
+               "path='" + path + '\'' +
+               ", kind=" + kind +
+               '}';
+    }
+}
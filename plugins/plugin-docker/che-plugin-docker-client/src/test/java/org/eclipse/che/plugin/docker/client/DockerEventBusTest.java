@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.plugin.docker.client.json.Actor;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toMap;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test for {@link DockerEventBus}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerEventBusTest {
+    private static final long EVENT_TIME = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 10;
+
+    @Mock
+    private DockerConnector dockerConnector;
+
+    private DockerEventBus eventBus;
+    private CountDownLatch indexFilled;
+    private CountDownLatch eventsDispatched;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        eventBus = new DockerEventBus(dockerConnector);
+        indexFilled = new CountDownLatch(1);
+        eventsDispatched = new CountDownLatch(1);
+
+        final ContainerListEntry running = new ContainerListEntry();
+        running.setId("container1");
+        running.setNames(new String[] {"/running"});
+        running.setStatus("Up 2 hours");
+        when(dockerConnector.listContainers()).thenReturn(singletonList(running));
+
+        final Event created = new Event().withId("container2")
+                                         .withStatus("create")
+                                         .withType("container")
+                                         .withActor(new Actor().withId("container2")
+                                                               .withAttributes(ImmutableMap.of("name", "created")))
+                                         .withTime(EVENT_TIME)
+                                         .withTimeNano(1);
+        final Event died = new Event().withId("container1").withStatus("die").withTime(EVENT_TIME).withTimeNano(2);
+        final Event networkEvent = new Event().withId("network1").withStatus("connect").withType("network").withTime(EVENT_TIME);
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final MessageProcessor<Event> processor = (MessageProcessor<Event>)invocation.getArguments()[1];
+            if (eventsDispatched.getCount() == 0) {
+                // stream is reopened, wait until bus is stopped
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException x) {
+                    throw new InterruptedIOException();
+                }
+            }
+            indexFilled.await();
+            processor.process(created);
+            processor.process(networkEvent);
+            processor.process(died);
+            // events of the last second are replayed by docker when stream is reopened
+            processor.process(died);
+            eventsDispatched.countDown();
+            throw new InterruptedIOException("stream closed");
+        }).when(dockerConnector).getEvents(any(GetEventsParams.class), any());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        eventBus.stop();
+    }
+
+    @Test
+    public void shouldUpdateContainersIndexWithEvents() throws Exception {
+        eventBus.getContainers();
+        indexFilled.countDown();
+        assertTrue(eventsDispatched.await(5, TimeUnit.SECONDS));
+
+        final Map<String, String> statuses = eventBus.getContainers()
+                                                     .stream()
+                                                     .collect(toMap(ContainerListEntry::getId, ContainerListEntry::getStatus));
+
+        assertEquals(statuses, ImmutableMap.of("container1", "Exited", "container2", "Created"));
+        verify(dockerConnector).listContainers();
+    }
+
+    @Test
+    public void shouldDispatchEventsToSubscribersOfContainerOnce() throws Exception {
+        final List<String> all = new ArrayList<>();
+        final List<String> container1Dies = new ArrayList<>();
+        eventBus.subscribe(event -> all.add(event.getStatus()));
+        eventBus.subscribe("container1", event -> container1Dies.add(event.getId()), "die");
+
+        indexFilled.countDown();
+        assertTrue(eventsDispatched.await(5, TimeUnit.SECONDS));
+
+        assertEquals(all, asList("create", "die"));
+        assertEquals(container1Dies, singletonList("container1"));
+    }
+
+    @Test
+    public void shouldKeepContainersIndexWhenIdleStreamTimesOut() throws Exception {
+        final CountDownLatch reopened = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            indexFilled.await();
+            throw new SocketTimeoutException("Read timed out");
+        }).doAnswer(invocation -> blockUntilStopped(reopened))
+          .when(dockerConnector).getEvents(any(GetEventsParams.class), any());
+
+        eventBus.getContainers();
+        indexFilled.countDown();
+        assertTrue(reopened.await(5, TimeUnit.SECONDS));
+        eventBus.getContainers();
+
+        verify(dockerConnector).listContainers();
+    }
+
+    @Test
+    public void shouldListContainersAgainWhenDaemonIsNotReachable() throws Exception {
+        final CountDownLatch reopened = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            indexFilled.await();
+            throw new ConnectException("Connection refused");
+        }).doAnswer(invocation -> blockUntilStopped(reopened))
+          .when(dockerConnector).getEvents(any(GetEventsParams.class), any());
+
+        eventBus.getContainers();
+        indexFilled.countDown();
+        assertTrue(reopened.await(5, TimeUnit.SECONDS));
+        eventBus.getContainers();
+
+        verify(dockerConnector, times(2)).listContainers();
+    }
+
+    private static Void blockUntilStopped(CountDownLatch streamOpened) throws InterruptedIOException {
+        streamOpened.countDown();
+        try {
+            Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException x) {
+            throw new InterruptedIOException();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test for {@link ChunkedOutputStream}
+ */
+public class ChunkedOutputStreamTest {
+
+    @Test
+    public void shouldSplitDataIntoChunksOfBufferSize() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output, 4);
+
+        chunked.write("0123456789".getBytes(US_ASCII));
+        chunked.finish();
+
+        assertEquals(output.toString("US-ASCII"), "4\r\n0123\r\n4\r\n4567\r\n2\r\n89\r\n0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldWriteOnlyLastChunkWhenNothingWritten() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new ChunkedOutputStream(output, 4).finish();
+
+        assertEquals(output.toString("US-ASCII"), "0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldBeReadableWithChunkedInputStream() throws Exception {
+        final byte[] data = new byte[100_000];
+        new Random().nextBytes(data);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output, 1024);
+        chunked.write(data, 0, 10);
+        chunked.flush();
+        chunked.write(data[10]);
+        chunked.write(data, 11, data.length - 11);
+        chunked.finish();
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ChunkedInputStream input = new ChunkedInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+        }
+
+        assertEquals(result.toByteArray(), data);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldNotAllowWritingAfterFinish() throws Exception {
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(new ByteArrayOutputStream(), 4);
+        chunked.finish();
+
+        chunked.write(1);
+    }
+}
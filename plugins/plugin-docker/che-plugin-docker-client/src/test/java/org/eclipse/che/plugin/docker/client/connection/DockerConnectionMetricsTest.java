@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.connection.DockerConnectionMetrics.EndpointMetrics;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test for {@link DockerConnectionMetrics}
+ */
+public class DockerConnectionMetricsTest {
+
+    @DataProvider(name = "paths")
+    public static Object[][] paths() {
+        return new Object[][] {
+                {"/v1.20/containers/json", "/containers/json"},
+                {"/containers/create", "/containers/create"},
+                {"/v1.20/containers/4c01db0b339c/json", "/containers/*/json"},
+                {"/containers/4c01db0b339c/archive", "/containers/*/archive"},
+                {"/v1.20/exec/1a2b3c/start", "/exec/*/start"},
+                {"/images/ubuntu/json", "/images/*/json"},
+                {"/v1.20/images/codenvy/ubuntu_jdk8/json", "/images/*/json"},
+                {"/images/registry:5000/codenvy/ubuntu_jdk8:latest/push", "/images/*/push"},
+                {"/images/codenvy/ubuntu_jdk8", "/images/*"},
+                {"/containers/4c01db0b339c", "/containers/*"},
+                {"/events", "/events"},
+                {"", "/"}
+        };
+    }
+
+    @Test(dataProvider = "paths")
+    public void shouldNormalizePath(String path, String expected) {
+        assertEquals(DockerConnectionMetrics.normalize(path), expected);
+    }
+
+    @Test
+    public void shouldAccountRequestsPerEndpoint() {
+        final DockerConnectionMetrics metrics = new DockerConnectionMetrics();
+
+        metrics.requestFinished("GET", "/v1.20/containers/abc/json", 2_000_000, false);
+        metrics.requestFinished("GET", "/v1.20/containers/def/json", 4_000_000, true);
+        metrics.requestFinished("POST", "/v1.20/containers/abc/start", 1_000_000, false);
+
+        final Map<String, EndpointMetrics> endpoints = metrics.getEndpointMetrics();
+        assertEquals(endpoints.size(), 2);
+        final EndpointMetrics inspect = endpoints.get("GET /containers/*/json");
+        assertEquals(inspect.getRequests(), 2);
+        assertEquals(inspect.getFailures(), 1);
+        assertEquals(inspect.getAverageLatencyMs(), 3D);
+        assertEquals(inspect.getMaxLatencyMs(), 4D);
+        assertEquals(endpoints.get("POST /containers/*/start").getRequests(), 1);
+    }
+}
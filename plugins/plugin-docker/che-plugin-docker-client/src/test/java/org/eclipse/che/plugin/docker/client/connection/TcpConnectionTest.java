@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.ByteStreams;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.net.SocketFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Test for {@link TcpConnection} with {@link TcpConnectionPool} and for its non-blocking streams,
+ * docker daemon is simulated with a plain server socket.
+ */
+public class TcpConnectionTest {
+    private static final String RESPONSE = "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 2\r\n\r\n{}";
+
+    private ServerSocket      serverSocket;
+    private URI               daemonUri;
+    private TcpConnectionPool pool;
+    private AtomicInteger     connections;
+    private AtomicInteger     requests;
+    /** Number of the request (starting from 1) which is dropped by the daemon without response, 0 means none. */
+    private volatile int      droppedRequest;
+    /** Parts of the response, each next part is sent when the test allows it. */
+    private volatile String[] responseParts;
+    private Semaphore         nextPartAllowed;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+        daemonUri = new URI("http://localhost:" + serverSocket.getLocalPort());
+        connections = new AtomicInteger();
+        requests = new AtomicInteger();
+        droppedRequest = 0;
+        responseParts = new String[] {RESPONSE};
+        nextPartAllowed = new Semaphore(0);
+        pool = createPool(60_000);
+        final Thread acceptor = new Thread(this::accept, "FakeDockerDaemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        pool.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void shouldReuseConnectionForSubsequentRequests() throws Exception {
+        assertEquals(get("/containers/json"), "{}");
+        assertEquals(get("/containers/json"), "{}");
+
+        assertEquals(connections.get(), 1);
+        assertEquals(pool.getIdleCount(), 1);
+    }
+
+    @Test
+    public void shouldOpenNewConnectionWhenIdleOneIsExpired() throws Exception {
+        pool = createPool(10);
+
+        get("/containers/json");
+        Thread.sleep(50);
+        get("/containers/json");
+
+        assertEquals(connections.get(), 2);
+    }
+
+    @Test
+    public void shouldRetryIdempotentRequestOnNewConnectionWhenReusedOneFails() throws Exception {
+        get("/containers/json");
+        droppedRequest = 2;
+
+        assertEquals(get("/containers/json"), "{}");
+
+        assertEquals(connections.get(), 2);
+        assertEquals(requests.get(), 3);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldNotRetryNotIdempotentRequest() throws Exception {
+        get("/containers/json");
+        droppedRequest = 2;
+
+        try (DockerConnection connection = new TcpConnection(daemonUri, null, 1000, 1000, pool)) {
+            connection.method("POST").path("/containers/abc/start").request().getStatus();
+        }
+    }
+
+    @Test
+    public void shouldReadChunkedStreamWithoutBlocking() throws Exception {
+        responseParts = new String[] {"HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n6\r\nfirst ",
+                                      "\r\n7\r\nsecond\n\r\n0\r\n\r\n"};
+        final TcpStreamSelector selector = new TcpStreamSelector();
+        try (DockerConnection connection = new TcpConnection(daemonUri, null, 1000, 1000, pool)) {
+            final DockerStream stream = connection.method("GET").path("/containers/abc/logs").query("follow", 1).stream();
+            assertEquals(stream.getStatus(), 200);
+            selector.register(stream, "abc");
+            final ByteBuffer body = ByteBuffer.allocate(64);
+            for (long deadline = System.currentTimeMillis() + 5_000; body.position() < 6 && System.currentTimeMillis() < deadline; ) {
+                selector.select(100);
+                stream.read(body);
+            }
+
+            // the rest of the body is not sent yet
+            assertEquals(stream.read(body), 0);
+            nextPartAllowed.release();
+            int read;
+            do {
+                assertFalse(selector.select(5_000).isEmpty());
+                while ((read = stream.read(body)) > 0) {
+                    // read all the available data
+                }
+            } while (read != -1);
+
+            assertEquals(new String(body.array(), 0, body.position(), StandardCharsets.UTF_8), "first second\n");
+        } finally {
+            selector.close();
+        }
+    }
+
+    private String get(String path) throws IOException {
+        try (DockerConnection connection = new TcpConnection(daemonUri, null, 1000, 1000, pool)) {
+            final DockerResponse response = connection.method("GET").path(path).request();
+            assertEquals(response.getStatus(), 200);
+            try (InputStream body = response.getInputStream()) {
+                return new String(ByteStreams.toByteArray(body), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private TcpConnectionPool createPool(long idleTimeoutMs) {
+        return new TcpConnectionPool("localhost", serverSocket.getLocalPort(), SocketFactory.getDefault(), 1000, 1000, 2, idleTimeoutMs);
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                final Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                final Thread handler = new Thread(() -> serve(socket), "FakeDockerDaemonConnection");
+                handler.setDaemon(true);
+                handler.start();
+            }
+        } catch (IOException ignored) {
+            // server socket is closed
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket ignored = socket) {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final OutputStream output = socket.getOutputStream();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    continue;
+                }
+                // end of request headers, requests of the tests have no body
+                if (requests.incrementAndGet() == droppedRequest) {
+                    return;
+                }
+                final String[] parts = responseParts;
+                for (int i = 0; i < parts.length; i++) {
+                    if (i > 0) {
+                        nextPartAllowed.acquire();
+                    }
+                    output.write(parts[i].getBytes(StandardCharsets.UTF_8));
+                    output.flush();
+                }
+            }
+        } catch (IOException ignored) {
+            // connection is closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+import org.eclipse.che.plugin.docker.client.connection.UnixSocketConnectionPool.PooledSocket;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.EAGAIN;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test for {@link UnixSocketConnectionPool}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class UnixSocketConnectionPoolTest {
+    private static final int EBADF = 9;
+
+    @Mock
+    private CLibrary cLib;
+
+    private int errno;
+
+    private UnixSocketConnectionPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+        errno = EAGAIN;
+        pool = createPool(2, 60_000);
+        when(cLib.recv(anyInt(), any(byte[].class), anyInt(), anyInt())).thenReturn(-1);
+    }
+
+    @Test
+    public void shouldReuseReleasedSocket() {
+        final PooledSocket socket = socket(1);
+
+        pool.release(socket);
+
+        assertSame(pool.acquire(), socket);
+        assertEquals(pool.getIdleCount(), 0);
+        verify(cLib, never()).close(anyInt());
+    }
+
+    @Test
+    public void shouldReturnMostRecentlyReleasedSocket() {
+        pool.release(socket(1));
+        final PooledSocket recent = socket(2);
+        pool.release(recent);
+
+        assertSame(pool.acquire(), recent);
+    }
+
+    @Test
+    public void shouldCloseSocketWhenPoolIsFull() {
+        pool.release(socket(1));
+        pool.release(socket(2));
+        pool.release(socket(3));
+
+        assertEquals(pool.getIdleCount(), 2);
+        verify(cLib).close(3);
+    }
+
+    @Test
+    public void shouldCloseSocketClosedByDaemon() {
+        pool.release(socket(1));
+        when(cLib.recv(eq(1), any(byte[].class), anyInt(), anyInt())).thenReturn(0);
+
+        assertNull(pool.acquire());
+        verify(cLib).close(1);
+    }
+
+    @Test
+    public void shouldCloseSocketWhenPeekFailsWithError() {
+        pool.release(socket(1));
+        errno = EBADF;
+
+        assertNull(pool.acquire());
+        verify(cLib).close(1);
+    }
+
+    @Test
+    public void shouldCloseSocketWithUnexpectedData() {
+        pool.release(socket(1));
+        when(cLib.recv(eq(1), any(byte[].class), anyInt(), anyInt())).thenReturn(1);
+
+        assertNull(pool.acquire());
+        verify(cLib).close(1);
+    }
+
+    @Test
+    public void shouldSkipBrokenSocketAndReturnNextLiveOne() {
+        final PooledSocket live = socket(1);
+        pool.release(live);
+        pool.release(socket(2));
+        when(cLib.recv(eq(2), any(byte[].class), anyInt(), anyInt())).thenReturn(0);
+
+        assertSame(pool.acquire(), live);
+        verify(cLib).close(2);
+    }
+
+    @Test
+    public void shouldEvictExpiredSockets() throws Exception {
+        pool = createPool(2, 10);
+        pool.release(socket(1));
+
+        Thread.sleep(50);
+
+        assertNull(pool.acquire());
+        verify(cLib).close(1);
+    }
+
+    @Test
+    public void shouldCloseAllIdleSockets() {
+        pool.release(socket(1));
+        pool.release(socket(2));
+
+        pool.close();
+
+        assertEquals(pool.getIdleCount(), 0);
+        verify(cLib).close(1);
+        verify(cLib).close(2);
+    }
+
+    private UnixSocketConnectionPool createPool(int maxIdle, long idleTimeoutMs) {
+        return new UnixSocketConnectionPool("/var/run/docker.sock", maxIdle, idleTimeoutMs, cLib) {
+            @Override
+            int lastError() {
+                return errno;
+            }
+        };
+    }
+
+    private static PooledSocket socket(int fd) {
+        return new PooledSocket(fd, new BufferedInputStream(new ByteArrayInputStream(new byte[0])));
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test for {@link UnixSocketDockerResponse}
+ */
+public class UnixSocketDockerResponseTest {
+
+    @Test
+    public void shouldBeReusableWhenBodyIsRead() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Content-Length: 5\r\n" +
+                                                           "\r\n" +
+                                                           "hello");
+        final InputStream body = response.getInputStream();
+        while (body.read() != -1) {
+        }
+
+        assertTrue(response.isReusable());
+    }
+
+    @Test
+    public void shouldDrainUnreadBodyOfKnownLength() throws Exception {
+        final ByteArrayInputStream raw = raw("HTTP/1.1 200 OK\r\n" +
+                                             "Content-Length: 5\r\n" +
+                                             "\r\n" +
+                                             "hello");
+        final UnixSocketDockerResponse response = new UnixSocketDockerResponse(raw);
+        response.getInputStream().read();
+        assertFalse(response.isReusable());
+
+        response.drain(1024);
+
+        assertTrue(response.isReusable());
+        assertEquals(raw.available(), 0);
+    }
+
+    @Test
+    public void shouldNotDrainBodyWhichExceedsLimit() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Content-Length: 5\r\n" +
+                                                           "\r\n" +
+                                                           "hello");
+        response.getStatus();
+
+        response.drain(4);
+
+        assertFalse(response.isReusable());
+    }
+
+    @Test
+    public void shouldNotDrainChunkedBody() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Transfer-Encoding: chunked\r\n" +
+                                                           "\r\n" +
+                                                           "5\r\nhello\r\n0\r\n\r\n");
+        response.getStatus();
+
+        response.drain(1024);
+
+        assertFalse(response.isReusable());
+    }
+
+    @Test
+    public void shouldNotBeReusableWhenDaemonClosesConnection() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 204 No Content\r\n" +
+                                                           "Connection: close\r\n" +
+                                                           "\r\n");
+        response.getStatus();
+
+        assertFalse(response.isReusable());
+    }
+
+    private static UnixSocketDockerResponse response(String raw) {
+        return new UnixSocketDockerResponse(raw(raw));
+    }
+
+    private static ByteArrayInputStream raw(String raw) {
+        return new ByteArrayInputStream(raw.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,487 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.LogMessage;
+import org.eclipse.che.plugin.docker.client.LogMessageDecoder;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.connection.DockerStream;
+import org.eclipse.che.plugin.docker.client.connection.DockerStreamSelector;
+import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
+import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Thread.sleep;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Streams logs of the running containers to the machines loggers.
+ *
+ * <p>Each container has a single followed logs stream. Streams of all the containers are read
+ * without blocking by a single selector thread, streams are opened and reopened by another single thread.
+ * Lines are put to the queue of the container and passed to the logger by a small shared pool,
+ * so a slow logger doesn't delay reading of the other containers logs. When the queue of the container
+ * is full its stream is not read until the logger catches up, so the daemon can't be read faster
+ * than the logger consumes the lines.
+ *
+ * <p>When the stream fails it is opened again since the timestamp of the last received line,
+ * lines which were already delivered are skipped, so each line is delivered exactly once and in order.
+ *
+ * <p>Https docker daemon doesn't support non-blocking streams, its containers logs are read by a thread per container.
+ */
+@Singleton
+public class ContainerLogsStreamer {
+    private static final Logger LOG = LoggerFactory.getLogger(ContainerLogsStreamer.class);
+
+    static final int MAX_PENDING_LINES    = 10_000;
+    static final int RESUME_PENDING_LINES = MAX_PENDING_LINES / 2;
+
+    private static final int  READ_BUFFER_SIZE   = 8 * 1024;
+    private static final int  MAX_READS_IN_TURN  = 16;
+    private static final long SELECT_TIMEOUT_MS  = 1_000;
+    private static final long RECONNECT_DELAY_MS = 1_000;
+
+    private final DockerConnector          docker;
+    private final DockerStreamSelector     selector;
+    private final Queue<Runnable>          selectorTasks;
+    private final ByteBuffer               readBuffer;
+    private final ExecutorService          selectorThread;
+    private final ScheduledExecutorService connector;
+    private final ExecutorService          readers;
+    private final ExecutorService          consumers;
+
+    @Inject
+    public ContainerLogsStreamer(DockerConnector docker) {
+        this.docker = docker;
+        this.selector = openSelector(docker);
+        this.consumers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                                                      threadFactory("MachineLogsConsumer-%d"));
+        if (selector != null) {
+            this.selectorTasks = new ConcurrentLinkedQueue<>();
+            this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            this.connector = Executors.newSingleThreadScheduledExecutor(threadFactory("MachineLogsConnector-%d"));
+            this.selectorThread = Executors.newSingleThreadExecutor(threadFactory("MachineLogsSelector-%d"));
+            this.readers = null;
+            selectorThread.execute(this::select);
+        } else {
+            this.selectorTasks = null;
+            this.readBuffer = null;
+            this.connector = null;
+            this.selectorThread = null;
+            this.readers = Executors.newCachedThreadPool(threadFactory("MachineLogsStreamer-%d"));
+        }
+    }
+
+    /**
+     * Starts streaming of the container logs to the given consumer.
+     *
+     * @param container
+     *         id of the container
+     * @param workspaceId
+     *         id of the workspace which owns container machine
+     * @param machineId
+     *         id of the machine backed by container
+     * @param outputConsumer
+     *         consumer of the container logs
+     */
+    public void startStreaming(String container, String workspaceId, String machineId, LineConsumer outputConsumer) {
+        final LogsStream stream = new LogsStream(container, workspaceId, machineId, outputConsumer);
+        if (selector != null) {
+            connector.execute(stream::connect);
+        } else {
+            readers.execute(stream::follow);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (selector != null) {
+            connector.shutdownNow();
+            selectorThread.shutdownNow();
+            selector.wakeup();
+            // selector thread passes lines to the consumers until it stops
+            try {
+                selectorThread.awaitTermination(SELECT_TIMEOUT_MS, MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            readers.shutdownNow();
+        }
+        consumers.shutdownNow();
+    }
+
+    private static DockerStreamSelector openSelector(DockerConnector docker) {
+        try {
+            return docker.openStreamSelector();
+        } catch (IOException e) {
+            LOG.error("Unable to open selector of containers logs streams, logs are read by a thread per container. Error: {}",
+                      e.getMessage(),
+                      e);
+            return null;
+        }
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder().setNameFormat(nameFormat)
+                                         .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                         .setDaemon(true)
+                                         .build();
+    }
+
+    /** Reads the streams which have data, streams are registered and resumed by the tasks performed between selections. */
+    private void select() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // tasks added by the performed ones wait for the next turn
+                for (int tasks = selectorTasks.size(); tasks > 0; tasks--) {
+                    selectorTasks.poll().run();
+                }
+                for (Object ready : selector.select(SELECT_TIMEOUT_MS)) {
+                    ((LogsStream)ready).read();
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Containers logs streaming is stopped because of the selector failure: {}", e.getMessage(), e);
+        } finally {
+            selector.close();
+        }
+    }
+
+    private void runOnSelector(Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    private class LogsStream implements MessageProcessor<LogMessage> {
+        private final String            container;
+        private final String            workspaceId;
+        private final String            machineId;
+        private final LogMessagePrinter printer;
+        private final Queue<LogMessage> pending;
+        private final AtomicInteger     pendingCount;
+        private final AtomicBoolean     draining;
+        private final AtomicBoolean     resumeRequested;
+
+        /** Set when the queue is full, reading of the stream is paused until the consumer catches up. */
+        private volatile boolean paused;
+
+        // used by the thread which currently reads the logs, threads hand the stream over through the executors queues
+        private DockerStream      stream;
+        private LogMessageDecoder decoder;
+        private Instant           lastTimestamp = Instant.EPOCH;
+        private int               deliveredAtLastTimestamp;
+        private int               receivedAtLastTimestamp;
+        private boolean           lastLineDelivered;
+        private int               errorsCounter;
+        private long              lastErrorTime;
+
+        LogsStream(String container, String workspaceId, String machineId, LineConsumer outputConsumer) {
+            this.container = container;
+            this.workspaceId = workspaceId;
+            this.machineId = machineId;
+            this.printer = new LogMessagePrinter(outputConsumer);
+            this.pending = new ConcurrentLinkedQueue<>();
+            this.pendingCount = new AtomicInteger();
+            this.draining = new AtomicBoolean();
+            this.resumeRequested = new AtomicBoolean();
+        }
+
+        /** Opens the stream, performed by the connector thread. */
+        private void connect() {
+            final DockerStream opened;
+            try {
+                opened = docker.openContainerLogsStream(getLogsParams());
+            } catch (ContainerNotFoundException e) {
+                return;
+            } catch (IOException e) {
+                reconnectOnError(e);
+                return;
+            }
+            runOnSelector(() -> attach(opened));
+        }
+
+        private void reconnectOnError(IOException e) {
+            if (onError(e)) {
+                connector.schedule(this::connect, RECONNECT_DELAY_MS, MILLISECONDS);
+            }
+        }
+
+        /** Starts reading of the opened stream, performed by the selector thread. */
+        private void attach(DockerStream opened) {
+            stream = opened;
+            decoder = new LogMessageDecoder(this);
+            receivedAtLastTimestamp = 0;
+            try {
+                selector.register(stream, this);
+            } catch (IOException e) {
+                closeStream();
+                connector.execute(() -> reconnectOnError(e));
+                return;
+            }
+            if (paused) {
+                selector.setReadInterest(stream, false);
+            } else {
+                // beginning of the body may be received along with the headers
+                read();
+            }
+        }
+
+        /**
+         * Reads the available data of the stream unless it is paused, performed by the selector thread.
+         * Busy stream is read in portions, so it doesn't delay reading of the other streams.
+         */
+        private void read() {
+            if (stream == null) {
+                return;
+            }
+            try {
+                for (int reads = 0; reads < MAX_READS_IN_TURN; reads++) {
+                    if (paused) {
+                        return;
+                    }
+                    final int read = stream.read(readBuffer);
+                    if (read == 0) {
+                        return;
+                    }
+                    if (read == -1) {
+                        // followed stream ends when container stops
+                        decoder.finish();
+                        closeStream();
+                        return;
+                    }
+                    readBuffer.flip();
+                    decoder.decode(readBuffer);
+                    readBuffer.clear();
+                }
+                // the rest of the data is read in the next turn
+                runOnSelector(this::read);
+            } catch (IOException e) {
+                readBuffer.clear();
+                closeStream();
+                connector.execute(() -> reconnectOnError(e));
+            }
+        }
+
+        private void closeStream() {
+            stream.close();
+            stream = null;
+        }
+
+        /** Resumes reading of the stream once the consumer caught up, performed by the selector thread. */
+        private void resume() {
+            resumeRequested.set(false);
+            if (paused) {
+                paused = false;
+                if (stream != null) {
+                    selector.setReadInterest(stream, true);
+                    read();
+                }
+            }
+        }
+
+        /** Follows the logs by blocking reads, performed by the reader thread when non-blocking streams are not supported. */
+        private void follow() {
+            boolean isContainerRunning = true;
+            while (isContainerRunning && !Thread.currentThread().isInterrupted()) {
+                receivedAtLastTimestamp = 0;
+                try {
+                    docker.getContainerLogs(getLogsParams(), this);
+                    // followed stream ends when container stops
+                    isContainerRunning = false;
+                } catch (SocketTimeoutException ste) {
+                    // container is silent, reconnect
+                } catch (ContainerNotFoundException e) {
+                    isContainerRunning = false;
+                } catch (IOException e) {
+                    isContainerRunning = onError(e) && sleepBeforeReconnect();
+                }
+            }
+        }
+
+        private GetContainerLogsParams getLogsParams() {
+            return GetContainerLogsParams.create(container)
+                                         .withFollow(true)
+                                         .withTimestamps(true)
+                                         .withSince(lastTimestamp.getEpochSecond());
+        }
+
+        /** Delivers the line if it wasn't delivered by the previous streams. */
+        @Override
+        public void process(LogMessage message) {
+            final String content = message.getContent();
+            final int separator = content.indexOf(' ');
+            final Instant timestamp = separator > 0 ? parseTimestamp(content.substring(0, separator)) : null;
+            if (timestamp == null) {
+                // continuation of a line which is too long to be received at once, it has no timestamp
+                if (lastLineDelivered) {
+                    deliver(message, content);
+                }
+                return;
+            }
+            if (timestamp.isBefore(lastTimestamp)) {
+                lastLineDelivered = false;
+                return;
+            }
+            if (timestamp.isAfter(lastTimestamp)) {
+                lastTimestamp = timestamp;
+                deliveredAtLastTimestamp = 0;
+                receivedAtLastTimestamp = 0;
+            }
+            if (++receivedAtLastTimestamp <= deliveredAtLastTimestamp) {
+                lastLineDelivered = false;
+                return;
+            }
+            deliveredAtLastTimestamp++;
+            deliver(message, content.substring(separator + 1));
+        }
+
+        private void deliver(LogMessage message, String content) {
+            final int pendingLines = pendingCount.incrementAndGet();
+            pending.add(new LogMessage(message.getType(), content));
+            lastLineDelivered = true;
+            scheduleDrain();
+            if (pendingLines >= MAX_PENDING_LINES) {
+                pause();
+            }
+        }
+
+        /** Stops reading of the stream until the consumer catches up. */
+        private void pause() {
+            paused = true;
+            if (selector != null) {
+                selector.setReadInterest(stream, false);
+            }
+            // consumer might catch up before the flag was set
+            if (pendingCount.get() <= RESUME_PENDING_LINES) {
+                requestResume();
+            } else if (selector == null) {
+                awaitResume();
+            }
+        }
+
+        private void requestResume() {
+            if (selector != null) {
+                if (resumeRequested.compareAndSet(false, true)) {
+                    runOnSelector(this::resume);
+                }
+            } else {
+                synchronized (this) {
+                    paused = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized void awaitResume() {
+            try {
+                while (paused) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                consumers.execute(this::drain);
+            }
+        }
+
+        /** Passes the pending lines to the logger, lines of a container are passed by a single thread at a time. */
+        private void drain() {
+            try {
+                LogMessage message;
+                while ((message = pending.poll()) != null) {
+                    printer.process(message);
+                    if (pendingCount.decrementAndGet() <= RESUME_PENDING_LINES && paused) {
+                        requestResume();
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // line may be added after the queue was found empty but before the flag was reset
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /** Returns false if logs streaming should be stopped because of too many errors. */
+        private boolean onError(IOException e) {
+            final long errorTime = System.currentTimeMillis();
+            LOG.warn("Failed to get logs from machine {} of workspace {} backed by container {}, because: {}.",
+                     machineId,
+                     workspaceId,
+                     container,
+                     e.getMessage(),
+                     e);
+            if (errorTime - lastErrorTime < 20_000L) { // if new error occurs less than 20 seconds after previous
+                if (++errorsCounter == 5) {
+                    LOG.error("Too many errors while streaming logs from machine {} of workspace {} backed by container {}. " +
+                              "Logs streaming is closed. Last error: {}.",
+                              machineId,
+                              workspaceId,
+                              container,
+                              e.getMessage(),
+                              e);
+                    return false;
+                }
+            } else {
+                errorsCounter = 1;
+            }
+            lastErrorTime = errorTime;
+            return true;
+        }
+
+        private boolean sleepBeforeReconnect() {
+            try {
+                sleep(RECONNECT_DELAY_MS);
+                return true;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private Instant parseTimestamp(String value) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
+import com.google.inject.Inject;
+
+import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.api.machine.server.model.impl.MachineSourceImpl;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.params.PullParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toCollection;
+import static org.eclipse.che.plugin.docker.machine.DockerInstance.LATEST_TAG;
+
+/**
+ * Keeps images of the popular stacks pulled in background, so machines
+ * which are started from those images don't wait for the pull from registry.
+ *
+ * <p>Images which are kept warm are the images configured with {@code che.docker.warm_pool.images}
+ * property and {@code che.docker.warm_pool.popular_images} most requested images.
+ * Each image is pulled again every {@code che.docker.warm_pool.refresh_period_min} minutes,
+ * while the image was pulled less than refresh period ago it is considered as warm
+ * and machine start uses local image instead of pulling it.
+ *
+ * <p>Images are pulled without user credentials, so only the images which are accessible
+ * with the credentials configured for docker registries may become warm.
+ *
+ * <p>Pool warms up images only, containers are always created on machine start
+ * as their volumes, environment and labels are specific to the workspace.
+ *
+ * <p>Requests of at most {@value #MAX_TRACKED_IMAGES} images are counted, the counts
+ * are halved on each refresh, so images which are not requested any more are forgotten.
+ *
+ * <p>Pool also collects statistics of machines starts, see {@link #getStatistics()}.
+ */
+@Singleton
+public class DockerImageWarmPool {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerImageWarmPool.class);
+
+    public static final String IMAGES_PROPERTY             = "che.docker.warm_pool.images";
+    public static final String POPULAR_IMAGES_PROPERTY     = "che.docker.warm_pool.popular_images";
+    public static final String REFRESH_PERIOD_MIN_PROPERTY = "che.docker.warm_pool.refresh_period_min";
+
+    static final int MAX_TRACKED_IMAGES = 1000;
+
+    @Nullable
+    @Inject(optional = true)
+    @Named(IMAGES_PROPERTY)
+    private String images;
+
+    @Inject(optional = true)
+    @Named(POPULAR_IMAGES_PROPERTY)
+    private int popularImages = 0;
+
+    @Inject(optional = true)
+    @Named(REFRESH_PERIOD_MIN_PROPERTY)
+    private long refreshPeriodMin = 30;
+
+    private final DockerConnector             docker;
+    private final ImagePreparationCoordinator imagePreparationCoordinator;
+    private final Map<String, AtomicLong>     requests;
+    private final Map<String, Long>           pulledAt;
+    private final Statistics                  statistics;
+
+    @Inject
+    public DockerImageWarmPool(DockerConnector docker, ImagePreparationCoordinator imagePreparationCoordinator) {
+        this.docker = docker;
+        this.imagePreparationCoordinator = imagePreparationCoordinator;
+        this.requests = new ConcurrentHashMap<>();
+        this.pulledAt = new ConcurrentHashMap<>();
+        this.statistics = new Statistics();
+    }
+
+    /**
+     * Checks whether the image was pulled by the pool recently and accounts the request of the image.
+     *
+     * @param image
+     *         image location without digest, e.g. codenvy/ubuntu_jdk8:latest
+     * @return true if the image can be used without pulling
+     */
+    public boolean acquire(String image) {
+        final AtomicLong count = requests.size() < MAX_TRACKED_IMAGES ? requests.computeIfAbsent(image, key -> new AtomicLong())
+                                                                      : requests.get(image);
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        final Long pulled = pulledAt.get(image);
+        final boolean warm = pulled != null && System.currentTimeMillis() - pulled < TimeUnit.MINUTES.toMillis(refreshPeriodMin);
+        if (warm) {
+            statistics.hits.incrementAndGet();
+        } else if (isEnabled()) {
+            statistics.misses.incrementAndGet();
+        }
+        return warm;
+    }
+
+    /**
+     * Accounts the start of a machine.
+     *
+     * @param timeToReadyMs
+     *         time spent from the start request until the machine container is started
+     */
+    public void machineStarted(long timeToReadyMs) {
+        statistics.starts.incrementAndGet();
+        statistics.totalTimeToReadyMs.addAndGet(timeToReadyMs);
+    }
+
+    /** Returns statistics of the pool usage. */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /** Pulls the images which should be kept warm. */
+    @ScheduleDelay(initialDelay = 1,
+                   delayParameterName = REFRESH_PERIOD_MIN_PROPERTY,
+                   unit = TimeUnit.MINUTES)
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        final Set<String> imagesToKeepWarm = getImagesToKeepWarm();
+        ageRequests();
+        for (String image : imagesToKeepWarm) {
+            try {
+                pull(image);
+                pulledAt.put(image, System.currentTimeMillis());
+            } catch (IOException | MachineException e) {
+                pulledAt.remove(image);
+                LOG.warn("Unable to pull image '{}' to warm pool. Cause: {}", image, e.getLocalizedMessage());
+            }
+        }
+        // images which are not popular any more are not refreshed
+        pulledAt.keySet().retainAll(imagesToKeepWarm);
+        LOG.info("Docker images warm pool statistics: {}", statistics);
+    }
+
+    /** Halves the requests counts and forgets the images which were not requested recently. */
+    @VisibleForTesting
+    void ageRequests() {
+        requests.values().removeIf(count -> count.updateAndGet(value -> value / 2) == 0);
+    }
+
+    @VisibleForTesting
+    int getTrackedImagesCount() {
+        return requests.size();
+    }
+
+    private boolean isEnabled() {
+        return popularImages > 0 || !isNullOrEmpty(images);
+    }
+
+    private Set<String> getImagesToKeepWarm() {
+        final Set<String> result = new LinkedHashSet<>();
+        if (!isNullOrEmpty(images)) {
+            Splitter.on(',').trimResults().omitEmptyStrings().split(images).forEach(result::add);
+        }
+        requests.entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, AtomicLong> entry) -> entry.getValue().get()).reversed())
+                .limit(popularImages)
+                .map(Map.Entry::getKey)
+                .collect(toCollection(() -> result));
+        return result;
+    }
+
+    private void pull(String image) throws IOException, MachineException {
+        final DockerMachineSource source = new DockerMachineSource(new MachineSourceImpl("image").setLocation(image));
+        final PullParams pullParams = PullParams.create(source.getRepository())
+                                                .withTag(MoreObjects.firstNonNull(source.getTag(), LATEST_TAG))
+                                                .withRegistry(source.getRegistry());
+        // machines which are started while pool pulls image wait for this pull
+        // key is the same as the key of the pull by the user who has no own credentials for the registry
+        imagePreparationCoordinator.execute(ImagePreparationCoordinator.pullKey(image, source.getRegistry(), null),
+                                            ProgressMonitor.DEV_NULL,
+                                            monitor -> docker.pull(pullParams, monitor));
+    }
+
+    private static boolean isNullOrEmpty(@Nullable String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /** Statistics of the machines starts. */
+    public static class Statistics {
+        private final AtomicLong hits               = new AtomicLong();
+        private final AtomicLong misses             = new AtomicLong();
+        private final AtomicLong starts             = new AtomicLong();
+        private final AtomicLong totalTimeToReadyMs = new AtomicLong();
+
+        /** Returns the number of starts which used warm image. */
+        public long getHits() {
+            return hits.get();
+        }
+
+        /** Returns the number of starts which had to pull image while the pool is enabled. */
+        public long getMisses() {
+            return misses.get();
+        }
+
+        /** Returns the ratio of hits to all the image requests, 0 if there were no requests. */
+        public double getHitRate() {
+            final long total = hits.get() + misses.get();
+            return total == 0 ? 0 : (double)hits.get() / total;
+        }
+
+        /** Returns the average time from the start request until the machine container is started. */
+        public double getAverageTimeToReadyMs() {
+            final long count = starts.get();
+            return count == 0 ? 0 : (double)totalTimeToReadyMs.get() / count;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                   "hits=" + hits +
+                   ", misses=" + misses +
+                   ", hitRate=" + getHitRate() +
+                   ", starts=" + starts +
+                   ", averageTimeToReadyMs=" + getAverageTimeToReadyMs() +
+                   '}';
+        }
+    }
+}
@@ -11,6 +11,7 @@
 package org.eclipse.che.plugin.docker.machine;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingInputStream;
 import com.google.inject.assistedinject.Assisted;
 
 import org.eclipse.che.api.core.NotFoundException;
@@ -31,14 +32,17 @@ import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
+import org.eclipse.che.plugin.docker.client.json.ContainerChange;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetContainerChangesParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.eclipse.che.plugin.docker.client.params.TagParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,12 +54,14 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHINE_SNAPSHOT_PREFIX;
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.SNAPSHOT_LOCATION_PATTERN;
 
 /**
  * Docker implementation of {@link Instance}
@@ -88,6 +94,11 @@ public class DockerInstance extends AbstractInstance {
     private static final String GET_ALIVE_PROCESSES_COMMAND =
             format("for pidFile in $(find %s -print 2>/dev/null); do kill -0 \"$(cat ${pidFile})\" 2>/dev/null && echo \"${pidFile}\"; done",
                    format(PID_FILE_TEMPLATE, "*"));
+    /**
+     * Directories which content is not meaningful for snapshots.
+     * Changes in these directories alone do not make container state different from the snapshot it was started from.
+     */
+    private static final List<String> VOLATILE_DIRECTORIES = Arrays.asList("/tmp", "/var/tmp", "/run", "/var/run");
 
     private final DockerMachineFactory                        dockerMachineFactory;
     private final String                                      container;
@@ -101,6 +112,7 @@ public class DockerInstance extends AbstractInstance {
     private final DockerInstanceProcessesCleaner              processesCleaner;
     private final ConcurrentHashMap<Integer, InstanceProcess> machineProcesses;
     private final boolean                                     snapshotUseRegistry;
+    private final boolean                                     incrementalSnapshots;
     private final MachineRuntimeInfoImpl                      machineRuntime;
 
     @Inject
@@ -115,7 +127,8 @@ public class DockerInstance extends AbstractInstance {
                           @Assisted LineConsumer outputConsumer,
                           DockerInstanceStopDetector dockerInstanceStopDetector,
                           DockerInstanceProcessesCleaner processesCleaner,
-                          @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry) throws MachineException {
+                          @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry,
+                          @Named("che.docker.snapshot_incremental") boolean incrementalSnapshots) throws MachineException {
         super(machine);
         this.dockerMachineFactory = dockerMachineFactory;
         this.container = container;
@@ -130,6 +143,7 @@ public class DockerInstance extends AbstractInstance {
         this.machineProcesses = new ConcurrentHashMap<>();
         processesCleaner.trackProcesses(this);
         this.snapshotUseRegistry = snapshotUseRegistry;
+        this.incrementalSnapshots = incrementalSnapshots;
         this.machineRuntime = doGetRuntime();
     }
 
@@ -203,7 +217,7 @@ public class DockerInstance extends AbstractInstance {
         try {
             String image = generateRepository();
             if(!snapshotUseRegistry) {
-                commitContainer(image, LATEST_TAG);
+                saveContainerState(image);
                 return new DockerMachineSource(image).withTag(LATEST_TAG);
             }
 
@@ -212,7 +226,7 @@ public class DockerInstance extends AbstractInstance {
                                               .withTag(LATEST_TAG);
 
             final String fullRepo = pushParams.getFullRepo();
-            commitContainer(fullRepo, LATEST_TAG);
+            saveContainerState(fullRepo);
             //TODO fix this workaround. Docker image is not visible after commit when using swarm
             Thread.sleep(2000);
             final ProgressLineFormatterImpl lineFormatter = new ProgressLineFormatterImpl();
@@ -233,6 +247,39 @@ public class DockerInstance extends AbstractInstance {
         }
     }
 
+    /**
+     * Saves state of the container into the image with the given repository and {@link #LATEST_TAG}.
+     *
+     * <p>Commit of the container already produces only a layer with the changes on top of the image
+     * the container was started from. If incremental snapshots are enabled and the container was started
+     * from a snapshot which has not changed since, the snapshot image is tagged with the new repository
+     * instead, so no new layer is created and registry push finds all the layers already uploaded.
+     */
+    private void saveContainerState(String repository) throws IOException {
+        final String sourceLocation = getConfig().getSource().getLocation();
+        if (incrementalSnapshots && sourceLocation != null && SNAPSHOT_LOCATION_PATTERN.matcher(sourceLocation).matches()) {
+            final List<ContainerChange> changes = docker.getContainerChanges(GetContainerChangesParams.create(container));
+            if (changes.stream().allMatch(change -> isVolatile(change.getPath()))) {
+                LOG.info("Container '{}' is not changed since snapshot '{}' was taken, reusing its image",
+                         container,
+                         sourceLocation);
+                docker.tag(TagParams.create(image, repository).withTag(LATEST_TAG));
+                return;
+            }
+            LOG.debug("Container '{}' has {} changed paths since snapshot was taken", container, changes.size());
+        }
+        commitContainer(repository, LATEST_TAG);
+    }
+
+    private static boolean isVolatile(String path) {
+        for (String directory : VOLATILE_DIRECTORIES) {
+            if (path.equals(directory) || path.startsWith(directory + '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @VisibleForTesting
     protected void commitContainer(String repository, String tag) throws IOException {
         String comment = format("Suspended at %1$ta %1$tb %1$td %1$tT %1$tZ %1$tY",
@@ -342,12 +389,23 @@ public class DockerInstance extends AbstractInstance {
         if (!(sourceMachine instanceof DockerInstance)) {
             throw new MachineException("Unsupported copying between not docker machines");
         }
-        try {
-            docker.putResource(PutResourceParams.create(container,
-                                                        targetPath,
-                                                        docker.getResource(GetResourceParams.create(
-                                                                ((DockerInstance)sourceMachine).container, sourcePath)))
+        final String sourceContainer = ((DockerInstance)sourceMachine).container;
+        final long start = System.nanoTime();
+        // archive of the source is piped into the target as it is read, so nothing is saved to disk on the way
+        // and copies between different machines may run in parallel each holding only a few buffers in memory
+        try (CountingInputStream archive = new CountingInputStream(docker.getResource(GetResourceParams.create(sourceContainer,
+                                                                                                                sourcePath)))) {
+            docker.putResource(PutResourceParams.create(container, targetPath, archive)
                                                 .withNoOverwriteDirNonDir(overwriteDirNonDir));
+            final long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            LOG.info("Copied '{}' of container '{}' to '{}' of container '{}': {} bytes in {} ms, {} KiB/s",
+                     sourcePath,
+                     sourceContainer,
+                     targetPath,
+                     container,
+                     archive.getCount(),
+                     elapsedMs,
+                     archive.getCount() * 1000 / 1024 / elapsedMs);
         } catch (IOException e) {
             throw new MachineException(e.getLocalizedMessage());
         }
@@ -12,32 +12,27 @@ package org.eclipse.che.plugin.docker.machine;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.core.notification.EventService;
-import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.api.machine.server.event.InstanceStateEvent;
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerEventBus;
 import org.eclipse.che.plugin.docker.client.MessageProcessor;
 import org.eclipse.che.plugin.docker.client.json.Event;
-import org.eclipse.che.plugin.docker.client.json.Filters;
-import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Track docker containers events to detect containers stop or failure.
+ * Events are received through the shared {@link DockerEventBus}.
  *
  * @author Alexander Garagatyi
  */
@@ -46,8 +41,7 @@ public class DockerInstanceStopDetector {
     private static final Logger LOG = LoggerFactory.getLogger(DockerInstanceStopDetector.class);
 
     private final EventService                      eventService;
-    private final DockerConnector                   dockerConnector;
-    private final ExecutorService                   executorService;
+    private final DockerEventBus                    eventBus;
     private final Map<String, Pair<String, String>> instances;
     /*
        Helps differentiate container main process OOM from other processes OOM
@@ -63,22 +57,16 @@ public class DockerInstanceStopDetector {
     */
     private final Cache<String, String>             containersOomTimestamps;
 
-    private long lastProcessedEventDate = 0;
+    private DockerEventBus.Subscription subscription;
 
     @Inject
-    public DockerInstanceStopDetector(EventService eventService, DockerConnector dockerConnector) {
+    public DockerInstanceStopDetector(EventService eventService, DockerEventBus eventBus) {
         this.eventService = eventService;
-        this.dockerConnector = dockerConnector;
+        this.eventBus = eventBus;
         this.instances = new ConcurrentHashMap<>();
         this.containersOomTimestamps = CacheBuilder.newBuilder()
                                                    .expireAfterWrite(10, TimeUnit.SECONDS)
                                                    .build();
-        this.executorService = Executors.newSingleThreadExecutor(
-                new ThreadFactoryBuilder().setNameFormat("DockerInstanceStopDetector-%d")
-                                          .setUncaughtExceptionHandler(
-                                                  LoggingUncaughtExceptionHandler.getInstance())
-                                          .setDaemon(true)
-                                          .build());
     }
 
     /**
@@ -109,31 +97,23 @@ public class DockerInstanceStopDetector {
 
     @PostConstruct
     private void detectContainersEvents() {
-        executorService.execute(() -> {
-            //noinspection InfiniteLoopStatement
-            while (true) {
-                try {
-                    dockerConnector.getEvents(GetEventsParams.create()
-                                                             .withSinceSecond(lastProcessedEventDate)
-                                                             .withFilters(new Filters().withFilter("event", "die", "oom")),
-                                              new EventsProcessor());
-                } catch (IOException e) {
-                    // usually connection timeout
-                    LOG.debug(e.getLocalizedMessage(), e);
-                }
-            }
-        });
+        subscription = eventBus.subscribe(new EventsProcessor(), "die", "oom");
+    }
+
+    @PreDestroy
+    private void stopContainersEventsDetection() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
     }
 
     private class EventsProcessor implements MessageProcessor<Event> {
         @Override
         public void process(Event message) {
-            if (message.getType() != null && !"container".equals(message.getType())) {
-                // this check is added because of bug in the docker swarm which do not filter events
-                // in case of new response format of 'get events' we should skip all not filtered by swarm event types
+            if (message.getStatus() == null || message.getId() == null) {
+                // newer api versions may send events with action and actor instead
                 return;
             }
-
             switch (message.getStatus()) {
                 case "oom":
                     containersOomTimestamps.put(message.getId(), message.getId());
@@ -153,7 +133,6 @@ public class DockerInstanceStopDetector {
                         eventService.publish(new InstanceStateEvent(instanceIds.first,
                                                                     instanceIds.second,
                                                                     instanceStateChangeType));
-                        lastProcessedEventDate = message.getTime();
                     }
                     break;
                 default:
@@ -33,6 +33,9 @@ public class DockerMachineModule extends AbstractModule {
     protected void configure() {
         bind(org.eclipse.che.plugin.docker.machine.cleaner.DockerAbandonedResourcesCleaner.class);
         bind(org.eclipse.che.plugin.docker.machine.cleaner.RemoveWorkspaceFilesAfterRemoveWorkspaceEventSubscriber.class);
+        bind(DockerImageWarmPool.class);
+        bind(org.eclipse.che.plugin.docker.client.DockerOOMDetector.class)
+                .to(org.eclipse.che.plugin.docker.client.DockerEventsOOMDetector.class);
 
         @SuppressWarnings("unused") Multibinder<String> devMachineEnvVars =
                 Multibinder.newSetBinder(binder(),
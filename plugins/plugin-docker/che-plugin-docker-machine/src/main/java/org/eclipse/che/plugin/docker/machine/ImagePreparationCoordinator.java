@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.hash.Hashing;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfig;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.plugin.docker.client.DockerRegistryAuthResolver.DEFAULT_REGISTRY;
+import static org.eclipse.che.plugin.docker.client.DockerRegistryAuthResolver.DEFAULT_REGISTRY_SYNONYMS;
+
+/**
+ * Coordinates images pulls and builds performed on this node so that
+ * the same image is not pulled or built concurrently by several machines.
+ *
+ * <p>The first requester of an image performs the operation in its own thread,
+ * the requesters of the same image which come while the operation is in progress
+ * wait for its result and receive its progress, including the recent progress
+ * which was reported before they came.
+ *
+ * <p>If the performer is interrupted, the operation is not failed for the waiters,
+ * one of them performs the operation instead.
+ */
+@Singleton
+public class ImagePreparationCoordinator {
+    private static final int PROGRESS_HISTORY_SIZE = 100;
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /** Pull or build of an image. */
+    public interface ImageOperation {
+        void perform(ProgressMonitor progressMonitor) throws IOException;
+    }
+
+    /**
+     * Performs the given operation or, if the operation with the same key is in progress,
+     * waits for it to be finished.
+     *
+     * @param key
+     *         key of the operation, operations are considered identical when their keys are equal
+     * @param progressMonitor
+     *         receives the progress of the operation
+     * @param operation
+     *         operation to perform
+     * @throws IOException
+     *         when the operation failed, the same error is thrown for all the requesters
+     *         except the case when the performer is interrupted
+     */
+    public void execute(String key, ProgressMonitor progressMonitor, ImageOperation operation) throws IOException {
+        while (true) {
+            final Flight flight = new Flight();
+            final Flight inProgress = flights.putIfAbsent(key, flight);
+            if (inProgress == null) {
+                perform(key, flight, progressMonitor, operation);
+                return;
+            }
+            inProgress.attach(progressMonitor);
+            final boolean done;
+            try {
+                done = inProgress.await();
+            } finally {
+                inProgress.detach(progressMonitor);
+            }
+            if (done) {
+                return;
+            }
+            // performer was interrupted, one of the waiters takes the operation over
+        }
+    }
+
+    private void perform(String key, Flight flight, ProgressMonitor progressMonitor, ImageOperation operation) throws IOException {
+        flight.attach(progressMonitor);
+        try {
+            operation.perform(flight);
+        } catch (IOException | RuntimeException e) {
+            // flight is removed before its completion, so the waiters which take the operation over don't find it
+            flights.remove(key, flight);
+            if (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+                // interruption is specific to the performer, the waiters still need the image
+                flight.result.complete(false);
+            } else {
+                flight.result.completeExceptionally(e);
+            }
+            throw e;
+        }
+        flights.remove(key, flight);
+        flight.result.complete(true);
+    }
+
+    /** Returns true if the operation with the given key is in progress. */
+    public boolean isInProgress(String key) {
+        return flights.containsKey(key);
+    }
+
+    /**
+     * Returns the key of the pull of the given image.
+     *
+     * <p>Pull uses the user credentials for the registry of the image if there are any,
+     * otherwise it uses the credentials configured for the registry. So the users who have
+     * the same credentials for that registry, or don't have their own ones, share the pull,
+     * the other users don't as their access rights may differ.
+     *
+     * @param image
+     *         image location without digest
+     * @param registry
+     *         registry of the image, null for the default one
+     * @param authConfigs
+     *         user credentials
+     */
+    static String pullKey(String image, @Nullable String registry, @Nullable AuthConfigs authConfigs) {
+        if (authConfigs == null || authConfigs.getConfigs() == null) {
+            return image;
+        }
+        final String normalizedRegistry = normalizeRegistry(registry);
+        for (Map.Entry<String, AuthConfig> entry : authConfigs.getConfigs().entrySet()) {
+            if (normalizedRegistry.equals(normalizeRegistry(entry.getKey()))) {
+                return image + '#' + Hashing.sha256()
+                                            .newHasher()
+                                            .putString(String.valueOf(entry.getValue().getUsername()), UTF_8)
+                                            .putString(String.valueOf(entry.getValue().getPassword()), UTF_8)
+                                            .hash()
+                                            .toString();
+            }
+        }
+        return image;
+    }
+
+    private static String normalizeRegistry(@Nullable String registry) {
+        return DEFAULT_REGISTRY_SYNONYMS.contains(registry) ? DEFAULT_REGISTRY : registry;
+    }
+
+    private static class Flight implements ProgressMonitor {
+        final CompletableFuture<Boolean> result   = new CompletableFuture<>();
+        final List<ProgressMonitor>      monitors = new ArrayList<>();
+        final Deque<ProgressStatus>      history  = new ArrayDeque<>();
+
+        @Override
+        public synchronized void updateProgress(ProgressStatus currentProgressStatus) {
+            if (history.size() == PROGRESS_HISTORY_SIZE) {
+                history.pollFirst();
+            }
+            history.addLast(currentProgressStatus);
+            for (ProgressMonitor monitor : monitors) {
+                monitor.updateProgress(currentProgressStatus);
+            }
+        }
+
+        synchronized void attach(ProgressMonitor monitor) {
+            history.forEach(monitor::updateProgress);
+            monitors.add(monitor);
+        }
+
+        synchronized void detach(ProgressMonitor monitor) {
+            monitors.remove(monitor);
+        }
+
+        /** Returns true if the operation is done, false if its performer was interrupted. */
+        boolean await() throws IOException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for image to be prepared");
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                // the same error is thrown for all the requesters, so they handle failure the same way as the performer
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                }
+                throw new IOException(cause.getLocalizedMessage(), cause);
+            }
+        }
+    }
+}
@@ -12,7 +12,8 @@ package org.eclipse.che.plugin.docker.machine;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
@@ -33,13 +34,13 @@ import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Size;
-import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.lang.os.WindowsPathEscaper;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerOOMDetector;
 import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
 import org.eclipse.che.plugin.docker.client.UserSpecificDockerRegistryCredentialsProvider;
-import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
 import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
 import org.eclipse.che.plugin.docker.client.exception.NetworkNotFoundException;
 import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
@@ -51,7 +52,6 @@ import org.eclipse.che.plugin.docker.client.json.network.EndpointConfig;
 import org.eclipse.che.plugin.docker.client.json.network.NewNetwork;
 import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
-import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
@@ -68,7 +68,6 @@ import javax.inject.Named;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -76,13 +75,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
-import static java.lang.Thread.sleep;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toMap;
@@ -105,10 +103,20 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
     public static final Pattern SNAPSHOT_LOCATION_PATTERN = Pattern.compile("(.+/)?" + MACHINE_SNAPSHOT_PREFIX + ".+");
 
+    /**
+     * Prefix of image repository, used to keep images built from recipes,
+     * the rest of repository is a hash of the recipe.
+     */
+    public static final String RECIPE_IMAGE_PREFIX = "eclipse-che/recipe_";
+
     private final DockerConnector                               docker;
     private final UserSpecificDockerRegistryCredentialsProvider dockerCredentials;
-    private final ExecutorService                               executor;
+    private final ContainerLogsStreamer                         containerLogsStreamer;
     private final DockerInstanceStopDetector                    dockerInstanceStopDetector;
+    private final DockerOOMDetector                             oomDetector;
+    private final ImagePreparationCoordinator                   imagePreparationCoordinator;
+    private final RecipeImageCache                              recipeImageCache;
+    private final DockerImageWarmPool                           imageWarmPool;
     private final boolean                                       doForcePullOnBuild;
     private final boolean                                       privilegedMode;
     private final int                                           pidsLimit;
@@ -135,6 +143,11 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                UserSpecificDockerRegistryCredentialsProvider dockerCredentials,
                                DockerMachineFactory dockerMachineFactory,
                                DockerInstanceStopDetector dockerInstanceStopDetector,
+                               DockerOOMDetector oomDetector,
+                               ImagePreparationCoordinator imagePreparationCoordinator,
+                               RecipeImageCache recipeImageCache,
+                               DockerImageWarmPool imageWarmPool,
+                               ContainerLogsStreamer containerLogsStreamer,
                                @Named("machine.docker.dev_machine.machine_servers") Set<ServerConf> devMachineServers,
                                @Named("machine.docker.machine_servers") Set<ServerConf> allMachinesServers,
                                @Named("machine.docker.dev_machine.machine_volumes") Set<String> devMachineSystemVolumes,
@@ -159,6 +172,11 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         this.dockerCredentials = dockerCredentials;
         this.dockerMachineFactory = dockerMachineFactory;
         this.dockerInstanceStopDetector = dockerInstanceStopDetector;
+        this.oomDetector = oomDetector;
+        this.imagePreparationCoordinator = imagePreparationCoordinator;
+        this.recipeImageCache = recipeImageCache;
+        this.imageWarmPool = imageWarmPool;
+        this.containerLogsStreamer = containerLogsStreamer;
         this.doForcePullOnBuild = doForcePullOnBuild;
         this.privilegedMode = privilegedMode;
         this.snapshotUseRegistry = snapshotUseRegistry;
@@ -236,13 +254,6 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         this.additionalNetworks = additionalNetworks.stream()
                                                     .flatMap(Set::stream)
                                                     .collect(toSet());
-
-        // TODO single point of failure in case of highly loaded system
-        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("MachineLogsStreamer-%d")
-                                                                           .setUncaughtExceptionHandler(
-                                                                                   LoggingUncaughtExceptionHandler.getInstance())
-                                                                           .setDaemon(true)
-                                                                           .build());
     }
 
     @Override
@@ -255,6 +266,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                  CheServiceImpl service,
                                  LineConsumer machineLogger) throws ServerException {
 
+        final long startTime = System.currentTimeMillis();
         // copy to not affect/be affected by changes in origin
         service = new CheServiceImpl(service);
 
@@ -285,16 +297,18 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
             docker.startContainer(StartContainerParams.create(container));
 
-            readContainerLogsInSeparateThread(container,
-                                              workspaceId,
-                                              service.getId(),
-                                              machineLogger);
+            containerLogsStreamer.startStreaming(container,
+                                                 workspaceId,
+                                                 service.getId(),
+                                                 machineLogger);
 
             DockerNode node = dockerMachineFactory.createNode(workspaceId, container);
 
             dockerInstanceStopDetector.startDetection(container,
                                                       service.getId(),
                                                       workspaceId);
+            // detection is stopped when the container is destroyed
+            oomDetector.startDetection(container, new LogMessagePrinter(machineLogger));
 
             final String userId = EnvironmentContext.getCurrent().getSubject().getUserId();
             MachineImpl machine = new MachineImpl(MachineConfigImpl.builder()
@@ -319,6 +333,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                   MachineStatus.RUNNING,
                                                   null);
 
+            imageWarmPool.machineStarted(System.currentTimeMillis() - startTime);
             return dockerMachineFactory.createInstance(machine,
                                                        container,
                                                        image,
@@ -378,12 +393,61 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         return imageName;
     }
 
+    /**
+     * Builds docker image for container creation.
+     *
+     * <p>Images built from the dockerfile content are tagged with the name which is
+     * computed from the recipe, so the same recipe is built only once per node,
+     * further builds of it just tag the existing image. Identical builds which
+     * are requested concurrently are performed once, see {@link ImagePreparationCoordinator}.
+     * The least recently used recipe images are removed, see {@link RecipeImageCache}.
+     *
+     * @param service
+     *         service that provides description of image that should be built
+     * @param machineImageName
+     *         name of the image that should be assigned on build
+     * @param doForcePullOnBuild
+     *         whether base image should be pulled, images built earlier are not reused if it is true
+     * @param progressMonitor
+     *         consumer of output
+     * @throws MachineException
+     *         if any error occurs
+     */
     protected void buildImage(CheServiceImpl service,
                               String machineImageName,
                               boolean doForcePullOnBuild,
                               ProgressMonitor progressMonitor)
             throws MachineException {
 
+        final AuthConfigs authConfigs = dockerCredentials.getCredentials();
+        try {
+            if (service.getBuild().getDockerfileContent() == null) {
+                // content of the build context may change, so build result can't be reused
+                doBuildImage(service, machineImageName, authConfigs, doForcePullOnBuild, progressMonitor);
+                return;
+            }
+            final String recipeImageName = RECIPE_IMAGE_PREFIX + recipeHash(service);
+            if (doForcePullOnBuild || !tagIfExists(recipeImageName, machineImageName)) {
+                imagePreparationCoordinator.execute(recipeImageName,
+                                                    progressMonitor,
+                                                    monitor -> doBuildImage(service,
+                                                                            recipeImageName,
+                                                                            authConfigs,
+                                                                            doForcePullOnBuild,
+                                                                            monitor));
+                docker.tag(TagParams.create(recipeImageName, machineImageName));
+            }
+            recipeImageCache.used(recipeImageName);
+        } catch (IOException e) {
+            throw new MachineException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private void doBuildImage(CheServiceImpl service,
+                              String imageName,
+                              AuthConfigs authConfigs,
+                              boolean doForcePullOnBuild,
+                              ProgressMonitor progressMonitor) throws IOException {
         File workDir = null;
         try {
             BuildImageParams buildImageParams;
@@ -402,8 +466,8 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                    .withDockerfile(service.getBuild().getDockerfilePath());
             }
             buildImageParams.withForceRemoveIntermediateContainers(true)
-                            .withRepository(machineImageName)
-                            .withAuthConfigs(dockerCredentials.getCredentials())
+                            .withRepository(imageName)
+                            .withAuthConfigs(authConfigs)
                             .withDoForcePull(doForcePullOnBuild)
                             .withMemoryLimit(service.getMemLimit())
                             .withMemorySwapLimit(-1)
@@ -413,8 +477,6 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                             .withBuildArgs(service.getBuild().getArgs());
 
             docker.buildImage(buildImageParams, progressMonitor);
-        } catch (IOException e) {
-            throw new MachineException(e.getLocalizedMessage(), e);
         } finally {
             if (workDir != null) {
                 FileCleaner.addFile(workDir);
@@ -422,6 +484,27 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         }
     }
 
+    private boolean tagIfExists(String image, String machineImageName) throws IOException {
+        try {
+            docker.tag(TagParams.create(image, machineImageName));
+            return true;
+        } catch (ImageNotFoundException e) {
+            return false;
+        }
+    }
+
+    /** Computes hash of everything that affects the image built from the dockerfile content. */
+    private static String recipeHash(CheServiceImpl service) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(service.getBuild().getDockerfileContent(), UTF_8);
+        if (service.getBuild().getArgs() != null) {
+            new TreeMap<>(service.getBuild().getArgs()).forEach((name, value) -> hasher.putString(name, UTF_8)
+                                                                                       .putChar('=')
+                                                                                       .putString(String.valueOf(value), UTF_8));
+        }
+        return hasher.hash().toString();
+    }
+
     /**
      * Pulls docker image for container creation.
      *
@@ -449,13 +532,19 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
         try {
             boolean isSnapshot = SNAPSHOT_LOCATION_PATTERN.matcher(dockerMachineSource.getLocation()).matches();
-            if (!isSnapshot || snapshotUseRegistry) {
-                PullParams pullParams = PullParams.create(dockerMachineSource.getRepository())
-                                                  .withTag(MoreObjects.firstNonNull(dockerMachineSource.getTag(),
-                                                                                    LATEST_TAG))
-                                                  .withRegistry(dockerMachineSource.getRegistry())
-                                                  .withAuthConfigs(dockerCredentials.getCredentials());
-                docker.pull(pullParams, progressMonitor);
+            // image which is kept warm was pulled recently, no need to pull it again
+            if (isSnapshot ? snapshotUseRegistry : !imageWarmPool.acquire(dockerMachineSource.getLocation(false))) {
+                final AuthConfigs authConfigs = dockerCredentials.getCredentials();
+                final PullParams pullParams = PullParams.create(dockerMachineSource.getRepository())
+                                                        .withTag(MoreObjects.firstNonNull(dockerMachineSource.getTag(),
+                                                                                          LATEST_TAG))
+                                                        .withRegistry(dockerMachineSource.getRegistry())
+                                                        .withAuthConfigs(authConfigs);
+                imagePreparationCoordinator.execute(ImagePreparationCoordinator.pullKey(dockerMachineSource.getLocation(false),
+                                                                                        dockerMachineSource.getRegistry(),
+                                                                                        authConfigs),
+                                                    progressMonitor,
+                                                    monitor -> docker.pull(pullParams, monitor));
             }
 
             String fullNameOfPulledImage = dockerMachineSource.getLocation(false);
@@ -579,62 +668,6 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         }
     }
 
-    private void readContainerLogsInSeparateThread(String container,
-                                                   String workspaceId,
-                                                   String machineId,
-                                                   LineConsumer outputConsumer) {
-        executor.execute(() -> {
-            long lastProcessedLogDate = 0;
-            boolean isContainerRunning = true;
-            int errorsCounter = 0;
-            long lastErrorTime = 0;
-            while (isContainerRunning) {
-                try {
-                    docker.getContainerLogs(GetContainerLogsParams.create(container)
-                                                                  .withFollow(true)
-                                                                  .withSince(lastProcessedLogDate),
-                                            new LogMessagePrinter(outputConsumer));
-                    isContainerRunning = false;
-                } catch (SocketTimeoutException ste) {
-                    lastProcessedLogDate = System.currentTimeMillis() / 1000L;
-                    // reconnect to container
-                } catch (ContainerNotFoundException e) {
-                    isContainerRunning = false;
-                } catch (IOException e) {
-                    long errorTime = System.currentTimeMillis();
-                    lastProcessedLogDate = errorTime / 1000L;
-                    LOG.warn("Failed to get logs from machine {} of workspace {} backed by container {}, because: {}.",
-                             machineId,
-                             workspaceId,
-                             container,
-                             e.getMessage(),
-                             e);
-                    if (errorTime - lastErrorTime < 20_000L) { // if new error occurs less than 20 seconds after previous
-                        if (++errorsCounter == 5) {
-                            LOG.error("Too many errors while streaming logs from machine {} of workspace {} backed by container {}. " +
-                                      "Logs streaming is closed. Last error: {}.",
-                                      machineId,
-                                      workspaceId,
-                                      container,
-                                      e.getMessage(),
-                                      e);
-                            break;
-                        }
-                    } else {
-                        errorsCounter = 1;
-                    }
-                    lastErrorTime = errorTime;
-
-                    try {
-                        sleep(1_000);
-                    } catch (InterruptedException ie) {
-                        return;
-                    }
-                }
-            }
-        });
-    }
-
     private void cleanUpContainer(String containerId) {
         try {
             if (containerId != null) {
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.inject.Inject;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.RECIPE_IMAGE_PREFIX;
+
+/**
+ * Keeps track of the images built from recipes on this node and removes
+ * the least recently used of them when there are more than
+ * {@code che.docker.recipe_images.max_count} images.
+ *
+ * <p>Removal of a recipe image removes only its recipe tag, the image itself
+ * is deleted by docker when it is not tagged with a machine image name any more,
+ * so images of running machines are never deleted.
+ */
+@Singleton
+public class RecipeImageCache {
+    private static final Logger LOG = LoggerFactory.getLogger(RecipeImageCache.class);
+
+    public static final String MAX_COUNT_PROPERTY = "che.docker.recipe_images.max_count";
+
+    @Inject(optional = true)
+    @Named(MAX_COUNT_PROPERTY)
+    private int maxCount = 10;
+
+    private final DockerConnector       docker;
+    // iteration order is the order of usage, the least recently used image is the first one
+    private final LinkedHashSet<String> images;
+
+    @Inject
+    public RecipeImageCache(DockerConnector docker) {
+        this.docker = docker;
+        this.images = new LinkedHashSet<>();
+    }
+
+    /** Finds the recipe images which were built before start, so they are evicted as well. */
+    @PostConstruct
+    public void loadImages() {
+        try {
+            docker.listImages()
+                  .stream()
+                  .sorted(Comparator.comparingLong(Image::getCreated))
+                  .filter(image -> image.getRepoTags() != null)
+                  .forEach(image -> {
+                      for (String tag : image.getRepoTags()) {
+                          if (tag.startsWith(RECIPE_IMAGE_PREFIX)) {
+                              // recipe images are built with default tag, their names are used without it
+                              used(tag.substring(0, tag.lastIndexOf(':')));
+                          }
+                      }
+                  });
+        } catch (IOException e) {
+            LOG.warn("Unable to list recipe images. Cause: {}", e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Marks the recipe image as the most recently used one and removes
+     * the least recently used images if there are too many of them.
+     *
+     * @param image
+     *         name of the recipe image
+     */
+    public void used(String image) {
+        for (String evicted : record(image)) {
+            try {
+                docker.removeImage(RemoveImageParams.create(evicted).withForce(false));
+            } catch (IOException e) {
+                LOG.warn("Unable to remove recipe image '{}'. Cause: {}", evicted, e.getLocalizedMessage());
+            }
+        }
+    }
+
+    private synchronized List<String> record(String image) {
+        images.remove(image);
+        images.add(image);
+        final List<String> evicted = new ArrayList<>();
+        for (Iterator<String> it = images.iterator(); images.size() > maxCount; ) {
+            evicted.add(it.next());
+            it.remove();
+        }
+        return evicted;
+    }
+}
@@ -19,6 +19,7 @@ import org.eclipse.che.api.environment.server.CheEnvironmentEngine;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerEventBus;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
@@ -63,6 +64,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     // TODO replace with WorkspaceManager
     private final CheEnvironmentEngine         environmentEngine;
     private final DockerConnector              dockerConnector;
+    private final DockerEventBus               eventBus;
     private final DockerContainerNameGenerator nameGenerator;
     private final WorkspaceRuntimes            runtimes;
     private final Set<String>                  additionalNetworks;
@@ -70,11 +72,13 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     @Inject
     public DockerAbandonedResourcesCleaner(CheEnvironmentEngine environmentEngine,
                                            DockerConnector dockerConnector,
+                                           DockerEventBus eventBus,
                                            DockerContainerNameGenerator nameGenerator,
                                            WorkspaceRuntimes workspaceRuntimes,
                                            @Named("machine.docker.networks") Set<Set<String>> additionalNetworks) {
         this.environmentEngine = environmentEngine;
         this.dockerConnector = dockerConnector;
+        this.eventBus = eventBus;
         this.nameGenerator = nameGenerator;
         this.runtimes = workspaceRuntimes;
         this.additionalNetworks = additionalNetworks.stream()
@@ -93,12 +97,14 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
 
     /**
      * Cleans up CHE docker containers which don't tracked by API any more.
+     * Containers are taken from the containers index of {@link DockerEventBus},
+     * so docker containers are not listed on each run.
      */
     @VisibleForTesting
     void cleanContainers() {
         List<String> activeContainers = new ArrayList<>();
         try {
-            for (ContainerListEntry container : dockerConnector.listContainers()) {
+            for (ContainerListEntry container : eventBus.getContainers()) {
                 String containerName = container.getNames()[0];
                 Optional<ContainerNameInfo> optional = nameGenerator.parse(containerName);
                 if (optional.isPresent()) {
@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.LogMessage;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.connection.DockerStream;
+import org.eclipse.che.plugin.docker.client.connection.DockerStreamSelector;
+import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test for {@link ContainerLogsStreamer}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class ContainerLogsStreamerTest {
+
+    @Mock
+    private DockerConnector docker;
+
+    private ContainerLogsStreamer streamer;
+
+    @BeforeMethod
+    public void setUp() {
+        streamer = new ContainerLogsStreamer(docker);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        streamer.shutdown();
+    }
+
+    @Test
+    public void shouldDeliverEachLineOnceWhenStreamIsReopenedAfterTimeout() throws Exception {
+        final List<List<String>> responses = asList(asList("2017-01-01T10:00:00.1Z first",
+                                                           "2017-01-01T10:00:00.2Z second"),
+                                                    // since is passed in seconds, so the lines of the last second are received again
+                                                    asList("2017-01-01T10:00:00.1Z first",
+                                                           "2017-01-01T10:00:00.2Z second",
+                                                           "2017-01-01T10:00:00.2Z third with the same time",
+                                                           "continuation of the long third line",
+                                                           "2017-01-01T10:00:01Z fourth"));
+        final AtomicInteger requests = new AtomicInteger();
+        doAnswer(invocation -> {
+            final int request = requests.getAndIncrement();
+            @SuppressWarnings("unchecked")
+            final MessageProcessor<LogMessage> processor = (MessageProcessor<LogMessage>)invocation.getArguments()[1];
+            for (String line : responses.get(request)) {
+                processor.process(new LogMessage(LogMessage.Type.STDOUT, line));
+            }
+            if (request == 0) {
+                throw new SocketTimeoutException("idle");
+            }
+            // container is stopped
+            return null;
+        }).when(docker).getContainerLogs(any(GetContainerLogsParams.class), any());
+        final List<String> output = new CopyOnWriteArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(5);
+
+        streamer.startStreaming("container", "workspace", "machine", consumer(line -> {
+            output.add(line);
+            delivered.countDown();
+        }));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(output, asList("[STDOUT] first",
+                                    "[STDOUT] second",
+                                    "[STDOUT] third with the same time",
+                                    "[STDOUT] continuation of the long third line",
+                                    "[STDOUT] fourth"));
+        final ArgumentCaptor<GetContainerLogsParams> paramsCaptor = ArgumentCaptor.forClass(GetContainerLogsParams.class);
+        verify(docker, times(2)).getContainerLogs(paramsCaptor.capture(), any());
+        assertTrue(paramsCaptor.getValue().isFollow());
+    }
+
+    @Test
+    public void shouldReadStreamWithoutWaitingForSlowConsumer() throws Exception {
+        final CountDownLatch streamRead = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final MessageProcessor<LogMessage> processor = (MessageProcessor<LogMessage>)invocation.getArguments()[1];
+            processor.process(new LogMessage(LogMessage.Type.STDOUT, "2017-01-01T10:00:00.1Z first"));
+            processor.process(new LogMessage(LogMessage.Type.STDOUT, "2017-01-01T10:00:00.2Z second"));
+            streamRead.countDown();
+            return null;
+        }).when(docker).getContainerLogs(any(GetContainerLogsParams.class), any());
+        final CountDownLatch consumerReleased = new CountDownLatch(1);
+        final List<String> output = new CopyOnWriteArrayList<>();
+
+        streamer.startStreaming("container", "workspace", "machine", consumer(line -> {
+            try {
+                consumerReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            output.add(line);
+        }));
+
+        // lines are read while the consumer is blocked
+        assertTrue(streamRead.await(5, TimeUnit.SECONDS));
+        consumerReleased.countDown();
+        for (long deadline = System.currentTimeMillis() + 5_000; output.size() < 2 && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(10);
+        }
+        assertEquals(output, asList("[STDOUT] first", "[STDOUT] second"));
+    }
+
+    @Test
+    public void shouldReadStreamsOfAllContainersWithoutBlockingReads() throws Exception {
+        final FakeSelector selector = new FakeSelector();
+        final FakeStream first = new FakeStream();
+        final FakeStream second = new FakeStream();
+        when(docker.openStreamSelector()).thenReturn(selector);
+        when(docker.openContainerLogsStream(any(GetContainerLogsParams.class))).thenReturn(first, second);
+        streamer.shutdown();
+        streamer = new ContainerLogsStreamer(docker);
+        final List<String> firstOutput = new CopyOnWriteArrayList<>();
+        final List<String> secondOutput = new CopyOnWriteArrayList<>();
+
+        streamer.startStreaming("first", "workspace", "machine1", consumer(firstOutput::add));
+        streamer.startStreaming("second", "workspace", "machine2", consumer(secondOutput::add));
+        // the second container writes while the first one is silent
+        second.write("2017-01-01T10:00:00.1Z second\n");
+        second.end();
+        awaitSize(secondOutput, 1);
+        first.write("2017-01-01T10:00:00.1Z fir", "st\n");
+
+        awaitSize(firstOutput, 1);
+        assertEquals(firstOutput, singletonList("[STDOUT] first"));
+        assertEquals(secondOutput, singletonList("[STDOUT] second"));
+        assertTrue(second.closed);
+        verify(docker, never()).getContainerLogs(any(GetContainerLogsParams.class), any());
+    }
+
+    @Test
+    public void shouldReopenFailedStreamSinceLastReceivedLine() throws Exception {
+        final FakeSelector selector = new FakeSelector();
+        final FakeStream first = new FakeStream();
+        final FakeStream second = new FakeStream();
+        when(docker.openStreamSelector()).thenReturn(selector);
+        when(docker.openContainerLogsStream(any(GetContainerLogsParams.class))).thenReturn(first, second);
+        streamer.shutdown();
+        streamer = new ContainerLogsStreamer(docker);
+        final List<String> output = new CopyOnWriteArrayList<>();
+        first.write("2017-01-01T10:00:05.1Z first\n");
+        first.fail();
+        // since is passed in seconds, so the line of the last second is received again
+        second.write("2017-01-01T10:00:05.1Z first\n", "2017-01-01T10:00:05.2Z second\n");
+
+        streamer.startStreaming("container", "workspace", "machine", consumer(output::add));
+
+        awaitSize(output, 2);
+        assertEquals(output, asList("[STDOUT] first", "[STDOUT] second"));
+        final ArgumentCaptor<GetContainerLogsParams> paramsCaptor = ArgumentCaptor.forClass(GetContainerLogsParams.class);
+        verify(docker, timeout(5_000).times(2)).openContainerLogsStream(paramsCaptor.capture());
+        assertEquals(paramsCaptor.getValue().getSince(), (Long)Instant.parse("2017-01-01T10:00:05Z").getEpochSecond());
+        assertTrue(first.closed);
+    }
+
+    @Test
+    public void shouldStopReadingStreamUntilSlowConsumerCatchesUp() throws Exception {
+        final FakeSelector selector = new FakeSelector();
+        final FakeStream stream = new FakeStream();
+        stream.endless = true;
+        when(docker.openStreamSelector()).thenReturn(selector);
+        when(docker.openContainerLogsStream(any(GetContainerLogsParams.class))).thenReturn(stream);
+        streamer.shutdown();
+        streamer = new ContainerLogsStreamer(docker);
+        final CountDownLatch consumerReleased = new CountDownLatch(1);
+        final AtomicInteger consumed = new AtomicInteger();
+
+        streamer.startStreaming("container", "workspace", "machine", consumer(line -> {
+            try {
+                consumerReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumed.incrementAndGet();
+        }));
+
+        // reading stops once the queue of the container is full
+        int produced;
+        do {
+            produced = stream.producedLines.get();
+            Thread.sleep(200);
+        } while (produced != stream.producedLines.get());
+        assertTrue(produced >= ContainerLogsStreamer.MAX_PENDING_LINES, "produced " + produced);
+        assertTrue(produced < ContainerLogsStreamer.MAX_PENDING_LINES + 1_000, "produced " + produced);
+
+        consumerReleased.countDown();
+        for (long deadline = System.currentTimeMillis() + 5_000;
+             stream.producedLines.get() <= produced && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(10);
+        }
+        assertTrue(stream.producedLines.get() > produced);
+        assertTrue(consumed.get() > 0);
+    }
+
+    private static void awaitSize(List<String> output, int size) throws InterruptedException {
+        for (long deadline = System.currentTimeMillis() + 5_000; output.size() < size && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static LineConsumer consumer(Consumer<String> lines) {
+        return new LineConsumer() {
+            @Override
+            public void writeLine(String line) {
+                lines.accept(line);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /** Stream of docker logs whose data is written by the test, read returns 0 when nothing is written. */
+    private static class FakeStream extends DockerStream {
+        private static final byte[] LINE = "2017-01-01T10:00:00.1Z endless line\n".getBytes(StandardCharsets.UTF_8);
+
+        private final Queue<byte[]> chunks        = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger producedLines = new AtomicInteger();
+
+        private volatile boolean endless;
+        private volatile boolean ended;
+        private volatile boolean failed;
+        private volatile boolean closed;
+
+        void write(String... parts) {
+            for (String part : parts) {
+                chunks.add(frame(part.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        void end() {
+            ended = true;
+        }
+
+        void fail() {
+            failed = true;
+        }
+
+        boolean isReady() {
+            return endless || ended || failed || !chunks.isEmpty();
+        }
+
+        @Override
+        protected int readRaw(ByteBuffer dst) throws IOException {
+            if (endless) {
+                final byte[] frame = frame(LINE);
+                if (dst.remaining() < frame.length) {
+                    return 0;
+                }
+                dst.put(frame);
+                producedLines.incrementAndGet();
+                return frame.length;
+            }
+            final byte[] chunk = chunks.poll();
+            if (chunk != null) {
+                dst.put(chunk);
+                return chunk.length;
+            }
+            if (failed) {
+                throw new IOException("connection reset");
+            }
+            return ended ? -1 : 0;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private static byte[] frame(byte[] payload) {
+            return ByteBuffer.allocate(8 + payload.length)
+                             .put((byte)1)
+                             .put(new byte[3])
+                             .putInt(payload.length)
+                             .put(payload)
+                             .array();
+        }
+    }
+
+    /** Selects registered fake streams which have data by polling them. */
+    private static class FakeSelector extends DockerStreamSelector {
+        private final Map<FakeStream, Object> attachments   = new ConcurrentHashMap<>();
+        private final Set<FakeStream>         notInterested = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean wokenUp;
+
+        @Override
+        public void register(DockerStream stream, Object attachment) {
+            attachments.put((FakeStream)stream, attachment);
+        }
+
+        @Override
+        public void setReadInterest(DockerStream stream, boolean interested) {
+            if (interested) {
+                notInterested.remove(stream);
+            } else {
+                notInterested.add((FakeStream)stream);
+            }
+        }
+
+        @Override
+        public List<Object> select(long timeoutMs) throws IOException {
+            final List<Object> ready = new ArrayList<>();
+            for (long deadline = System.currentTimeMillis() + timeoutMs; System.currentTimeMillis() < deadline; ) {
+                attachments.entrySet().removeIf(entry -> entry.getKey().closed);
+                for (Map.Entry<FakeStream, Object> entry : attachments.entrySet()) {
+                    if (!notInterested.contains(entry.getKey()) && entry.getKey().isReady()) {
+                        ready.add(entry.getValue());
+                    }
+                }
+                if (!ready.isEmpty() || wokenUp) {
+                    break;
+                }
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            wokenUp = false;
+            return ready;
+        }
+
+        @Override
+        public void wakeup() {
+            wokenUp = true;
+        }
+
+        @Override
+        public void close() {
+            attachments.keySet().forEach(FakeStream::close);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.eclipse.che.plugin.docker.machine.DockerImageWarmPool.MAX_TRACKED_IMAGES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Test for {@link DockerImageWarmPool}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerImageWarmPoolTest {
+
+    @Mock
+    private DockerConnector docker;
+
+    private DockerImageWarmPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+        pool = new DockerImageWarmPool(docker, new ImagePreparationCoordinator());
+    }
+
+    @Test
+    public void shouldNotTrackMoreImagesThanLimit() {
+        for (int i = 0; i < MAX_TRACKED_IMAGES + 10; i++) {
+            assertFalse(pool.acquire("image" + i));
+        }
+
+        assertEquals(pool.getTrackedImagesCount(), MAX_TRACKED_IMAGES);
+    }
+
+    @Test
+    public void shouldForgetImagesWhichAreNotRequestedAnyMore() {
+        pool.acquire("rare");
+        pool.acquire("popular");
+        pool.acquire("popular");
+
+        pool.ageRequests();
+
+        assertEquals(pool.getTrackedImagesCount(), 1);
+    }
+}
@@ -25,10 +25,13 @@ import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.MessageProcessor;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.json.ContainerChange;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetContainerChangesParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.eclipse.che.plugin.docker.client.params.TagParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -39,9 +42,12 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHINE_SNAPSHOT_PREFIX;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -69,6 +75,7 @@ public class DockerInstanceTest {
     private static final String        USERNAME     = "username";
     private static final String        REPOSITORY   = "eclipse-che";
     private static final String        TAG          = "latest";
+    private static final String        SNAPSHOT     = REGISTRY + "/" + MACHINE_SNAPSHOT_PREFIX + "abc:latest";
     private static final MachineStatus STATUS       = MachineStatus.RUNNING;
 
     @Mock
@@ -182,6 +189,40 @@ public class DockerInstanceTest {
         assertEquals(dockerMachineSource.getRegistry(), REGISTRY);
     }
 
+    @Test
+    public void shouldTagImageOfSnapshotInsteadOfCommitWhenContainerIsNotChanged() throws Exception {
+        dockerInstance = getDockerInstance(getMachineStartedFromSnapshot(), REGISTRY, CONTAINER, IMAGE, false);
+        when(dockerConnectorMock.getContainerChanges(GetContainerChangesParams.create(CONTAINER)))
+                .thenReturn(singletonList(containerChange("/tmp/docker-exec-1.pid")));
+
+        final DockerMachineSource result = (DockerMachineSource)dockerInstance.saveToSnapshot();
+
+        verify(dockerConnectorMock).tag(TagParams.create(IMAGE, result.getRepository()).withTag(TAG));
+        verify(dockerConnectorMock, never()).commit(any(CommitParams.class));
+    }
+
+    @Test
+    public void shouldCommitContainerWhenItIsChangedSinceSnapshot() throws Exception {
+        dockerInstance = getDockerInstance(getMachineStartedFromSnapshot(), REGISTRY, CONTAINER, IMAGE, false);
+        when(dockerConnectorMock.getContainerChanges(GetContainerChangesParams.create(CONTAINER)))
+                .thenReturn(singletonList(containerChange("/projects/console-java-simple/pom.xml")));
+
+        dockerInstance.saveToSnapshot();
+
+        verify(dockerConnectorMock).commit(any(CommitParams.class));
+        verify(dockerConnectorMock, never()).tag(any(TagParams.class));
+    }
+
+    @Test
+    public void shouldCommitContainerWhenIncrementalSnapshotsAreDisabled() throws Exception {
+        dockerInstance = getDockerInstance(getMachineStartedFromSnapshot(), REGISTRY, CONTAINER, IMAGE, false, false);
+
+        dockerInstance.saveToSnapshot();
+
+        verify(dockerConnectorMock).commit(any(CommitParams.class));
+        verify(dockerConnectorMock, never()).getContainerChanges(any(GetContainerChangesParams.class));
+    }
+
     @Test(expectedExceptions = MachineException.class)
     public void shouldThrowMachineExceptionWhenDockerCommitFailed() throws Exception{
         when(dockerConnectorMock.commit(any(CommitParams.class))).thenThrow(new IOException("err"));
@@ -207,6 +248,15 @@ public class DockerInstanceTest {
                                              String container,
                                              String image,
                                              boolean snapshotUseRegistry) throws MachineException {
+        return getDockerInstance(machine, registry, container, image, snapshotUseRegistry, true);
+    }
+
+    private DockerInstance getDockerInstance(Machine machine,
+                                             String registry,
+                                             String container,
+                                             String image,
+                                             boolean snapshotUseRegistry,
+                                             boolean incrementalSnapshots) throws MachineException {
         DockerMachineFactory machineFactory = mock(DockerMachineFactory.class);
         when(machineFactory.createMetadata(any(), any(), any())).thenReturn(mock(DockerInstanceRuntimeInfo.class));
         return new DockerInstance(dockerConnectorMock,
@@ -220,13 +270,32 @@ public class DockerInstanceTest {
                                   outputConsumer,
                                   dockerInstanceStopDetectorMock,
                                   mock(DockerInstanceProcessesCleaner.class),
-                                  snapshotUseRegistry);
+                                  snapshotUseRegistry,
+                                  incrementalSnapshots);
     }
 
     private Machine getMachine() {
         return getMachine(getMachineConfig(), OWNER, MACHINE_ID, WORKSPACE_ID, STATUS);
     }
 
+    private Machine getMachineStartedFromSnapshot() {
+        return getMachine(MachineConfigImpl.builder()
+                                           .fromConfig(getMachineConfig())
+                                           .setSource(new MachineSourceImpl("image").setLocation(SNAPSHOT))
+                                           .build(),
+                          OWNER,
+                          MACHINE_ID,
+                          WORKSPACE_ID,
+                          STATUS);
+    }
+
+    private ContainerChange containerChange(String path) {
+        final ContainerChange change = new ContainerChange();
+        change.setPath(path);
+        change.setKind(ContainerChange.ADDED);
+        return change;
+    }
+
     private Machine getMachine(MachineConfig config,
                                String owner,
                                String machineId,
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfig;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test for {@link ImagePreparationCoordinator}
+ */
+public class ImagePreparationCoordinatorTest {
+
+    private final ImagePreparationCoordinator coordinator = new ImagePreparationCoordinator();
+
+    @Test
+    public void shouldPerformConcurrentOperationsWithTheSameKeyOnceAndShareProgress() throws Exception {
+        final AtomicInteger performed = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> firstProgress = new CopyOnWriteArrayList<>();
+        final List<String> secondProgress = new CopyOnWriteArrayList<>();
+        final ImagePreparationCoordinator.ImageOperation operation = monitor -> {
+            performed.incrementAndGet();
+            monitor.updateProgress(status("Pulling"));
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            monitor.updateProgress(status("Done"));
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> first = executor.submit(() -> {
+                coordinator.execute("image", collector(firstProgress), operation);
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final Thread releaser = new Thread(() -> {
+                while (!coordinator.isInProgress("image") || secondProgress.isEmpty()) {
+                    Thread.yield();
+                }
+                release.countDown();
+            });
+            releaser.start();
+
+            coordinator.execute("image", collector(secondProgress), operation);
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(performed.get(), 1);
+        assertEquals(firstProgress, asList("Pulling", "Done"));
+        assertEquals(secondProgress, asList("Pulling", "Done"));
+        assertFalse(coordinator.isInProgress("image"));
+    }
+
+    @Test
+    public void shouldPerformOperationAgainAfterPreviousOneFailed() throws Exception {
+        final AtomicInteger performed = new AtomicInteger();
+        try {
+            coordinator.execute("image", ProgressMonitor.DEV_NULL, monitor -> {
+                performed.incrementAndGet();
+                throw new IOException("pull failed");
+            });
+            fail("Error is expected");
+        } catch (IOException expected) {
+        }
+
+        coordinator.execute("image", ProgressMonitor.DEV_NULL, monitor -> performed.incrementAndGet());
+
+        assertEquals(performed.get(), 2);
+    }
+
+    @Test
+    public void shouldHandOperationOverToWaiterWhenPerformerIsInterrupted() throws Exception {
+        final AtomicInteger performed = new AtomicInteger();
+        final List<String> waiterProgress = new CopyOnWriteArrayList<>();
+        final ImagePreparationCoordinator.ImageOperation operation = monitor -> {
+            if (performed.incrementAndGet() == 1) {
+                monitor.updateProgress(status("Pulling"));
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+            }
+            monitor.updateProgress(status("Done"));
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> performer = executor.submit(() -> {
+                coordinator.execute("image", ProgressMonitor.DEV_NULL, operation);
+                return null;
+            });
+            while (performed.get() == 0) {
+                Thread.yield();
+            }
+            final Future<?> waiter = executor.submit(() -> {
+                coordinator.execute("image", collector(waiterProgress), operation);
+                return null;
+            });
+            // waiter receives the replay of the progress when it is attached
+            while (waiterProgress.isEmpty()) {
+                Thread.yield();
+            }
+            performer.cancel(true);
+
+            waiter.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(performed.get(), 2);
+        assertEquals(waiterProgress, asList("Pulling", "Done"));
+        assertFalse(coordinator.isInProgress("image"));
+    }
+
+    @Test
+    public void shouldShareThePullBetweenUsersWithoutOwnCredentialsForTheRegistry() {
+        final AuthConfigs otherRegistry = authConfigs("other.registry:5000", "user", "password");
+
+        assertEquals(ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, otherRegistry),
+                     ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, null));
+    }
+
+    @Test
+    public void shouldNotShareThePullBetweenUsersWithDifferentCredentialsForTheRegistry() {
+        final AuthConfigs first = authConfigs("docker.io", "first", "password");
+        final AuthConfigs second = authConfigs("https://index.docker.io/v1/", "second", "password");
+
+        assertNotEquals(ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, first),
+                        ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, second));
+        assertNotEquals(ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, first),
+                        ImagePreparationCoordinator.pullKey("codenvy/ubuntu_jdk8", null, null));
+    }
+
+    private static AuthConfigs authConfigs(String registry, String username, String password) {
+        final AuthConfig authConfig = mock(AuthConfig.class);
+        when(authConfig.getUsername()).thenReturn(username);
+        when(authConfig.getPassword()).thenReturn(password);
+        final AuthConfigs authConfigs = mock(AuthConfigs.class);
+        when(authConfigs.getConfigs()).thenReturn(singletonMap(registry, authConfig));
+        return authConfigs;
+    }
+
+    private static ProgressStatus status(String status) {
+        final ProgressStatus progressStatus = new ProgressStatus();
+        progressStatus.setStatus(status);
+        return progressStatus;
+    }
+
+    private static ProgressMonitor collector(List<String> progress) {
+        return status -> progress.add(status.getStatus());
+    }
+}
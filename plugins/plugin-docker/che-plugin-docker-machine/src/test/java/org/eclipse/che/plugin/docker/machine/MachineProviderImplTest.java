@@ -15,6 +15,7 @@ import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.ServerConf;
 import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.environment.server.model.CheServiceBuildContextImpl;
 import org.eclipse.che.api.environment.server.model.CheServiceImpl;
 import org.eclipse.che.api.machine.server.model.impl.ServerConfImpl;
 import org.eclipse.che.api.machine.server.recipe.RecipeImpl;
@@ -24,12 +25,15 @@ import org.eclipse.che.commons.lang.os.WindowsPathEscaper;
 import org.eclipse.che.commons.subject.SubjectImpl;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
+import org.eclipse.che.plugin.docker.client.DockerOOMDetector;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
 import org.eclipse.che.plugin.docker.client.UserSpecificDockerRegistryCredentialsProvider;
+import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
 import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
 import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerState;
+import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
@@ -63,12 +67,15 @@ import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.DOCKER_FILE_TYPE;
 import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHINE_SNAPSHOT_PREFIX;
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.RECIPE_IMAGE_PREFIX;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -99,9 +106,21 @@ public class MachineProviderImplTest {
     @Mock
     private DockerInstanceStopDetector dockerInstanceStopDetector;
 
+    @Mock
+    private DockerOOMDetector oomDetector;
+
     @Mock
     private DockerNode dockerNode;
 
+    @Mock
+    private DockerImageWarmPool imageWarmPool;
+
+    @Mock
+    private RecipeImageCache recipeImageCache;
+
+    @Mock
+    private ContainerLogsStreamer containerLogsStreamer;
+
     @Mock
     private UserSpecificDockerRegistryCredentialsProvider credentialsReader;
 
@@ -159,6 +178,27 @@ public class MachineProviderImplTest {
         verify(dockerConnector).pull(eq(pullParams), any(ProgressMonitor.class));
     }
 
+    @Test
+    public void shouldNotPullImageWhichIsKeptWarm() throws Exception {
+        CheServiceImpl machine = createService();
+        machine.setImage("codenvy/ubuntu_jdk8:latest");
+        machine.setBuild(null);
+        when(imageWarmPool.acquire("codenvy/ubuntu_jdk8:latest")).thenReturn(true);
+
+        provider.startService(USER_NAME,
+                              WORKSPACE_ID,
+                              ENV_NAME,
+                              MACHINE_NAME,
+                              false,
+                              NETWORK_NAME,
+                              machine,
+                              LineConsumer.DEV_NULL);
+
+        verify(dockerConnector, never()).pull(any(PullParams.class), any(ProgressMonitor.class));
+        verify(dockerConnector).tag(eq(TagParams.create("codenvy/ubuntu_jdk8:latest", "eclipse-che/" + machine.getContainerName())));
+        verify(imageWarmPool).machineStarted(anyLong());
+    }
+
     @Test
     public void shouldNotPullDockerImageOnInstanceCreationFromLocalSnapshot() throws Exception {
         String repo = MACHINE_SNAPSHOT_PREFIX + "repo";
@@ -251,6 +291,46 @@ public class MachineProviderImplTest {
         assertFalse(imageParams.isForce());
     }
 
+    @Test
+    public void shouldBuildImageFromDockerfileContentOnceAndTagItWithMachineImageName() throws Exception {
+        // given
+        CheServiceImpl service = createService();
+        service.setImage(null);
+        service.setBuild(new CheServiceBuildContextImpl().withDockerfileContent("FROM codenvy/ubuntu_jdk8"));
+        doThrow(new ImageNotFoundException("not found")).doNothing()
+                                                        .when(dockerConnector)
+                                                        .tag(any(TagParams.class));
+
+        // when
+        createInstanceFromRecipe(service);
+
+        // then
+        ArgumentCaptor<BuildImageParams> buildCaptor = ArgumentCaptor.forClass(BuildImageParams.class);
+        verify(dockerConnector).buildImage(buildCaptor.capture(), any(ProgressMonitor.class));
+        String recipeImage = buildCaptor.getValue().getRepository();
+        assertTrue(recipeImage.startsWith(RECIPE_IMAGE_PREFIX));
+        verify(dockerConnector, times(2)).tag(eq(TagParams.create(recipeImage, "eclipse-che/" + service.getContainerName())));
+        verify(recipeImageCache).used(recipeImage);
+    }
+
+    @Test
+    public void shouldNotBuildImageFromDockerfileContentIfImageOfTheSameRecipeExists() throws Exception {
+        // given
+        CheServiceImpl service = createService();
+        service.setImage(null);
+        service.setBuild(new CheServiceBuildContextImpl().withDockerfileContent("FROM codenvy/ubuntu_jdk8"));
+
+        // when
+        createInstanceFromRecipe(service);
+
+        // then
+        verify(dockerConnector, never()).buildImage(any(BuildImageParams.class), any(ProgressMonitor.class));
+        ArgumentCaptor<TagParams> tagCaptor = ArgumentCaptor.forClass(TagParams.class);
+        verify(dockerConnector).tag(tagCaptor.capture());
+        assertTrue(tagCaptor.getValue().getImage().startsWith(RECIPE_IMAGE_PREFIX));
+        verify(recipeImageCache).used(tagCaptor.getValue().getImage());
+    }
+
     @Test
     public void shouldCreateContainerOnInstanceCreationFromRecipe() throws Exception {
         // when
@@ -283,6 +363,13 @@ public class MachineProviderImplTest {
         assertEquals(argumentCaptor.getValue().getContainer(), CONTAINER_ID);
     }
 
+    @Test
+    public void shouldStartOOMDetectionOfStartedContainer() throws Exception {
+        createInstanceFromRecipe();
+
+        verify(oomDetector).startDetection(eq(CONTAINER_ID), any(LogMessagePrinter.class));
+    }
+
     @Test
     public void shouldCreateContainerOnInstanceCreationFromSnapshot() throws Exception {
         // when
@@ -1313,6 +1400,11 @@ public class MachineProviderImplTest {
                                            credentialsReader,
                                            dockerMachineFactory,
                                            dockerInstanceStopDetector,
+                                           oomDetector,
+                                           new ImagePreparationCoordinator(),
+                                           recipeImageCache,
+                                           imageWarmPool,
+                                           containerLogsStreamer,
                                            devMachineServers,
                                            allMachineServers,
                                            devMachineVolumes,
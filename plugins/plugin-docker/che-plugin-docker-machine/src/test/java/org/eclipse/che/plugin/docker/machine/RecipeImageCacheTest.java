@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.RECIPE_IMAGE_PREFIX;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link RecipeImageCache}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class RecipeImageCacheTest {
+
+    @Mock
+    private DockerConnector docker;
+
+    private RecipeImageCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        cache = new RecipeImageCache(docker);
+        final Field maxCount = RecipeImageCache.class.getDeclaredField("maxCount");
+        maxCount.setAccessible(true);
+        maxCount.set(cache, 2);
+    }
+
+    @Test
+    public void shouldRemoveLeastRecentlyUsedImage() throws Exception {
+        cache.used(RECIPE_IMAGE_PREFIX + "a");
+        cache.used(RECIPE_IMAGE_PREFIX + "b");
+        cache.used(RECIPE_IMAGE_PREFIX + "a");
+        cache.used(RECIPE_IMAGE_PREFIX + "c");
+
+        verify(docker).removeImage(RemoveImageParams.create(RECIPE_IMAGE_PREFIX + "b").withForce(false));
+        verify(docker, never()).removeImage(RemoveImageParams.create(RECIPE_IMAGE_PREFIX + "a").withForce(false));
+    }
+
+    @Test
+    public void shouldNotRemoveImagesWhileLimitIsNotExceeded() throws Exception {
+        cache.used(RECIPE_IMAGE_PREFIX + "a");
+        cache.used(RECIPE_IMAGE_PREFIX + "b");
+
+        verify(docker, never()).removeImage(any(RemoveImageParams.class));
+    }
+
+    @Test
+    public void shouldEvictRecipeImagesBuiltBeforeStartFirst() throws Exception {
+        when(docker.listImages()).thenReturn(asList(image(2, RECIPE_IMAGE_PREFIX + "new:latest"),
+                                                    image(1, RECIPE_IMAGE_PREFIX + "old:latest"),
+                                                    image(0, "codenvy/ubuntu_jdk8:latest")));
+        cache.loadImages();
+
+        cache.used(RECIPE_IMAGE_PREFIX + "built");
+
+        verify(docker).removeImage(RemoveImageParams.create(RECIPE_IMAGE_PREFIX + "old").withForce(false));
+        verify(docker, never()).removeImage(RemoveImageParams.create("codenvy/ubuntu_jdk8").withForce(false));
+    }
+
+    private static Image image(long created, String tag) {
+        final Image image = new Image();
+        image.setCreated(created);
+        image.setRepoTags(new String[] {tag});
+        return image;
+    }
+}
@@ -16,6 +16,7 @@ import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerEventBus;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
 import org.eclipse.che.plugin.docker.client.json.network.ContainerInNetwork;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
@@ -91,6 +92,8 @@ public class DockerAbandonedResourcesCleanerTest {
     @Mock
     private DockerConnector              dockerConnector;
     @Mock
+    private DockerEventBus               eventBus;
+    @Mock
     private DockerContainerNameGenerator nameGenerator;
     @Mock
     private WorkspaceRuntimes            workspaceRuntimes;
@@ -144,6 +147,7 @@ public class DockerAbandonedResourcesCleanerTest {
 
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnector,
+                                                          eventBus,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -153,7 +157,7 @@ public class DockerAbandonedResourcesCleanerTest {
         when(machineImpl1.getId()).thenReturn(machineId1);
         when(machineImpl1.getWorkspaceId()).thenReturn(workspaceId1);
 
-        when(dockerConnector.listContainers()).thenReturn(asList(container1, container2, container3));
+        when(eventBus.getContainers()).thenReturn(asList(container1, container2, container3));
 
         when(container1.getNames()).thenReturn(new String[] {containerName1});
         when(container1.getStatus()).thenReturn(RUNNING_STATUS);
@@ -208,7 +212,7 @@ public class DockerAbandonedResourcesCleanerTest {
     @Test
     public void cleanerShouldRunCleanNetworksEvenIfCleanOfContainersFailed() throws IOException {
         // given
-        when(dockerConnector.listContainers()).thenThrow(new IOException("Error while fetching docker containers list"));
+        when(eventBus.getContainers()).thenThrow(new IOException("Error while fetching docker containers list"));
 
         // when
         cleaner.run();
@@ -222,7 +226,7 @@ public class DockerAbandonedResourcesCleanerTest {
             throws Exception {
         cleaner.cleanContainers();
 
-        verify(dockerConnector).listContainers();
+        verify(eventBus).getContainers();
 
         verify(nameGenerator, times(3)).parse(anyString());
         verify(environmentEngine, times(3)).getMachine(anyString(), anyString());
@@ -341,6 +345,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnector,
+                                                          eventBus,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -361,6 +366,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnector,
+                                                          eventBus,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
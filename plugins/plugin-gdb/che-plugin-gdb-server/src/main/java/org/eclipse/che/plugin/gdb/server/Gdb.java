@@ -17,6 +17,7 @@ import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.plugin.gdb.server.exception.GdbException;
+import org.eclipse.che.plugin.gdb.server.exception.GdbParseException;
 import org.eclipse.che.plugin.gdb.server.exception.GdbTerminatedException;
 import org.eclipse.che.plugin.gdb.server.parser.GdbBacktrace;
 import org.eclipse.che.plugin.gdb.server.parser.GdbBreak;
@@ -30,6 +31,7 @@ import org.eclipse.che.plugin.gdb.server.parser.GdbInfoBreak;
 import org.eclipse.che.plugin.gdb.server.parser.GdbInfoLine;
 import org.eclipse.che.plugin.gdb.server.parser.GdbInfoLocals;
 import org.eclipse.che.plugin.gdb.server.parser.GdbInfoProgram;
+import org.eclipse.che.plugin.gdb.server.parser.GdbMiResult;
 import org.eclipse.che.plugin.gdb.server.parser.GdbOutput;
 import org.eclipse.che.plugin.gdb.server.parser.GdbPType;
 import org.eclipse.che.plugin.gdb.server.parser.GdbPrint;
@@ -61,6 +63,7 @@ public class Gdb extends GdbProcess {
     private static final String OUTPUT_SEPARATOR = "(gdb) ";
 
     private GdbVersion gdbVersion;
+    private int        lastToken;
 
     Gdb() throws IOException {
         super(OUTPUT_SEPARATOR, PROCESS_NAME);
@@ -132,8 +135,9 @@ public class Gdb extends GdbProcess {
             Runtime.getRuntime().exec("kill -SIGINT " + processId).waitFor();
         }
 
-        final GdbOutput gdbOutput = sendCommand("backtrace");
-        final GdbBacktrace backtrace = GdbBacktrace.parse(gdbOutput);
+        final GdbMiResult gdbMiResult = sendMiCommand("-stack-list-frames");
+        final GdbBacktrace backtrace = gdbMiResult != null ? GdbBacktrace.parse(gdbMiResult)
+                                                           : GdbBacktrace.parse(sendCommand("backtrace"));
         final Map<Integer, Location> frames = backtrace.getFrames();
 
         if (frames.containsKey(0)) {
@@ -303,6 +307,10 @@ public class Gdb extends GdbProcess {
      * `info args` command.
      */
     public GdbInfoArgs infoArgs() throws IOException, InterruptedException, DebuggerException {
+        GdbMiResult gdbMiResult = sendMiCommand("-stack-list-arguments --all-values 0 0");
+        if (gdbMiResult != null) {
+            return GdbInfoArgs.parse(gdbMiResult);
+        }
         GdbOutput gdbOutput = sendCommand("info args");
         return GdbInfoArgs.parse(gdbOutput);
     }
@@ -311,6 +319,10 @@ public class Gdb extends GdbProcess {
      * `info locals` command.
      */
     public GdbInfoLocals infoLocals() throws IOException, InterruptedException, DebuggerException {
+        GdbMiResult gdbMiResult = sendMiCommand("-stack-list-locals --all-values");
+        if (gdbMiResult != null) {
+            return GdbInfoLocals.parse(gdbMiResult);
+        }
         GdbOutput gdbOutput = sendCommand("info locals");
         return GdbInfoLocals.parse(gdbOutput);
     }
@@ -319,6 +331,10 @@ public class Gdb extends GdbProcess {
      * `info line` command.
      */
     public GdbInfoLine infoLine() throws IOException, InterruptedException, DebuggerException {
+        GdbMiResult gdbMiResult = sendMiCommand("-stack-info-frame");
+        if (gdbMiResult != null) {
+            return GdbInfoLine.parse(gdbMiResult);
+        }
         GdbOutput gdbOutput = sendCommand("info line");
         return GdbInfoLine.parse(gdbOutput);
     }
@@ -331,6 +347,34 @@ public class Gdb extends GdbProcess {
         return GdbInfoProgram.parse(gdbOutput);
     }
 
+    /**
+     * Sends GDB/MI command through {@code interpreter-exec}, so structured output is
+     * received without switching the whole session to the machine interface.
+     * The command is prefixed with a token which identifies the result record.
+     *
+     * @return result of the command or {@code null} if GDB didn't respond with a successful
+     * result record, in this case the CLI command should be used instead
+     */
+    @Nullable
+    private synchronized GdbMiResult sendMiCommand(String command) throws IOException,
+                                                                          GdbTerminatedException,
+                                                                          InterruptedException {
+        final int token = ++lastToken;
+        final String escaped = (token + command).replace("\\", "\\\\").replace("\"", "\\\"");
+        final GdbOutput gdbOutput = sendCommand("interpreter-exec mi \"" + escaped + "\"");
+        try {
+            final GdbMiResult gdbMiResult = GdbMiResult.parse(gdbOutput);
+            if (gdbMiResult.isError() || (gdbMiResult.getToken() != null && gdbMiResult.getToken() != token)) {
+                LOG.debug("Unexpected result of GDB/MI command {}: {}", command, gdbOutput.getOutput());
+                return null;
+            }
+            return gdbMiResult;
+        } catch (GdbParseException e) {
+            LOG.debug(e.getMessage());
+            return null;
+        }
+    }
+
     private GdbOutput sendCommand(String command) throws IOException,
                                                          GdbTerminatedException,
                                                          InterruptedException {
@@ -10,27 +10,26 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.gdb.server;
 
-import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.plugin.gdb.server.parser.GdbOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 
-import static java.lang.Math.min;
-
 /**
  * @author Anatoliy Bazko
  */
 public abstract class GdbProcess {
-    private static final Logger LOG          = LoggerFactory.getLogger(GdbProcess.class);
-    private static final int    MAX_CAPACITY = 1000;
-    private static final int    MAX_OUTPUT   = 4096;
+    private static final Logger LOG              = LoggerFactory.getLogger(GdbProcess.class);
+    private static final int    MAX_CAPACITY     = 1000;
+    private static final int    MAX_OUTPUT       = 64 * 1024;
+    private static final int    READ_BUFFER_SIZE = 8192;
 
     protected       int                      pid;
     protected final Process                  process;
@@ -42,7 +41,7 @@ public abstract class GdbProcess {
         this.outputSeparator = outputSeparator;
         this.outputs = new ArrayBlockingQueue<>(MAX_CAPACITY);
 
-        ProcessBuilder processBuilder = new ProcessBuilder(commands);
+        ProcessBuilder processBuilder = new ProcessBuilder(commands).redirectErrorStream(true);
         process = processBuilder.start();
 
         outputReader = new OutputReader(commands[0] + " output reader");
@@ -70,6 +69,7 @@ public abstract class GdbProcess {
 
     /**
      * Continuously reads process output and store in the {@code #outputs}.
+     * Reading blocks until the process writes something, so output is available as soon as it is produced.
      */
     private class OutputReader extends Thread {
 
@@ -80,48 +80,30 @@ public abstract class GdbProcess {
         @Override
         public void run() {
             StringBuilder buf = new StringBuilder();
+            char[] data = new char[READ_BUFFER_SIZE];
 
-            while (!isInterrupted()) {
-                if (!process.isAlive()) {
-                    outputs.add(GdbOutput.of(buf.toString(), true));
-                    break;
-                }
-
-                try {
-                    InputStream in = getInput();
-                    if (in != null) {
-                        String data = read(in);
-                        if (!data.isEmpty()) {
-                            buf.append(data);
-                            if (buf.length() > MAX_OUTPUT) {
-                                buf.delete(0, buf.length() - MAX_OUTPUT);
-                            }
-                        }
+            try (Reader in = new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)) {
+                int read;
+                while (!isInterrupted() && (read = in.read(data)) != -1) {
+                    buf.append(data, 0, read);
+                    extractOutput(buf);
+                    if (buf.length() > MAX_OUTPUT) {
+                        buf.delete(0, buf.length() - MAX_OUTPUT);
                     }
-                } catch (IOException e) {
-                    LOG.error(e.getMessage(), e);
                 }
-
-                if (buf.length() > 0) {
-                    extractOutput(buf);
+            } catch (IOException e) {
+                if (!isInterrupted()) {
+                    LOG.error(e.getMessage(), e);
                 }
+            }
 
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    break;
-                }
+            if (!isInterrupted()) {
+                outputs.add(GdbOutput.of(buf.toString(), true));
             }
 
             LOG.debug(getName() + " has been stopped");
         }
 
-        private InputStream getInput() throws IOException {
-            return hasError() ? process.getErrorStream()
-                              : (hasInput() ? (hasError() ? process.getErrorStream() : process.getInputStream())
-                                            : null);
-        }
-
         private void extractOutput(StringBuilder buf) {
             int indexOf;
             while ((indexOf = buf.indexOf(outputSeparator)) >= 0) {
@@ -133,22 +115,5 @@ public abstract class GdbProcess {
                 buf.delete(0, indexOf + outputSeparator.length());
             }
         }
-
-        private boolean hasError() throws IOException {
-            return process.getErrorStream().available() != 0;
-        }
-
-        private boolean hasInput() throws IOException {
-            return process.getInputStream().available() != 0;
-        }
-
-        @Nullable
-        private String read(InputStream in) throws IOException {
-            int available = min(in.available(), MAX_OUTPUT);
-            byte[] buf = new byte[available];
-            int read = in.read(buf, 0, available);
-
-            return new String(buf, 0, read, StandardCharsets.UTF_8);
-        }
     }
 }
@@ -80,4 +80,38 @@ public class GdbBacktrace {
 
         throw new GdbParseException(GdbBacktrace.class, output);
     }
+
+    /**
+     * Factory method for result of {@code -stack-list-frames} GDB/MI command.
+     */
+    public static GdbBacktrace parse(GdbMiResult gdbMiResult) throws GdbParseException {
+        final Map<Integer, Location> frames = new HashMap<>();
+
+        for (Object item : gdbMiResult.getList("stack")) {
+            final Map<String, Object> frame = GdbMiResult.asTuple(item);
+            final String level = GdbMiResult.asString(frame.get("level"));
+            if (level == null) {
+                continue;
+            }
+
+            final String file = GdbMiResult.asString(frame.get("file"));
+            final String line = GdbMiResult.asString(frame.get("line"));
+            final String library = GdbMiResult.asString(frame.get("from"));
+            try {
+                if (file != null && line != null) {
+                    frames.put(Integer.parseInt(level), new LocationImpl(file, Integer.parseInt(line)));
+                } else if (library != null) {
+                    frames.put(Integer.parseInt(level), new LocationImpl(library));
+                }
+            } catch (NumberFormatException e) {
+                //we can't get info about current frame, but we are trying to get info about another frames
+            }
+        }
+
+        if (!frames.isEmpty()) {
+            return new GdbBacktrace(frames);
+        }
+
+        throw new GdbParseException(GdbBacktrace.class, gdbMiResult.getResults().toString());
+    }
 }
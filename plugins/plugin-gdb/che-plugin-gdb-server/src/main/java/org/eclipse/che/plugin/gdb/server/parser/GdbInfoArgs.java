@@ -55,4 +55,24 @@ public class GdbInfoArgs {
 
         return new GdbInfoArgs(variables);
     }
+
+    /**
+     * Factory method for result of {@code -stack-list-arguments --all-values <frame> <frame>} GDB/MI command.
+     */
+    public static GdbInfoArgs parse(GdbMiResult gdbMiResult) {
+        Map<String, String> variables = new HashMap<>();
+
+        for (Object frame : gdbMiResult.getList("stack-args")) {
+            for (Object item : GdbMiResult.asList(GdbMiResult.asTuple(frame).get("args"))) {
+                Map<String, Object> variable = GdbMiResult.asTuple(item);
+                String name = GdbMiResult.asString(variable.get("name"));
+                String value = GdbMiResult.asString(variable.get("value"));
+                if (name != null && value != null) {
+                    variables.put(name, value);
+                }
+            }
+        }
+
+        return new GdbInfoArgs(variables);
+    }
 }
@@ -14,6 +14,7 @@ import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.impl.LocationImpl;
 import org.eclipse.che.plugin.gdb.server.exception.GdbParseException;
 
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -59,4 +60,22 @@ public class GdbInfoLine {
 
         throw new GdbParseException(GdbInfoLine.class, output);
     }
+
+    /**
+     * Factory method for result of {@code -stack-info-frame} GDB/MI command.
+     */
+    public static GdbInfoLine parse(GdbMiResult gdbMiResult) throws GdbParseException {
+        Map<String, Object> frame = gdbMiResult.getTuple("frame");
+        String file = GdbMiResult.asString(frame.get("file"));
+        String lineNumber = GdbMiResult.asString(frame.get("line"));
+        if (file != null && lineNumber != null) {
+            try {
+                return new GdbInfoLine(new LocationImpl(file, Integer.parseInt(lineNumber)));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+
+        throw new GdbParseException(GdbInfoLine.class, gdbMiResult.getResults().toString());
+    }
 }
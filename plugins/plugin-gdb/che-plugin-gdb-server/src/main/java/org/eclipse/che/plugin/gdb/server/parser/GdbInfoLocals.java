@@ -55,4 +55,22 @@ public class GdbInfoLocals {
 
         return new GdbInfoLocals(variables);
     }
+
+    /**
+     * Factory method for result of {@code -stack-list-locals --all-values} GDB/MI command.
+     */
+    public static GdbInfoLocals parse(GdbMiResult gdbMiResult) {
+        Map<String, String> variables = new HashMap<>();
+
+        for (Object item : gdbMiResult.getList("locals")) {
+            Map<String, Object> variable = GdbMiResult.asTuple(item);
+            String name = GdbMiResult.asString(variable.get("name"));
+            String value = GdbMiResult.asString(variable.get("value"));
+            if (name != null && value != null) {
+                variables.put(name, value);
+            }
+        }
+
+        return new GdbInfoLocals(variables);
+    }
 }
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.gdb.server.parser;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.plugin.gdb.server.exception.GdbParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result record of GDB/MI command, e.g. {@code 12^done,frame={level="0",file="h.cpp",line="7"}}.
+ * <p>
+ * Values of the record are represented as {@link String} for constants, {@link Map} for tuples
+ * and {@link List} for lists. Names of the list items are omitted, e.g. {@code stack=[frame={..},frame={..}]}
+ * is represented as a list of tuples.
+ * <p>
+ * The record is parsed in a single pass over the output without regular expressions.
+ *
+ * @see <a href="https://sourceware.org/gdb/onlinedocs/gdb/GDB_002fMI-Output-Syntax.html">GDB/MI Output Syntax</a>
+ */
+public class GdbMiResult {
+
+    private final Integer             token;
+    private final String              resultClass;
+    private final Map<String, Object> results;
+
+    public GdbMiResult(@Nullable Integer token, String resultClass, Map<String, Object> results) {
+        this.token = token;
+        this.resultClass = resultClass;
+        this.results = results;
+    }
+
+    /**
+     * Returns token of the command the record is a response to or {@code null} if the command had no token.
+     */
+    @Nullable
+    public Integer getToken() {
+        return token;
+    }
+
+    /**
+     * Returns result class, e.g. {@code done}, {@code running}, {@code error}.
+     */
+    public String getResultClass() {
+        return resultClass;
+    }
+
+    public boolean isError() {
+        return "error".equals(resultClass);
+    }
+
+    public Map<String, Object> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns constant value of the result with the given name or {@code null} if there is no such constant.
+     */
+    @Nullable
+    public String getString(String name) {
+        return asString(results.get(name));
+    }
+
+    /**
+     * Returns tuple value of the result with the given name or empty map if there is no such tuple.
+     */
+    public Map<String, Object> getTuple(String name) {
+        return asTuple(results.get(name));
+    }
+
+    /**
+     * Returns list value of the result with the given name or empty list if there is no such list.
+     */
+    public List<Object> getList(String name) {
+        return asList(results.get(name));
+    }
+
+    @Nullable
+    public static String asString(Object value) {
+        return value instanceof String ? (String)value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> asTuple(Object value) {
+        return value instanceof Map ? (Map<String, Object>)value : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> asList(Object value) {
+        return value instanceof List ? (List<Object>)value : Collections.emptyList();
+    }
+
+    /**
+     * Factory method. Finds the first result record in the output, all the other output is ignored.
+     */
+    public static GdbMiResult parse(GdbOutput gdbOutput) throws GdbParseException {
+        final String output = gdbOutput.getOutput();
+
+        int lineStart = 0;
+        while (lineStart < output.length()) {
+            int lineEnd = output.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = output.length();
+            }
+
+            int pos = lineStart;
+            while (pos < lineEnd && Character.isDigit(output.charAt(pos))) {
+                pos++;
+            }
+            if (pos < lineEnd && output.charAt(pos) == '^') {
+                final Integer token = pos > lineStart ? Integer.valueOf(output.substring(lineStart, pos)) : null;
+                try {
+                    return new Reader(output, pos + 1, lineEnd).readRecord(token);
+                } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                    throw new GdbParseException(GdbMiResult.class, output.substring(lineStart, lineEnd));
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        throw new GdbParseException(GdbMiResult.class, output);
+    }
+
+    /**
+     * Recursive descent reader of the record.
+     */
+    private static class Reader {
+        private final String output;
+        private final int    end;
+        private       int    pos;
+
+        Reader(String output, int pos, int end) {
+            this.output = output;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        GdbMiResult readRecord(Integer token) {
+            final String resultClass = readName(',');
+            final Map<String, Object> results = new LinkedHashMap<>();
+            while (pos < end && output.charAt(pos) == ',') {
+                pos++;
+                readResult(results);
+            }
+            return new GdbMiResult(token, resultClass, results);
+        }
+
+        private void readResult(Map<String, Object> results) {
+            final String name = readName('=');
+            expect('=');
+            results.put(name, readValue());
+        }
+
+        private Object readValue() {
+            switch (output.charAt(pos)) {
+                case '"':
+                    return readConst();
+                case '{':
+                    return readTuple();
+                case '[':
+                    return readList();
+                default:
+                    throw new IllegalArgumentException("Unexpected character at " + pos);
+            }
+        }
+
+        private Map<String, Object> readTuple() {
+            expect('{');
+            final Map<String, Object> tuple = new LinkedHashMap<>();
+            if (output.charAt(pos) == '}') {
+                pos++;
+                return tuple;
+            }
+            readResult(tuple);
+            while (output.charAt(pos) == ',') {
+                pos++;
+                readResult(tuple);
+            }
+            expect('}');
+            return tuple;
+        }
+
+        private List<Object> readList() {
+            expect('[');
+            final List<Object> list = new ArrayList<>();
+            if (output.charAt(pos) == ']') {
+                pos++;
+                return list;
+            }
+            list.add(readListItem());
+            while (output.charAt(pos) == ',') {
+                pos++;
+                list.add(readListItem());
+            }
+            expect(']');
+            return list;
+        }
+
+        private Object readListItem() {
+            final char c = output.charAt(pos);
+            if (c == '"' || c == '{' || c == '[') {
+                return readValue();
+            }
+            // list of results, name of the item is omitted
+            readName('=');
+            expect('=');
+            return readValue();
+        }
+
+        private String readName(char terminator) {
+            final int start = pos;
+            while (pos < end && output.charAt(pos) != terminator && output.charAt(pos) != ',') {
+                pos++;
+            }
+            return output.substring(start, pos);
+        }
+
+        private String readConst() {
+            expect('"');
+            final StringBuilder value = new StringBuilder();
+            char c;
+            while ((c = next()) != '"') {
+                if (c == '\\') {
+                    c = next();
+                    switch (c) {
+                        case 'n':
+                            value.append('\n');
+                            break;
+                        case 't':
+                            value.append('\t');
+                            break;
+                        case 'r':
+                            value.append('\r');
+                            break;
+                        default:
+                            if (c >= '0' && c <= '7') {
+                                int code = c - '0';
+                                for (int i = 0; i < 2 && pos < end && output.charAt(pos) >= '0' && output.charAt(pos) <= '7'; i++) {
+                                    code = code * 8 + output.charAt(pos++) - '0';
+                                }
+                                value.append((char)code);
+                            } else {
+                                value.append(c);
+                            }
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            return value.toString();
+        }
+
+        private char next() {
+            if (pos >= end) {
+                throw new IllegalArgumentException("Unterminated string");
+            }
+            return output.charAt(pos++);
+        }
+
+        private void expect(char c) {
+            if (pos >= end || output.charAt(pos) != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+            }
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.gdb.server.parser;
+
+import org.eclipse.che.api.debug.shared.model.Location;
+import org.eclipse.che.plugin.gdb.server.exception.GdbParseException;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class GdbMiResultTest {
+
+    @Test
+    public void testParse() throws Exception {
+        GdbOutput gdbOutput = GdbOutput.of("~\"some console output\\n\"\n" +
+                                           "12^done,value=\"a \\\"quoted\\\"\\tvalue\\n\",tuple={a=\"1\",b=[]},list=[\"x\",\"y\"]\n");
+
+        GdbMiResult gdbMiResult = GdbMiResult.parse(gdbOutput);
+
+        assertEquals(gdbMiResult.getToken(), Integer.valueOf(12));
+        assertEquals(gdbMiResult.getResultClass(), "done");
+        assertEquals(gdbMiResult.getString("value"), "a \"quoted\"\tvalue\n");
+        assertEquals(gdbMiResult.getTuple("tuple").get("a"), "1");
+        assertTrue(GdbMiResult.asList(gdbMiResult.getTuple("tuple").get("b")).isEmpty());
+        assertEquals(gdbMiResult.getList("list").size(), 2);
+        assertEquals(gdbMiResult.getList("list").get(1), "y");
+    }
+
+    @Test
+    public void testParseWithoutToken() throws Exception {
+        GdbMiResult gdbMiResult = GdbMiResult.parse(GdbOutput.of("^error,msg=\"No frame selected.\""));
+
+        assertNull(gdbMiResult.getToken());
+        assertTrue(gdbMiResult.isError());
+        assertEquals(gdbMiResult.getString("msg"), "No frame selected.");
+    }
+
+    @Test(expectedExceptions = GdbParseException.class)
+    public void testParseFailIfNoResultRecord() throws Exception {
+        GdbMiResult.parse(GdbOutput.of("No symbol table is loaded.  Use the \"file\" command."));
+    }
+
+    @Test(expectedExceptions = GdbParseException.class)
+    public void testParseFailIfRecordIsMalformed() throws Exception {
+        GdbMiResult.parse(GdbOutput.of("1^done,frame={level=\"0\",file=\"h.cpp"));
+    }
+
+    @Test
+    public void testParseBacktrace() throws Exception {
+        GdbMiResult gdbMiResult = GdbMiResult.parse(GdbOutput.of(
+                "3^done,stack=[frame={level=\"0\",addr=\"0x00007ffff77fc710\",func=\"__write_nocancel\"," +
+                "file=\"../sysdeps/unix/syscall-template.S\",line=\"81\"}," +
+                "frame={level=\"1\",addr=\"0x00007ffff7b6a684\",func=\"std::ostream::put(char)\"," +
+                "from=\"/usr/lib/x86_64-linux-gnu/libstdc++.so.6\"}," +
+                "frame={level=\"2\",addr=\"0x00000000004008a8\",func=\"main\",file=\"hello.cc\"," +
+                "fullname=\"/projects/hello.cc\",line=\"16\"}]"));
+
+        Map<Integer, Location> frames = GdbBacktrace.parse(gdbMiResult).getFrames();
+
+        assertEquals(frames.get(0).getTarget(), "../sysdeps/unix/syscall-template.S");
+        assertEquals(frames.get(0).getLineNumber(), 81);
+        assertEquals(frames.get(1).getTarget(), "/usr/lib/x86_64-linux-gnu/libstdc++.so.6");
+        assertEquals(frames.get(2).getTarget(), "hello.cc");
+        assertEquals(frames.get(2).getLineNumber(), 16);
+    }
+
+    @Test
+    public void testParseLocals() throws Exception {
+        GdbMiResult gdbMiResult = GdbMiResult.parse(GdbOutput.of(
+                "4^done,locals=[{name=\"i\",value=\"0\"},{name=\"p\",value=\"{x = 1,\\n  y = 2}\"}]"));
+
+        Map<String, String> variables = GdbInfoLocals.parse(gdbMiResult).getVariables();
+
+        assertEquals(variables.get("i"), "0");
+        assertEquals(variables.get("p"), "{x = 1,\n  y = 2}");
+    }
+
+    @Test
+    public void testParseArgs() throws Exception {
+        GdbMiResult gdbMiResult = GdbMiResult.parse(GdbOutput.of(
+                "5^done,stack-args=[frame={level=\"0\",args=[{name=\"argc\",value=\"1\"}," +
+                "{name=\"argv\",value=\"0x7fffffffe5c8\"}]}]"));
+
+        Map<String, String> variables = GdbInfoArgs.parse(gdbMiResult).getVariables();
+
+        assertEquals(variables.get("argc"), "1");
+        assertEquals(variables.get("argv"), "0x7fffffffe5c8");
+    }
+
+    @Test
+    public void testParseInfoLine() throws Exception {
+        GdbMiResult gdbMiResult = GdbMiResult.parse(GdbOutput.of(
+                "6^done,frame={level=\"0\",addr=\"0x0000000000400836\",func=\"main\",file=\"h.cpp\"," +
+                "fullname=\"/projects/h.cpp\",line=\"7\"}"));
+
+        Location location = GdbInfoLine.parse(gdbMiResult).getLocation();
+
+        assertEquals(location.getTarget(), "h.cpp");
+        assertEquals(location.getLineNumber(), 7);
+    }
+}
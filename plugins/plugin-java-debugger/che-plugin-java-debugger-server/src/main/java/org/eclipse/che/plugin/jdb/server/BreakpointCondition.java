@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.Value;
+import com.sun.jdi.VirtualMachine;
+
+import org.eclipse.che.plugin.jdb.server.expression.Evaluator;
+import org.eclipse.che.plugin.jdb.server.expression.ExpressionException;
+import org.eclipse.che.plugin.jdb.server.expression.ExpressionParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Condition of a breakpoint. The expression is parsed once when the breakpoint is set,
+ * so an invalid condition is rejected before the breakpoint is hit and each hit only evaluates
+ * the parsed expression. Keeps statistic of evaluations to make expensive conditions visible.
+ */
+class BreakpointCondition {
+    /** Number of evaluations after which the average evaluation time is considered representative. */
+    static final int  MIN_EVALUATIONS_TO_REPORT = 10;
+    /** Average evaluation time in microseconds above which the condition is reported as slow. */
+    static final long SLOW_EVALUATION_TIME_US   = 10_000;
+
+    private final ExpressionParser parser;
+
+    private long    evaluations;
+    private long    evaluationTimeNanos;
+    private boolean reportedSlow;
+
+    /**
+     * @param expression
+     *         condition expression
+     * @throws ExpressionException
+     *         if the expression is invalid
+     */
+    BreakpointCondition(String expression) {
+        this(ExpressionParser.newInstance(expression));
+    }
+
+    BreakpointCondition(ExpressionParser parser) {
+        this.parser = parser;
+        parser.parse();
+    }
+
+    String getExpression() {
+        return parser.getExpression();
+    }
+
+    /**
+     * Evaluates condition in the context of the top frame of the given thread.
+     *
+     * @return result of evaluation
+     */
+    Value evaluate(VirtualMachine vm, ThreadReference thread) {
+        return evaluate(new Evaluator(vm, thread));
+    }
+
+    Value evaluate(Evaluator evaluator) {
+        final long start = System.nanoTime();
+        try {
+            return parser.evaluate(evaluator);
+        } finally {
+            evaluationTimeNanos += System.nanoTime() - start;
+            evaluations++;
+        }
+    }
+
+    /** Returns number of evaluations of the condition. */
+    long getEvaluations() {
+        return evaluations;
+    }
+
+    /** Returns average time of the condition evaluation in microseconds. */
+    long getAverageEvaluationTime() {
+        return evaluations == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(evaluationTimeNanos / evaluations);
+    }
+
+    /**
+     * Returns true only once, when the condition is evaluated at least {@link #MIN_EVALUATIONS_TO_REPORT}
+     * times and its average evaluation time exceeds {@link #SLOW_EVALUATION_TIME_US}.
+     */
+    boolean becameSlow() {
+        if (reportedSlow || evaluations < MIN_EVALUATIONS_TO_REPORT || getAverageEvaluationTime() <= SLOW_EVALUATION_TIME_US) {
+            return false;
+        }
+        reportedSlow = true;
+        return true;
+    }
+}
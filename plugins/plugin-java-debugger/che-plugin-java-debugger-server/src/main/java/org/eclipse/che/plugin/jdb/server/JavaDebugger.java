@@ -92,8 +92,10 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
  * @author Valeriy Svydenko
  */
 public class JavaDebugger implements EventsHandler, Debugger {
-    private static final Logger            LOG          = LoggerFactory.getLogger(JavaDebugger.class);
-    private static final JavaDebuggerUtils debuggerUtil = new JavaDebuggerUtils();
+    private static final Logger            LOG                = LoggerFactory.getLogger(JavaDebugger.class);
+    private static final JavaDebuggerUtils debuggerUtil       = new JavaDebuggerUtils();
+    /** Name of breakpoint request property which holds condition of the breakpoint. */
+    private static final String            CONDITION_PROPERTY = "org.eclipse.che.ide.java.debug.condition";
 
     private final String           host;
     private final int              port;
@@ -116,6 +118,8 @@ public class JavaDebugger implements EventsHandler, Debugger {
     private ThreadReference thread;
     /** Current stack frame. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
     private JdiStackFrame   stackFrame;
+    /** Dump of current frame, reset together with the frame. */
+    private StackFrameDumpDto stackFrameDump;
     /** Lock for synchronization debug processes. */
     private Lock lock = new ReentrantLock();
 
@@ -211,6 +215,7 @@ public class JavaDebugger implements EventsHandler, Debugger {
 
     @Override
     public void addBreakpoint(Breakpoint breakpoint) throws DebuggerException {
+        final BreakpointCondition condition = parseCondition(breakpoint.getCondition());
         final String className = findFQN(breakpoint);
         final int lineNumber = breakpoint.getLocation().getLineNumber();
         List<ReferenceType> classes = vm.classesByName(className);
@@ -250,10 +255,8 @@ public class JavaDebugger implements EventsHandler, Debugger {
         try {
             EventRequest breakPointRequest = requestManager.createBreakpointRequest(location);
             breakPointRequest.setSuspendPolicy(EventRequest.SUSPEND_ALL);
-            String expression = breakpoint.getCondition();
-            if (!(expression == null || expression.isEmpty())) {
-                ExpressionParser parser = ExpressionParser.newInstance(expression);
-                breakPointRequest.putProperty("org.eclipse.che.ide.java.debug.condition.expression.parser", parser);
+            if (condition != null) {
+                breakPointRequest.putProperty(CONDITION_PROPERTY, condition);
             }
             breakPointRequest.setEnabled(true);
         } catch (NativeMethodException | IllegalThreadStateException | InvalidRequestStateException e) {
@@ -269,6 +272,17 @@ public class JavaDebugger implements EventsHandler, Debugger {
         LOG.debug("Add breakpoint: {}", location);
     }
 
+    private BreakpointCondition parseCondition(String expression) throws DebuggerException {
+        if (expression == null || expression.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BreakpointCondition(expression);
+        } catch (ExpressionException e) {
+            throw new DebuggerException("Invalid breakpoint condition '" + expression + "'. " + e.getMessage(), e);
+        }
+    }
+
     private String findFQN(Breakpoint breakpoint) throws DebuggerException {
         Location location = breakpoint.getLocation();
         final String parentFqn = location.getTarget();
@@ -364,6 +378,9 @@ public class JavaDebugger implements EventsHandler, Debugger {
     public StackFrameDumpDto dumpStackFrame() throws DebuggerException {
         lock.lock();
         try {
+            if (stackFrameDump != null) {
+                return stackFrameDump;
+            }
             final JdiStackFrame currentFrame = getCurrentFrame();
             StackFrameDumpDto dump = newDto(StackFrameDumpDto.class);
             boolean existInformation = true;
@@ -397,6 +414,7 @@ public class JavaDebugger implements EventsHandler, Debugger {
                                                                  )
                                                                  .withPrimitive(var.isPrimitive()));
             }
+            stackFrameDump = dump;
             return dump;
         } finally {
             lock.unlock();
@@ -564,10 +582,9 @@ public class JavaDebugger implements EventsHandler, Debugger {
     private boolean processBreakPointEvent(com.sun.jdi.event.BreakpointEvent event) throws DebuggerException {
         setCurrentThread(event.thread());
         boolean hitBreakpoint;
-        ExpressionParser parser =
-                (ExpressionParser)event.request().getProperty("org.eclipse.che.ide.java.debug.condition.expression.parser");
-        if (parser != null) {
-            com.sun.jdi.Value result = evaluate(parser);
+        BreakpointCondition condition = (BreakpointCondition)event.request().getProperty(CONDITION_PROPERTY);
+        if (condition != null) {
+            com.sun.jdi.Value result = evaluate(condition);
             hitBreakpoint = result instanceof com.sun.jdi.BooleanValue && ((com.sun.jdi.BooleanValue)result).value();
         } else {
             // If there is no expression.
@@ -689,6 +706,27 @@ public class JavaDebugger implements EventsHandler, Debugger {
         }
     }
 
+    private com.sun.jdi.Value evaluate(BreakpointCondition condition) throws DebuggerException {
+        try {
+            return condition.evaluate(vm, getCurrentThread());
+        } catch (ExpressionException e) {
+            throw new DebuggerException(e.getMessage(), e);
+        } finally {
+            LOG.debug("==>> Breakpoint condition '{}' evaluated {} times, average time: {} us",
+                      condition.getExpression(),
+                      condition.getEvaluations(),
+                      condition.getAverageEvaluationTime());
+            if (condition.becameSlow()) {
+                LOG.warn("Breakpoint condition '{}' takes {} us on average, it slows down the debugged application " +
+                         "on each hit of the breakpoint",
+                         condition.getExpression(),
+                         condition.getAverageEvaluationTime());
+            }
+            // Evaluation of expression may update state of frame.
+            invalidateCurrentFrame();
+        }
+    }
+
     private ThreadReference getCurrentThread() throws DebuggerException {
         if (thread == null) {
             throw new DebuggerException("Target Java VM is not suspended. ");
@@ -709,12 +747,13 @@ public class JavaDebugger implements EventsHandler, Debugger {
     }
 
     private void setCurrentThread(ThreadReference t) {
-        stackFrame = null;
+        invalidateCurrentFrame();
         thread = t;
     }
 
     private void invalidateCurrentFrame() {
         stackFrame = null;
+        stackFrameDump = null;
     }
 
     private void invalidateCurrentThread() {
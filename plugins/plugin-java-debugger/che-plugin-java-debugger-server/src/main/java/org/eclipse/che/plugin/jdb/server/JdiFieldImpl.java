@@ -11,28 +11,26 @@
 package org.eclipse.che.plugin.jdb.server;
 
 import com.sun.jdi.Field;
-import com.sun.jdi.ObjectReference;
-import com.sun.jdi.ReferenceType;
 import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 
 /** @author andrew00x */
 public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
-    private final Field           field;
-    private final ReferenceType   type;
-    private final ObjectReference object;
+    private final Field    field;
+    private final Value    value;
+    private       JdiValue jdiValue;
 
-    public JdiFieldImpl(Field field, ObjectReference object) {
+    /**
+     * @param field
+     *         the field
+     * @param value
+     *         value of the field, usually fetched in bulk together with values of other fields
+     *         of the same object, may be {@code null}
+     */
+    public JdiFieldImpl(Field field, Value value) {
         this.field = field;
-        this.object = object;
-        this.type = null;
-    }
-
-    public JdiFieldImpl(Field field, ReferenceType type) {
-        this.field = field;
-        this.type = type;
-        this.object = null;
+        this.value = value;
     }
 
     @Override
@@ -72,11 +70,10 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
 
     @Override
     public JdiValue getValue() {
-        Value value = object == null ? type.getValue(field) : object.getValue(field);
-        if (value == null) {
-            return new JdiNullValue();
+        if (jdiValue == null) {
+            jdiValue = value == null ? new JdiNullValue() : new JdiValueImpl(value);
         }
-        return new JdiValueImpl(value);
+        return jdiValue;
     }
 
     @Override
@@ -11,7 +11,6 @@
 package org.eclipse.che.plugin.jdb.server;
 
 import com.sun.jdi.LocalVariable;
-import com.sun.jdi.StackFrame;
 import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
@@ -19,11 +18,19 @@ import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 /** @author andrew00x */
 public class JdiLocalVariableImpl implements JdiLocalVariable {
     private final LocalVariable variable;
-    private final StackFrame    stackFrame;
-
-    public JdiLocalVariableImpl(StackFrame stackFrame, LocalVariable variable) {
-        this.stackFrame = stackFrame;
+    private final Value         value;
+    private       JdiValue      jdiValue;
+
+    /**
+     * @param variable
+     *         the local variable
+     * @param value
+     *         value of the variable, usually fetched in bulk together with values of other
+     *         variables visible in the same frame, may be {@code null}
+     */
+    public JdiLocalVariableImpl(LocalVariable variable, Value value) {
         this.variable = variable;
+        this.value = value;
     }
 
     @Override
@@ -43,11 +50,10 @@ public class JdiLocalVariableImpl implements JdiLocalVariable {
 
     @Override
     public JdiValue getValue() {
-        Value value = stackFrame.getValue(variable);
-        if (value == null) {
-            return new JdiNullValue();
+        if (jdiValue == null) {
+            jdiValue = value == null ? new JdiNullValue() : new JdiValueImpl(value);
         }
-        return new JdiValueImpl(value);
+        return jdiValue;
     }
 
     @Override
@@ -18,12 +18,16 @@ import com.sun.jdi.NativeMethodException;
 import com.sun.jdi.ObjectReference;
 import com.sun.jdi.ReferenceType;
 import com.sun.jdi.StackFrame;
+import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 import org.eclipse.che.plugin.jdb.server.exceptions.DebuggerAbsentInformationException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
 
 /** @author andrew00x */
 public class JdiStackFrameImpl implements JdiStackFrame {
@@ -40,21 +44,22 @@ public class JdiStackFrameImpl implements JdiStackFrame {
         if (fields == null) {
             try {
                 ObjectReference object = stackFrame.thisObject();
+                // fetch values of all the fields with a single request to the target JVM
+                final List<Field> fs;
+                final Map<Field, Value> values;
                 if (object == null) {
                     ReferenceType type = stackFrame.location().declaringType();
-                    List<Field> fs = stackFrame.location().declaringType().allFields();
-                    fields = new JdiField[fs.size()];
-                    int i = 0;
-                    for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, type);
-                    }
+                    fs = type.allFields();
+                    // there is no instance in static context, only values of static fields are available
+                    values = type.getValues(fs.stream().filter(Field::isStatic).collect(toList()));
                 } else {
-                    List<Field> fs = object.referenceType().allFields();
-                    fields = new JdiField[fs.size()];
-                    int i = 0;
-                    for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, object);
-                    }
+                    fs = object.referenceType().allFields();
+                    values = object.getValues(fs);
+                }
+                fields = new JdiField[fs.size()];
+                int i = 0;
+                for (Field f : fs) {
+                    fields[i++] = new JdiFieldImpl(f, values.get(f));
                 }
 
                 Arrays.sort(fields);
@@ -83,10 +88,11 @@ public class JdiStackFrameImpl implements JdiStackFrame {
         if (localVariables == null) {
             try {
                 List<LocalVariable> targetVariables = stackFrame.visibleVariables();
+                Map<LocalVariable, Value> values = stackFrame.getValues(targetVariables);
                 localVariables = new JdiLocalVariable[targetVariables.size()];
                 int i = 0;
                 for (LocalVariable var : targetVariables) {
-                    localVariables[i++] = new JdiLocalVariableImpl(stackFrame, var);
+                    localVariables[i++] = new JdiLocalVariableImpl(var, values.get(var));
                 }
             } catch (AbsentInformationException e) {
                 throw new DebuggerAbsentInformationException(e.getMessage(), e);
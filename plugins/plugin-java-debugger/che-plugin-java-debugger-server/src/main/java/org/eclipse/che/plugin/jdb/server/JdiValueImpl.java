@@ -15,16 +15,22 @@ import com.sun.jdi.Field;
 import com.sun.jdi.ObjectReference;
 import com.sun.jdi.PrimitiveValue;
 import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StringReference;
 import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /** @author andrew00x */
 public class JdiValueImpl implements JdiValue {
+    /** Max length of string values shown to the user, longer strings are truncated. */
+    static final int MAX_STRING_LENGTH = 1024;
+
     private final Value         value;
+    private       String        asString;
     private       JdiVariable[] variables;
 
     public JdiValueImpl(Value value) {
@@ -36,7 +42,16 @@ public class JdiValueImpl implements JdiValue {
 
     @Override
     public String getAsString() {
-        return value.toString();
+        if (asString == null) {
+            if (value instanceof StringReference) {
+                final String string = ((StringReference)value).value();
+                asString = string.length() > MAX_STRING_LENGTH ? '"' + string.substring(0, MAX_STRING_LENGTH) + "...\""
+                                                               : '"' + string + '"';
+            } else {
+                asString = value.toString();
+            }
+        }
+        return asString;
     }
 
     @Override
@@ -46,20 +61,20 @@ public class JdiValueImpl implements JdiValue {
                 variables = new JdiVariable[0];
             } else {
                 if (isArray()) {
-                    ArrayReference array = (ArrayReference)value;
-                    int length = array.length();
-                    variables = new JdiVariable[length];
-                    for (int i = 0; i < length; i++) {
-                        variables[i] = new JdiArrayElementImpl(i, array.getValue(i));
+                    List<Value> values = ((ArrayReference)value).getValues();
+                    variables = new JdiVariable[values.size()];
+                    for (int i = 0; i < variables.length; i++) {
+                        variables[i] = new JdiArrayElementImpl(i, values.get(i));
                     }
                 } else {
                     ObjectReference object = (ObjectReference)value;
                     ReferenceType type = object.referenceType();
                     List<Field> fields = type.allFields();
+                    Map<Field, Value> values = object.getValues(fields);
                     variables = new JdiVariable[fields.size()];
                     int i = 0;
                     for (Field f : fields) {
-                        variables[i++] = new JdiFieldImpl(f, object);
+                        variables[i++] = new JdiFieldImpl(f, values.get(f));
                     }
                     // See JdiFieldImpl#compareTo(JdiFieldImpl).
                     Arrays.sort(variables);
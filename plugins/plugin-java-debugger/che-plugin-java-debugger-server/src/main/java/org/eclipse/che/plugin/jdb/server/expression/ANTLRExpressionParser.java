@@ -17,6 +17,8 @@ import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.tree.CommonTreeNodeStream;
 
+import java.util.List;
+
 /**
  * ANTLR based implementation of ExpressionParser.
  *
@@ -31,23 +33,38 @@ public final class ANTLRExpressionParser extends ExpressionParser {
 
     @Override
     public Value evaluate(Evaluator ev) {
+        if (nodes == null) {
+            parse();
+        } else {
+            nodes.reset();
+        }
+        JavaTreeParser walker = new JavaTreeParser(nodes, ev);
         try {
-            if (nodes == null) {
-                parse();
-            } else {
-                nodes.reset();
-            }
-            JavaTreeParser walker = new JavaTreeParser(nodes, ev);
             return walker.evaluate();
         } catch (RecognitionException e) {
             throw new ExpressionException(e.getMessage(), e);
         }
     }
 
-    private void parse() throws RecognitionException {
-        JavaLexer lexer = new JavaLexer(new ANTLRStringStream(getExpression()));
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        JavaParser parser = new JavaParser(tokens);
-        nodes = new CommonTreeNodeStream(parser.expression().getTree());
+    @Override
+    public void parse() {
+        if (nodes != null) {
+            return;
+        }
+        try {
+            JavaLexer lexer = new JavaLexer(new ANTLRStringStream(getExpression()));
+            CommonTokenStream tokens = new CommonTokenStream(lexer);
+            JavaParser parser = new JavaParser(tokens);
+            parser.enableErrorMessageCollection(true);
+            Object tree = parser.expression().getTree();
+            if (lexer.getNumberOfSyntaxErrors() > 0 || parser.getNumberOfSyntaxErrors() > 0) {
+                final List<String> messages = parser.getMessages();
+                throw new ExpressionException(messages.isEmpty() ? "Invalid expression " + getExpression()
+                                                                 : String.join(", ", messages));
+            }
+            nodes = new CommonTreeNodeStream(tree);
+        } catch (RecognitionException e) {
+            throw new ExpressionException(e.getMessage(), e);
+        }
     }
 }
@@ -39,6 +39,15 @@ public abstract class ExpressionParser {
         return expression;
     }
 
+    /**
+     * Parse expression. Expression is parsed once, the next evaluations reuse the parsed expression.
+     * Expression is parsed on the first evaluation if this method is not called before.
+     *
+     * @throws ExpressionException
+     *         if specified expression is invalid
+     */
+    public abstract void parse();
+
     /**
      * Evaluate expression.
      *
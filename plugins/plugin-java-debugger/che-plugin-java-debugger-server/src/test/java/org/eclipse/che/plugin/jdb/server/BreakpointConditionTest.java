@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import org.eclipse.che.plugin.jdb.server.expression.Evaluator;
+import org.eclipse.che.plugin.jdb.server.expression.ExpressionException;
+import org.eclipse.che.plugin.jdb.server.expression.ExpressionParser;
+import org.testng.annotations.Test;
+
+import static org.eclipse.che.plugin.jdb.server.BreakpointCondition.MIN_EVALUATIONS_TO_REPORT;
+import static org.eclipse.che.plugin.jdb.server.BreakpointCondition.SLOW_EVALUATION_TIME_US;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link BreakpointCondition}.
+ */
+public class BreakpointConditionTest {
+
+    @Test(expectedExceptions = ExpressionException.class)
+    public void shouldRejectInvalidExpression() throws Exception {
+        new BreakpointCondition("i ==");
+    }
+
+    @Test
+    public void shouldAcceptValidExpression() throws Exception {
+        final BreakpointCondition condition = new BreakpointCondition("i == 10 && s.equals(\"test\")");
+
+        assertEquals(condition.getExpression(), "i == 10 && s.equals(\"test\")");
+    }
+
+    @Test
+    public void shouldParseExpressionOnceForAllEvaluations() throws Exception {
+        final ExpressionParser parser = mock(ExpressionParser.class);
+        final BreakpointCondition condition = new BreakpointCondition(parser);
+        final Evaluator evaluator = mock(Evaluator.class);
+
+        condition.evaluate(evaluator);
+        condition.evaluate(evaluator);
+
+        verify(parser, times(1)).parse();
+        verify(parser, times(2)).evaluate(evaluator);
+        assertEquals(condition.getEvaluations(), 2);
+    }
+
+    @Test
+    public void shouldReportSlowConditionOnce() throws Exception {
+        final ExpressionParser parser = mock(ExpressionParser.class);
+        doAnswer(invocation -> {
+            Thread.sleep(SLOW_EVALUATION_TIME_US / 1000 + 1);
+            return null;
+        }).when(parser).evaluate(any());
+        final BreakpointCondition condition = new BreakpointCondition(parser);
+
+        for (int i = 1; i < MIN_EVALUATIONS_TO_REPORT; i++) {
+            condition.evaluate(mock(Evaluator.class));
+            assertFalse(condition.becameSlow());
+        }
+        condition.evaluate(mock(Evaluator.class));
+
+        assertTrue(condition.getAverageEvaluationTime() > SLOW_EVALUATION_TIME_US);
+        assertTrue(condition.becameSlow());
+        assertFalse(condition.becameSlow());
+    }
+
+    @Test
+    public void shouldNotReportFastCondition() throws Exception {
+        final BreakpointCondition condition = new BreakpointCondition(mock(ExpressionParser.class));
+
+        for (int i = 0; i < MIN_EVALUATIONS_TO_REPORT * 2; i++) {
+            condition.evaluate(mock(Evaluator.class));
+        }
+
+        assertFalse(condition.becameSlow());
+    }
+}
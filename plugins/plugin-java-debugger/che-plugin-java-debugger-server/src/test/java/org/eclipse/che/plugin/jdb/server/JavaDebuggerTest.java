@@ -72,6 +72,7 @@ import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -127,6 +128,13 @@ public class JavaDebuggerTest {
         assertEquals(debugger.getAllBreakpoints().size(), breakpointsCount + 1);
     }
 
+    @Test(priority = 4,
+          expectedExceptions = DebuggerException.class,
+          expectedExceptionsMessageRegExp = "(?s)Invalid breakpoint condition 'i =='\\. .*")
+    public void testAddBreakpointWithInvalidCondition() throws Exception {
+        debugger.addBreakpoint(new BreakpointImpl(new LocationImpl("com.HelloWorld", 21), false, "i =="));
+    }
+
     @Test(priority = 5, expectedExceptions = DebuggerException.class)
     public void testAddBreakpointToUnExistedLocation() throws Exception {
         debugger.addBreakpoint(new BreakpointImpl(new LocationImpl("com.HelloWorld", 1), false, null));
@@ -239,6 +247,7 @@ public class JavaDebuggerTest {
     public void testSetAndGetValue() throws Exception {
         assertEquals(debugger.getValue(new VariablePathImpl("test")).getValue(), "\"hello\"");
         assertEquals(debugger.getValue(new VariablePathImpl("msg")).getValue(), "\"Hello, debugger!\"");
+        assertEquals(getDumpedValue("test"), "\"hello\"");
 
         debugger.setValue(new VariableImpl("\"new hello\"", (new VariablePathImpl("test"))));
 
@@ -249,9 +258,19 @@ public class JavaDebuggerTest {
         assertTrue(vars.contains("args"));
         assertTrue(vars.contains("msg"));
         assertTrue(vars.contains("test"));
+        assertEquals(getDumpedValue("test"), "\"new hello\"");
     }
 
     @Test(priority = 12)
+    public void testEvaluateInvalidatesDumpedStackFrame() throws Exception {
+        assertSame(debugger.dumpStackFrame(), debugger.dumpStackFrame());
+
+        debugger.evaluate("test=\"evaluated hello\"");
+
+        assertEquals(getDumpedValue("test"), "\"evaluated hello\"");
+    }
+
+    @Test(priority = 13)
     public void testDisconnect() throws Exception {
         debugger.disconnect();
 
@@ -259,6 +278,16 @@ public class JavaDebuggerTest {
         assertTrue(debuggerEvent instanceof DisconnectEvent);
     }
 
+    private String getDumpedValue(String name) throws DebuggerException {
+        return debugger.dumpStackFrame()
+                       .getVariables()
+                       .stream()
+                       .filter(variable -> name.equals(variable.getName()))
+                       .findFirst()
+                       .map(Variable::getValue)
+                       .orElse(null);
+    }
+
     @BeforeClass
     protected void initProjectApi() throws Exception {
         TestWorkspaceHolder workspaceHolder = new TestWorkspaceHolder(new ArrayList<>());
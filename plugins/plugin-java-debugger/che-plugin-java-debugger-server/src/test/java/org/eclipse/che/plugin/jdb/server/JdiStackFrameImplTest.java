@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.Field;
+import com.sun.jdi.LocalVariable;
+import com.sun.jdi.Location;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.Value;
+
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link JdiStackFrameImpl}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JdiStackFrameImplTest {
+
+    @Mock
+    private StackFrame      stackFrame;
+    @Mock
+    private ObjectReference thisObject;
+    @Mock
+    private ReferenceType   type;
+
+    @Test
+    public void shouldFetchValuesOfLocalVariablesWithSingleRequest() throws Exception {
+        final LocalVariable first = localVariable("first");
+        final LocalVariable second = localVariable("second");
+        final Value firstValue = value("1");
+        final List<LocalVariable> variables = asList(first, second);
+        when(stackFrame.visibleVariables()).thenReturn(variables);
+        final Map<LocalVariable, Value> values = new HashMap<>();
+        values.put(first, firstValue);
+        values.put(second, null);
+        when(stackFrame.getValues(variables)).thenReturn(values);
+
+        final JdiLocalVariable[] localVariables = new JdiStackFrameImpl(stackFrame).getLocalVariables();
+
+        assertEquals(localVariables.length, 2);
+        assertEquals(localVariables[0].getValue().getAsString(), "1");
+        assertTrue(localVariables[1].getValue() instanceof JdiNullValue);
+        verify(stackFrame).getValues(variables);
+        verify(stackFrame, never()).getValue(any(LocalVariable.class));
+    }
+
+    @Test
+    public void shouldFetchValuesOfFieldsWithSingleRequest() throws Exception {
+        final Field first = field("first", false);
+        final Field second = field("second", false);
+        final List<Field> fields = asList(second, first);
+        when(stackFrame.thisObject()).thenReturn(thisObject);
+        when(thisObject.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        final Map<Field, Value> values = new HashMap<>();
+        values.put(first, value("1"));
+        values.put(second, value("2"));
+        when(thisObject.getValues(fields)).thenReturn(values);
+
+        final JdiField[] jdiFields = new JdiStackFrameImpl(stackFrame).getFields();
+
+        assertEquals(jdiFields.length, 2);
+        assertEquals(jdiFields[0].getName(), "first");
+        assertEquals(jdiFields[0].getValue().getAsString(), "1");
+        assertEquals(jdiFields[1].getName(), "second");
+        assertEquals(jdiFields[1].getValue().getAsString(), "2");
+        verify(thisObject).getValues(fields);
+        verify(thisObject, never()).getValue(any(Field.class));
+    }
+
+    @Test
+    public void shouldFetchOnlyValuesOfStaticFieldsInStaticFrame() throws Exception {
+        final Field staticField = field("staticField", true);
+        final Field instanceField = field("instanceField", false);
+        final Location location = mock(Location.class);
+        when(stackFrame.location()).thenReturn(location);
+        when(location.declaringType()).thenReturn(type);
+        when(type.allFields()).thenReturn(asList(instanceField, staticField));
+        final Map<Field, Value> values = new HashMap<>();
+        values.put(staticField, value("1"));
+        when(type.getValues(singletonList(staticField))).thenReturn(values);
+
+        final JdiField[] jdiFields = new JdiStackFrameImpl(stackFrame).getFields();
+
+        assertEquals(jdiFields.length, 2);
+        assertEquals(jdiFields[0].getName(), "staticField");
+        assertEquals(jdiFields[0].getValue().getAsString(), "1");
+        assertEquals(jdiFields[1].getName(), "instanceField");
+        assertTrue(jdiFields[1].getValue() instanceof JdiNullValue);
+        verify(type).getValues(singletonList(staticField));
+        verify(type, never()).getValue(any(Field.class));
+    }
+
+    @Test
+    public void shouldReuseFetchedVariablesAndTheirValues() throws Exception {
+        final LocalVariable variable = localVariable("variable");
+        final List<LocalVariable> variables = singletonList(variable);
+        when(stackFrame.visibleVariables()).thenReturn(variables);
+        final Map<LocalVariable, Value> values = new HashMap<>();
+        values.put(variable, value("1"));
+        when(stackFrame.getValues(variables)).thenReturn(values);
+        final JdiStackFrameImpl frame = new JdiStackFrameImpl(stackFrame);
+
+        final JdiValue value = frame.getLocalVariables()[0].getValue();
+
+        assertSame(frame.getLocalVariables()[0].getValue(), value);
+        verify(stackFrame, times(1)).visibleVariables();
+        verify(stackFrame, times(1)).getValues(variables);
+    }
+
+    private static LocalVariable localVariable(String name) {
+        final LocalVariable variable = mock(LocalVariable.class);
+        when(variable.name()).thenReturn(name);
+        return variable;
+    }
+
+    private static Field field(String name, boolean isStatic) {
+        final Field field = mock(Field.class);
+        when(field.name()).thenReturn(name);
+        when(field.isStatic()).thenReturn(isStatic);
+        return field;
+    }
+
+    private static Value value(String asString) {
+        final Value value = mock(Value.class);
+        when(value.toString()).thenReturn(asString);
+        return value;
+    }
+}
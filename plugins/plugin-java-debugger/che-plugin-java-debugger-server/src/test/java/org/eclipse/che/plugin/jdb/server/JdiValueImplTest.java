@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.google.common.base.Strings;
+import com.sun.jdi.ArrayReference;
+import com.sun.jdi.Field;
+import com.sun.jdi.LocalVariable;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StringReference;
+import com.sun.jdi.Value;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.plugin.jdb.server.JdiValueImpl.MAX_STRING_LENGTH;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link JdiValueImpl} and the variables which wrap it.
+ */
+public class JdiValueImplTest {
+
+    @Test
+    public void shouldTruncateLongStrings() throws Exception {
+        final String string = Strings.repeat("a", MAX_STRING_LENGTH + 1);
+
+        final String asString = new JdiValueImpl(stringReference(string)).getAsString();
+
+        assertEquals(asString, '"' + string.substring(0, MAX_STRING_LENGTH) + "...\"");
+    }
+
+    @Test
+    public void shouldNotTruncateStringsWhichFitTheLimit() throws Exception {
+        final String string = Strings.repeat("a", MAX_STRING_LENGTH);
+
+        final String asString = new JdiValueImpl(stringReference(string)).getAsString();
+
+        assertEquals(asString, '"' + string + '"');
+    }
+
+    @Test
+    public void shouldFetchStringOnce() throws Exception {
+        final StringReference reference = stringReference("string");
+        final JdiValueImpl value = new JdiValueImpl(reference);
+
+        value.getAsString();
+        value.getAsString();
+
+        verify(reference, times(1)).value();
+    }
+
+    @Test
+    public void shouldFetchArrayElementsWithSingleRequest() throws Exception {
+        final ArrayReference array = mock(ArrayReference.class);
+        final Value element = mock(Value.class);
+        when(element.toString()).thenReturn("1");
+        when(array.getValues()).thenReturn(asList(element, null));
+
+        final JdiVariable[] variables = new JdiValueImpl(array).getVariables();
+
+        assertEquals(variables.length, 2);
+        assertEquals(variables[0].getName(), "[0]");
+        assertEquals(variables[0].getValue().getAsString(), "1");
+        assertTrue(variables[1].getValue() instanceof JdiNullValue);
+        verify(array, times(1)).getValues();
+        verify(array, never()).getValue(anyInt());
+    }
+
+    @Test
+    public void shouldFetchFieldsOfObjectWithSingleRequest() throws Exception {
+        final ObjectReference object = mock(ObjectReference.class);
+        final ReferenceType type = mock(ReferenceType.class);
+        final Field field = mock(Field.class);
+        when(field.name()).thenReturn("field");
+        final List<Field> fields = singletonList(field);
+        when(object.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        final Map<Field, Value> values = singletonMap(field, stringReference("value"));
+        when(object.getValues(fields)).thenReturn(values);
+
+        final JdiVariable[] variables = new JdiValueImpl(object).getVariables();
+
+        assertEquals(variables.length, 1);
+        assertEquals(variables[0].getValue().getAsString(), "\"value\"");
+        verify(object, times(1)).getValues(fields);
+        verify(object, never()).getValue(any(Field.class));
+    }
+
+    @Test
+    public void shouldCacheValuesOfVariables() throws Exception {
+        final Value value = mock(Value.class);
+
+        final JdiLocalVariableImpl localVariable = new JdiLocalVariableImpl(mock(LocalVariable.class), value);
+        final JdiFieldImpl field = new JdiFieldImpl(mock(Field.class), value);
+        final JdiArrayElementImpl element = new JdiArrayElementImpl(0, value);
+
+        assertSame(localVariable.getValue(), localVariable.getValue());
+        assertSame(field.getValue(), field.getValue());
+        assertSame(element.getValue(), element.getValue());
+    }
+
+    private static StringReference stringReference(String string) {
+        final StringReference reference = mock(StringReference.class);
+        when(reference.value()).thenReturn(string);
+        return reference;
+    }
+}
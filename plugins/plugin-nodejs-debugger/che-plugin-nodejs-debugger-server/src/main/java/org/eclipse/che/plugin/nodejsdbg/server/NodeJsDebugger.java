@@ -40,6 +40,9 @@ import org.slf4j.LoggerFactory;
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * Server side NodeJs debugger.
@@ -47,7 +50,8 @@ import java.util.List;
  * @author Anatoliy Bazko
  */
 public class NodeJsDebugger implements Debugger {
-    private static final Logger LOG = LoggerFactory.getLogger(NodeJsDebugger.class);
+    private static final Logger  LOG             = LoggerFactory.getLogger(NodeJsDebugger.class);
+    private static final Pattern PROPERTY_ACCESS = Pattern.compile("[\\w$]+(\\s*(\\.\\s*[\\w$]+|\\[\\s*\\d+\\s*\\]))*");
 
     private final Integer pid;
     private final URI     uri;
@@ -59,6 +63,11 @@ public class NodeJsDebugger implements Debugger {
     private final DebuggerCallback           debuggerCallback;
     private final NodeJsDebugCommandsLibrary library;
 
+    /** Values of variables fetched at current suspension, by variable name. */
+    private final Map<String, String> variablesCache   = new ConcurrentHashMap<>();
+    /** Results of property accesses evaluated at current suspension, by expression. */
+    private final Map<String, String> evaluationsCache = new ConcurrentHashMap<>();
+
     NodeJsDebugger(@Nullable Integer pid,
                    @Nullable URI uri,
                    @Nullable String script,
@@ -98,6 +107,7 @@ public class NodeJsDebugger implements Debugger {
 
     @Override
     public void disconnect() {
+        invalidateSuspensionCache();
         debuggerCallback.onEvent(new DisconnectEventImpl());
         nodeJsDebugProcess.stop();
     }
@@ -178,6 +188,7 @@ public class NodeJsDebugger implements Debugger {
 
     @Override
     public void stepOver(StepOverAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         try {
             debuggerCallback.onEvent(new SuspendEventImpl(library.next()));
         } catch (NodeJsDebuggerTerminatedException e) {
@@ -190,6 +201,7 @@ public class NodeJsDebugger implements Debugger {
 
     @Override
     public void stepInto(StepIntoAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         try {
             debuggerCallback.onEvent(new SuspendEventImpl(library.stepIn()));
         } catch (NodeJsDebuggerTerminatedException e) {
@@ -202,6 +214,7 @@ public class NodeJsDebugger implements Debugger {
 
     @Override
     public void stepOut(StepOutAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         try {
             debuggerCallback.onEvent(new SuspendEventImpl(library.stepOut()));
         } catch (NodeJsDebuggerTerminatedException e) {
@@ -214,6 +227,7 @@ public class NodeJsDebugger implements Debugger {
 
     @Override
     public void resume(ResumeAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         try {
             debuggerCallback.onEvent(new SuspendEventImpl(library.cont()));
         } catch (NodeJsDebuggerTerminatedException e) {
@@ -232,6 +246,7 @@ public class NodeJsDebugger implements Debugger {
                 throw new DebuggerException("Variable path is empty");
             }
             library.setVar(path.get(0), variable.getValue());
+            invalidateSuspensionCache();
         } catch (NodeJsDebuggerTerminatedException e) {
             disconnect();
             throw e;
@@ -248,7 +263,14 @@ public class NodeJsDebugger implements Debugger {
                 throw new DebuggerException("Variable path is empty");
             }
 
-            return new SimpleValueImpl(Collections.emptyList(), library.getVar(path.get(0)));
+            String value = variablesCache.get(path.get(0));
+            if (value == null) {
+                value = library.getVar(path.get(0));
+                if (value != null) {
+                    variablesCache.put(path.get(0), value);
+                }
+            }
+            return new SimpleValueImpl(Collections.emptyList(), value);
         } catch (NodeJsDebuggerTerminatedException e) {
             disconnect();
             throw e;
@@ -260,7 +282,20 @@ public class NodeJsDebugger implements Debugger {
     @Override
     public String evaluate(String expression) throws DebuggerException {
         try {
-            return library.evaluate(expression);
+            if (!PROPERTY_ACCESS.matcher(expression.trim()).matches()) {
+                // Expression might have side effects
+                invalidateSuspensionCache();
+                return library.evaluate(expression);
+            }
+
+            String value = evaluationsCache.get(expression);
+            if (value == null) {
+                value = library.evaluate(expression);
+                if (value != null) {
+                    evaluationsCache.put(expression, value);
+                }
+            }
+            return value;
         } catch (NodeJsDebuggerTerminatedException e) {
             disconnect();
             throw e;
@@ -273,4 +308,9 @@ public class NodeJsDebugger implements Debugger {
     public StackFrameDump dumpStackFrame() throws DebuggerException {
         return new StackFrameDumpImpl(Collections.emptyList(), Collections.emptyList());
     }
+
+    private void invalidateSuspensionCache() {
+        variablesCache.clear();
+        evaluationsCache.clear();
+    }
 }
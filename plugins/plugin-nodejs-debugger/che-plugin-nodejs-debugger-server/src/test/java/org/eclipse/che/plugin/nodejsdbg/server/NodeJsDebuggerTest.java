@@ -16,6 +16,8 @@ import org.eclipse.che.api.debug.shared.model.event.BreakpointActivatedEvent;
 import org.eclipse.che.api.debug.shared.model.event.SuspendEvent;
 import org.eclipse.che.api.debug.shared.model.impl.BreakpointImpl;
 import org.eclipse.che.api.debug.shared.model.impl.LocationImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariableImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
 import org.eclipse.che.api.debug.shared.model.impl.action.StepIntoActionImpl;
 import org.eclipse.che.api.debug.shared.model.impl.action.StepOutActionImpl;
 import org.eclipse.che.api.debug.shared.model.impl.action.StepOverActionImpl;
@@ -97,6 +99,20 @@ public class NodeJsDebuggerTest {
         assertEquals(result, "undefined");
     }
 
+    @Test
+    public void testCachedValuesAreRefreshedAfterChanges() throws Exception {
+        debugger.stepOver(new StepOverActionImpl());
+        assertEquals(debugger.getValue(new VariablePathImpl("x")).getValue(), "1");
+        assertEquals(debugger.evaluate("x"), "1");
+
+        debugger.setValue(new VariableImpl("2", new VariablePathImpl("x")));
+        assertEquals(debugger.getValue(new VariablePathImpl("x")).getValue(), "2");
+        assertEquals(debugger.evaluate("x"), "2");
+
+        debugger.evaluate("x=3");
+        assertEquals(debugger.evaluate("x"), "3");
+    }
+
     @Test
     public void testSteps() throws Exception {
         debugger.stepOver(new StepOverActionImpl());
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.machine.ssh;
 
+import org.eclipse.che.api.agent.server.launcher.AgentReadinessMonitor;
 import org.eclipse.che.api.agent.server.terminal.WebsocketTerminalFilesPathProvider;
 import org.eclipse.che.api.agent.shared.model.Agent;
 import org.eclipse.che.api.core.ConflictException;
@@ -24,6 +25,7 @@ import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -55,8 +57,9 @@ public class SshMachineImplTerminalLauncher extends TerminalAgentLauncherImpl {
                                           @Named("che.agent.dev.ping_delay_ms") long agentPingDelayMs,
                                           @Named("machine.ssh.server.terminal.location") String terminalLocation,
                                           @Named("machine.terminal_agent.run_command") String terminalRunCommand,
-                                          WebsocketTerminalFilesPathProvider terminalPathProvider) {
-        super(agentMaxStartTimeMs, agentPingDelayMs, terminalRunCommand);
+                                          WebsocketTerminalFilesPathProvider terminalPathProvider,
+                                          AgentReadinessMonitor readinessMonitor) {
+        super(agentMaxStartTimeMs, agentPingDelayMs, terminalRunCommand, readinessMonitor);
         this.archivePathProvider = terminalPathProvider;
         this.terminalLocation = terminalLocation;
     }
@@ -67,16 +70,21 @@ public class SshMachineImplTerminalLauncher extends TerminalAgentLauncherImpl {
     }
 
     @Override
-    public void launch(Instance machine, Agent agent) throws ServerException {
+    public CompletableFuture<Void> launchAsync(Instance machine, Agent agent) {
         try {
             String architecture = detectArchitecture(machine);
             machine.copy(archivePathProvider.getPath(architecture), terminalLocation);
-
-            super.launch(machine, agent);
         } catch (ConflictException e) {
             // should never happen
-            throw new ServerException("Internal server error occurs on terminal launching.");
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new ServerException("Internal server error occurs on terminal launching."));
+            return failed;
+        } catch (MachineException e) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
         }
+        return super.launchAsync(machine, agent);
     }
 
     private String detectArchitecture(Instance machine) throws ConflictException, MachineException {
@@ -71,7 +71,14 @@ public class ZendDbgFactory implements DebuggerFactory {
 
         boolean useSslEncryption = Boolean.valueOf(useSslEncryptionProp);
 
-        return new ZendDebugger(new ZendDbgSettings(debugPort, clientHostIPProp, breakAtFirstLine, useSslEncryption),
+        // Optional, children are fetched on demand only by default
+        boolean prefetchChildren = Boolean.valueOf(normalizedProps.get("prefetch-children"));
+
+        return new ZendDebugger(new ZendDbgSettings(debugPort,
+                                                    clientHostIPProp,
+                                                    breakAtFirstLine,
+                                                    useSslEncryption,
+                                                    prefetchChildren),
                                 new ZendDbgLocationHandler(),
                                 debuggerCallback);
     }
@@ -24,6 +24,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import org.eclipse.che.api.debug.shared.model.Breakpoint;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
@@ -81,6 +83,7 @@ import org.eclipse.che.plugin.zdb.server.utils.ZendDbgFileUtils;
 import org.eclipse.che.plugin.zdb.server.utils.ZendDbgVariableUtils;
 import org.eclipse.che.plugin.zdb.server.variables.IDbgVariable;
 import org.eclipse.che.plugin.zdb.server.variables.ZendDbgVariable;
+import org.eclipse.che.plugin.zdb.server.variables.ZendDbgVariablePartition;
 import org.eclipse.che.plugin.zdb.server.variables.ZendDbgVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -156,6 +159,8 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
 
     public static final Logger LOG = LoggerFactory.getLogger(ZendDebugger.class);
     private static final int SUPPORTED_PROTOCOL_ID = 2012121702;
+    private static final Pattern VARIABLE_ACCESS_EXPRESSION = Pattern
+            .compile("\\$\\w+(\\s*(->\\s*\\w+|::\\$\\w+|\\[\\s*(\\d+|'[^'\\\\]*'|\"[^\"\\\\$]*\")\\s*\\]))*");
 
     private final DebuggerCallback debugCallback;
     private final ZendDbgSettings debugSettings;
@@ -163,7 +168,10 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
     private final ZendDbgConnection debugConnection;
 
     private final ZendDbgExpressionEvaluator debugExpressionEvaluator;
-    private VariablesStorage debugVariableStorage;
+    // Variables and expression values of the current suspension, dropped on resume
+    private volatile VariablesStorage debugVariableStorage;
+    private volatile boolean isDebugVariableStorageStale;
+    private final Map<String, String> debugExpressionCache = new ConcurrentHashMap<>();
     private String debugStartFile;
     private Map<Breakpoint, ZendDbgBreakpoint> breakpoints = new LinkedHashMap<>();
     private Map<ZendDbgBreakpoint, Integer> breakpointIds = new LinkedHashMap<>();
@@ -175,8 +183,8 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
         this.debugSettings = debugSettings;
         this.debugLocationHandler = debugLocationHandler;
         this.debugConnection = new ZendDbgConnection(this, debugSettings);
-        this.debugExpressionEvaluator = new ZendDbgExpressionEvaluator(debugConnection);
-        this.debugVariableStorage = new VariablesStorage(Collections.emptyList());
+        this.debugExpressionEvaluator = new ZendDbgExpressionEvaluator(debugConnection,
+                debugSettings.isPrefetchChildren());
     }
 
     @Override
@@ -227,6 +235,7 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
     public void disconnect() throws DebuggerException {
         // Stop connection daemon thread
         debugConnection.disconnect();
+        debugExpressionEvaluator.shutdown();
     }
 
     @Override
@@ -237,13 +246,16 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
 
     @Override
     public StackFrameDump dumpStackFrame() {
-        sendGetVariables();
-        return new StackFrameDumpImpl(Collections.emptyList(), debugVariableStorage.getVariables());
+        if (isDebugVariableStorageStale) {
+            // Values were changed within current suspension, dump them again
+            debugVariableStorage = null;
+        }
+        return new StackFrameDumpImpl(Collections.emptyList(), getVariablesStorage().getVariables());
     }
 
     @Override
     public SimpleValue getValue(VariablePath variablePath) {
-        IDbgVariable matchingVariable = debugVariableStorage.findVariable(variablePath);
+        IDbgVariable matchingVariable = getVariablesStorage().findVariable(variablePath);
         matchingVariable.makeComplete();
         return new SimpleValueImpl(matchingVariable.getVariables(), matchingVariable.getValue());
     }
@@ -289,35 +301,60 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
 
     @Override
     public void stepOver(StepOverAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         sendStepOver();
     }
 
     @Override
     public void stepInto(StepIntoAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         sendStepInto();
     }
 
     @Override
     public void stepOut(StepOutAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         sendStepOut();
     }
 
     @Override
     public void resume(ResumeAction action) throws DebuggerException {
+        invalidateSuspensionCache();
         sendGo();
     }
 
     @Override
     public void setValue(Variable variable) throws DebuggerException {
-        Variable matchingVariable = debugVariableStorage.findVariable(variable.getVariablePath());
-        ((ZendDbgVariable) matchingVariable).setValue(variable.getValue());
+        IDbgVariable matchingVariable = getVariablesStorage().findVariable(variable.getVariablePath());
+        if (matchingVariable == null || matchingVariable instanceof ZendDbgVariablePartition) {
+            throw new DebuggerException("Can't set value of variable: " + variable.getName());
+        }
+        matchingVariable.setValue(variable.getValue());
+        // Other variables might refer to the same value
+        invalidateEvaluatedValues();
     }
 
     @Override
     public String evaluate(String expression) throws DebuggerException {
+        boolean isVariableAccess = VARIABLE_ACCESS_EXPRESSION.matcher(expression.trim()).matches();
+        if (isVariableAccess) {
+            String value = debugExpressionCache.get(expression);
+            if (value != null) {
+                return value;
+            }
+        }
         ZendDbgExpression zendDbgExpression = new ZendDbgExpression(debugExpressionEvaluator, expression,
                 Collections.emptyList());
-        zendDbgExpression.evaluate();
+        boolean isEvaluated = zendDbgExpression.evaluate();
+        if (isVariableAccess) {
+            if (isEvaluated) {
+                // Failed or timed out evaluation is retried next time
+                debugExpressionCache.put(expression, zendDbgExpression.getValue());
+            }
+        } else {
+            // Expression might have side effects
+            invalidateEvaluatedValues();
+        }
         return zendDbgExpression.getValue();
     }
 
@@ -351,6 +388,7 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
     }
 
     private void handleReady(ReadyNotification notification) {
+        invalidateSuspensionCache();
         String remoteFilePath = notification.getFileName();
         if (breakpointAflId != null && remoteFilePath.equals(debugStartFile)) {
             debugConnection.sendRequest(new DeleteBreakpointRequest(breakpointAflId));
@@ -409,9 +447,36 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
         debugConnection.sendNotification(new ContinueProcessFileNotification());
     }
 
-    private void sendGetVariables() {
-        ZendDbgVariables zendVariablesExpression = new ZendDbgVariables(debugExpressionEvaluator);
-        zendVariablesExpression.evaluate();
+    private VariablesStorage getVariablesStorage() {
+        VariablesStorage variablesStorage = debugVariableStorage;
+        if (variablesStorage == null) {
+            isDebugVariableStorageStale = false;
+            ZendDbgVariables zendVariablesExpression = new ZendDbgVariables(debugExpressionEvaluator);
+            boolean isEvaluated = zendVariablesExpression.evaluate();
+            variablesStorage = createVariablesStorage(zendVariablesExpression);
+            if (isEvaluated) {
+                // Failed or timed out dump is retried next time
+                debugVariableStorage = variablesStorage;
+            }
+        }
+        return variablesStorage;
+    }
+
+    private void invalidateSuspensionCache() {
+        // Values fetched in the background are out of date
+        debugExpressionEvaluator.cancelPrefetches();
+        debugVariableStorage = null;
+        debugExpressionCache.clear();
+    }
+
+    private void invalidateEvaluatedValues() {
+        debugExpressionEvaluator.cancelPrefetches();
+        // Keep variables already sent to client addressable until next dump
+        isDebugVariableStorageStale = true;
+        debugExpressionCache.clear();
+    }
+
+    private VariablesStorage createVariablesStorage(ZendDbgVariables zendVariablesExpression) {
         List<IDbgVariable> variables = new ArrayList<>();
         int variableId = 0;
         for (IDbgExpression zendVariableExpression : zendVariablesExpression.getChildren()) {
@@ -426,7 +491,7 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
                 variables.add(variable);
             }
         }
-        debugVariableStorage = new VariablesStorage(variables);
+        return new VariablesStorage(variables);
     }
 
     private void sendAddBreakpointFiles() {
@@ -444,9 +509,15 @@ public class ZendDebugger implements Debugger, IEngineMessageHandler {
                 fileBreakpoints.add(dbgBreakpoint);
             }
         }
+        List<AddBreakpointRequest> requests = new ArrayList<>(fileBreakpoints.size());
         for (ZendDbgBreakpoint dbgBreakpoint : fileBreakpoints) {
-            AddBreakpointResponse response = debugConnection.sendRequest(
-                    new AddBreakpointRequest(1, 2, dbgBreakpoint.getLocation().getLineNumber(), remoteFilePath));
+            requests.add(new AddBreakpointRequest(1, 2, dbgBreakpoint.getLocation().getLineNumber(), remoteFilePath));
+        }
+        // Register all of the file breakpoints within a single round trip
+        List<AddBreakpointResponse> responses = debugConnection.sendRequests(requests);
+        for (int i = 0; i < fileBreakpoints.size(); i++) {
+            ZendDbgBreakpoint dbgBreakpoint = fileBreakpoints.get(i);
+            AddBreakpointResponse response = responses.get(i);
             if (isOK(response)) {
                 // Breakpoint was successfully registered in active session, send breakpoint activated event
                 breakpointIds.put(dbgBreakpoint, response.getBreakpointID());
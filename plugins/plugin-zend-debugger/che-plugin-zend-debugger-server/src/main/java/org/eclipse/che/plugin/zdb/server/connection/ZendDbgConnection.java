@@ -20,15 +20,23 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLServerSocket;
 import javax.net.ssl.SSLServerSocketFactory;
@@ -56,9 +64,9 @@ public class ZendDbgConnection {
     private final class EngineConnectionRunnable implements Runnable {
 
         private ServerSocket debugSocket;
-        private Socket socket;
+        private volatile Socket socket;
         private DataInputStream inputStream;
-        private DataOutputStream outputStream;
+        private volatile DataOutputStream outputStream;
 
         private EngineConnectionRunnable() {
             open();
@@ -121,11 +129,11 @@ public class ZendDbgConnection {
                     if (engineMessage instanceof IDbgEngineResponse) {
                         // Engine response has arrived...
                         IDbgEngineResponse response = (IDbgEngineResponse) engineMessage;
-                        EngineSyncResponse<IDbgEngineResponse> syncResponse = engineSyncResponses
+                        CompletableFuture<IDbgEngineResponse> pendingResponse = pendingResponses
                                 .remove(response.getID());
-                        if (syncResponse != null) {
-                            // Release waiting request provider
-                            syncResponse.set(response);
+                        if (pendingResponse != null) {
+                            // Release request provider waiting for this particular response
+                            pendingResponse.complete(response);
                             continue;
                         }
                     } else {
@@ -141,23 +149,25 @@ public class ZendDbgConnection {
                 }
             }
             isConnected = false;
+            releasePendingResponses();
         }
 
-        private void write(IDbgClientMessage clientMessage) {
+        private void write(IDbgClientMessage clientMessage) throws IOException {
             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
             DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
             try {
                 clientMessage.serialize(dataOutputStream);
                 int messageSize = byteArrayOutputStream.size();
-                // Write to connection output
-                outputStream.writeInt(messageSize);
-                byteArrayOutputStream.writeTo(outputStream);
-                outputStream.flush();
-            } catch (Exception e) {
-                ZendDebugger.LOG.error(e.getMessage(), e);
-            }
-            if (clientMessage.getType() == NOTIFICATION_CLOSE_SESSION) {
-                purge();
+                // Requests are written by many threads, keep each message in one piece
+                synchronized (this) {
+                    outputStream.writeInt(messageSize);
+                    byteArrayOutputStream.writeTo(outputStream);
+                    outputStream.flush();
+                }
+            } finally {
+                if (clientMessage.getType() == NOTIFICATION_CLOSE_SESSION) {
+                    purge();
+                }
             }
         }
 
@@ -213,33 +223,6 @@ public class ZendDbgConnection {
 
     }
 
-    private static final class EngineSyncResponse<T extends IDbgEngineResponse> {
-
-        private static final int TIMEOUT = 10;
-
-        private final Semaphore semaphore = new Semaphore(0);;
-        private T response;
-
-        void set(T response) {
-            this.response = response;
-            semaphore.release();
-        }
-
-        T get() throws ZendDbgTimeoutException {
-            boolean acquired = false;
-            try {
-                acquired = semaphore.tryAcquire(10, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                ZendDebugger.LOG.error(e.getMessage(), e);
-            }
-            if (acquired) {
-                return this.response;
-            }
-            throw new ZendDbgTimeoutException(TIMEOUT, TimeUnit.SECONDS);
-        }
-
-    }
-
     public interface IEngineMessageHandler {
 
         void handleNotification(IDbgEngineNotification notification);
@@ -248,15 +231,21 @@ public class ZendDbgConnection {
 
     }
 
+    /**
+     * Default time in seconds to wait for engine response.
+     */
+    public static final int RESPONSE_TIMEOUT = 10;
+
     private EngineConnectionRunnable engineConnectionRunnable;
     private ExecutorService engineConnectionRunnableExecutor;
     private EngineMessageRunnable engineMessageRunnable;
     private ExecutorService engineMessageRunnableExecutor;
-    private Map<Integer, EngineSyncResponse<IDbgEngineResponse>> engineSyncResponses = new HashMap<>();
+    private ScheduledExecutorService responseTimeoutExecutor;
+    private Map<Integer, CompletableFuture<IDbgEngineResponse>> pendingResponses = new ConcurrentHashMap<>();
     private final ZendDbgSettings debugSettings;
     private IEngineMessageHandler engineMessageHandler;
-    private int debugRequestId = 1000;
-    private boolean isConnected = false;
+    private AtomicInteger debugRequestId = new AtomicInteger(1000);
+    private volatile boolean isConnected = false;
 
     /**
      * Constructs a new DebugConnectionThread with a given Socket.
@@ -290,6 +279,14 @@ public class ZendDbgConnection {
                     return thread;
                 }
             });
+            responseTimeoutExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "ZendDbgResponseTimeout");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
             engineConnectionRunnable = new EngineConnectionRunnable();
             engineMessageRunnable = new EngineMessageRunnable();
             engineConnectionRunnableExecutor.execute(engineConnectionRunnable);
@@ -307,32 +304,125 @@ public class ZendDbgConnection {
         engineConnectionRunnable.close();
         engineConnectionRunnableExecutor.shutdown();
         engineMessageRunnableExecutor.shutdown();
+        responseTimeoutExecutor.shutdownNow();
+        releasePendingResponses();
+    }
+
+    /**
+     * Sends given client request to Zend debugger engine and waits for the
+     * response at most {@link #RESPONSE_TIMEOUT} seconds.
+     *
+     * @param request
+     * @return Zend debugger engine response or <code>null</code> if it has not
+     *         arrived in time
+     */
+    public <T extends IDbgEngineResponse> T sendRequest(IDbgClientRequest<T> request) {
+        return sendRequest(request, RESPONSE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends given client request to Zend debugger engine and waits for the
+     * response at most given time.
+     *
+     * @param request
+     * @param timeout
+     * @param unit
+     * @return Zend debugger engine response or <code>null</code> if it has not
+     *         arrived in time
+     */
+    public <T extends IDbgEngineResponse> T sendRequest(IDbgClientRequest<T> request, int timeout, TimeUnit unit) {
+        CompletableFuture<T> response = sendRequestAsync(request, timeout, unit);
+        return awaitResponse(request, response, System.nanoTime() + unit.toNanos(timeout), timeout, unit);
+    }
+
+    /**
+     * Sends given client requests to Zend debugger engine one after another
+     * without waiting for responses in between, so that engine handles all of
+     * them within a single round trip. Each response is awaited at most
+     * {@link #RESPONSE_TIMEOUT} seconds since its request was sent.
+     *
+     * @param requests
+     * @return Zend debugger engine responses in order of requests, response is
+     *         <code>null</code> if it has not arrived in time
+     */
+    public <T extends IDbgEngineResponse> List<T> sendRequests(List<? extends IDbgClientRequest<T>> requests) {
+        List<CompletableFuture<T>> responses = new ArrayList<>(requests.size());
+        long[] deadlines = new long[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            responses.add(sendRequestAsync(requests.get(i)));
+            deadlines[i] = System.nanoTime() + TimeUnit.SECONDS.toNanos(RESPONSE_TIMEOUT);
+        }
+        List<T> result = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            result.add(awaitResponse(requests.get(i), responses.get(i), deadlines[i], RESPONSE_TIMEOUT,
+                    TimeUnit.SECONDS));
+        }
+        return result;
     }
 
     /**
-     * Sends given client request to Zend debugger engine.
+     * Sends given client request to Zend debugger engine without waiting for
+     * the response. Any number of requests might be in flight at once,
+     * responses are correlated with requests by request ID. Returned future is
+     * completed with <code>null</code> if there is no connection, it is
+     * closed before the response arrives or the response has not arrived in
+     * {@link #RESPONSE_TIMEOUT} seconds.
      *
      * @param request
-     * @return Zend debugger engine response
+     * @return future Zend debugger engine response
+     */
+    public <T extends IDbgEngineResponse> CompletableFuture<T> sendRequestAsync(IDbgClientRequest<T> request) {
+        return sendRequestAsync(request, RESPONSE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends given client request to Zend debugger engine without waiting for
+     * the response, returned future is completed with <code>null</code> if
+     * the response has not arrived in given time. Cancelling of the returned
+     * future drops the response.
+     *
+     * @param request
+     * @param timeout
+     * @param unit
+     * @return future Zend debugger engine response
+     * @see #sendRequestAsync(IDbgClientRequest)
      */
     @SuppressWarnings("unchecked")
-    public synchronized <T extends IDbgEngineResponse> T sendRequest(IDbgClientRequest<T> request) {
+    public <T extends IDbgEngineResponse> CompletableFuture<T> sendRequestAsync(IDbgClientRequest<T> request,
+            int timeout, TimeUnit unit) {
         if (!isConnected) {
-            return null;
+            return CompletableFuture.completedFuture(null);
+        }
+        int requestId = debugRequestId.getAndIncrement();
+        request.setID(requestId);
+        CompletableFuture<IDbgEngineResponse> response = new CompletableFuture<>();
+        pendingResponses.put(requestId, response);
+        ScheduledFuture<?> timeoutTask;
+        try {
+            timeoutTask = responseTimeoutExecutor.schedule(() -> {
+                // Late response will be dropped
+                if (pendingResponses.remove(requestId, response)) {
+                    ZendDebugger.LOG.error("Could not get debugger engine response for " + request.toString(),
+                            new ZendDbgTimeoutException(timeout, unit));
+                    response.complete(null);
+                }
+            }, timeout, unit);
+        } catch (RejectedExecutionException e) {
+            // Disconnected in the meantime
+            pendingResponses.remove(requestId);
+            return CompletableFuture.completedFuture(null);
         }
+        response.whenComplete((result, error) -> {
+            // Response is completed by the engine, timeout, disconnect or cancelled by the caller
+            pendingResponses.remove(requestId, response);
+            timeoutTask.cancel(false);
+        });
         try {
-            request.setID(debugRequestId++);
-            EngineSyncResponse<T> syncResponse = new EngineSyncResponse<T>();
-            engineSyncResponses.put(request.getID(), (EngineSyncResponse<IDbgEngineResponse>) syncResponse);
             engineConnectionRunnable.write(request);
-            // Wait for response
-            return syncResponse.get();
-        } catch (ZendDbgTimeoutException e) {
-            ZendDebugger.LOG.error("Could not get debugger engine response for " + request.toString(), e);
         } catch (Exception e) {
-            ZendDebugger.LOG.error(e.getMessage(), e);
+            response.completeExceptionally(e);
         }
-        return null;
+        return (CompletableFuture<T>) response;
     }
 
     /**
@@ -340,7 +430,7 @@ public class ZendDbgConnection {
      *
      * @param request
      */
-    public synchronized void sendNotification(IDbgClientNotification request) {
+    public void sendNotification(IDbgClientNotification request) {
         if (!isConnected) {
             return;
         }
@@ -351,4 +441,38 @@ public class ZendDbgConnection {
         }
     }
 
+    private <T extends IDbgEngineResponse> T awaitResponse(IDbgClientRequest<T> request,
+            CompletableFuture<T> response, long deadline, int timeout, TimeUnit unit) {
+        try {
+            return response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Late response will be dropped
+            pendingResponses.remove(request.getID());
+            ZendDebugger.LOG.error("Could not get debugger engine response for " + request.toString(),
+                    new ZendDbgTimeoutException(timeout, unit));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ZendDebugger.LOG.error(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            ZendDebugger.LOG.error(e.getCause().getMessage(), e.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of requests which are waiting for engine response.
+     */
+    int getPendingResponsesCount() {
+        return pendingResponses.size();
+    }
+
+    private void releasePendingResponses() {
+        for (Integer requestId : new ArrayList<>(pendingResponses.keySet())) {
+            CompletableFuture<IDbgEngineResponse> pendingResponse = pendingResponses.remove(requestId);
+            if (pendingResponse != null) {
+                pendingResponse.complete(null);
+            }
+        }
+    }
+
 }
@@ -21,13 +21,20 @@ public class ZendDbgSettings {
     private final String clientHostIP;
     private final boolean breakAtFirstLine;
     private final boolean useSsslEncryption;
+    private final boolean prefetchChildren;
 
     public ZendDbgSettings(int debugPort, String clientHostIP, boolean breakAtFirstLine, boolean useSsslEncryption) {
+        this(debugPort, clientHostIP, breakAtFirstLine, useSsslEncryption, false);
+    }
+
+    public ZendDbgSettings(int debugPort, String clientHostIP, boolean breakAtFirstLine, boolean useSsslEncryption,
+            boolean prefetchChildren) {
         super();
         this.debugPort = debugPort;
         this.clientHostIP = clientHostIP;
         this.breakAtFirstLine = breakAtFirstLine;
         this.useSsslEncryption = useSsslEncryption;
+        this.prefetchChildren = prefetchChildren;
     }
 
     /**
@@ -66,4 +73,14 @@ public class ZendDbgSettings {
         return useSsslEncryption;
     }
 
+    /**
+     * Returns value of 'Prefetch children' option, if enabled children of
+     * expanded variables are fetched in the background.
+     *
+     * @return value of 'Prefetch children' option
+     */
+    public boolean isPrefetchChildren() {
+        return prefetchChildren;
+    }
+
 }
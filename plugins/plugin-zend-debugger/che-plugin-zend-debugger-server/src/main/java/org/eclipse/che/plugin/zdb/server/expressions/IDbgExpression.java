@@ -63,7 +63,17 @@ public interface IDbgExpression extends IDbgDataFacet, IDbgDataType {
 
     /**
      * Evaluates this expression (computes its value on engine side).
+     *
+     * @return <code>true</code> if engine has evaluated the expression,
+     *         <code>false</code> if the request has failed or timed out
+     */
+    public boolean evaluate();
+
+    /**
+     * Starts evaluation of children which values are not fetched yet, without
+     * waiting for the results. Subsequent child evaluation picks up the result.
+     * Does nothing unless prefetching is enabled for the debug session.
      */
-    public void evaluate();
+    public void prefetchChildren();
 
 }
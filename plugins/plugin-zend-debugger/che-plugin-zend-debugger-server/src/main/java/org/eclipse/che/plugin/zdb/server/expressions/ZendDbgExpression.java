@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstract implementation of Zend debug expression.
@@ -26,7 +27,8 @@ public class ZendDbgExpression implements IDbgExpression {
     private final List<String> expressionChain;
     private final ZendDbgExpressionEvaluator expressionEvaluator;
     private final Set<Facet> expressionFacets = new HashSet<Facet>();
-    private ZendDbgExpressionResult expressionResult;
+    private volatile ZendDbgExpressionResult expressionResult;
+    private volatile CompletableFuture<Boolean> pendingEvaluation;
 
     public ZendDbgExpression(ZendDbgExpressionEvaluator expressionEvaluator, String expression,
             List<String> expressionChain, Facet... facets) {
@@ -64,12 +66,34 @@ public class ZendDbgExpression implements IDbgExpression {
 
     @Override
     public boolean setValue(String value) {
+        // Result of evaluation requested before assignment is out of date
+        pendingEvaluation = null;
         return expressionEvaluator.assign(this, value, 1);
     }
 
     @Override
-    public void evaluate() {
-        expressionEvaluator.evaluate(this, 1);
+    public boolean evaluate() {
+        CompletableFuture<Boolean> evaluation = pendingEvaluation;
+        pendingEvaluation = null;
+        if (evaluation != null && expressionEvaluator.await(evaluation)) {
+            return true;
+        }
+        return expressionEvaluator.evaluate(this, 1);
+    }
+
+    @Override
+    public void prefetchChildren() {
+        for (IDbgExpression child : getChildren()) {
+            if (child.getChildrenCount() != child.getChildren().size() && child instanceof ZendDbgExpression) {
+                ZendDbgExpression childExpression = (ZendDbgExpression) child;
+                CompletableFuture<Boolean> evaluation = expressionEvaluator.prefetch(childExpression, 1);
+                if (evaluation == null) {
+                    // Prefetching is disabled or enough children are being fetched already
+                    break;
+                }
+                childExpression.pendingEvaluation = evaluation;
+            }
+        }
     }
 
     @Override
@@ -28,7 +28,17 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.che.plugin.zdb.server.ZendDebugger;
 import org.eclipse.che.plugin.zdb.server.connection.IDbgMessage;
@@ -262,17 +272,149 @@ public class ZendDbgExpressionEvaluator {
 
     }
 
+    /**
+     * Maximum number of child expressions evaluated in the background at once.
+     */
+    public static final int MAX_PENDING_PREFETCHES = 100;
+
     private ZendDbgConnection debugConnection;
     private ValueDecoder valueDecoder;
+    private ExecutorService valueDecoderExecutor;
+    private final boolean isPrefetchEnabled;
+    private final Set<CompletableFuture<Boolean>> pendingPrefetches = new HashSet<>();
 
     public ZendDbgExpressionEvaluator(ZendDbgConnection debugConnection) {
+        this(debugConnection, false);
+    }
+
+    public ZendDbgExpressionEvaluator(ZendDbgConnection debugConnection, boolean isPrefetchEnabled) {
         this.debugConnection = debugConnection;
         this.valueDecoder = new ValueDecoder();
+        this.isPrefetchEnabled = isPrefetchEnabled;
+        this.valueDecoderExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread thread = new Thread(r, "ZendDbgValueDecoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
     }
 
-    public void evaluate(ZendDbgExpression expression, int depth) {
-        byte[] value = requestEvaluation(expression, depth);
-        valueDecoder.deserialize(expression, value);
+    /**
+     * Evaluates given expression and sets its result.
+     *
+     * @param expression
+     * @param depth
+     * @return <code>true</code> if engine has evaluated the expression,
+     *         <code>false</code> if the request has failed or timed out
+     */
+    public boolean evaluate(ZendDbgExpression expression, int depth) {
+        GetVariableValueResponse response = debugConnection.sendRequest(createEvaluationRequest(expression, depth));
+        valueDecoder.deserialize(expression, getVariableValue(response));
+        return isOK(response);
+    }
+
+    /**
+     * Starts evaluation of given expression without waiting for the engine
+     * response, expression result is set once the response arrives. Response
+     * is decoded on a dedicated thread, so that the connection thread is free
+     * to read the next responses. Cancelling of the returned future drops the
+     * pending request.
+     *
+     * @param expression
+     * @param depth
+     * @return future completed when expression result is set, with
+     *         <code>false</code> if the request has failed
+     */
+    public CompletableFuture<Boolean> evaluateAsync(ZendDbgExpression expression, int depth) {
+        CompletableFuture<GetVariableValueResponse> response = debugConnection
+                .sendRequestAsync(createEvaluationRequest(expression, depth));
+        CompletableFuture<Boolean> evaluation = response.thenApplyAsync(result -> {
+            valueDecoder.deserialize(expression, getVariableValue(result));
+            return isOK(result);
+        }, valueDecoderExecutor);
+        evaluation.whenComplete((result, error) -> {
+            if (evaluation.isCancelled()) {
+                // Drop the request which is still waiting for engine response
+                response.cancel(false);
+            }
+        });
+        return evaluation;
+    }
+
+    /**
+     * Starts background evaluation of given expression if prefetching is
+     * enabled and there are less than {@link #MAX_PENDING_PREFETCHES}
+     * background evaluations in progress.
+     *
+     * @param expression
+     * @param depth
+     * @return future completed when expression result is set or
+     *         <code>null</code> if evaluation has not been started
+     */
+    public CompletableFuture<Boolean> prefetch(ZendDbgExpression expression, int depth) {
+        if (!isPrefetchEnabled) {
+            return null;
+        }
+        synchronized (pendingPrefetches) {
+            if (pendingPrefetches.size() >= MAX_PENDING_PREFETCHES) {
+                return null;
+            }
+            CompletableFuture<Boolean> evaluation = evaluateAsync(expression, depth);
+            pendingPrefetches.add(evaluation);
+            evaluation.whenComplete((result, error) -> {
+                synchronized (pendingPrefetches) {
+                    pendingPrefetches.remove(evaluation);
+                }
+            });
+            return evaluation;
+        }
+    }
+
+    /**
+     * Cancels all background evaluations, results of the ones which have not
+     * completed yet are dropped. Should be called once the values evaluated
+     * in the background are out of date, e.g. on step or resume.
+     */
+    public void cancelPrefetches() {
+        List<CompletableFuture<Boolean>> evaluations;
+        synchronized (pendingPrefetches) {
+            evaluations = new ArrayList<>(pendingPrefetches);
+            pendingPrefetches.clear();
+        }
+        for (CompletableFuture<Boolean> evaluation : evaluations) {
+            evaluation.cancel(false);
+        }
+    }
+
+    /**
+     * Waits for evaluation started with
+     * {@link #evaluateAsync(ZendDbgExpression, int)}.
+     *
+     * @param evaluation
+     * @return <code>true</code> if engine has evaluated the expression in
+     *         time, <code>false</code> otherwise
+     */
+    public boolean await(CompletableFuture<Boolean> evaluation) {
+        try {
+            return evaluation.get(ZendDbgConnection.RESPONSE_TIMEOUT, TimeUnit.SECONDS);
+        } catch (CancellationException e) {
+            // Background evaluation was dropped
+        } catch (TimeoutException | ExecutionException e) {
+            ZendDebugger.LOG.error(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Cancels background evaluations and stops decoding thread.
+     */
+    public void shutdown() {
+        cancelPrefetches();
+        valueDecoderExecutor.shutdown();
     }
 
     public boolean assign(ZendDbgExpression expression, String newValue, int depth) {
@@ -283,7 +425,7 @@ public class ZendDbgExpressionEvaluator {
         return true;
     }
 
-    private byte[] requestEvaluation(ZendDbgExpression expression, int depth) {
+    private GetVariableValueRequest createEvaluationRequest(ZendDbgExpression expression, int depth) {
         String variableOwner = expression.getExpression();
         List<String> variableElementPath = Collections.emptyList();
         List<String> chain = expression.getExpressionChain();
@@ -291,9 +433,11 @@ public class ZendDbgExpressionEvaluator {
             variableOwner = chain.get(0);
             variableElementPath = chain.subList(1, chain.size());
         }
+        return new GetVariableValueRequest(variableOwner, depth, variableElementPath);
+    }
+
+    private byte[] getVariableValue(GetVariableValueResponse response) {
         byte[] value = null;
-        GetVariableValueResponse response = debugConnection
-                .sendRequest(new GetVariableValueRequest(variableOwner, depth, variableElementPath));
         if (isOK(response)) {
             value = response.getVariableValue();
         }
@@ -28,6 +28,8 @@ import org.eclipse.che.plugin.zdb.server.expressions.IDbgExpression;
  * @author Bartlomiej Laczkowski
  */
 public class ZendDbgVariable implements IDbgVariable {
+    private static final int PARTITION_SIZE = 100;
+
     private final IDbgExpression zendDbgExpression;
     private final VariablePath variablePath;
     private final String name;
@@ -101,17 +103,38 @@ public class ZendDbgVariable implements IDbgVariable {
     @Override
     public void makeComplete() {
         if (!isComplete) {
-            // Evaluate wrapped expression to fetch all child variables
-            zendDbgExpression.evaluate();
-            variables = new ArrayList<>();
-            int childId = 0;
-            for (IDbgExpression child : zendDbgExpression.getChildren()) {
-                List<String> childPath = new ArrayList<>(variablePath.getPath());
-                childPath.add(String.valueOf(childId++));
-                variables.add(new ZendDbgVariable(new VariablePathImpl(childPath), child));
+            // Evaluate wrapped expression to fetch all child variables,
+            // it is evaluated again next time if engine has not responded
+            boolean isEvaluated = zendDbgExpression.evaluate();
+            List<IDbgExpression> children = zendDbgExpression.getChildren();
+            if (children.size() > PARTITION_SIZE) {
+                // Large collections are served to client partition by partition,
+                // members of a partition are sent once it is expanded
+                variables = new ArrayList<>();
+                for (int offset = 0; offset < children.size(); offset += PARTITION_SIZE) {
+                    List<String> partitionPath = new ArrayList<>(variablePath.getPath());
+                    partitionPath.add(String.valueOf(offset / PARTITION_SIZE));
+                    variables.add(new ZendDbgVariablePartition(new VariablePathImpl(partitionPath), offset,
+                            children.subList(offset, Math.min(offset + PARTITION_SIZE, children.size()))));
+                }
+            } else {
+                variables = createVariables(variablePath, children);
             }
-            isComplete = true;
+            // Child variables are likely to be expanded next, fetch them in the background
+            zendDbgExpression.prefetchChildren();
+            isComplete = isEvaluated;
+        }
+    }
+
+    static List<IDbgVariable> createVariables(VariablePath parentPath, List<IDbgExpression> children) {
+        List<IDbgVariable> childVariables = new ArrayList<>(children.size());
+        int childId = 0;
+        for (IDbgExpression child : children) {
+            List<String> childPath = new ArrayList<>(parentPath.getPath());
+            childPath.add(String.valueOf(childId++));
+            childVariables.add(new ZendDbgVariable(new VariablePathImpl(childPath), child));
         }
+        return childVariables;
     }
 
     private String createName(IDbgExpression expression) {
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Rogue Wave Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Rogue Wave Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.zdb.server.variables;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.che.api.debug.shared.model.VariablePath;
+import org.eclipse.che.plugin.zdb.server.expressions.IDbgExpression;
+
+/**
+ * Synthetic variable grouping a range of children of a large array or object,
+ * so that the children are transferred to client page by page. Child
+ * variables are created once the partition is completed.
+ */
+public class ZendDbgVariablePartition implements IDbgVariable {
+
+    private final VariablePath variablePath;
+    private final List<IDbgExpression> expressions;
+    private final String name;
+    private List<IDbgVariable> variables;
+
+    public ZendDbgVariablePartition(VariablePath variablePath, int offset, List<IDbgExpression> expressions) {
+        this.variablePath = variablePath;
+        this.expressions = expressions;
+        this.name = "[" + offset + ".." + (offset + expressions.size() - 1) + "]";
+        this.variables = Collections.emptyList();
+    }
+
+    @Override
+    public boolean isExistInformation() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getValue() {
+        return "";
+    }
+
+    @Override
+    public String getType() {
+        return "";
+    }
+
+    @Override
+    public boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    public List<IDbgVariable> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public VariablePath getVariablePath() {
+        return variablePath;
+    }
+
+    @Override
+    public void makeComplete() {
+        if (variables.isEmpty()) {
+            // Range of already evaluated children of the partitioned variable
+            variables = ZendDbgVariable.createVariables(variablePath, expressions);
+        }
+    }
+
+    @Override
+    public void setValue(String newValue) {
+        // Partition is not a real variable
+    }
+
+}
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Rogue Wave Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Rogue Wave Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.zdb.server;
+
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_ASSIGN_VALUE;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_GET_VARIABLE_VALUE;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_GO;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_STEP_INTO;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_STEP_OUT;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_STEP_OVER;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.NOTIFICATION_READY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.che.api.debug.shared.model.Location;
+import org.eclipse.che.api.debug.shared.model.impl.VariableImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
+import org.eclipse.che.api.debug.shared.model.impl.action.ResumeActionImpl;
+import org.eclipse.che.api.debug.shared.model.impl.action.StartActionImpl;
+import org.eclipse.che.api.debug.shared.model.impl.action.StepOverActionImpl;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgSettings;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of values cached by Zend debugger within a suspension, engine side is
+ * simulated with a plain socket which speaks the debug protocol.
+ */
+public class ZendDbgEvaluationCacheTest {
+
+    private static final int AWAIT_TIMEOUT = 5;
+    private static final String DUMP_VARIABLES = "eval(";
+
+    private static class FakeEngine implements Runnable {
+
+        private final Socket socket;
+        private final DataInputStream inputStream;
+        private final DataOutputStream outputStream;
+        // Serialized values by expression, expression without a value fails
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final List<String> evaluations = Collections.synchronizedList(new ArrayList<>());
+
+        private FakeEngine(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            inputStream = new DataInputStream(socket.getInputStream());
+            outputStream = new DataOutputStream(socket.getOutputStream());
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    byte[] message = new byte[inputStream.readInt()];
+                    inputStream.readFully(message);
+                    handle(new DataInputStream(new ByteArrayInputStream(message)));
+                }
+            } catch (IOException e) {
+                // Session is closed
+            }
+        }
+
+        private void handle(DataInputStream message) throws IOException {
+            int type = message.readShort();
+            switch (type) {
+            case REQUEST_GET_VARIABLE_VALUE: {
+                int id = message.readInt();
+                String variable = readString(message);
+                evaluations.add(variable);
+                String value = values.get(variable.startsWith(DUMP_VARIABLES) ? DUMP_VARIABLES : variable);
+                write(1000 + type, id, value == null ? -1 : 0, value == null ? "" : value);
+                break;
+            }
+            case REQUEST_ASSIGN_VALUE:
+            case REQUEST_STEP_OVER:
+            case REQUEST_STEP_INTO:
+            case REQUEST_STEP_OUT:
+            case REQUEST_GO:
+                write(1000 + type, message.readInt(), 0, null);
+                break;
+            default:
+                break;
+            }
+        }
+
+        private int getEvaluationsCount(String expression) {
+            synchronized (evaluations) {
+                return Collections.frequency(evaluations, expression);
+            }
+        }
+
+        private void writeReadyNotification(String fileName, int lineNumber) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(NOTIFICATION_READY);
+            writeString(out, fileName);
+            out.writeInt(lineNumber);
+            out.writeInt(0);
+            writeMessage(bytes);
+        }
+
+        private void write(int type, int id, int status, String value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(type);
+            out.writeInt(id);
+            out.writeInt(status);
+            if (value != null) {
+                writeString(out, value);
+            }
+            writeMessage(bytes);
+        }
+
+        private synchronized void writeMessage(ByteArrayOutputStream bytes) throws IOException {
+            outputStream.writeInt(bytes.size());
+            bytes.writeTo(outputStream);
+            outputStream.flush();
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static void writeString(DataOutputStream out, String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void close() throws IOException {
+            socket.close();
+        }
+
+    }
+
+    private ZendDebugger debugger;
+    private FakeEngine engine;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CountDownLatch suspended = new CountDownLatch(1);
+        debugger = new ZendDebugger(new ZendDbgSettings(port, "localhost", false, false),
+                new ZendDbgLocationHandler() {
+                    @Override
+                    public Location convertToVFS(Location dbgLocation) {
+                        return dbgLocation;
+                    }
+                }, event -> suspended.countDown());
+        debugger.start(new StartActionImpl(Collections.emptyList()));
+        engine = new FakeEngine(port);
+        Thread engineThread = new Thread(engine, "FakeZendEngine");
+        engineThread.setDaemon(true);
+        engineThread.start();
+        engine.values.put("$a", "i:1;");
+        engine.writeReadyNotification("/project/index.php", 1);
+        assertTrue(suspended.await(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        engine.close();
+        debugger.disconnect();
+    }
+
+    @Test
+    public void testVariableAccessIsCachedWithinSuspension() throws Exception {
+        assertEquals(debugger.evaluate("$a"), "1");
+        assertEquals(debugger.evaluate("$a"), "1");
+
+        assertEquals(engine.getEvaluationsCount("$a"), 1);
+    }
+
+    @Test
+    public void testFailedEvaluationIsNotCached() throws Exception {
+        engine.values.remove("$a");
+        assertEquals(debugger.evaluate("$a"), "null");
+
+        engine.values.put("$a", "i:1;");
+
+        assertEquals(debugger.evaluate("$a"), "1");
+        assertEquals(engine.getEvaluationsCount("$a"), 2);
+    }
+
+    @Test
+    public void testStepInvalidatesCache() throws Exception {
+        assertEquals(debugger.evaluate("$a"), "1");
+        engine.values.put("$a", "i:2;");
+
+        debugger.stepOver(new StepOverActionImpl());
+
+        assertEquals(debugger.evaluate("$a"), "2");
+    }
+
+    @Test
+    public void testResumeInvalidatesCache() throws Exception {
+        assertEquals(debugger.evaluate("$a"), "1");
+        engine.values.put("$a", "i:2;");
+
+        debugger.resume(new ResumeActionImpl());
+
+        assertEquals(debugger.evaluate("$a"), "2");
+    }
+
+    @Test
+    public void testSetValueInvalidatesCache() throws Exception {
+        engine.values.put(DUMP_VARIABLES, "a:1:{s:1:\"a\";i:1;}");
+        assertEquals(debugger.evaluate("$a"), "1");
+        engine.values.put("$a", "i:5;");
+
+        debugger.setValue(new VariableImpl("5", new VariablePathImpl("0")));
+
+        assertEquals(debugger.evaluate("$a"), "5");
+        // Once re-evaluated by variable after assignment and once by expression
+        assertEquals(engine.getEvaluationsCount("$a"), 3);
+    }
+
+    @Test
+    public void testSideEffectingExpressionInvalidatesCache() throws Exception {
+        assertEquals(debugger.evaluate("$a"), "1");
+        engine.values.put("$a++", "i:1;");
+        engine.values.put("$a", "i:2;");
+
+        assertEquals(debugger.evaluate("$a++"), "1");
+
+        assertEquals(debugger.evaluate("$a"), "2");
+    }
+
+}
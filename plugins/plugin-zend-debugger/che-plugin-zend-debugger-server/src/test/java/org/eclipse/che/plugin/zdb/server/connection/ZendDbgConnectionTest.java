@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Rogue Wave Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Rogue Wave Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.zdb.server.connection;
+
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.REQUEST_SET_PROTOCOL;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.NOTIFICATION_SRIPT_ENDED;
+import static org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.RESPONSE_SET_PROTOCOL;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.IDbgClientResponse;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.SetProtocolRequest;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgConnection.IEngineMessageHandler;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.IDbgEngineNotification;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.IDbgEngineRequest;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.SetProtocolResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Zend debug connection tests, engine side is simulated with a plain socket
+ * which speaks the debug protocol.
+ */
+public class ZendDbgConnectionTest {
+
+    private static final int AWAIT_TIMEOUT = 5;
+
+    private static class FakeEngine {
+
+        private final Socket socket;
+        private final DataInputStream inputStream;
+        private final DataOutputStream outputStream;
+
+        private FakeEngine(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            inputStream = new DataInputStream(socket.getInputStream());
+            outputStream = new DataOutputStream(socket.getOutputStream());
+        }
+
+        /**
+         * Reads set protocol request, returns its ID and protocol ID.
+         */
+        private int[] readSetProtocolRequest() throws IOException {
+            inputStream.readInt();
+            assertEquals(inputStream.readShort(), REQUEST_SET_PROTOCOL);
+            return new int[] { inputStream.readInt(), inputStream.readInt() };
+        }
+
+        private void writeSetProtocolResponse(int id, int protocolId) throws IOException {
+            outputStream.writeInt(10);
+            outputStream.writeShort(RESPONSE_SET_PROTOCOL);
+            outputStream.writeInt(id);
+            outputStream.writeInt(protocolId);
+            outputStream.flush();
+        }
+
+        private void writeScriptEndedNotification() throws IOException {
+            outputStream.writeInt(6);
+            outputStream.writeShort(NOTIFICATION_SRIPT_ENDED);
+            outputStream.writeInt(0);
+            outputStream.flush();
+        }
+
+        private void close() throws IOException {
+            socket.close();
+        }
+
+    }
+
+    private ZendDbgConnection connection;
+    private FakeEngine engine;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CountDownLatch connected = new CountDownLatch(1);
+        connection = new ZendDbgConnection(new IEngineMessageHandler() {
+            @Override
+            public void handleNotification(IDbgEngineNotification notification) {
+                connected.countDown();
+            }
+
+            @Override
+            public <T extends IDbgClientResponse> T handleRequest(IDbgEngineRequest<T> request) {
+                return null;
+            }
+        }, new ZendDbgSettings(port, "localhost", false, false));
+        connection.connect();
+        engine = new FakeEngine(port);
+        // Notification is handled once the connection is established
+        engine.writeScriptEndedNotification();
+        assertTrue(connected.await(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        engine.close();
+        connection.disconnect();
+    }
+
+    @Test
+    public void testResponsesAreCorrelatedWithRequestsById() throws Exception {
+        CompletableFuture<SetProtocolResponse> first = connection.sendRequestAsync(new SetProtocolRequest(1));
+        CompletableFuture<SetProtocolResponse> second = connection.sendRequestAsync(new SetProtocolRequest(2));
+        int[] firstRequest = engine.readSetProtocolRequest();
+        int[] secondRequest = engine.readSetProtocolRequest();
+        // Respond in reverse order
+        engine.writeSetProtocolResponse(secondRequest[0], secondRequest[1]);
+        engine.writeSetProtocolResponse(firstRequest[0], firstRequest[1]);
+
+        assertEquals(first.get(AWAIT_TIMEOUT, TimeUnit.SECONDS).getProtocolID(), 1);
+        assertEquals(second.get(AWAIT_TIMEOUT, TimeUnit.SECONDS).getProtocolID(), 2);
+    }
+
+    @Test
+    public void testRequestTimesOutWhenResponseDoesNotArrive() throws Exception {
+        assertNull(connection.sendRequest(new SetProtocolRequest(1), 200, TimeUnit.MILLISECONDS));
+
+        // Late response is dropped, next request gets its own response
+        int[] lateRequest = engine.readSetProtocolRequest();
+        engine.writeSetProtocolResponse(lateRequest[0], lateRequest[1]);
+        CompletableFuture<SetProtocolResponse> next = connection.sendRequestAsync(new SetProtocolRequest(2));
+        int[] nextRequest = engine.readSetProtocolRequest();
+        engine.writeSetProtocolResponse(nextRequest[0], nextRequest[1]);
+
+        SetProtocolResponse response = next.get(AWAIT_TIMEOUT, TimeUnit.SECONDS);
+        assertNotNull(response);
+        assertEquals(response.getProtocolID(), 2);
+    }
+
+    @Test
+    public void testAsyncRequestTimesOutWhenResponseDoesNotArrive() throws Exception {
+        CompletableFuture<SetProtocolResponse> response = connection.sendRequestAsync(new SetProtocolRequest(1), 200,
+                TimeUnit.MILLISECONDS);
+        engine.readSetProtocolRequest();
+
+        assertNull(response.get(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(connection.getPendingResponsesCount(), 0);
+    }
+
+    @Test
+    public void testCancelledRequestIsNotPending() throws Exception {
+        CompletableFuture<SetProtocolResponse> response = connection.sendRequestAsync(new SetProtocolRequest(1));
+        engine.readSetProtocolRequest();
+
+        response.cancel(false);
+
+        assertEquals(connection.getPendingResponsesCount(), 0);
+    }
+
+    @Test
+    public void testPendingRequestsAreReleasedOnDisconnect() throws Exception {
+        CompletableFuture<SetProtocolResponse> response = connection.sendRequestAsync(new SetProtocolRequest(1));
+        engine.readSetProtocolRequest();
+
+        connection.disconnect();
+
+        assertNull(response.get(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPendingRequestsAreReleasedWhenEngineClosesSession() throws Exception {
+        CompletableFuture<SetProtocolResponse> response = connection.sendRequestAsync(new SetProtocolRequest(1));
+        engine.readSetProtocolRequest();
+
+        engine.close();
+
+        assertNull(response.get(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+        assertNull(connection.sendRequestAsync(new SetProtocolRequest(2)).get(AWAIT_TIMEOUT, TimeUnit.SECONDS));
+    }
+
+}
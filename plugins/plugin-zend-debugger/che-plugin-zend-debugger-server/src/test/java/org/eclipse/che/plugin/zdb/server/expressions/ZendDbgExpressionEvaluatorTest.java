@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Rogue Wave Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Rogue Wave Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.zdb.server.expressions;
+
+import static org.eclipse.che.plugin.zdb.server.expressions.ZendDbgExpressionEvaluator.MAX_PENDING_PREFETCHES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgClientMessages.IDbgClientRequest;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgConnection;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.GetVariableValueResponse;
+import org.eclipse.che.plugin.zdb.server.connection.ZendDbgEngineMessages.IDbgEngineResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Zend debug expressions background evaluation tests.
+ */
+public class ZendDbgExpressionEvaluatorTest {
+
+    /**
+     * Connection which keeps requests pending until test responds to them.
+     */
+    private static class PendingConnection extends ZendDbgConnection {
+
+        private final List<CompletableFuture<IDbgEngineResponse>> responses = new ArrayList<>();
+
+        private PendingConnection() {
+            super(null, null);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public synchronized <T extends IDbgEngineResponse> CompletableFuture<T> sendRequestAsync(
+                IDbgClientRequest<T> request) {
+            CompletableFuture<T> response = new CompletableFuture<>();
+            responses.add((CompletableFuture<IDbgEngineResponse>) response);
+            return response;
+        }
+
+        private synchronized CompletableFuture<IDbgEngineResponse> getResponse(int index) {
+            return responses.get(index);
+        }
+
+        private synchronized int getRequestsCount() {
+            return responses.size();
+        }
+
+    }
+
+    private static class RecordingExpression extends ZendDbgExpression {
+
+        private volatile String resultThreadName;
+
+        private RecordingExpression(ZendDbgExpressionEvaluator expressionEvaluator) {
+            super(expressionEvaluator, "$a", Collections.singletonList("$a"));
+        }
+
+        @Override
+        protected void setExpressionResult(ZendDbgExpressionResult expressionResult) {
+            resultThreadName = Thread.currentThread().getName();
+            super.setExpressionResult(expressionResult);
+        }
+
+    }
+
+    private PendingConnection connection;
+    private ZendDbgExpressionEvaluator evaluator;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = new PendingConnection();
+        evaluator = new ZendDbgExpressionEvaluator(connection, true);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        evaluator.shutdown();
+    }
+
+    @Test
+    public void testPrefetchIsDisabledByDefault() throws Exception {
+        ZendDbgExpressionEvaluator defaultEvaluator = new ZendDbgExpressionEvaluator(connection);
+        try {
+            assertNull(defaultEvaluator.prefetch(new RecordingExpression(defaultEvaluator), 1));
+            assertEquals(connection.getRequestsCount(), 0);
+        } finally {
+            defaultEvaluator.shutdown();
+        }
+    }
+
+    @Test
+    public void testResponseIsDecodedOffConnectionThread() throws Exception {
+        RecordingExpression expression = new RecordingExpression(evaluator);
+        CompletableFuture<Boolean> evaluation = evaluator.prefetch(expression, 1);
+
+        connection.getResponse(0).complete(createResponse("i:5;"));
+
+        assertTrue(evaluator.await(evaluation));
+        assertEquals(expression.getValue(), "5");
+        assertEquals(expression.resultThreadName, "ZendDbgValueDecoder");
+    }
+
+    @Test
+    public void testPrefetchesAreBounded() throws Exception {
+        for (int i = 0; i < MAX_PENDING_PREFETCHES; i++) {
+            assertNotNull(evaluator.prefetch(new RecordingExpression(evaluator), 1));
+        }
+        assertNull(evaluator.prefetch(new RecordingExpression(evaluator), 1));
+        assertEquals(connection.getRequestsCount(), MAX_PENDING_PREFETCHES);
+
+        connection.getResponse(0).complete(createResponse("i:5;"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ZendDbgConnection.RESPONSE_TIMEOUT);
+        CompletableFuture<Boolean> evaluation = null;
+        while (evaluation == null && System.nanoTime() < deadline) {
+            evaluation = evaluator.prefetch(new RecordingExpression(evaluator), 1);
+        }
+
+        assertNotNull(evaluation);
+    }
+
+    @Test
+    public void testCancelledPrefetchDoesNotSetResult() throws Exception {
+        RecordingExpression expression = new RecordingExpression(evaluator);
+        CompletableFuture<Boolean> evaluation = evaluator.prefetch(expression, 1);
+
+        evaluator.cancelPrefetches();
+        connection.getResponse(0).complete(createResponse("i:5;"));
+
+        assertFalse(evaluator.await(evaluation));
+        assertNull(expression.resultThreadName);
+        assertNotNull(evaluator.prefetch(new RecordingExpression(evaluator), 1));
+    }
+
+    @Test
+    public void testCancelledPrefetchDropsPendingRequest() throws Exception {
+        evaluator.prefetch(new RecordingExpression(evaluator), 1);
+
+        evaluator.cancelPrefetches();
+
+        assertTrue(connection.getResponse(0).isCancelled());
+    }
+
+    private static GetVariableValueResponse createResponse(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(value.length());
+        out.writeBytes(value);
+        GetVariableValueResponse response = new GetVariableValueResponse();
+        response.deserialize(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        return response;
+    }
+
+}
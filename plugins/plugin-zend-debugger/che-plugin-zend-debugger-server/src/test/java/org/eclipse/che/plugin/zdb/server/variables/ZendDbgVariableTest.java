@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Rogue Wave Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Rogue Wave Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.zdb.server.variables;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.api.debugger.server.DtoConverter.asDto;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.che.api.debug.shared.model.impl.SimpleValueImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.plugin.zdb.server.expressions.IDbgExpression;
+import org.testng.annotations.Test;
+
+/**
+ * Zend debug variables tests, values are taken from fake expressions instead
+ * of the engine.
+ */
+public class ZendDbgVariableTest {
+
+    private static class FakeExpression implements IDbgExpression {
+
+        private final String expression;
+        private final List<IDbgExpression> children;
+        private boolean isEvaluated;
+        private boolean isEngineAvailable = true;
+        private int evaluationsCount;
+
+        private FakeExpression(String expression, List<IDbgExpression> children) {
+            this.expression = expression;
+            this.children = children;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public List<String> getExpressionChain() {
+            return Collections.singletonList(expression);
+        }
+
+        @Override
+        public int getChildrenCount() {
+            return children.size();
+        }
+
+        @Override
+        public List<IDbgExpression> getChildren() {
+            return isEvaluated ? children : Collections.emptyList();
+        }
+
+        @Override
+        public String getValue() {
+            return children.isEmpty() ? expression + " value" : "array [" + children.size() + "]";
+        }
+
+        @Override
+        public boolean setValue(String value) {
+            return false;
+        }
+
+        @Override
+        public boolean evaluate() {
+            evaluationsCount++;
+            isEvaluated = isEngineAvailable;
+            return isEngineAvailable;
+        }
+
+        @Override
+        public void prefetchChildren() {
+        }
+
+        @Override
+        public boolean hasFacet(Facet facet) {
+            return facet == Facet.KIND_ARRAY_MEMBER;
+        }
+
+        @Override
+        public void addFacets(Facet... facets) {
+        }
+
+        @Override
+        public DataType getDataType() {
+            return children.isEmpty() ? DataType.PHP_INT : DataType.PHP_ARRAY;
+        }
+
+    }
+
+    @Test
+    public void testSmallArrayIsNotPartitioned() throws Exception {
+        ZendDbgVariable variable = createArrayVariable(100);
+
+        variable.makeComplete();
+
+        assertEquals(variable.getVariables().size(), 100);
+        assertEquals(variable.getVariables().get(99).getName(), "[99]");
+    }
+
+    @Test
+    public void testPartitionMembersAreCreatedOnceExpanded() throws Exception {
+        ZendDbgVariable variable = createArrayVariable(1050);
+
+        variable.makeComplete();
+
+        List<IDbgVariable> partitions = variable.getVariables();
+        assertEquals(partitions.size(), 11);
+        for (IDbgVariable partition : partitions) {
+            assertTrue(partition.getVariables().isEmpty());
+        }
+        IDbgVariable lastPartition = partitions.get(10);
+        assertEquals(lastPartition.getName(), "[1000..1049]");
+        assertEquals(lastPartition.getVariablePath().getPath(), asList("0", "10"));
+
+        lastPartition.makeComplete();
+
+        assertEquals(lastPartition.getVariables().size(), 50);
+        IDbgVariable member = lastPartition.getVariables().get(5);
+        assertEquals(member.getName(), "[1005]");
+        assertEquals(member.getVariablePath().getPath(), asList("0", "10", "5"));
+    }
+
+    @Test
+    public void testSerializedValueOfLargeArrayContainsPartitionsOnly() throws Exception {
+        ZendDbgVariable variable = createArrayVariable(1000);
+
+        variable.makeComplete();
+        String json = toJson(variable);
+        IDbgVariable partition = variable.getVariables().get(0);
+        partition.makeComplete();
+        String partitionJson = toJson(partition);
+
+        assertEquals(countOccurrences(json, "\"variablePath\""), 10);
+        assertEquals(countOccurrences(partitionJson, "\"variablePath\""), 100);
+        // Whole array would be serialized as ten partitions are
+        assertTrue(json.length() * 5 < partitionJson.length(), json.length() + " vs " + partitionJson.length());
+    }
+
+    @Test
+    public void testVariableIsEvaluatedAgainIfEngineHasNotResponded() throws Exception {
+        FakeExpression expression = createArrayExpression(10);
+        ZendDbgVariable variable = new ZendDbgVariable(new VariablePathImpl("0"), expression);
+
+        expression.isEngineAvailable = false;
+        variable.makeComplete();
+        expression.isEngineAvailable = true;
+        variable.makeComplete();
+        variable.makeComplete();
+
+        assertEquals(expression.evaluationsCount, 2);
+        assertEquals(variable.getVariables().size(), 10);
+    }
+
+    private static FakeExpression createArrayExpression(int size) {
+        List<IDbgExpression> children = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            FakeExpression child = new FakeExpression(String.valueOf(i), Collections.emptyList());
+            child.isEvaluated = true;
+            children.add(child);
+        }
+        return new FakeExpression("$array", children);
+    }
+
+    private static ZendDbgVariable createArrayVariable(int size) {
+        return new ZendDbgVariable(new VariablePathImpl("0"), createArrayExpression(size));
+    }
+
+    private static String toJson(IDbgVariable variable) {
+        return DtoFactory.getInstance().toJson(asDto(new SimpleValueImpl(variable.getVariables(), variable.getValue())));
+    }
+
+    private static int countOccurrences(String text, String fragment) {
+        int count = 0;
+        for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+}
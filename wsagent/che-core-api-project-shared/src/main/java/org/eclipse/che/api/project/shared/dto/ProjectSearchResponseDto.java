@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Page of search results ordered by relevance.
+ */
+@DTO
+public interface ProjectSearchResponseDto {
+    /** Total number of files that match the search criteria. */
+    int getTotalHits();
+
+    void setTotalHits(int totalHits);
+
+    ProjectSearchResponseDto withTotalHits(int totalHits);
+
+    List<SearchResultDto> getItems();
+
+    void setItems(List<SearchResultDto> items);
+
+    ProjectSearchResponseDto withItems(List<SearchResultDto> items);
+
+    /** Token to request the next page of results or {@code null} if this page is the last one. */
+    @Nullable
+    String getContinuationToken();
+
+    void setContinuationToken(String continuationToken);
+
+    ProjectSearchResponseDto withContinuationToken(String continuationToken);
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Place in file content where searched text is found.
+ */
+@DTO
+public interface SearchOccurrenceDto {
+    /** Matched phrase as it is stored in the search index, e.g. in lower case. */
+    String getPhrase();
+
+    void setPhrase(String phrase);
+
+    SearchOccurrenceDto withPhrase(String phrase);
+
+    /** Number of line which contains the phrase, starting from 1. */
+    int getLineNumber();
+
+    void setLineNumber(int lineNumber);
+
+    SearchOccurrenceDto withLineNumber(int lineNumber);
+
+    /** Offset of the first character of the phrase from the beginning of the file content. */
+    int getStartOffset();
+
+    void setStartOffset(int startOffset);
+
+    SearchOccurrenceDto withStartOffset(int startOffset);
+
+    /** Offset of the character next to the last character of the phrase from the beginning of the file content. */
+    int getEndOffset();
+
+    void setEndOffset(int endOffset);
+
+    SearchOccurrenceDto withEndOffset(int endOffset);
+}
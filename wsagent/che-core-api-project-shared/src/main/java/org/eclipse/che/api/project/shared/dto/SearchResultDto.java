@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * File found by search together with places in its content where searched text is found.
+ */
+@DTO
+public interface SearchResultDto {
+    ItemReference getItemReference();
+
+    void setItemReference(ItemReference itemReference);
+
+    SearchResultDto withItemReference(ItemReference itemReference);
+
+    List<SearchOccurrenceDto> getSearchOccurrences();
+
+    void setSearchOccurrences(List<SearchOccurrenceDto> searchOccurrences);
+
+    SearchResultDto withSearchOccurrences(List<SearchOccurrenceDto> searchOccurrences);
+}
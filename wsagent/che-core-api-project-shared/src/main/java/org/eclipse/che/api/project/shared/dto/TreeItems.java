@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Part of a project tree listed depth first, each folder is followed by its own children.
+ */
+@DTO
+public interface TreeItems {
+    List<ItemReference> getItems();
+
+    void setItems(List<ItemReference> items);
+
+    TreeItems withItems(List<ItemReference> items);
+
+    /** Token to request the next part of the tree or {@code null} if this part is the last one. */
+    @Nullable
+    String getContinuationToken();
+
+    void setContinuationToken(String continuationToken);
+
+    TreeItems withContinuationToken(String continuationToken);
+}
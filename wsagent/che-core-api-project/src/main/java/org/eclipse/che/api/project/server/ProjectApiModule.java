@@ -34,7 +34,9 @@ import org.eclipse.che.api.vfs.impl.file.event.detectors.FileTrackingOperationRe
 import org.eclipse.che.api.vfs.impl.file.event.detectors.ProjectTreeTrackingOperationReceiver;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.api.vfs.search.impl.CombinedSearcherProvider;
 import org.eclipse.che.api.vfs.search.impl.FSLuceneSearcherProvider;
+import org.eclipse.che.api.vfs.search.impl.TrigramSearcherProvider;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
@@ -83,7 +85,9 @@ public class ProjectApiModule extends AbstractModule {
         Multibinder<PathMatcher> fileWatcherExcludes =
                 newSetBinder(binder(), PathMatcher.class, Names.named("che.user.workspaces.storage.excludes"));
 
-        bind(SearcherProvider.class).to(FSLuceneSearcherProvider.class);
+        bind(SearcherProvider.class).annotatedWith(Names.named("vfs.full_text_searcher_provider")).to(FSLuceneSearcherProvider.class);
+        bind(SearcherProvider.class).annotatedWith(Names.named("vfs.regex_searcher_provider")).to(TrigramSearcherProvider.class);
+        bind(SearcherProvider.class).to(CombinedSearcherProvider.class);
         bind(VirtualFileSystemProvider.class).to(LocalVirtualFileSystemProvider.class);
 
         bind(FileWatcherNotificationHandler.class).to(DefaultFileWatcherNotificationHandler.class);
@@ -85,6 +85,7 @@ public class ProjectManager {
     private final ExecutorService                executor;
     private final WorkspaceProjectsSyncer        workspaceProjectsHolder;
     private final FileWatcherManager             fileWatcherManager;
+    private final ProjectTypeResolutionCache     resolutionCache;
 
     @Inject
     public ProjectManager(VirtualFileSystemProvider vfsProvider,
@@ -106,6 +107,7 @@ public class ProjectManager {
         this.fileWatcher = fileTreeWatcher;
         this.workspaceProjectsHolder = workspaceProjectsHolder;
         this.fileWatcherManager = fileWatcherManager;
+        this.resolutionCache = new ProjectTypeResolutionCache();
 
         executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
                                                 new ThreadFactoryBuilder().setNameFormat("ProjectService-IndexingThread-")
@@ -122,6 +124,7 @@ public class ProjectManager {
                     @Override
                     public void onFileWatcherEvent(VirtualFile virtualFile, FileWatcherEventType eventType) {
                         LOG.debug("FS event detected: " + eventType + " " + virtualFile.getPath().toString() + " " + virtualFile.isFile());
+                        resolutionCache.invalidate(virtualFile.getPath());
                     }
                 };
         fileWatchNotifier.addNotificationListener(defaultListener);
@@ -263,9 +266,10 @@ public class ProjectManager {
         } else {
             projectFolder = new FolderEntry(vfs.getRoot().createFolder(path), projectRegistry);
         }
+        resolutionCache.invalidate(projectFolder.getPath());
 
         final RegisteredProject project = projectRegistry.putProject(projectConfig, projectFolder, true, false);
-        workspaceProjectsHolder.sync(projectRegistry);
+        workspaceProjectsHolder.scheduleSync(projectRegistry);
         projectRegistry.fireInitHandlers(project);
 
         return project;
@@ -428,7 +432,7 @@ public class ProjectManager {
         }
 
         final RegisteredProject project = projectRegistry.putProject(newConfig, baseFolder, true, false);
-        workspaceProjectsHolder.sync(projectRegistry);
+        workspaceProjectsHolder.scheduleSync(projectRegistry);
 
         projectRegistry.fireInitHandlers(project);
 
@@ -497,6 +501,8 @@ public class ProjectManager {
         } catch (final Exception e) {
             folder.remove();
             throw e;
+        } finally {
+            resolutionCache.invalidate(folder.getPath());
         }
 
         final String name = folder.getPath().getName();
@@ -509,19 +515,20 @@ public class ProjectManager {
                     projectRegistry.putProject(registeredProject, asFolder(registeredProject.getPath()), true, false);
                 }
                 RegisteredProject rp = projectRegistry.putProject(project, folder, true, false);
-                workspaceProjectsHolder.sync(projectRegistry);
+                workspaceProjectsHolder.scheduleSync(projectRegistry);
                 return rp;
             }
         }
 
         RegisteredProject rp = projectRegistry
                 .putProject(new NewProjectConfigImpl(normalizePath, name, BaseProjectType.ID, sourceStorage), folder, true, false);
-        workspaceProjectsHolder.sync(projectRegistry);
+        workspaceProjectsHolder.scheduleSync(projectRegistry);
         return rp;
     }
 
     /**
-     * Estimates if the folder can be treated as a project of particular type
+     * Estimates if the folder can be treated as a project of particular type.
+     * Resolution is reused until the folder or anything inside it is changed.
      *
      * @param path to the folder
      * @param projectTypeId project type to estimate
@@ -543,7 +550,7 @@ public class ProjectManager {
             throw new NotFoundException("Folder not found: " + path);
         }
 
-        return projectType.resolveSources(baseFolder);
+        return resolutionCache.resolve(projectType, baseFolder);
     }
 
     /**
@@ -591,11 +598,12 @@ public class ProjectManager {
         if (item != null) {
             item.delete();
         }
+        resolutionCache.invalidate(Path.of(apath));
 
         // delete child projects
         projectRegistry.removeProjects(apath);
 
-        workspaceProjectsHolder.sync(projectRegistry);
+        workspaceProjectsHolder.scheduleSync(projectRegistry);
     }
 
     /**
@@ -627,6 +635,7 @@ public class ProjectManager {
         }
 
         final VirtualFile newItem = oldItem.copyTo(newParent, newName, overwrite);
+        resolutionCache.invalidate(newItem.getPath());
         final RegisteredProject owner = projectRegistry.getParentProject(newItem.getPath().toString());
         if (owner == null) {
             throw new NotFoundException("Parent project not found " + newItem.getPath().toString());
@@ -682,8 +691,11 @@ public class ProjectManager {
             throw new NotFoundException("New parent not found " + newParentPath);
         }
 
+        final Path oldPath = oldItem.getPath();
         // TODO lock token ?
         final VirtualFile newItem = oldItem.moveTo(newParent, newName, overwrite, null);
+        resolutionCache.invalidate(oldPath);
+        resolutionCache.invalidate(newItem.getPath());
         final RegisteredProject owner = projectRegistry.getParentProject(newItem.getPath().toString());
         if (owner == null) {
             throw new NotFoundException("Parent project not found " + newItem.getPath().toString());
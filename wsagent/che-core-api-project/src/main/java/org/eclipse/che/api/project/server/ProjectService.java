@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.gson.JsonPrimitive;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -37,8 +39,11 @@ import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.ProjectSearchResponseDto;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
+import org.eclipse.che.api.project.shared.dto.TreeItems;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
@@ -71,11 +76,16 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -731,8 +741,8 @@ public class ProjectService extends Service {
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
-    public InputStream exportZip(@ApiParam(value = "Path to resource to be exported")
-                                 @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+    public Response exportZip(@ApiParam(value = "Path to resource to be exported")
+                              @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
 
         final FolderEntry folder = projectManager.asFolder(path);
 
@@ -740,7 +750,16 @@ public class ProjectService extends Service {
             throw new NotFoundException("Folder not found " + path);
         }
 
-        return folder.getVirtualFile().zip();
+        // archive is written directly to the response as it is created
+        final VirtualFile virtualFile = folder.getVirtualFile();
+        final StreamingOutput zip = output -> {
+            try {
+                virtualFile.zip(output);
+            } catch (ForbiddenException | ServerException e) {
+                throw new IOException(e.getLocalizedMessage(), e);
+            }
+        };
+        return Response.ok(zip, ExtMediaType.APPLICATION_ZIP).build();
     }
 
     @GET
@@ -823,6 +842,69 @@ public class ProjectService extends Service {
                                         .withChildren(getTree(folder, depth, includeFiles));
     }
 
+    @GET
+    @Path("/entries/{parent:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get project tree items",
+                  notes = "Get project tree items listed depth first. Items are written to the response as they are read, " +
+                          "number of items may be limited, in this case response contains token to request the next items",
+                  response = TreeItems.class)
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Invalid exclude pattern or continuation token"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public Response getEntries(@ApiParam(value = "Path to resource. Can be project or its folders", required = true)
+                               @PathParam("parent") String path,
+                               @ApiParam(value = "Tree depth. If not specified ?depth=1 is used by default")
+                               @DefaultValue("1") @QueryParam("depth") int depth,
+                               @ApiParam(value = "Include files in addition to folders. If not specified ?includeFiles=true is used by default")
+                               @DefaultValue("true") @QueryParam("includeFiles") boolean includeFiles,
+                               @ApiParam(value = "Glob pattern of names of items to skip, e.g. node_modules. May be specified several times")
+                               @QueryParam("exclude") List<String> excludes,
+                               @ApiParam(value = "Maximum items to return. If this parameter is dropped, there are no limits")
+                               @DefaultValue("-1") @QueryParam("maxItems") int maxItems,
+                               @ApiParam(value = "Token returned with the previous items to get the next ones")
+                               @QueryParam("continuationToken") String continuationToken,
+                               @ApiParam(value = "Return only name, path and type of items, without attributes and links")
+                               @DefaultValue("false") @QueryParam("minimal") boolean minimal) throws NotFoundException,
+                                                                                                     ConflictException,
+                                                                                                     ServerException {
+        final FolderEntry folder = projectManager.asFolder(path);
+
+        if (folder == null) {
+            throw new NotFoundException("Folder not found " + path);
+        }
+
+        if (maxItems == 0 || maxItems < -1) {
+            throw new ConflictException(String.format("Invalid 'maxItems' parameter: %d.", maxItems));
+        }
+
+        final ProjectTreeWalker walker = new ProjectTreeWalker(folder, depth, includeFiles, excludes, maxItems, continuationToken);
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        // items are written to the response as soon as they are read, response has the same format as TreeItems
+        final StreamingOutput items = output -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write("{\"items\":[");
+            final String nextToken;
+            try {
+                nextToken = walker.walk((item, index) -> {
+                    if (index > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(dtoFactory.toJson(minimal ? asMinimalDto(item) : asLinkedDto(item)));
+                });
+            } catch (ServerException e) {
+                throw new IOException(e.getLocalizedMessage(), e);
+            }
+            writer.write("],\"continuationToken\":");
+            writer.write(nextToken == null ? "null" : new JsonPrimitive(nextToken).toString());
+            writer.write('}');
+            writer.flush();
+        };
+        return Response.ok(items, MediaType.APPLICATION_JSON).build();
+    }
+
     @GET
     @Path("/item/{path:.*}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -873,6 +955,7 @@ public class ProjectService extends Service {
                                       @QueryParam("skipCount") int skipCount) throws NotFoundException,
                                                                                      ForbiddenException,
                                                                                      ConflictException,
+                                                                                     BadRequestException,
                                                                                      ServerException {
         final Searcher searcher;
         try {
@@ -909,6 +992,78 @@ public class ProjectService extends Service {
         return items;
     }
 
+    @GET
+    @Path("/occurrences/{path:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Search for text occurrences",
+                  notes = "Search for files applying a number of search filters as query parameters. Files are ordered by relevance, " +
+                          "each file is returned with line numbers and offsets of the found text",
+                  response = ProjectSearchResponseDto.class)
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 400, message = "Invalid continuation token or regular expression"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public ProjectSearchResponseDto searchOccurrences(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                                                      @PathParam("path") String path,
+                                                      @ApiParam(value = "Resource name")
+                                                      @QueryParam("name") String name,
+                                                      @ApiParam(value = "Search keywords")
+                                                      @QueryParam("text") String text,
+                                                      @ApiParam(value = "Whether text is a regular expression, " +
+                                                                        "it is supported if 'vfs.search.regex_enabled' property is set")
+                                                      @QueryParam("regex") boolean regex,
+                                                      @ApiParam(value = "Maximum items to return in one page")
+                                                      @QueryParam("maxItems") @DefaultValue("20") int maxItems,
+                                                      @ApiParam(value = "Token returned with the previous page to get the next one")
+                                                      @QueryParam("continuationToken") String continuationToken) throws NotFoundException,
+                                                                                                                        ForbiddenException,
+                                                                                                                        ConflictException,
+                                                                                                                        BadRequestException,
+                                                                                                                        ServerException {
+        final Searcher searcher;
+        try {
+            searcher = projectManager.getSearcher();
+        } catch (NotFoundException e) {
+            LOG.warn(e.getLocalizedMessage());
+            return newDto(ProjectSearchResponseDto.class);
+        }
+
+        if (maxItems <= 0) {
+            throw new ConflictException(String.format("Invalid 'maxItems' parameter: %d.", maxItems));
+        }
+
+        final QueryExpression expr = new QueryExpression()
+                .setPath(path.startsWith("/") ? path : ('/' + path))
+                .setName(name)
+                .setText(text)
+                .setMaxItems(maxItems)
+                .setContinuationToken(continuationToken)
+                .setIncludeOccurrences(true)
+                .setRegex(regex);
+
+        final SearchResult result = searcher.search(expr);
+        final List<SearchResultDto> items = new ArrayList<>(result.getResults().size());
+        final FolderEntry root = projectManager.getProjectsRoot();
+
+        for (SearchResultEntry searchResultEntry : result.getResults()) {
+            final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
+
+            if (child != null && child.isFile()) {
+                items.add(newDto(SearchResultDto.class).withItemReference(injectFileLinks(asDto((FileEntry)child)))
+                                                       .withSearchOccurrences(searchResultEntry.getOccurrences()
+                                                                                               .stream()
+                                                                                               .map(DtoConverter::asDto)
+                                                                                               .collect(Collectors.toList())));
+            }
+        }
+
+        return newDto(ProjectSearchResponseDto.class).withTotalHits(result.getTotalHits())
+                                                     .withItems(items)
+                                                     .withContinuationToken(result.getContinuationToken());
+    }
+
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
         LOG.info("EVENT#project-created# PROJECT#{}# TYPE#{}# WS#{}# USER#{}# PAAS#default#",
                  projectName,
@@ -966,6 +1121,17 @@ public class ProjectService extends Service {
         return nodes;
     }
 
+    private ItemReference asLinkedDto(VirtualFileEntry item) throws ServerException {
+        return item.isFile() ? injectFileLinks(asDto((FileEntry)item)) : injectFolderLinks(asDto((FolderEntry)item));
+    }
+
+    private static ItemReference asMinimalDto(VirtualFileEntry item) throws ServerException {
+        final String type = item.isFile() ? "file" : item.isProject() ? "project" : "folder";
+        return newDto(ItemReference.class).withName(item.getName())
+                                          .withPath(item.getPath().toString())
+                                          .withType(type);
+    }
+
     /* --------------------------------------------------------------------------- */
     /* TODO check "upload" methods below, they were copied from old VFS as is      */
     /* --------------------------------------------------------------------------- */
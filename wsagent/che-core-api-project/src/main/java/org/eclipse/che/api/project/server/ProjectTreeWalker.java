@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static java.lang.String.format;
+
+/**
+ * Walks a folder tree depth first and passes every visited item to {@link ItemConsumer} as soon
+ * as it is reached, so that the tree never has to be kept in memory as a whole.
+ * <p>
+ * Items are visited in the order the virtual file system lists them (folders before files, then by
+ * name). Folders with names matching one of exclude patterns are neither visited nor walked into.
+ * When number of visited items is limited, {@link #walk(ItemConsumer)} returns token which
+ * may be passed to a new walker to continue from the item next to the last visited one.
+ */
+class ProjectTreeWalker {
+    private static final char FOLDER_MARKER = 'd';
+    private static final char FILE_MARKER   = 'f';
+
+    /** Receives items visited by {@link ProjectTreeWalker}. */
+    interface ItemConsumer {
+        /**
+         * @param item
+         *         visited item
+         * @param index
+         *         zero based number of the item in the current walk
+         */
+        void accept(VirtualFileEntry item, int index) throws IOException, ServerException;
+    }
+
+    private final FolderEntry       folder;
+    private final int               depth;
+    private final int               maxItems;
+    private final String            continuationToken;
+    private final ResumePoint       resumeFrom;
+    private final VirtualFileFilter filter;
+
+    private int              visited;
+    private VirtualFileEntry last;
+
+    /**
+     * @param folder
+     *         folder to walk
+     * @param depth
+     *         how deep to walk, {@code 1} visits only direct children of the folder
+     * @param includeFiles
+     *         whether files should be visited in addition to folders
+     * @param excludes
+     *         glob patterns of names of items which should be skipped, e.g. {@code node_modules} or {@code .*}
+     * @param maxItems
+     *         maximum number of items to visit, {@code -1} means no limit
+     * @param continuationToken
+     *         token returned by previous walk over the same folder or {@code null} to start from the beginning
+     * @throws ConflictException
+     *         if any of exclude patterns is invalid or continuation token doesn't belong to the folder
+     */
+    ProjectTreeWalker(FolderEntry folder,
+                      int depth,
+                      boolean includeFiles,
+                      List<String> excludes,
+                      int maxItems,
+                      String continuationToken) throws ConflictException {
+        this.folder = folder;
+        this.depth = depth;
+        this.maxItems = maxItems;
+        this.continuationToken = continuationToken;
+        this.resumeFrom = continuationToken == null ? null : ResumePoint.of(folder.getPath(), continuationToken);
+
+        final List<PathMatcher> matchers = new ArrayList<>();
+        if (excludes != null) {
+            for (String exclude : excludes) {
+                try {
+                    matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + exclude));
+                } catch (PatternSyntaxException e) {
+                    throw new ConflictException(format("Invalid exclude pattern '%s'. %s", exclude, e.getDescription()));
+                }
+            }
+        }
+        this.filter = file -> (includeFiles || file.isFolder()) && !isExcluded(matchers, file.getName());
+    }
+
+    /**
+     * Walks the folder passing visited items to the consumer.
+     *
+     * @return token to continue walking from the item next to the last visited one or {@code null}
+     * if there are no more items to visit
+     */
+    String walk(ItemConsumer consumer) throws ServerException, IOException {
+        visited = 0;
+        last = null;
+
+        if (walk(folder, depth, 0, resumeFrom, consumer)) {
+            return null;
+        }
+        return last != null ? encode(last) : continuationToken;
+    }
+
+    /** Returns {@code false} if items limit is reached before the whole folder is walked. */
+    private boolean walk(FolderEntry folder,
+                         int depth,
+                         int level,
+                         ResumePoint resumeFrom,
+                         ItemConsumer consumer) throws ServerException, IOException {
+        for (VirtualFileEntry child : folder.getChildren(filter)) {
+            final int position = resumeFrom == null ? 1 : resumeFrom.compareTo(child.getVirtualFile(), level);
+            if (position < 0) {
+                // visited by previous walk
+                continue;
+            }
+            if (position > 0) {
+                if (maxItems >= 0 && visited == maxItems) {
+                    return false;
+                }
+                consumer.accept(child, visited++);
+                last = child;
+            }
+            // walk into the folder where the previous walk was stopped or into the new one
+            if (child.isFolder() && depth > 1
+                && !walk((FolderEntry)child, depth - 1, level + 1, position == 0 ? resumeFrom : null, consumer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExcluded(List<PathMatcher> matchers, String name) {
+        if (matchers.isEmpty()) {
+            return false;
+        }
+        final java.nio.file.Path path = Paths.get(name);
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String encode(VirtualFileEntry item) {
+        return (item.isFile() ? FILE_MARKER : FOLDER_MARKER) + item.getPath().toString();
+    }
+
+    /** Position of the last item visited by previous walk. */
+    private static class ResumePoint {
+        private final String[] elements;
+        private final boolean  file;
+
+        private ResumePoint(String[] elements, boolean file) {
+            this.elements = elements;
+            this.file = file;
+        }
+
+        static ResumePoint of(Path root, String token) throws ConflictException {
+            final char marker = token.isEmpty() ? 0 : token.charAt(0);
+            Path path = null;
+            if (marker == FILE_MARKER || marker == FOLDER_MARKER) {
+                try {
+                    path = Path.of(token.substring(1));
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+            if (path == null || !path.isAbsolute() || !path.isChild(root)) {
+                throw new ConflictException(format("Invalid continuation token '%s'.", token));
+            }
+            return new ResumePoint(path.subPath(root).elements(), marker == FILE_MARKER);
+        }
+
+        /**
+         * Compares item at the given level of the walked tree with the item of resume point at the same level,
+         * the same way as virtual file system orders items.
+         *
+         * @return negative value if item precedes resume point, positive value if it follows resume point
+         * and {@code 0} if item is resume point itself or one of its parents
+         */
+        int compareTo(VirtualFile item, int level) {
+            if (level >= elements.length) {
+                return 1;
+            }
+            final boolean isFile = level == elements.length - 1 && file;
+            if (item.isFile() != isFile) {
+                return item.isFile() ? 1 : -1;
+            }
+            return item.getName().compareTo(elements[level]);
+        }
+    }
+}
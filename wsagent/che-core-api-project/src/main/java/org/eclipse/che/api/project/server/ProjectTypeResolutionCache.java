@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
+import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.vfs.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps results of {@link ProjectTypeDef#resolveSources(FolderEntry)} per folder and project type,
+ * so that repeated estimations of an unchanged folder do not run value providers again.
+ * <p>
+ * Value providers may read any file below the estimated folder, so a resolution is dropped as soon as
+ * the folder itself, anything inside it or any of its parents is changed, see {@link #invalidate(Path)}.
+ * Only resolutions of the {@link #MAX_FOLDERS} recently used folders are kept.
+ */
+class ProjectTypeResolutionCache {
+    static final int MAX_FOLDERS = 5_000;
+
+    private final Cache<String, ConcurrentMap<String, Resolved>> resolutions;
+    /**
+     * Sorted paths of the folders which have resolutions, so the children of the changed folder
+     * are found without iterating all the resolutions. Guarded by itself.
+     */
+    private final NavigableSet<String>                           folders;
+
+    /** Number of changes seen so far, modified while holding lock on {@link #folders}. */
+    private volatile long generation;
+
+    ProjectTypeResolutionCache() {
+        this(MAX_FOLDERS);
+    }
+
+    ProjectTypeResolutionCache(int maxFolders) {
+        folders = new TreeSet<>();
+        resolutions = CacheBuilder.newBuilder()
+                                  .maximumSize(maxFolders)
+                                  .<String, ConcurrentMap<String, Resolved>>removalListener(this::onRemoval)
+                                  .build();
+    }
+
+    /**
+     * Returns resolution of the folder for the given project type, running its value providers only
+     * if there is no resolution computed after the last change of the folder.
+     */
+    ProjectTypeResolution resolve(ProjectTypeDef type, FolderEntry folder) {
+        final String path = folder.getPath().toString();
+        final ConcurrentMap<String, Resolved> cached = resolutions.getIfPresent(path);
+        if (cached != null) {
+            final Resolved resolved = cached.get(type.getId());
+            // project type may be re-registered with the same id
+            if (resolved != null && resolved.type == type) {
+                return resolved.resolution;
+            }
+        }
+
+        final long before = generation;
+        final ProjectTypeResolution resolution = type.resolveSources(folder);
+        synchronized (folders) {
+            // don't keep result if the file system was changed while value providers were reading it,
+            // the check and the put are done under the same lock as invalidation
+            if (before == generation) {
+                folders.add(path);
+                resolutions.asMap()
+                           .computeIfAbsent(path, p -> new ConcurrentHashMap<>())
+                           .put(type.getId(), new Resolved(type, resolution));
+            }
+        }
+        return resolution;
+    }
+
+    /**
+     * Drops resolutions which may be affected by change of the item with given path: resolutions of
+     * the item itself, of all its parents and, if the item is a folder, of all its children.
+     */
+    void invalidate(Path path) {
+        synchronized (folders) {
+            generation++;
+            final List<String> affected = new ArrayList<>();
+            for (Path folder = path; folder != null; folder = folder.getParent()) {
+                affected.add(folder.toString());
+            }
+            // paths of children start with the path followed by '/', '0' is the character next to '/'
+            final String prefix = path.isRoot() ? "" : path.toString();
+            final NavigableSet<String> children = folders.subSet(prefix + '/', true, prefix + '0', false);
+            affected.addAll(children);
+            children.clear();
+            folders.removeAll(affected);
+            resolutions.invalidateAll(affected);
+        }
+    }
+
+    /** Keeps paths of the folders in sync with the resolutions evicted from the cache. */
+    private void onRemoval(RemovalNotification<String, ConcurrentMap<String, Resolved>> notification) {
+        synchronized (folders) {
+            // folder may be already cached again
+            if (!resolutions.asMap().containsKey(notification.getKey())) {
+                folders.remove(notification.getKey());
+            }
+        }
+    }
+
+    private static class Resolved {
+        final ProjectTypeDef        type;
+        final ProjectTypeResolution resolution;
+
+        Resolved(ProjectTypeDef type, ProjectTypeResolution resolution) {
+            this.type = type;
+            this.resolution = resolution;
+        }
+    }
+}
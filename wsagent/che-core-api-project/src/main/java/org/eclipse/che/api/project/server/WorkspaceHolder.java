@@ -10,27 +10,45 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.workspace.server.WorkspaceService;
-import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsDiffDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceProjectsDto;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
  * For caching and proxy-ing Workspace Configuration.
  *
+ * <p>Projects of the workspace are cached together with their revision, changes are sent
+ * to WS-master as a single diff which is rejected if the projects were modified on WS-master
+ * side since the cached revision. Synchronization is performed in background with a short delay,
+ * so a burst of project modifications is sent as a single diff, synchronizations are performed
+ * one at a time.
+ *
  * @author gazarenkov
  */
 @Singleton
@@ -38,6 +56,13 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
 
     private static final Logger LOG = LoggerFactory.getLogger(WorkspaceHolder.class);
 
+    /** Number of attempts to apply the changes when the projects are concurrently modified on WS-master side. */
+    private static final int  MAX_SYNC_ATTEMPTS   = 3;
+    /** Delay of the synchronization, requests which come during the delay are merged into the same synchronization. */
+    private static final long SYNC_DELAY_MS       = 200;
+    /** Time to wait for the pending synchronizations when the agent is stopped. */
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
     private String apiEndpoint;
 
     private String workspaceId;
@@ -46,6 +71,14 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
 
     private HttpJsonRequestFactory httpJsonRequestFactory;
 
+    private final ScheduledExecutorService syncExecutor;
+    private final Object                   syncLock;
+
+    /** Whether synchronization is scheduled but not started yet, guarded by {@link #syncLock}. */
+    private boolean syncScheduled;
+
+    private volatile WorkspaceProjectsDto projects;
+
     @Inject
     public WorkspaceHolder(@Named("che.api") String apiEndpoint,
                            HttpJsonRequestFactory httpJsonRequestFactory) throws ServerException {
@@ -56,13 +89,20 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
         this.workspaceId = System.getenv("CHE_WORKSPACE_ID");
         this.userToken = System.getenv("USER_TOKEN");
 
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("WorkspaceProjectsSyncer")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
+        this.syncLock = new Object();
+
         LOG.info("Workspace ID: " + workspaceId);
         LOG.info("API Endpoint: " + apiEndpoint);
         LOG.info("User Token  : " + (userToken != null));
 
         // check connection
         try {
-            workspaceDto();
+            refreshProjects();
         } catch (ServerException e) {
             LOG.error(e.getLocalizedMessage());
             System.exit(1);
@@ -72,8 +112,11 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
 
     @Override
     public List<? extends ProjectConfig> getProjects() throws ServerException {
-
-        return workspaceDto().getConfig().getProjects();
+        WorkspaceProjectsDto current = projects;
+        if (current == null) {
+            current = refreshProjects();
+        }
+        return current.getProjects();
     }
 
     @Override
@@ -81,6 +124,105 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
         return workspaceId;
     }
 
+    /**
+     * Schedules synchronization of projects with WS-master and returns immediately.
+     *
+     * <p>If synchronization is already scheduled the changes are sent by it. Failed synchronization
+     * is logged, the changes remain not synchronized and are sent by the next synchronization.
+     */
+    @Override
+    public void scheduleSync(ProjectRegistry projectRegistry) throws ServerException {
+        synchronized (syncLock) {
+            if (syncScheduled) {
+                return;
+            }
+            if (!syncExecutor.isShutdown()) {
+                syncExecutor.schedule(() -> performSync(projectRegistry), SYNC_DELAY_MS, MILLISECONDS);
+                syncScheduled = true;
+                return;
+            }
+        }
+        // agent is being stopped, synchronize in the caller thread
+        syncWithRetry(projectRegistry);
+    }
+
+    private void performSync(ProjectRegistry projectRegistry) {
+        synchronized (syncLock) {
+            // changes made from now on are sent by the next synchronization
+            syncScheduled = false;
+        }
+        try {
+            syncWithRetry(projectRegistry);
+        } catch (ServerException | RuntimeException e) {
+            LOG.error("Unable to synchronize projects of workspace {}. {}", workspaceId, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Synchronizes projects, if WS-master rejects the changes because the projects were modified
+     * since the cached revision the changes are recomputed against the actual projects and sent again.
+     */
+    private void syncWithRetry(ProjectRegistry projectRegistry) throws ServerException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sync(projectRegistry);
+                return;
+            } catch (ProjectsConflictException e) {
+                if (attempt == MAX_SYNC_ATTEMPTS) {
+                    throw new ServerException(format("Projects of workspace '%s' are concurrently modified, " +
+                                                     "unable to synchronize them after %d attempts",
+                                                     workspaceId,
+                                                     MAX_SYNC_ATTEMPTS), e);
+                }
+                LOG.debug("Retrying projects synchronization. {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends all the changes to WS-master in a single request.
+     *
+     * <p>Cached projects are invalidated if the request fails, so the next
+     * synchronization computes the diff against the actual state of WS-master.
+     */
+    @Override
+    protected void syncProjects(List<? extends ProjectConfig> remote,
+                                List<ProjectConfig> updated,
+                                List<ProjectConfig> removed) throws ServerException {
+        final WorkspaceProjectsDto current = projects;
+        final ProjectsDiffDto diff = newDto(ProjectsDiffDto.class).withRevision(current == null ? null : current.getRevision())
+                                                                  .withUpdated(updated.stream()
+                                                                                      .map(DtoConverter::asDto)
+                                                                                      .collect(toList()))
+                                                                  .withRemoved(removed.stream()
+                                                                                      .map(ProjectConfig::getPath)
+                                                                                      .collect(toList()));
+        try {
+            projects = postDiff(diff);
+        } catch (ServerException e) {
+            projects = null;
+            throw e;
+        }
+    }
+
+    /** Waits for the scheduled synchronization, so the changes applied on the agent side are not lost. */
+    @PreDestroy
+    void stop() {
+        synchronized (syncLock) {
+            syncExecutor.shutdown();
+        }
+        try {
+            if (syncExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MS, MILLISECONDS)) {
+                return;
+            }
+            LOG.warn("Projects of workspace {} were not synchronized in {}ms, synchronization is cancelled",
+                     workspaceId,
+                     SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        syncExecutor.shutdownNow();
+    }
 
     /**
      * Add project on WS-master side.
@@ -101,7 +243,7 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
         } catch (IOException | ApiException e) {
             throw new ServerException(e.getMessage());
         }
-
+        projects = null;
     }
 
     /**
@@ -124,7 +266,7 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
         } catch (IOException | ApiException e) {
             throw new ServerException(e.getMessage());
         }
-
+        projects = null;
     }
 
 
@@ -140,24 +282,66 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
         } catch (IOException | ApiException e) {
             throw new ServerException(e.getMessage());
         }
+        projects = null;
     }
 
     /**
-     * @return WorkspaceDto
+     * Fetches projects and their revision from WS-master and caches them.
+     *
+     * @return actual projects of the workspace
      * @throws ServerException
      */
-    private WorkspaceDto workspaceDto() throws ServerException {
+    private WorkspaceProjectsDto refreshProjects() throws ServerException {
+        final UriBuilder builder = UriBuilder.fromUri(apiEndpoint).path(WorkspaceService.class)
+                                             .path(WorkspaceService.class, "getProjects");
+        if(userToken != null)
+            builder.queryParam("token", userToken);
+        final String href = builder.build(workspaceId).toString();
+        final WorkspaceProjectsDto actual;
+        try {
+            actual = httpJsonRequestFactory.fromUrl(href)
+                                           .useGetMethod()
+                                           .request()
+                                           .asDto(WorkspaceProjectsDto.class);
+        } catch (IOException | ApiException e) {
+            throw new ServerException(e.getMessage());
+        }
+        projects = actual;
+        return actual;
+    }
+
+    /**
+     * Applies the diff on WS-master side.
+     *
+     * @return projects of the workspace after the diff is applied
+     * @throws ProjectsConflictException
+     *         when the projects were modified on WS-master side since the revision of the diff
+     * @throws ServerException
+     */
+    private WorkspaceProjectsDto postDiff(ProjectsDiffDto diff) throws ServerException {
 
         final UriBuilder builder = UriBuilder.fromUri(apiEndpoint).path(WorkspaceService.class)
-                                             .path(WorkspaceService.class, "getByKey");
+                                             .path(WorkspaceService.class, "syncProjects");
         if(userToken != null)
             builder.queryParam("token", userToken);
         final String href = builder.build(workspaceId).toString();
         try {
-            return httpJsonRequestFactory.fromUrl(href).useGetMethod().request().asDto(WorkspaceDto.class);
+            return httpJsonRequestFactory.fromUrl(href)
+                                         .usePostMethod()
+                                         .setBody(diff)
+                                         .request()
+                                         .asDto(WorkspaceProjectsDto.class);
+        } catch (ConflictException e) {
+            throw new ProjectsConflictException(e.getMessage());
         } catch (IOException | ApiException e) {
-            throw new ServerException(e);
+            throw new ServerException(e.getMessage());
         }
     }
 
+    /** Thrown when WS-master rejects the diff because its revision is stale. */
+    private static class ProjectsConflictException extends ServerException {
+        ProjectsConflictException(String message) {
+            super(message);
+        }
+    }
 }
@@ -39,11 +39,9 @@ public abstract class WorkspaceProjectsSyncer {
                 removed.add(r);
         }
 
-        for(ProjectConfig r : removed)
-            removeProject(r);
-
-
         // update or add
+        List<RegisteredProject> changed = new ArrayList<>();
+        List<ProjectConfig> updated = new ArrayList<>();
         for(RegisteredProject project : projectRegistry.getProjects()) {
 
             if(!project.isSynced() && !project.isDetected()) {
@@ -56,25 +54,62 @@ public abstract class WorkspaceProjectsSyncer {
                                                                       project.getPersistableAttributes(),
                                                                       null,
                                                                       project.getSource());
+                changed.add(project);
+                updated.add(config);
+            }
+        }
 
-                boolean found = false;
-                for(ProjectConfig r  : remote) {
-                    if(r.getPath().equals(project.getPath())) {
-                        updateProject(config);
-                        found = true;
-                    }
-                }
+        if(removed.isEmpty() && updated.isEmpty())
+            return;
 
-                if(!found)
-                    addProject(config);
+        syncProjects(remote, updated, removed);
 
-                project.setSync();
+        for(RegisteredProject project : changed)
+            project.setSync();
 
-            }
+    }
 
+    /**
+     * Requests synchronization of Project Config state on Agent and Master.
+     * Implementations may postpone the synchronization and coalesce several requests into one,
+     * by default synchronizes immediately.
+     *
+     * @param projectRegistry project registry
+     * @throws ServerException
+     * @see #sync(ProjectRegistry)
+     */
+    public void scheduleSync(ProjectRegistry projectRegistry) throws ServerException {
+        sync(projectRegistry);
+    }
 
-        }
+    /**
+     * Applies changes to Workspace Config. By default changes are applied project by project,
+     * implementations may override it to apply all the changes at once.
+     *
+     * @param remote projects from Workspace Config the changes were computed against
+     * @param updated projects to add or update
+     * @param removed projects to remove
+     * @throws ServerException
+     */
+    protected void syncProjects(List<? extends ProjectConfig> remote,
+                                List<ProjectConfig> updated,
+                                List<ProjectConfig> removed) throws ServerException {
+
+        for(ProjectConfig r : removed)
+            removeProject(r);
+
+        for(ProjectConfig config : updated) {
+            boolean found = false;
+            for(ProjectConfig r  : remote) {
+                if(r.getPath().equals(config.getPath())) {
+                    updateProject(config);
+                    found = true;
+                }
+            }
 
+            if(!found)
+                addProject(config);
+        }
     }
 
     /**
@@ -18,6 +18,7 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.commons.lang.Pair;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -504,6 +505,20 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     InputStream zip() throws ForbiddenException, ServerException;
 
+    /**
+     * Writes content of folder denoted by this VirtualFile as zip archive to the specified output.
+     * Unlike {@link #zip()} archive is not saved to temporary file but written to the output as it is created.
+     * The output is not closed.
+     *
+     * @param output
+     *         output for zipped content of folder denoted by this VirtualFile
+     * @throws ForbiddenException
+     *         if this item does not denote a folder
+     * @throws ServerException
+     *         if other error occurs
+     */
+    void zip(OutputStream output) throws ForbiddenException, ServerException;
+
     /**
      * Extracts zip archive to the folder denoted by this VirtualFile.
      *
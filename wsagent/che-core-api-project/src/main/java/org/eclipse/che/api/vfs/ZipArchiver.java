@@ -10,22 +10,77 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
-import org.eclipse.che.api.vfs.util.ZipContent;
+import org.eclipse.che.api.vfs.util.ZipBombGuardInputStream;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
+/**
+ * Zip archiver which streams archive to the output as it is created.
+ *
+ * <p>Files are compressed in parallel, each compressing thread uses its own {@link Deflater},
+ * while entries are written to the archive in the order of visiting. Only a limited number
+ * of compressed entries is kept in memory waiting to be written. Files bigger than
+ * {@link #PARALLEL_COMPRESSION_MAX_FILE_SIZE} are compressed in the writing thread
+ * so they are never loaded into memory. Files of already compressed formats are stored without compression.
+ */
 public class ZipArchiver extends Archiver {
+    private static final Logger LOG = LoggerFactory.getLogger(ZipArchiver.class);
+
+    /** Files bigger than this size are compressed in the thread which writes archive. */
+    static final long PARALLEL_COMPRESSION_MAX_FILE_SIZE = 1024 * 1024;
+
+    /** Extensions of the files which content is already compressed. */
+    private static final Set<String> COMPRESSED_EXTENSIONS = ImmutableSet.of("zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z",
+                                                                             "rar", "png", "jpg", "jpeg", "gif", "ico", "mp3", "mp4",
+                                                                             "avi", "woff", "woff2");
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    /** Maximum number of entries which are compressed or wait to be written. */
+    private static final int MAX_PENDING = PARALLELISM * 2;
+
+    private static final ExecutorService       COMPRESSOR = Executors.newFixedThreadPool(PARALLELISM,
+                                                                                         new ThreadFactoryBuilder()
+                                                                                                 .setNameFormat("ZipArchiver-%d")
+                                                                                                 .setUncaughtExceptionHandler(
+                                                                                                         LoggingUncaughtExceptionHandler
+                                                                                                                 .getInstance())
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+    private static final ThreadLocal<Deflater> DEFLATER   = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION,
+                                                                                                       true));
+
     public ZipArchiver(VirtualFile folder) {
         super(folder);
     }
@@ -37,13 +92,17 @@ public class ZipArchiver extends Archiver {
 
     @Override
     public void compress(OutputStream zipOutput, VirtualFileFilter filter) throws IOException, ServerException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipOutput)) {
+        final Deque<Future<ZipEntryWriter>> pending = new ArrayDeque<>();
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipOutput)) {
             folder.accept(new VirtualFileVisitor() {
                 @Override
                 public void visit(VirtualFile visitedVirtualFile) throws ServerException {
                     if (filter.accept(visitedVirtualFile)) {
                         if (!visitedVirtualFile.equals(folder)) {
-                            addZipEntry(visitedVirtualFile, zipOutputStream);
+                            pending.add(prepareZipEntry(visitedVirtualFile));
+                            if (pending.size() > MAX_PENDING) {
+                                writeZipEntry(pending.poll(), zipOutputStream);
+                            }
                         }
                         if (visitedVirtualFile.isFolder()) {
                             for (VirtualFile child : visitedVirtualFile.getChildren()) {
@@ -53,6 +112,11 @@ public class ZipArchiver extends Archiver {
                     }
                 }
             });
+            while (!pending.isEmpty()) {
+                writeZipEntry(pending.poll(), zipOutputStream);
+            }
+        } finally {
+            pending.forEach(entry -> entry.cancel(true));
         }
     }
 
@@ -64,19 +128,82 @@ public class ZipArchiver extends Archiver {
         return zipPath.toString();
     }
 
-    private void addZipEntry(VirtualFile virtualFile, ZipOutputStream zipOutputStream) throws ServerException {
-        try {
-            ZipEntry zipEntry = new ZipEntry(getZipEntryName(virtualFile));
-            zipOutputStream.putNextEntry(zipEntry);
-            if (virtualFile.isFolder()) {
-                zipEntry.setTime(0);
-            } else {
+    private Future<ZipEntryWriter> prepareZipEntry(VirtualFile virtualFile) throws ServerException {
+        final ZipArchiveEntry zipEntry = new ZipArchiveEntry(getZipEntryName(virtualFile));
+        if (virtualFile.isFolder()) {
+            zipEntry.setTime(0);
+            return Futures.immediateFuture(zipOutputStream -> {
+                zipOutputStream.putArchiveEntry(zipEntry);
+                zipOutputStream.closeArchiveEntry();
+            });
+        }
+        zipEntry.setTime(virtualFile.getLastModificationDate());
+        final boolean compressed = isCompressed(virtualFile);
+        if (virtualFile.getLength() > PARALLEL_COMPRESSION_MAX_FILE_SIZE) {
+            return Futures.immediateFuture(zipOutputStream -> {
+                zipEntry.setMethod(ZipEntry.DEFLATED);
+                zipOutputStream.setLevel(compressed ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
                 try (InputStream content = virtualFile.getContent()) {
+                    zipOutputStream.putArchiveEntry(zipEntry);
                     ByteStreams.copy(content, zipOutputStream);
+                    zipOutputStream.closeArchiveEntry();
+                } finally {
+                    zipOutputStream.setLevel(Deflater.DEFAULT_COMPRESSION);
                 }
-                zipEntry.setTime(virtualFile.getLastModificationDate());
+            });
+        }
+        return COMPRESSOR.submit(() -> {
+            final byte[] content;
+            try (InputStream in = virtualFile.getContent()) {
+                content = ByteStreams.toByteArray(in);
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            zipEntry.setCrc(crc.getValue());
+            zipEntry.setSize(content.length);
+            final byte[] raw;
+            if (compressed) {
+                zipEntry.setMethod(ZipEntry.STORED);
+                raw = content;
+            } else {
+                zipEntry.setMethod(ZipEntry.DEFLATED);
+                raw = deflate(content);
+            }
+            zipEntry.setCompressedSize(raw.length);
+            return zipOutputStream -> zipOutputStream.addRawArchiveEntry(zipEntry, new ByteArrayInputStream(raw));
+        });
+    }
+
+    private static byte[] deflate(byte[] content) throws IOException {
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        final ByteArrayOutputStream deflated = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(deflated, deflater)) {
+            deflaterOutput.write(content);
+        }
+        return deflated.toByteArray();
+    }
+
+    private static boolean isCompressed(VirtualFile virtualFile) {
+        final String name = virtualFile.getName();
+        final int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+    }
+
+    private void writeZipEntry(Future<ZipEntryWriter> entry, ZipArchiveOutputStream zipOutputStream) throws ServerException {
+        try {
+            entry.get().write(zipOutputStream);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while creating zip archive");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            } else if (cause instanceof ForbiddenException) {
+                throw new ServerException(((ForbiddenException)cause).getServiceError());
             }
-            zipOutputStream.closeEntry();
+            throw new ServerException(cause.getMessage(), cause);
         } catch (ForbiddenException e) {
             throw new ServerException(e.getServiceError());
         } catch (IOException e) {
@@ -84,14 +211,43 @@ public class ZipArchiver extends Archiver {
         }
     }
 
+    /** Writes prepared entry into archive, always called in the thread which writes archive. */
+    private interface ZipEntryWriter {
+        void write(ZipArchiveOutputStream zipOutputStream) throws IOException, ServerException, ForbiddenException;
+    }
+
+    /**
+     * Extracts archive to the temporary sibling of the folder and moves extracted items to the folder
+     * only when the whole archive is extracted, so a broken archive or zip bomb leaves the folder untouched.
+     * Conflicting and locked files are detected while extracting, before anything is moved.
+     */
     @Override
     public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
-        try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
-            InputStream notClosableInputStream = new NotClosableInputStream(zip);
+        final VirtualFile extractParent = folder.isRoot() ? folder : folder.getParent();
+        final VirtualFile tmpFolder = extractParent.createFolder(NameGenerator.generate(".extract-", 8));
+        try {
+            extractTo(tmpFolder, zipInput, overwrite, stripNumber);
+            moveChildren(tmpFolder, folder, overwrite);
+        } finally {
+            try {
+                tmpFolder.delete();
+            } catch (ForbiddenException | ServerException e) {
+                LOG.warn("Unable to delete temporary folder {} of extracted archive", tmpFolder.getPath());
+            }
+        }
+    }
+
+    private void extractTo(VirtualFile tmpFolder, InputStream zipInput, boolean overwrite, int stripNumber)
+            throws IOException, ForbiddenException, ConflictException, ServerException {
+        // archive is extracted as it is read, compression ratio is checked on the way instead of spooling archive
+        // to check it before extracting
+        final CountingInputStream compressedInput = new CountingInputStream(zipInput);
+        try (ZipInputStream zip = new ZipInputStream(compressedInput)) {
+            InputStream notClosableInputStream = new NotClosableInputStream(new ZipBombGuardInputStream(zip, compressedInput::getCount));
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
-                VirtualFile extractFolder = folder;
+                VirtualFile extractFolder = tmpFolder;
 
                 Path relativePath = Path.of(zipEntry.getName());
 
@@ -109,6 +265,16 @@ public class ZipArchiver extends Archiver {
                     continue;
                 }
 
+                VirtualFile existing = folder.getChild(relativePath);
+                if (existing != null) {
+                    if (!overwrite) {
+                        throw new ConflictException(String.format("File '%s' already exists", existing.getPath()));
+                    }
+                    if (existing.isFile() && existing.isLocked()) {
+                        throw new ForbiddenException(String.format("Unable update content of file '%s'. File is locked", existing.getPath()));
+                    }
+                }
+
                 if (relativePath.length() > 1) {
                     Path neededParentPath = relativePath.getParent();
                     VirtualFile neededParent = extractFolder.getChild(neededParentPath);
@@ -123,14 +289,23 @@ public class ZipArchiver extends Archiver {
                 if (file == null) {
                     extractFolder.createFile(fileName, notClosableInputStream);
                 } else {
-                    if (overwrite) {
-                        file.updateContent(notClosableInputStream);
-                    } else {
-                        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-                    }
+                    file.updateContent(notClosableInputStream);
                 }
                 zip.closeEntry();
             }
         }
     }
+
+    /** Moves extracted items to the target folder merging them with the existing folders. */
+    private static void moveChildren(VirtualFile source, VirtualFile target, boolean overwrite)
+            throws ForbiddenException, ConflictException, ServerException {
+        for (VirtualFile child : source.getChildren()) {
+            VirtualFile existing = target.getChild(Path.of(child.getName()));
+            if (existing != null && existing.isFolder() && child.isFolder()) {
+                moveChildren(child, existing, overwrite);
+            } else {
+                child.moveTo(target, null, overwrite, null);
+            }
+        }
+    }
 }
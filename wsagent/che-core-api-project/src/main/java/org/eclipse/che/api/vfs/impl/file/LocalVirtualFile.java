@@ -25,6 +25,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -246,6 +247,11 @@ public class LocalVirtualFile implements VirtualFile {
         return fileSystem.zip(this);
     }
 
+    @Override
+    public void zip(OutputStream output) throws ForbiddenException, ServerException {
+        fileSystem.zip(this, output);
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
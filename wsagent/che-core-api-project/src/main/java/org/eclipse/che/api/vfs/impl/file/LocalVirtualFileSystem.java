@@ -18,6 +18,7 @@ import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
@@ -52,6 +53,7 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -608,6 +610,22 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
+    void zip(LocalVirtualFile folder, OutputStream output) throws ForbiddenException, ServerException {
+        if(archiverFactory == null)
+            throw new ServerException("VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
+
+        if (folder.isFolder()) {
+            try {
+                archiverFactory.createArchiver(folder, "zip").compress(new CloseShieldOutputStream(output), dotGitFilter());
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        } else {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder", folder.getPath()));
+        }
+    }
+
+
     void unzip(LocalVirtualFile parent, InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
         if(archiverFactory == null)
@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs.impl.memory;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
@@ -34,6 +35,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -588,6 +590,21 @@ public class MemoryVirtualFile implements VirtualFile {
         }
     }
 
+    @Override
+    public void zip(OutputStream output) throws ForbiddenException, ServerException {
+        checkExistence();
+
+        if (isFolder()) {
+            try {
+                fileSystem.getArchiverFactory().createArchiver(this, "zip").compress(new CloseShieldOutputStream(output));
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        } else {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder", getPath()));
+        }
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ServerException, ConflictException {
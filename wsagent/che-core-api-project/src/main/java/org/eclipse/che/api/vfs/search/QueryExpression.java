@@ -12,11 +12,14 @@ package org.eclipse.che.api.vfs.search;
 
 /** Container for parameters of query that executed by Searcher.*/
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    private String  name;
+    private String  path;
+    private String  text;
+    private int     skipCount;
+    private int     maxItems;
+    private String  continuationToken;
+    private boolean includeOccurrences;
+    private boolean regex;
 
     /** Optional file path parameter. Only file with the specified path or children are included in result. */
     public String getPath() {
@@ -68,6 +71,39 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Token returned with the previous page of search result. If it is set then search continues right after the last item
+     * of the previous page and {@link #getSkipCount()} is ignored.
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public QueryExpression setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+        return this;
+    }
+
+    /** Whether places in file content where text is found should be included in the result. */
+    public boolean isIncludeOccurrences() {
+        return includeOccurrences;
+    }
+
+    public QueryExpression setIncludeOccurrences(boolean includeOccurrences) {
+        this.includeOccurrences = includeOccurrences;
+        return this;
+    }
+
+    /** Whether text is a regular expression, only searchers which support regular expressions accept such queries. */
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public QueryExpression setRegex(boolean regex) {
+        this.regex = regex;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
@@ -76,6 +112,9 @@ public class QueryExpression {
                ", path='" + path + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", continuationToken='" + continuationToken + '\'' +
+               ", includeOccurrences=" + includeOccurrences +
+               ", regex=" + regex +
                '}';
     }
 }
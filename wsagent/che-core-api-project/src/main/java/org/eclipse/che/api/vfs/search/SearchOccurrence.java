@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+/** Place in file content where searched text is found. */
+public class SearchOccurrence {
+    private final String phrase;
+    private final int    lineNumber;
+    private final int    startOffset;
+    private final int    endOffset;
+
+    public SearchOccurrence(String phrase, int lineNumber, int startOffset, int endOffset) {
+        this.phrase = phrase;
+        this.lineNumber = lineNumber;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /** Matched phrase as it is stored in the index, e.g. in lower case. */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /** Number of line which contains the phrase, starting from 1. */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** Offset of the first character of the phrase from the beginning of the file content. */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /** Offset of the character next to the last character of the phrase from the beginning of the file content. */
+    public int getEndOffset() {
+        return endOffset;
+    }
+}
@@ -29,15 +29,18 @@ public class SearchResult {
     private final Optional<QueryExpression> nextPageQueryExpression;
     private final int                       totalHits;
     private final long                      elapsedTimeMillis;
+    private final String                    continuationToken;
 
     private SearchResult(List<SearchResultEntry> results,
                          Optional<QueryExpression> nextPageQueryExpression,
                          int totalHits,
-                         long elapsedTimeMillis) {
+                         long elapsedTimeMillis,
+                         String continuationToken) {
         this.results = results;
         this.nextPageQueryExpression = nextPageQueryExpression;
         this.totalHits = totalHits;
         this.elapsedTimeMillis = elapsedTimeMillis;
+        this.continuationToken = continuationToken;
     }
 
     /** Paths of files that match the search criteria. This method is shortcut for:
@@ -75,11 +78,20 @@ public class SearchResult {
         return nextPageQueryExpression;
     }
 
+    /**
+     * Token to continue search right after the last item of this result, see {@link QueryExpression#setContinuationToken(String)}.
+     * Is {@code null} if there are no more items.
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
     public static class SearchResultBuilder {
         private QueryExpression         nextPageQueryExpression;
         private List<SearchResultEntry> results;
         private int                     totalHits;
         private long                    elapsedTimeMillis;
+        private String                  continuationToken;
 
         private SearchResultBuilder() {
         }
@@ -104,6 +116,11 @@ public class SearchResult {
             return this;
         }
 
+        public SearchResultBuilder withContinuationToken(String continuationToken) {
+            this.continuationToken = continuationToken;
+            return this;
+        }
+
         public SearchResult build() {
             Optional<QueryExpression> optionalPageNexQueryExpression;
             if (nextPageQueryExpression == null) {
@@ -114,7 +131,7 @@ public class SearchResult {
             if (results == null) {
                 results = emptyList();
             }
-            return new SearchResult(results, optionalPageNexQueryExpression, totalHits, elapsedTimeMillis);
+            return new SearchResult(results, optionalPageNexQueryExpression, totalHits, elapsedTimeMillis, continuationToken);
         }
     }
 }
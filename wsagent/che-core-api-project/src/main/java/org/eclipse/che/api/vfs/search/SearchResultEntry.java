@@ -10,18 +10,36 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search;
 
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
 /**
  * Single item in {@code SearchResult}.
  */
 public class SearchResultEntry {
-    private final String filePath;
+    private final String                 filePath;
+    private final List<SearchOccurrence> occurrences;
 
     public SearchResultEntry(String filePath) {
+        this(filePath, emptyList());
+    }
+
+    public SearchResultEntry(String filePath, List<SearchOccurrence> occurrences) {
         this.filePath = filePath;
+        this.occurrences = occurrences;
     }
 
     /** Path of file that matches the search criteria. */
     public String getFilePath() {
         return filePath;
     }
+
+    /**
+     * Places in the file content where searched text is found ordered by offset. The list is empty unless
+     * occurrences are requested with {@link QueryExpression#setIncludeOccurrences(boolean)}.
+     */
+    public List<SearchOccurrence> getOccurrences() {
+        return occurrences;
+    }
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search;
 
+import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
@@ -21,10 +22,12 @@ public interface Searcher {
      * @param query
      *         query expression
      * @return results of search
+     * @throws BadRequestException
+     *         if the query is malformed, e.g. its continuation token is not valid
      * @throws ServerException
      *         if an error occurs
      */
-    SearchResult search(QueryExpression query) throws ServerException;
+    SearchResult search(QueryExpression query) throws BadRequestException, ServerException;
 
     /**
      * Add VirtualFile to index.
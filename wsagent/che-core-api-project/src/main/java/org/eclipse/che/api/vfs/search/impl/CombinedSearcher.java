@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchResult;
+import org.eclipse.che.api.vfs.search.Searcher;
+
+/**
+ * Keeps full text and regex indexes of the same virtual filesystem up to date, queries with
+ * {@link QueryExpression#isRegex()} are served by the regex searcher, other ones by the full text searcher.
+ */
+class CombinedSearcher implements Searcher {
+    private final Searcher fullTextSearcher;
+    private final Searcher regexSearcher;
+
+    CombinedSearcher(Searcher fullTextSearcher, Searcher regexSearcher) {
+        this.fullTextSearcher = fullTextSearcher;
+        this.regexSearcher = regexSearcher;
+    }
+
+    Searcher getFullTextSearcher() {
+        return fullTextSearcher;
+    }
+
+    Searcher getRegexSearcher() {
+        return regexSearcher;
+    }
+
+    @Override
+    public SearchResult search(QueryExpression query) throws BadRequestException, ServerException {
+        return query.isRegex() ? regexSearcher.search(query) : fullTextSearcher.search(query);
+    }
+
+    @Override
+    public void add(VirtualFile virtualFile) throws ServerException {
+        fullTextSearcher.add(virtualFile);
+        regexSearcher.add(virtualFile);
+    }
+
+    @Override
+    public void delete(String path, boolean isFile) throws ServerException {
+        fullTextSearcher.delete(path, isFile);
+        regexSearcher.delete(path, isFile);
+    }
+
+    @Override
+    public void update(VirtualFile virtualFile) throws ServerException {
+        fullTextSearcher.update(virtualFile);
+        regexSearcher.update(virtualFile);
+    }
+
+    @Override
+    public void close() {
+        fullTextSearcher.close();
+        regexSearcher.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return fullTextSearcher.isClosed() && regexSearcher.isClosed();
+    }
+
+    @Override
+    public boolean addIndexFilter(VirtualFileFilter indexFilter) {
+        final boolean added = fullTextSearcher.addIndexFilter(indexFilter);
+        return regexSearcher.addIndexFilter(indexFilter) || added;
+    }
+
+    @Override
+    public boolean removeIndexFilter(VirtualFileFilter indexFilter) {
+        final boolean removed = fullTextSearcher.removeIndexFilter(indexFilter);
+        return regexSearcher.removeIndexFilter(indexFilter) || removed;
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Provides full text searcher and, if search by regular expressions is enabled with
+ * {@code vfs.search.regex_enabled} property, maintains regex searcher side by side with it.
+ * Queries are routed to one of them by {@link org.eclipse.che.api.vfs.search.QueryExpression#isRegex()},
+ * when regex search is disabled the full text searcher is returned as is and rejects regex queries.
+ *
+ * @see CombinedSearcher
+ */
+@Singleton
+public class CombinedSearcherProvider implements SearcherProvider {
+    private final SearcherProvider fullTextSearcherProvider;
+    private final SearcherProvider regexSearcherProvider;
+    private final boolean          regexEnabled;
+
+    @Inject
+    public CombinedSearcherProvider(@Named("vfs.full_text_searcher_provider") SearcherProvider fullTextSearcherProvider,
+                                    @Named("vfs.regex_searcher_provider") SearcherProvider regexSearcherProvider,
+                                    @Named("vfs.search.regex_enabled") boolean regexEnabled) {
+        this.fullTextSearcherProvider = fullTextSearcherProvider;
+        this.regexSearcherProvider = regexSearcherProvider;
+        this.regexEnabled = regexEnabled;
+    }
+
+    @Override
+    public Searcher getSearcher(VirtualFileSystem virtualFileSystem, boolean create) throws ServerException {
+        final Searcher fullTextSearcher = fullTextSearcherProvider.getSearcher(virtualFileSystem, create);
+        if (!regexEnabled || fullTextSearcher == null) {
+            return fullTextSearcher;
+        }
+        final Searcher regexSearcher = regexSearcherProvider.getSearcher(virtualFileSystem, create);
+        if (regexSearcher == null) {
+            return fullTextSearcher;
+        }
+        return new CombinedSearcher(fullTextSearcher, regexSearcher);
+    }
+
+    @Override
+    public Searcher getSearcher(VirtualFileSystem virtualFileSystem) throws ServerException {
+        return getSearcher(virtualFileSystem, true);
+    }
+
+    @Override
+    public void close() throws ServerException {
+        try {
+            fullTextSearcherProvider.close();
+        } finally {
+            if (regexEnabled) {
+                regexSearcherProvider.close();
+            }
+        }
+    }
+}
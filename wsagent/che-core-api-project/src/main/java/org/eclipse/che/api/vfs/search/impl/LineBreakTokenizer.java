@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+
+import java.io.IOException;
+
+/**
+ * Splits text on whitespaces like {@link org.apache.lucene.analysis.core.WhitespaceTokenizer} and in addition
+ * emits {@link #LINE_BREAK} token for every line break. Offsets of line break tokens let find number of line of
+ * any other token from term vectors only, without reading the content again. Line break tokens don't take own
+ * positions, so phrase queries match across lines the same way as without them. Line break token can't be
+ * searched with a query since query parser splits query text on whitespaces.
+ */
+final class LineBreakTokenizer extends Tokenizer {
+    static final String LINE_BREAK = "\n";
+
+    private static final int MAX_TOKEN_LENGTH = 255;
+
+    private final CharTermAttribute          termAttribute     = addAttribute(CharTermAttribute.class);
+    private final OffsetAttribute            offsetAttribute   = addAttribute(OffsetAttribute.class);
+    private final PositionIncrementAttribute positionAttribute = addAttribute(PositionIncrementAttribute.class);
+
+    private final char[] buffer = new char[4096];
+
+    /** Offset of the first character in buffer from the beginning of the input. */
+    private int     bufferOffset;
+    private int     bufferLength;
+    private int     bufferIndex;
+    private boolean hasTokens;
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        int start = -1;
+        int length = 0;
+        while (true) {
+            if (bufferIndex == bufferLength) {
+                bufferOffset += bufferLength;
+                bufferIndex = 0;
+                bufferLength = Math.max(0, input.read(buffer));
+                if (bufferLength == 0) {
+                    if (length > 0) {
+                        break;
+                    }
+                    return false;
+                }
+            }
+            final char c = buffer[bufferIndex];
+            if (Character.isWhitespace(c)) {
+                if (length > 0) {
+                    // whitespace is read again with the next call, so a line break following a word is not lost
+                    break;
+                }
+                bufferIndex++;
+                if (c == '\n') {
+                    final int offset = bufferOffset + bufferIndex - 1;
+                    termAttribute.append(c);
+                    offsetAttribute.setOffset(correctOffset(offset), correctOffset(offset + 1));
+                    positionAttribute.setPositionIncrement(hasTokens ? 0 : 1);
+                    hasTokens = true;
+                    return true;
+                }
+            } else {
+                if (length == 0) {
+                    start = bufferOffset + bufferIndex;
+                }
+                termAttribute.append(c);
+                bufferIndex++;
+                if (++length == MAX_TOKEN_LENGTH) {
+                    break;
+                }
+            }
+        }
+        offsetAttribute.setOffset(correctOffset(start), correctOffset(start + length));
+        hasTokens = true;
+        return true;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(bufferOffset + bufferLength);
+        offsetAttribute.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        bufferOffset = 0;
+        bufferLength = 0;
+        bufferIndex = 0;
+        hasTokens = false;
+    }
+}
@@ -17,24 +17,40 @@ import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
+import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.VirtualFile;
@@ -43,6 +59,7 @@ import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
@@ -53,12 +70,19 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptyList;
+import static org.eclipse.che.api.vfs.search.impl.LineBreakTokenizer.LINE_BREAK;
 
 /**
  * Lucene based searcher.
@@ -72,6 +96,26 @@ public abstract class LuceneSearcher implements Searcher {
     private static final String NAME_FIELD   = "name";
     private static final String TEXT_FIELD   = "text";
 
+    /**
+     * Path with doc values, ties in relevance are broken by path, so the order of documents
+     * doesn't depend on document ids which change when the index is refreshed or merged.
+     */
+    private static final String PATH_SORT_FIELD = "pathSort";
+    private static final Sort   RELEVANCE_ORDER = new Sort(SortField.FIELD_SCORE, new SortField(PATH_SORT_FIELD, SortField.Type.STRING));
+
+    /** Maximal number of occurrences of searched text returned for a single file. */
+    private static final int MAX_OCCURRENCES = 100;
+
+    /** Content is indexed with term vectors, so places of matched terms can be found without reading files. */
+    private static final FieldType TEXT_FIELD_TYPE = new FieldType(TextField.TYPE_NOT_STORED);
+
+    static {
+        TEXT_FIELD_TYPE.setStoreTermVectors(true);
+        TEXT_FIELD_TYPE.setStoreTermVectorPositions(true);
+        TEXT_FIELD_TYPE.setStoreTermVectorOffsets(true);
+        TEXT_FIELD_TYPE.freeze();
+    }
+
     private final List<VirtualFileFilter>                      excludeFileIndexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
 
@@ -113,7 +157,7 @@ public abstract class LuceneSearcher implements Searcher {
         return new Analyzer() {
             @Override
             protected TokenStreamComponents createComponents(String fieldName) {
-                Tokenizer tokenizer = new WhitespaceTokenizer();
+                Tokenizer tokenizer = TEXT_FIELD.equals(fieldName) ? new LineBreakTokenizer() : new WhitespaceTokenizer();
                 TokenStream filter = new LowerCaseFilter(tokenizer);
                 return new TokenStreamComponents(tokenizer, filter);
             }
@@ -186,38 +230,60 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     @Override
-    public SearchResult search(QueryExpression query) throws ServerException {
+    public SearchResult search(QueryExpression query) throws BadRequestException, ServerException {
+        if (query.isRegex()) {
+            throw new BadRequestException("Search by regular expression is not enabled");
+        }
         IndexSearcher luceneSearcher = null;
         try {
             final long startTime = System.currentTimeMillis();
             searcherManager.maybeRefresh();
             luceneSearcher = searcherManager.acquire();
 
-            Query luceneQuery = createLuceneQuery(query);
+            final Query textQuery = query.getText() == null ? null : createTextQuery(query.getText());
+            Query luceneQuery = createLuceneQuery(query, textQuery);
 
-            ScoreDoc after = null;
-            final int numSkipDocs = Math.max(0, query.getSkipCount());
-            if (numSkipDocs > 0) {
+            FieldDoc after = null;
+            final int numSkipDocs = query.getContinuationToken() == null ? Math.max(0, query.getSkipCount()) : 0;
+            if (query.getContinuationToken() != null) {
+                after = decodeFieldDoc(luceneSearcher, luceneQuery, query.getContinuationToken());
+            } else if (numSkipDocs > 0) {
                 after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
             }
 
             final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
-            TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
+            // one more document shows whether there is the next page
+            TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs + 1, RELEVANCE_ORDER);
             final int totalHitsNum = topDocs.totalHits;
+            final int numPageDocs = Math.min(numDocs, topDocs.scoreDocs.length);
+
+            final List<Predicate<String>> termMatchers = new ArrayList<>();
+            if (query.isIncludeOccurrences() && textQuery != null) {
+                collectTermMatchers(textQuery, termMatchers);
+            }
 
             List<SearchResultEntry> results = newArrayList();
-            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+            String lastFilePath = null;
+            for (int i = 0; i < numPageDocs; i++) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[i];
                 String filePath = luceneSearcher.doc(scoreDoc.doc).getField(PATH_FIELD).stringValue();
-                results.add(new SearchResultEntry(filePath));
+                lastFilePath = filePath;
+                if (termMatchers.isEmpty()) {
+                    results.add(new SearchResultEntry(filePath));
+                } else {
+                    results.add(new SearchResultEntry(filePath, findOccurrences(luceneSearcher, scoreDoc.doc, termMatchers)));
+                }
             }
+            final String continuationToken = topDocs.scoreDocs.length > numDocs
+                                             ? encodeFieldDoc((FieldDoc)topDocs.scoreDocs[numPageDocs - 1], lastFilePath)
+                                             : null;
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
 
-            boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
+            boolean hasMoreToRetrieve = numSkipDocs + numPageDocs + 1 < totalHitsNum;
             QueryExpression nextPageQueryExpression = null;
             if (hasMoreToRetrieve) {
-                nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length);
+                nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + numPageDocs);
             }
 
             return SearchResult.aSearchResult()
@@ -225,6 +291,7 @@ public abstract class LuceneSearcher implements Searcher {
                                .withTotalHits(totalHitsNum)
                                .withNextPageQueryExpression(nextPageQueryExpression)
                                .withElapsedTimeMillis(elapsedTimeMillis)
+                               .withContinuationToken(continuationToken)
                                .build();
         } catch (IOException | ParseException e) {
             throw new ServerException(e.getMessage(), e);
@@ -237,11 +304,16 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
-    private Query createLuceneQuery(QueryExpression query) throws ParseException {
+    private Query createTextQuery(String text) throws ParseException {
+        QueryParser qParser = new QueryParser(TEXT_FIELD, makeAnalyzer());
+        qParser.setAllowLeadingWildcard(true);
+        return qParser.parse(text);
+    }
+
+    private Query createLuceneQuery(QueryExpression query, Query textQuery) throws ParseException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
         final String path = query.getPath();
-        final String text = query.getText();
         if (path != null) {
             luceneQuery.add(new PrefixQuery(new Term(PATH_FIELD, path)), BooleanClause.Occur.MUST);
         }
@@ -250,30 +322,195 @@ public abstract class LuceneSearcher implements Searcher {
             qParser.setAllowLeadingWildcard(true);
             luceneQuery.add(qParser.parse(name), BooleanClause.Occur.MUST);
         }
-        if (text != null) {
-            QueryParser qParser = new QueryParser(TEXT_FIELD, makeAnalyzer());
-            qParser.setAllowLeadingWildcard(true);
-            luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
+        if (textQuery != null) {
+            luceneQuery.add(textQuery, BooleanClause.Occur.MUST);
         }
         return luceneQuery;
     }
 
-    private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
+    /**
+     * Collects matchers of terms the text query looks for. Terms of prohibited clauses are skipped, fuzzy and
+     * regular expression queries are not supported, so no occurrences are found for them.
+     */
+    private static void collectTermMatchers(Query query, List<Predicate<String>> matchers) {
+        if (query instanceof BooleanQuery) {
+            for (BooleanClause clause : ((BooleanQuery)query).getClauses()) {
+                if (!clause.isProhibited()) {
+                    collectTermMatchers(clause.getQuery(), matchers);
+                }
+            }
+        } else if (query instanceof TermQuery) {
+            final String term = ((TermQuery)query).getTerm().text();
+            matchers.add(term::equals);
+        } else if (query instanceof PhraseQuery) {
+            for (Term term : ((PhraseQuery)query).getTerms()) {
+                final String text = term.text();
+                matchers.add(text::equals);
+            }
+        } else if (query instanceof PrefixQuery) {
+            final String prefix = ((PrefixQuery)query).getPrefix().text();
+            matchers.add(term -> term.startsWith(prefix));
+        } else if (query instanceof WildcardQuery) {
+            final Pattern pattern = wildcardToPattern(((WildcardQuery)query).getTerm().text());
+            matchers.add(term -> pattern.matcher(term).matches());
+        }
+    }
+
+    private static Pattern wildcardToPattern(String wildcard) {
+        final StringBuilder regex = new StringBuilder();
+        for (char c : wildcard.toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING) {
+                regex.append(".*");
+            } else if (c == WildcardQuery.WILDCARD_CHAR) {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Finds places of matched terms in the document content using its term vector, so the content itself
+     * is not read. Line numbers are counted from offsets of {@link LineBreakTokenizer#LINE_BREAK} terms.
+     */
+    private List<SearchOccurrence> findOccurrences(IndexSearcher luceneSearcher,
+                                                   int doc,
+                                                   List<Predicate<String>> termMatchers) throws IOException {
+        final Terms termVector = luceneSearcher.getIndexReader().getTermVector(doc, TEXT_FIELD);
+        if (termVector == null) {
+            // indexed before term vectors were stored or content is not indexed at all
+            return emptyList();
+        }
+
+        final List<Integer> lineBreaks = new ArrayList<>();
+        final List<int[]> matches = new ArrayList<>();
+        final List<String> phrases = new ArrayList<>();
+        final TermsEnum terms = termVector.iterator(null);
+        PostingsEnum postings = null;
+        BytesRef term;
+        while ((term = terms.next()) != null) {
+            final String text = term.utf8ToString();
+            final boolean lineBreak = LINE_BREAK.equals(text);
+            if (!lineBreak && termMatchers.stream().noneMatch(matcher -> matcher.test(text))) {
+                continue;
+            }
+            postings = terms.postings(null, postings, PostingsEnum.OFFSETS);
+            postings.nextDoc();
+            for (int i = 0, freq = postings.freq(); i < freq; i++) {
+                postings.nextPosition();
+                if (lineBreak) {
+                    lineBreaks.add(postings.startOffset());
+                } else {
+                    matches.add(new int[] {postings.startOffset(), postings.endOffset(), phrases.size()});
+                }
+            }
+            if (!lineBreak) {
+                phrases.add(text);
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(match -> match[0]));
+        final List<SearchOccurrence> occurrences = new ArrayList<>(Math.min(matches.size(), MAX_OCCURRENCES));
+        for (int[] match : matches.subList(0, Math.min(matches.size(), MAX_OCCURRENCES))) {
+            // number of line breaks before the match, line numbers start from 1
+            final int position = Collections.binarySearch(lineBreaks, match[0]);
+            final int lineNumber = (position < 0 ? -position - 1 : position) + 1;
+            occurrences.add(new SearchOccurrence(phrases.get(match[2]), lineNumber, match[0], match[1]));
+        }
+        return occurrences;
+    }
+
+    /** Token consists of relevance and path of the last returned document, unlike document id they are kept by merges of the index. */
+    private static String encodeFieldDoc(FieldDoc fieldDoc, String path) {
+        return fieldDoc.fields[0] + ":" + path;
+    }
+
+    /**
+     * Relevance of the last returned document changes when other documents are added or removed,
+     * so its current relevance is used if the document still matches the query. It is paging over
+     * the current state of the index, the documents whose order changed between the requests for
+     * pages may be returned twice or skipped.
+     */
+    private static FieldDoc decodeFieldDoc(IndexSearcher luceneSearcher, Query luceneQuery, String token) throws BadRequestException,
+                                                                                                                 IOException {
+        final int separator = token.indexOf(':');
+        if (separator < 0 || separator == token.length() - 1) {
+            throw new BadRequestException("Invalid continuation token " + token);
+        }
+        float score;
+        try {
+            score = Float.parseFloat(token.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid continuation token " + token);
+        }
+        if (Float.isNaN(score)) {
+            throw new BadRequestException("Invalid continuation token " + token);
+        }
+        final String path = token.substring(separator + 1);
+        final float currentScore = currentScore(luceneSearcher, luceneQuery, path);
+        if (!Float.isNaN(currentScore)) {
+            score = currentScore;
+        }
+        // paths are unique, so the last returned document is the only one equal to the token by the sort fields,
+        // the greatest document id skips it whatever its id is
+        final int lastDocId = Math.max(0, luceneSearcher.getIndexReader().maxDoc() - 1);
+        return new FieldDoc(lastDocId, score, new Object[] {score, new BytesRef(path)});
+    }
+
+    /** Returns relevance of the document with the given path or {@code NaN} if there is no such document or it doesn't match the query. */
+    private static float currentScore(IndexSearcher luceneSearcher, Query luceneQuery, String path) throws IOException {
+        final TopDocs pathDocs = luceneSearcher.search(new TermQuery(new Term(PATH_FIELD, path)), 1);
+        if (pathDocs.scoreDocs.length == 0) {
+            return Float.NaN;
+        }
+        final int docId = pathDocs.scoreDocs[0].doc;
+        final float[] score = {Float.NaN};
+        luceneSearcher.search(luceneQuery, new SimpleCollector() {
+            private Scorer scorer;
+            private int    docBase;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) {
+                docBase = context.docBase;
+            }
+
+            @Override
+            public void setScorer(Scorer scorer) {
+                this.scorer = scorer;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                if (docBase + doc == docId) {
+                    score[0] = scorer.score();
+                }
+            }
+
+            @Override
+            public boolean needsScores() {
+                return true;
+            }
+        });
+        return score[0];
+    }
+
+    private FieldDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
         final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
-        ScoreDoc scoreDoc = null;
+        FieldDoc scoreDoc = null;
         int retrievedDocs = 0;
         TopDocs topDocs;
         do {
-            topDocs = luceneSearcher.searchAfter(scoreDoc, luceneQuery, readFrameSize);
+            topDocs = luceneSearcher.searchAfter(scoreDoc, luceneQuery, readFrameSize, RELEVANCE_ORDER);
             if (topDocs.scoreDocs.length > 0) {
-                scoreDoc = topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+                scoreDoc = (FieldDoc)topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
             }
             retrievedDocs += topDocs.scoreDocs.length;
         } while (retrievedDocs < numSkipDocs && topDocs.scoreDocs.length > 0);
 
         if (retrievedDocs > numSkipDocs) {
             int lastScoreDocIndex = topDocs.scoreDocs.length - (retrievedDocs - numSkipDocs);
-            scoreDoc = topDocs.scoreDocs[lastScoreDocIndex];
+            scoreDoc = (FieldDoc)topDocs.scoreDocs[lastScoreDocIndex];
         }
 
         return scoreDoc;
@@ -381,9 +618,10 @@ public abstract class LuceneSearcher implements Searcher {
     protected Document createDocument(VirtualFile virtualFile, Reader reader) throws ServerException {
         final Document doc = new Document();
         doc.add(new StringField(PATH_FIELD, virtualFile.getPath().toString(), Field.Store.YES));
+        doc.add(new SortedDocValuesField(PATH_SORT_FIELD, new BytesRef(virtualFile.getPath().toString())));
         doc.add(new TextField(NAME_FIELD, virtualFile.getName(), Field.Store.YES));
         if (reader != null) {
-            doc.add(new TextField(TEXT_FIELD, reader));
+            doc.add(new Field(TEXT_FIELD, reader, TEXT_FIELD_TYPE));
         }
         return doc;
     }
@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts trigrams that any text matched by a regular expression must contain. Only literal runs which are
+ * mandatory in a branch of the top level alternation are taken into account, groups, character classes and
+ * optional characters break runs. Result is a superset filter: text which does not contain all trigrams of at
+ * least one branch can't match the expression, text which contains them still has to be verified.
+ */
+final class RegexTrigrams {
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z]*x");
+
+    /**
+     * Returns required trigrams for each branch of the top level alternation of {@code regex}, trigrams of one
+     * branch are sorted in ascending order. Returns {@code null} if at least one branch does not require any
+     * trigram, so index can't narrow down the set of candidates.
+     */
+    static List<long[]> requiredTrigrams(String regex) {
+        // whitespaces and '#' aren't literals in comments mode
+        if (COMMENTS_FLAG.matcher(regex).find()) {
+            return null;
+        }
+        final List<long[]> branches = new ArrayList<>();
+        for (String branch : splitAlternation(regex)) {
+            final long[] trigrams = trigrams(requiredLiterals(branch));
+            if (trigrams.length == 0) {
+                return null;
+            }
+            branches.add(trigrams);
+        }
+        return branches;
+    }
+
+    /**
+     * Trigram key, chars are lower-cased so index is case insensitive and serves case sensitive queries too. Packed
+     * chars are multiplied by an odd constant, it keeps keys unique and spreads bits of ASCII chars over the whole
+     * key, otherwise {@link Long#hashCode()} of keys collides a lot.
+     */
+    static long trigram(char c1, char c2, char c3) {
+        final long packed = ((long)Character.toLowerCase(c1) << 32) | ((long)Character.toLowerCase(c2) << 16) | Character.toLowerCase(c3);
+        return packed * 0x9E3779B97F4A7C15L;
+    }
+
+    private static long[] trigrams(List<String> literals) {
+        long[] trigrams = new long[0];
+        int size = 0;
+        for (String literal : literals) {
+            for (int i = 0; i + 2 < literal.length(); i++) {
+                if (size == trigrams.length) {
+                    trigrams = Arrays.copyOf(trigrams, Math.max(8, size * 2));
+                }
+                trigrams[size++] = trigram(literal.charAt(i), literal.charAt(i + 1), literal.charAt(i + 2));
+            }
+        }
+        return Arrays.copyOf(trigrams, sortUnique(trigrams, size));
+    }
+
+    /** Sorts first {@code size} values of array and packs unique ones to its head, returns number of unique values. */
+    private static int sortUnique(long[] values, int size) {
+        Arrays.sort(values, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || values[unique - 1] != values[i]) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    private static List<String> splitAlternation(String regex) {
+        final List<String> branches = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharClass(regex, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                branches.add(regex.substring(start, i));
+                start = i + 1;
+            }
+            i++;
+        }
+        branches.add(regex.substring(start));
+        return branches;
+    }
+
+    private static List<String> requiredLiterals(String branch) {
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder run = new StringBuilder();
+        // whether quantifier that follows applies to the last char of the current run
+        boolean lastAtomInRun = false;
+        int i = 0;
+        while (i < branch.length()) {
+            final char c = branch.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 >= branch.length()) {
+                        i++;
+                        break;
+                    }
+                    final char escaped = branch.charAt(i + 1);
+                    if (escaped == 'Q') {
+                        final int end = branch.indexOf("\\E", i + 2);
+                        final String quoted = end < 0 ? branch.substring(i + 2) : branch.substring(i + 2, end);
+                        run.append(quoted);
+                        lastAtomInRun = !quoted.isEmpty();
+                        i = end < 0 ? branch.length() : end + 2;
+                    } else if (Character.isLetterOrDigit(escaped)) {
+                        // character classes, boundaries, back references and escaped code points
+                        flush(run, literals);
+                        lastAtomInRun = false;
+                        i = skipEscape(branch, i);
+                    } else {
+                        run.append(escaped);
+                        lastAtomInRun = true;
+                        i += 2;
+                    }
+                    break;
+                case '[':
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i = skipCharClass(branch, i);
+                    break;
+                case '(':
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i = skipGroup(branch, i);
+                    break;
+                case '*':
+                case '?':
+                    dropLastIfOptional(run, lastAtomInRun, true);
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i = skipQuantifierModifier(branch, i + 1);
+                    break;
+                case '+':
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i = skipQuantifierModifier(branch, i + 1);
+                    break;
+                case '{':
+                    final int end = branch.indexOf('}', i);
+                    if (end < 0) {
+                        i = branch.length();
+                        break;
+                    }
+                    final String min = branch.substring(i + 1, end).split(",", -1)[0].trim();
+                    dropLastIfOptional(run, lastAtomInRun, min.chars().allMatch(digit -> digit == '0'));
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i = skipQuantifierModifier(branch, end + 1);
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    flush(run, literals);
+                    lastAtomInRun = false;
+                    i++;
+                    break;
+                default:
+                    run.append(c);
+                    lastAtomInRun = true;
+                    i++;
+            }
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static void dropLastIfOptional(StringBuilder run, boolean lastAtomInRun, boolean optional) {
+        if (lastAtomInRun && optional && run.length() > 0) {
+            run.setLength(run.length() - 1);
+        }
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private static int skipQuantifierModifier(String regex, int i) {
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            return i + 1;
+        }
+        return i;
+    }
+
+    /** Returns index next to the escape sequence which starts at {@code i} with backslash followed by letter or digit. */
+    private static int skipEscape(String regex, int i) {
+        final char type = regex.charAt(i + 1);
+        int next = i + 2;
+        switch (type) {
+            case 'x':
+                if (next < regex.length() && regex.charAt(next) == '{') {
+                    return closing(regex, next, '}');
+                }
+                return Math.min(regex.length(), next + 2);
+            case 'u':
+                return Math.min(regex.length(), next + 4);
+            case 'c':
+                return Math.min(regex.length(), next + 1);
+            case 'p':
+            case 'P':
+            case 'N':
+                if (next < regex.length() && regex.charAt(next) == '{') {
+                    return closing(regex, next, '}');
+                }
+                return Math.min(regex.length(), next + 1);
+            case 'k':
+                return next < regex.length() && regex.charAt(next) == '<' ? closing(regex, next, '>') : next;
+            case '0':
+                for (int digits = 0; digits < 3 && next < regex.length() && isOctalDigit(regex.charAt(next)); digits++) {
+                    next++;
+                }
+                return next;
+            default:
+                if (Character.isDigit(type)) {
+                    while (next < regex.length() && Character.isDigit(regex.charAt(next))) {
+                        next++;
+                    }
+                }
+                return next;
+        }
+    }
+
+    private static boolean isOctalDigit(char c) {
+        return c >= '0' && c <= '7';
+    }
+
+    private static int closing(String regex, int start, char closingChar) {
+        final int end = regex.indexOf(closingChar, start);
+        return end < 0 ? regex.length() : end + 1;
+    }
+
+    /** Returns index next to the character class which starts at {@code i}, nested classes are supported. */
+    private static int skipCharClass(String regex, int i) {
+        int depth = 0;
+        int j = i;
+        while (j < regex.length()) {
+            final char c = regex.charAt(j);
+            if (c == '\\') {
+                j += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // ']' right after opening bracket or negation is a literal
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == '^') {
+                    j++;
+                }
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == ']') {
+                    j++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return regex.length();
+    }
+
+    /** Returns index next to the group which starts at {@code i}. */
+    private static int skipGroup(String regex, int i) {
+        int depth = 0;
+        int j = i;
+        while (j < regex.length()) {
+            final char c = regex.charAt(j);
+            if (c == '\\') {
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", j + 2);
+                    j = end < 0 ? regex.length() : end + 2;
+                } else {
+                    j += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                j = skipCharClass(regex, j);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return regex.length();
+    }
+
+    private RegexTrigrams() {
+    }
+}
@@ -0,0 +1,686 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.search.MediaTypeFilter;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
+import org.eclipse.che.api.vfs.search.SearchResult;
+import org.eclipse.che.api.vfs.search.SearchResultEntry;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * In-memory searcher which answers substring and regular expression queries. Content of each file is indexed
+ * as a set of case insensitive trigrams. Text of {@link QueryExpression} is a {@link Pattern regular expression},
+ * literal parts of the expression select candidate files from the index and then candidates are verified by
+ * matching the expression against their content. Name of {@link QueryExpression} is a case insensitive wildcard
+ * with '*' and '?', path is a prefix of file path, same as for {@link LuceneSearcher}.
+ * <p>
+ * Results are ordered by path. Verification stops as soon as the requested page is filled, so total hits of
+ * {@link SearchResult} is exact only for the last page and is a lower bound otherwise.
+ */
+public class TrigramSearcher implements Searcher {
+    private static final Logger LOG             = LoggerFactory.getLogger(TrigramSearcher.class);
+    private static final int    RESULT_LIMIT    = 1000;
+    private static final int    MAX_OCCURRENCES = 100;
+    /** Content of bigger files is not indexed, such files are found by name only. */
+    private static final long   MAX_INDEXED_FILE_LENGTH = 1024 * 1024;
+    /** Removed files are dropped from posting lists when there are more of them than live ones, but not fewer than this. */
+    private static final int    MIN_REMOVED_FILES_TO_COMPACT = 1024;
+    /** Time given to match the expression against the candidate files of a single search. */
+    private static final long   MATCH_TIMEOUT_MS             = 10_000;
+
+    private final List<VirtualFileFilter>                      excludeFileIndexFilters;
+    private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
+    private final ReadWriteLock                                lock;
+    private final long                                         matchTimeoutMs;
+
+    /** Indexed files by path. */
+    private final Map<String, IndexedFile> files;
+    /** Indexed files by id, removed files leave {@code null} until posting lists are compacted. */
+    private final List<IndexedFile>        filesById;
+    /** Ids of files which contain trigram, ids are sorted in ascending order. */
+    private final Map<Long, Postings>      postings;
+    private int                            removedFiles;
+
+    private volatile VirtualFileSystem virtualFileSystem;
+    private boolean                    closed = true;
+
+    public TrigramSearcher(AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+        this(new MediaTypeFilter(), closeCallback);
+    }
+
+    /**
+     * @param excludeFileIndexFilter
+     *         common filter for files which content should not be indexed
+     */
+    public TrigramSearcher(VirtualFileFilter excludeFileIndexFilter, AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+        this(excludeFileIndexFilter, closeCallback, MATCH_TIMEOUT_MS);
+    }
+
+    TrigramSearcher(VirtualFileFilter excludeFileIndexFilter,
+                    AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                    long matchTimeoutMs) {
+        this.closeCallback = closeCallback;
+        this.matchTimeoutMs = matchTimeoutMs;
+        excludeFileIndexFilters = new CopyOnWriteArrayList<>();
+        excludeFileIndexFilters.add(excludeFileIndexFilter);
+        lock = new ReentrantReadWriteLock();
+        files = new HashMap<>();
+        filesById = new ArrayList<>();
+        postings = new HashMap<>();
+    }
+
+    @Override
+    public boolean addIndexFilter(VirtualFileFilter indexFilter) {
+        return excludeFileIndexFilters.add(indexFilter);
+    }
+
+    @Override
+    public boolean removeIndexFilter(VirtualFileFilter indexFilter) {
+        return excludeFileIndexFilters.remove(indexFilter);
+    }
+
+    /**
+     * Scans all files in virtual filesystem and adds them to index.
+     *
+     * @param virtualFileSystem
+     *         VirtualFileSystem
+     * @throws ServerException
+     *         if any virtual filesystem error occurs
+     */
+    public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
+        doInit(virtualFileSystem);
+        addTree(virtualFileSystem.getRoot());
+    }
+
+    public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
+        doInit(virtualFileSystem);
+        if (!executor.isShutdown()) {
+            executor.execute(() -> {
+                try {
+                    TrigramSearcher.this.addTree(virtualFileSystem.getRoot());
+                } catch (ServerException e) {
+                    LOG.error(e.getMessage());
+                }
+            });
+        }
+    }
+
+    private synchronized void doInit(VirtualFileSystem virtualFileSystem) {
+        this.virtualFileSystem = virtualFileSystem;
+        closed = false;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            lock.writeLock().lock();
+            try {
+                files.clear();
+                filesById.clear();
+                postings.clear();
+                removedFiles = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            closed = true;
+            if (closeCallback != null) {
+                closeCallback.onClose();
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public SearchResult search(QueryExpression query) throws BadRequestException, ServerException {
+        final long startTime = System.currentTimeMillis();
+        final Pattern textPattern;
+        try {
+            textPattern = query.getText() == null ? null : Pattern.compile(query.getText(), Pattern.MULTILINE);
+        } catch (PatternSyntaxException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        final Pattern namePattern = query.getName() == null ? null : wildcardToPattern(query.getName());
+        final List<String> candidates = findCandidates(query.getText(), query.getPath(), namePattern);
+
+        int position = 0;
+        final int numSkipHits = query.getContinuationToken() == null ? Math.max(0, query.getSkipCount()) : 0;
+        if (query.getContinuationToken() != null) {
+            // token is path of the last file of the previous page
+            final int tokenPosition = Collections.binarySearch(candidates, query.getContinuationToken());
+            position = tokenPosition < 0 ? -tokenPosition - 1 : tokenPosition + 1;
+        }
+
+        final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+        final List<SearchResultEntry> results = new ArrayList<>();
+        int skippedHits = 0;
+        boolean hasMoreToRetrieve = false;
+        // expression with nested quantifiers may backtrack for ages, so matching of the whole search is limited in time
+        final long matchDeadline = startTime + matchTimeoutMs;
+        try {
+            for (; position < candidates.size(); position++) {
+                final String filePath = candidates.get(position);
+                final List<SearchOccurrence> occurrences =
+                        textPattern == null ? emptyList()
+                                            : findOccurrences(filePath, textPattern, query.isIncludeOccurrences(), matchDeadline);
+                if (occurrences == null) {
+                    continue;
+                }
+                if (skippedHits < numSkipHits) {
+                    skippedHits++;
+                } else if (results.size() == numDocs) {
+                    hasMoreToRetrieve = true;
+                    break;
+                } else {
+                    results.add(query.isIncludeOccurrences() ? new SearchResultEntry(filePath, occurrences)
+                                                             : new SearchResultEntry(filePath));
+                }
+            }
+        } catch (MatchTimeoutException e) {
+            throw new BadRequestException(String.format("Regular expression '%s' is too complex to be matched in %d ms",
+                                                        query.getText(), matchTimeoutMs));
+        }
+
+        final String continuationToken = hasMoreToRetrieve ? results.get(results.size() - 1).getFilePath() : null;
+        QueryExpression nextPageQueryExpression = null;
+        if (hasMoreToRetrieve) {
+            nextPageQueryExpression = createNextPageQuery(query, skippedHits + results.size());
+        }
+
+        return SearchResult.aSearchResult()
+                           .withResults(results)
+                           .withTotalHits(skippedHits + results.size() + (hasMoreToRetrieve ? 1 : 0))
+                           .withNextPageQueryExpression(nextPageQueryExpression)
+                           .withElapsedTimeMillis(System.currentTimeMillis() - startTime)
+                           .withContinuationToken(continuationToken)
+                           .build();
+    }
+
+    /** Returns sorted paths of files which may match the query, text of the query is not verified. */
+    private List<String> findCandidates(String text, String path, Pattern namePattern) {
+        final List<String> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            final List<long[]> branches = text == null ? null : RegexTrigrams.requiredTrigrams(text);
+            if (branches == null) {
+                for (IndexedFile file : files.values()) {
+                    if ((text == null || file.contentIndexed) && file.matches(path, namePattern)) {
+                        candidates.add(file.path);
+                    }
+                }
+            } else {
+                final BitSet ids = new BitSet(filesById.size());
+                for (long[] branch : branches) {
+                    collectFilesContainingAll(branch, ids);
+                }
+                for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                    final IndexedFile file = filesById.get(id);
+                    if (file != null && file.matches(path, namePattern)) {
+                        candidates.add(file.path);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(candidates);
+        return candidates;
+    }
+
+    private void collectFilesContainingAll(long[] trigrams, BitSet ids) {
+        final List<Postings> lists = new ArrayList<>(trigrams.length);
+        for (long trigram : trigrams) {
+            final Postings list = postings.get(trigram);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        // intersect starting from the rarest trigram to keep intermediate result small
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+            resultSize = lists.get(i).retainAll(result, resultSize);
+        }
+        for (int i = 0; i < resultSize; i++) {
+            ids.set(result[i]);
+        }
+    }
+
+    /**
+     * Returns places where pattern is found in the file content or {@code null} if pattern is not found. If
+     * occurrences are not requested, empty list is returned for matched file.
+     */
+    private List<SearchOccurrence> findOccurrences(String filePath,
+                                                   Pattern pattern,
+                                                   boolean includeOccurrences,
+                                                   long matchDeadline) throws ServerException {
+        final VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(Path.of(filePath));
+        if (virtualFile == null || !virtualFile.isFile()) {
+            return null;
+        }
+        final String content;
+        try {
+            content = virtualFile.getContentAsString();
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+
+        final Matcher matcher = pattern.matcher(new DeadlineCharSequence(content, matchDeadline));
+        if (!matcher.find()) {
+            return null;
+        }
+        if (!includeOccurrences) {
+            return emptyList();
+        }
+        final List<SearchOccurrence> occurrences = new ArrayList<>();
+        int lineNumber = 1;
+        int lineNumberOffset = 0;
+        do {
+            for (; lineNumberOffset < matcher.start(); lineNumberOffset++) {
+                if (content.charAt(lineNumberOffset) == '\n') {
+                    lineNumber++;
+                }
+            }
+            occurrences.add(new SearchOccurrence(matcher.group(), lineNumber, matcher.start(), matcher.end()));
+        } while (occurrences.size() < MAX_OCCURRENCES && matcher.find());
+        return occurrences;
+    }
+
+    private static Pattern wildcardToPattern(String wildcard) {
+        final StringBuilder regex = new StringBuilder();
+        for (char c : wildcard.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private QueryExpression createNextPageQuery(QueryExpression originalQuery, int newSkipCount) {
+        return new QueryExpression().setText(originalQuery.getText())
+                                    .setName(originalQuery.getName())
+                                    .setPath(originalQuery.getPath())
+                                    .setSkipCount(newSkipCount)
+                                    .setMaxItems(originalQuery.getMaxItems())
+                                    .setIncludeOccurrences(originalQuery.isIncludeOccurrences())
+                                    .setRegex(originalQuery.isRegex());
+    }
+
+    @Override
+    public void add(VirtualFile virtualFile) throws ServerException {
+        if (virtualFile.isFolder()) {
+            addTree(virtualFile);
+        } else {
+            addFile(virtualFile);
+        }
+    }
+
+    private void addTree(VirtualFile tree) throws ServerException {
+        final long start = System.currentTimeMillis();
+        final LinkedList<VirtualFile> q = new LinkedList<>();
+        q.add(tree);
+        int indexedFiles = 0;
+        while (!q.isEmpty()) {
+            final VirtualFile folder = q.pop();
+            if (folder.exists()) {
+                for (VirtualFile child : folder.getChildren()) {
+                    if (child.isFolder()) {
+                        q.push(child);
+                    } else {
+                        addFile(child);
+                        indexedFiles++;
+                    }
+                }
+            }
+        }
+        final long end = System.currentTimeMillis();
+        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
+    }
+
+    private void addFile(VirtualFile virtualFile) throws ServerException {
+        if (!virtualFile.exists()) {
+            return;
+        }
+        // content is read before taking the lock, so searches are not blocked by I/O
+        final long[] trigrams = shouldIndexContent(virtualFile) ? readTrigrams(virtualFile) : null;
+        final String path = virtualFile.getPath().toString();
+        lock.writeLock().lock();
+        try {
+            removeFile(path);
+            final IndexedFile file = new IndexedFile(path, virtualFile.getName(), filesById.size(), trigrams != null);
+            filesById.add(file);
+            files.put(path, file);
+            if (trigrams != null) {
+                for (long trigram : trigrams) {
+                    postings.computeIfAbsent(trigram, key -> new Postings()).add(file.id);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] readTrigrams(VirtualFile virtualFile) throws ServerException {
+        final TrigramSet trigrams = new TrigramSet();
+        try (Reader reader = new BufferedReader(new InputStreamReader(virtualFile.getContent()))) {
+            final char[] buffer = new char[8192];
+            char c1 = 0;
+            char c2 = 0;
+            int read = 0;
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                for (int i = 0; i < length; i++, read++) {
+                    final char c3 = buffer[i];
+                    if (read >= 2) {
+                        trigrams.add(RegexTrigrams.trigram(c1, c2, c3));
+                    }
+                    c1 = c2;
+                    c2 = c3;
+                }
+            }
+        } catch (OutOfMemoryError oome) {
+            close();
+            throw oome;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+        return trigrams.toArray();
+    }
+
+    @Override
+    public void delete(String path, boolean isFile) throws ServerException {
+        lock.writeLock().lock();
+        try {
+            if (isFile) {
+                removeFile(path);
+            } else {
+                final String prefix = path + '/';
+                final List<String> removed = new ArrayList<>();
+                for (String filePath : files.keySet()) {
+                    if (filePath.startsWith(prefix)) {
+                        removed.add(filePath);
+                    }
+                }
+                for (String filePath : removed) {
+                    removeFile(filePath);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(VirtualFile virtualFile) throws ServerException {
+        addFile(virtualFile);
+    }
+
+    /** Must be called under write lock. Posting lists keep id of removed file until compaction. */
+    private void removeFile(String path) {
+        final IndexedFile file = files.remove(path);
+        if (file != null) {
+            filesById.set(file.id, null);
+            removedFiles++;
+        }
+    }
+
+    /** Must be called under write lock. */
+    private void compactIfNeeded() {
+        if (removedFiles < MIN_REMOVED_FILES_TO_COMPACT || removedFiles * 2 < filesById.size()) {
+            return;
+        }
+        // new ids keep order of old ones so posting lists stay sorted
+        final int[] newIds = new int[filesById.size()];
+        int liveFiles = 0;
+        for (int id = 0; id < filesById.size(); id++) {
+            final IndexedFile file = filesById.get(id);
+            if (file == null) {
+                newIds[id] = -1;
+            } else {
+                newIds[id] = liveFiles;
+                file.id = liveFiles;
+                filesById.set(liveFiles++, file);
+            }
+        }
+        filesById.subList(liveFiles, filesById.size()).clear();
+        for (Iterator<Postings> iterator = postings.values().iterator(); iterator.hasNext(); ) {
+            final Postings list = iterator.next();
+            list.remap(newIds);
+            if (list.size == 0) {
+                iterator.remove();
+            }
+        }
+        removedFiles = 0;
+    }
+
+    private boolean shouldIndexContent(VirtualFile virtualFile) throws ServerException {
+        if (virtualFile.getLength() > MAX_INDEXED_FILE_LENGTH) {
+            return false;
+        }
+        for (VirtualFileFilter indexFilter : excludeFileIndexFilters) {
+            if (indexFilter.accept(virtualFile)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class IndexedFile {
+        final String  path;
+        final String  name;
+        final boolean contentIndexed;
+        int id;
+
+        IndexedFile(String path, String name, int id, boolean contentIndexed) {
+            this.path = path;
+            this.name = name;
+            this.id = id;
+            this.contentIndexed = contentIndexed;
+        }
+
+        boolean matches(String pathPrefix, Pattern namePattern) {
+            return (pathPrefix == null || path.startsWith(pathPrefix))
+                   && (namePattern == null || namePattern.matcher(name).matches());
+        }
+    }
+
+    /** Open addressing hash set of trigrams of a single file, source code repeats the same trigrams a lot. */
+    private static class TrigramSet {
+        /** Trigram of three zero chars, it can't be stored in the table as zero marks free slots. */
+        boolean hasZero;
+        long[]  table = new long[1024];
+        int     size;
+
+        void add(long trigram) {
+            if (trigram == 0) {
+                hasZero = true;
+                return;
+            }
+            int slot = slot(trigram, table.length);
+            while (table[slot] != 0) {
+                if (table[slot] == trigram) {
+                    return;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = trigram;
+            if (++size * 2 > table.length) {
+                rehash();
+            }
+        }
+
+        long[] toArray() {
+            final long[] trigrams = new long[size + (hasZero ? 1 : 0)];
+            int i = 0;
+            for (long trigram : table) {
+                if (trigram != 0) {
+                    trigrams[i++] = trigram;
+                }
+            }
+            return trigrams;
+        }
+
+        private void rehash() {
+            final long[] newTable = new long[table.length * 2];
+            for (long trigram : table) {
+                if (trigram != 0) {
+                    int slot = slot(trigram, newTable.length);
+                    while (newTable[slot] != 0) {
+                        slot = (slot + 1) & (newTable.length - 1);
+                    }
+                    newTable[slot] = trigram;
+                }
+            }
+            table = newTable;
+        }
+
+        private static int slot(long trigram, int tableLength) {
+            // keys are already mixed, see RegexTrigrams#trigram
+            return (int)(trigram >>> 32) & (tableLength - 1);
+        }
+    }
+
+    /** Growable sorted list of file ids. */
+    private static class Postings {
+        int[] ids = new int[2];
+        int   size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /** Keeps in {@code result} ids which are in this list too, returns new size of {@code result}. */
+        int retainAll(int[] result, int resultSize) {
+            int retained = 0;
+            int position = 0;
+            for (int i = 0; i < resultSize && position < size; i++) {
+                final int found = Arrays.binarySearch(ids, position, size, result[i]);
+                if (found >= 0) {
+                    result[retained++] = result[i];
+                    position = found + 1;
+                } else {
+                    position = -found - 1;
+                }
+            }
+            return retained;
+        }
+
+        void remap(int[] newIds) {
+            int remapped = 0;
+            for (int i = 0; i < size; i++) {
+                final int newId = newIds[ids[i]];
+                if (newId >= 0) {
+                    ids[remapped++] = newId;
+                }
+            }
+            size = remapped;
+        }
+    }
+
+    /** Content which fails matching with {@link MatchTimeoutException} when the deadline is passed. */
+    private static class DeadlineCharSequence implements CharSequence {
+        /** Time is checked once per this number of accessed characters. */
+        private static final int CHECK_INTERVAL = 4096;
+
+        private final CharSequence content;
+        private final long         deadline;
+
+        private int untilCheck = CHECK_INTERVAL;
+
+        DeadlineCharSequence(CharSequence content, long deadline) {
+            this.content = content;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--untilCheck == 0) {
+                untilCheck = CHECK_INTERVAL;
+                if (System.currentTimeMillis() > deadline) {
+                    throw new MatchTimeoutException();
+                }
+            }
+            return content.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return content.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(content.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return content.toString();
+        }
+    }
+
+    private static class MatchTimeoutException extends RuntimeException {
+        MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileFilters;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.search.MediaTypeFilter;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.collect.Iterables.transform;
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Provides {@link TrigramSearcher} which answers substring and regular expression queries. It is used side by side
+ * with the full text searcher if {@code vfs.search.regex_enabled} property is set.
+ *
+ * @see CombinedSearcherProvider
+ */
+@Singleton
+public class TrigramSearcherProvider implements SearcherProvider {
+    private final VirtualFileFilter         excludeFileIndexFilters;
+    private final AtomicReference<Searcher> searcherReference = new AtomicReference<>();
+    private final ExecutorService           executor;
+
+    /**
+     * @param excludePatterns
+     *         set filter for files that should not be indexed
+     * @see TrigramSearcher
+     */
+    @Inject
+    public TrigramSearcherProvider(@Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns) {
+        final List<VirtualFileFilter> filters = newArrayList(new MediaTypeFilter());
+        filters.addAll(newArrayList(transform(excludePatterns, VirtualFileFilters::wrap)));
+        excludeFileIndexFilters = filters.size() == 1 ? filters.get(0) : VirtualFileFilters.createOrFilter(filters);
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                                                             .setDaemon(true)
+                                                             .setUncaughtExceptionHandler(
+                                                                     LoggingUncaughtExceptionHandler.getInstance())
+                                                             .setNameFormat("TrigramSearcherInitThread")
+                                                             .build());
+    }
+
+    @Override
+    public Searcher getSearcher(VirtualFileSystem virtualFileSystem, boolean create) throws ServerException {
+        Searcher cachedSearcher = searcherReference.get();
+        if (cachedSearcher == null && create) {
+            TrigramSearcher searcher = new TrigramSearcher(excludeFileIndexFilters, () -> searcherReference.set(null));
+            if (searcherReference.compareAndSet(null, searcher)) {
+                searcher.initAsynchronously(executor, virtualFileSystem);
+            }
+            cachedSearcher = searcherReference.get();
+        }
+        return cachedSearcher;
+    }
+
+    @Override
+    public Searcher getSearcher(VirtualFileSystem virtualFileSystem) throws ServerException {
+        return getSearcher(virtualFileSystem, true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void close() throws ServerException {
+        Searcher searcher = searcherReference.get();
+        if (searcher != null) {
+            searcher.close();
+        }
+        searcherReference.set(null);
+    }
+}
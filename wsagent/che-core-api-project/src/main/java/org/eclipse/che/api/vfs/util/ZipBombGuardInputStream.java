@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongSupplier;
+
+/**
+ * Wrapper for stream of uncompressed data which fails reading when the data is too big
+ * in comparison to the number of compressed bytes it is produced from.
+ * <p/>
+ * Allows to detect zip bomb while archive is being extracted instead of spooling the whole archive
+ * and checking it in advance.
+ */
+public final class ZipBombGuardInputStream extends FilterInputStream {
+    /** The threshold after that checking of ZIP ratio started. */
+    private static final long ZIP_THRESHOLD = 1000000;
+    /**
+     * Max compression ratio. If the number of bytes uncompressed data is exceed the number
+     * of bytes of compressed stream more than this ratio (and number of uncompressed data
+     * is more than threshold) then IOException is thrown.
+     */
+    private static final int  ZIP_RATIO     = 100;
+
+    private final LongSupplier compressedBytes;
+
+    private long uncompressedBytes;
+
+    /**
+     * @param uncompressed
+     *         stream of uncompressed data
+     * @param compressedBytes
+     *         supplies number of compressed bytes read so far
+     */
+    public ZipBombGuardInputStream(InputStream uncompressed, LongSupplier compressedBytes) {
+        super(uncompressed);
+        this.compressedBytes = compressedBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) throws IOException {
+        uncompressedBytes += n;
+        if (uncompressedBytes > ZIP_THRESHOLD && uncompressedBytes > ZIP_RATIO * compressedBytes.getAsLong()) {
+            throw new IOException("Zip bomb detected");
+        }
+    }
+}
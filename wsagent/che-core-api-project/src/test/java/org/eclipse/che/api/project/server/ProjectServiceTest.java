@@ -40,8 +40,12 @@ import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.ProjectSearchResponseDto;
+import org.eclipse.che.api.project.shared.dto.SearchOccurrenceDto;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
+import org.eclipse.che.api.project.shared.dto.TreeItems;
 import org.eclipse.che.api.user.server.spi.UserDao;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
@@ -87,6 +91,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.file.PathMatcher;
 import java.util.ArrayList;
@@ -1708,6 +1713,55 @@ public class ProjectServiceTest {
         Assert.assertFalse(names.contains("x/test.txt"));
     }
 
+    @Test
+    public void testGetEntriesWithExcludesAndMinimalItems() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b/c");
+        a.createFolder("node_modules/m");
+        a.createFolder("x").createFile("test.txt", "test".getBytes(Charset.defaultCharset()));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/entries/my_project/a?depth=100&exclude=node_modules&minimal=true",
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        TreeItems items = DtoFactory.getInstance().createDtoFromJson(new String(writer.getBody()), TreeItems.class);
+        assertEquals(items.getItems().stream().map(ItemReference::getPath).collect(Collectors.toList()),
+                     Arrays.asList("/my_project/a/b", "/my_project/a/b/c", "/my_project/a/x", "/my_project/a/x/test.txt"));
+        assertEquals(items.getItems().get(3).getType(), "file");
+        Assert.assertTrue(items.getItems().get(0).getLinks().isEmpty());
+        Assert.assertNull(items.getContinuationToken());
+    }
+
+    @Test
+    public void testGetEntriesWithContinuationToken() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b/c");
+        a.createFolder("x").createFile("test.txt", "test".getBytes(Charset.defaultCharset()));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/entries/my_project/a?depth=100&maxItems=2",
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        TreeItems items = DtoFactory.getInstance().createDtoFromJson(new String(writer.getBody()), TreeItems.class);
+        assertEquals(items.getItems().stream().map(ItemReference::getPath).collect(Collectors.toList()),
+                     Arrays.asList("/my_project/a/b", "/my_project/a/b/c"));
+        validateFolderLinks(items.getItems().get(0));
+        assertNotNull(items.getContinuationToken());
+
+        writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/entries/my_project/a?depth=100&maxItems=2&continuationToken=" +
+                                    URLEncoder.encode(items.getContinuationToken(), "UTF-8"),
+                                    "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        items = DtoFactory.getInstance().createDtoFromJson(new String(writer.getBody()), TreeItems.class);
+        assertEquals(items.getItems().stream().map(ItemReference::getPath).collect(Collectors.toList()),
+                     Arrays.asList("/my_project/a/x", "/my_project/a/x/test.txt"));
+        Assert.assertNull(items.getContinuationToken());
+    }
+
 
     @SuppressWarnings("unchecked")
     @Test
@@ -1750,6 +1804,48 @@ public class ProjectServiceTest {
         Assert.assertTrue(paths.contains("/my_project/x/y/__test.txt"));
     }
 
+    @Test
+    public void testSearchOccurrences() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "hello".getBytes(Charset.defaultCharset()));
+        myProject.getBaseFolder().createFolder("x/y").createFile("__test.txt", "first line\nsearchhit".getBytes(Charset.defaultCharset()));
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/occurrences/my_project?text=searchhit",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        ProjectSearchResponseDto result = (ProjectSearchResponseDto)response.getEntity();
+        assertEquals(result.getTotalHits(), 1);
+        Assert.assertNull(result.getContinuationToken());
+        SearchResultDto item = result.getItems().get(0);
+        assertEquals(item.getItemReference().getPath(), "/my_project/x/y/__test.txt");
+        validateFileLinks(item.getItemReference());
+        SearchOccurrenceDto occurrence = item.getSearchOccurrences().get(0);
+        assertEquals(occurrence.getLineNumber(), 2);
+        assertEquals(occurrence.getStartOffset(), 11);
+        assertEquals(occurrence.getEndOffset(), 20);
+    }
+
+    @Test
+    public void testSearchOccurrencesByRegexWhenItIsNotEnabled() throws Exception {
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/occurrences/my_project?text=search.*&regex=true",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+    }
+
+    @Test
+    public void testSearchOccurrencesWithInvalidContinuationToken() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("x/y").createFile("__test.txt", "searchhit".getBytes(Charset.defaultCharset()));
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/occurrences/my_project?text=searchhit" +
+                                                      "&continuationToken=invalid",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSearchByTextWhenFileWasNotIndexed() throws Exception {
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
+import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.vfs.Path;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertSame;
+
+@Listeners(MockitoTestNGListener.class)
+public class ProjectTypeResolutionCacheTest {
+
+    @Mock
+    private ProjectTypeDef        type;
+    @Mock
+    private ProjectTypeResolution resolution;
+    @Mock
+    private FolderEntry           folder;
+
+    private ProjectTypeResolutionCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        when(type.getId()).thenReturn("type");
+        when(type.resolveSources(folder)).thenReturn(resolution);
+        when(folder.getPath()).thenReturn(Path.of("/project/module"));
+
+        cache = new ProjectTypeResolutionCache();
+    }
+
+    @Test
+    public void shouldResolveUnchangedFolderOnce() {
+        assertSame(cache.resolve(type, folder), resolution);
+        assertSame(cache.resolve(type, folder), resolution);
+
+        verify(type, times(1)).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldResolveAgainWhenFileInsideFolderIsChanged() {
+        cache.resolve(type, folder);
+
+        cache.invalidate(Path.of("/project/module/src/pom.xml"));
+        cache.resolve(type, folder);
+
+        verify(type, times(2)).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldResolveAgainWhenParentFolderIsChanged() {
+        cache.resolve(type, folder);
+
+        cache.invalidate(Path.of("/project"));
+        cache.resolve(type, folder);
+
+        verify(type, times(2)).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldKeepResolutionWhenUnrelatedItemIsChanged() {
+        cache.resolve(type, folder);
+
+        cache.invalidate(Path.of("/project/module2/pom.xml"));
+        cache.invalidate(Path.of("/project/pom.xml"));
+        cache.resolve(type, folder);
+
+        verify(type, times(1)).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldResolveAgainWhenProjectTypeIsReRegistered() {
+        cache.resolve(type, folder);
+
+        final ProjectTypeDef newType = mock(ProjectTypeDef.class);
+        when(newType.getId()).thenReturn("type");
+        when(newType.resolveSources(folder)).thenReturn(resolution);
+        cache.resolve(newType, folder);
+
+        verify(newType).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldKeepResolutionOfFolderWhosePathStartsWithPathOfChangedFolder() {
+        final FolderEntry sibling = mock(FolderEntry.class);
+        when(sibling.getPath()).thenReturn(Path.of("/project/module2"));
+        when(type.resolveSources(sibling)).thenReturn(resolution);
+        cache.resolve(type, sibling);
+
+        cache.invalidate(Path.of("/project/module"));
+        cache.resolve(type, sibling);
+
+        verify(type, times(1)).resolveSources(sibling);
+    }
+
+    @Test
+    public void shouldNotKeepResolutionWhenFolderIsChangedWhileResolving() {
+        when(type.resolveSources(folder)).thenAnswer(invocation -> {
+            cache.invalidate(Path.of("/project/module/pom.xml"));
+            return resolution;
+        });
+
+        cache.resolve(type, folder);
+        cache.resolve(type, folder);
+
+        verify(type, times(2)).resolveSources(folder);
+    }
+
+    @Test
+    public void shouldEvictResolutionsOfLeastRecentlyUsedFolders() {
+        cache = new ProjectTypeResolutionCache(1);
+        final FolderEntry other = mock(FolderEntry.class);
+        when(other.getPath()).thenReturn(Path.of("/other"));
+        when(type.resolveSources(other)).thenReturn(resolution);
+
+        cache.resolve(type, folder);
+        cache.resolve(type, other);
+        cache.resolve(type, folder);
+
+        verify(type, times(2)).resolveSources(folder);
+    }
+}
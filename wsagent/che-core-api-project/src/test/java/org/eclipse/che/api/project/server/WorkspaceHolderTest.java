@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.rest.HttpJsonRequest;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.core.rest.HttpJsonResponse;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsDiffDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceProjectsDto;
+import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link WorkspaceHolder}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class WorkspaceHolderTest {
+
+    @Mock
+    private HttpJsonRequestFactory requestFactory;
+    @Mock
+    private HttpJsonResponse       response;
+    @Mock
+    private ProjectRegistry        projectRegistry;
+    @Mock
+    private RegisteredProject      project;
+
+    private List<ProjectsDiffDto> postedDiffs;
+    private int                   conflicts;
+    private int                   revision;
+    private WorkspaceHolder       workspaceHolder;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        postedDiffs = new ArrayList<>();
+        conflicts = 0;
+        revision = 0;
+        // requests to the projects endpoint, POST applies a diff and GET returns the projects
+        final boolean[] post = new boolean[1];
+        final HttpJsonRequest request = mock(HttpJsonRequest.class, (Answer)invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "usePostMethod":
+                    post[0] = true;
+                    break;
+                case "useGetMethod":
+                    post[0] = false;
+                    break;
+                case "setBody":
+                    postedDiffs.add((ProjectsDiffDto)invocation.getArguments()[0]);
+                    break;
+                case "request":
+                    if (post[0] && conflicts > 0) {
+                        conflicts--;
+                        revision++;
+                        throw new ConflictException("Projects were modified");
+                    }
+                    return response;
+            }
+            if (invocation.getMethod().getReturnType().isInstance(invocation.getMock())) {
+                return invocation.getMock();
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        });
+        when(requestFactory.fromUrl(anyString())).thenReturn(request);
+        when(response.asDto(WorkspaceProjectsDto.class)).thenAnswer(inv -> newDto(WorkspaceProjectsDto.class)
+                .withRevision("revision-" + revision)
+                .withProjects(emptyList()));
+        when(project.getPath()).thenReturn("/project");
+        when(projectRegistry.getProjects()).thenReturn(singletonList(project));
+
+        workspaceHolder = new WorkspaceHolder("http://localhost:8080/api", requestFactory);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        workspaceHolder.stop();
+    }
+
+    @Test
+    public void shouldMergeBurstOfRequestsIntoSingleSynchronization() throws Exception {
+        workspaceHolder.scheduleSync(projectRegistry);
+        workspaceHolder.scheduleSync(projectRegistry);
+        workspaceHolder.scheduleSync(projectRegistry);
+
+        // waits for the scheduled synchronization
+        workspaceHolder.stop();
+
+        assertEquals(postedDiffs.size(), 1);
+        verify(project).setSync();
+    }
+
+    @Test
+    public void shouldSendChangesAgainstActualRevisionWhenProjectsWereModifiedOnMaster() throws Exception {
+        conflicts = 1;
+
+        workspaceHolder.scheduleSync(projectRegistry);
+        workspaceHolder.stop();
+
+        assertEquals(postedDiffs.size(), 2);
+        assertEquals(postedDiffs.get(0).getRevision(), "revision-0");
+        assertEquals(postedDiffs.get(1).getRevision(), "revision-1");
+        assertEquals(postedDiffs.get(1).getUpdated().get(0).getPath(), "/project");
+        verify(project).setSync();
+    }
+
+    @Test
+    public void shouldNotFailCallerWhenChangesAreRejectedByMaster() throws Exception {
+        conflicts = Integer.MAX_VALUE;
+
+        workspaceHolder.scheduleSync(projectRegistry);
+        workspaceHolder.stop();
+
+        assertEquals(postedDiffs.size(), 3);
+        verify(project, never()).setSync();
+    }
+
+    @Test
+    public void shouldSynchronizeChangesRequestedAfterStop() throws Exception {
+        workspaceHolder.stop();
+
+        workspaceHolder.scheduleSync(projectRegistry);
+
+        assertEquals(postedDiffs.size(), 1);
+        verify(project).setSync();
+    }
+}
@@ -43,6 +43,7 @@ import static com.google.common.collect.Maps.newHashMap;
 import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -105,6 +106,85 @@ public class ZipArchiverTest {
         assertThatZipArchiveContainsAllEntries(new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
     }
 
+    @Test
+    public void compressesFolderWithManyAndLargeFilesToArchive() throws Exception {
+        VirtualFile folder = vfsRoot.createFolder("arc");
+        for (int i = 0; i < 100; i++) {
+            folder.createFolder("dir" + i % 10).createFile("file" + i + ".txt", TEST_CONTENT + i);
+        }
+        StringBuilder largeContent = new StringBuilder();
+        while (largeContent.length() <= ZipArchiver.PARALLEL_COMPRESSION_MAX_FILE_SIZE) {
+            largeContent.append(TEST_CONTENT).append(largeContent.length());
+        }
+        folder.createFile("large.txt", largeContent.toString());
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+        Map<String, String> entries = getFileTreeAsList(folder).stream()
+                                                               .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                              this::readContentUnchecked));
+
+        new ZipArchiver(folder).compress(compressedFolder);
+        assertThatZipArchiveContainsAllEntries(new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
+    }
+
+    @Test
+    public void storesAlreadyCompressedFilesWithoutCompression() throws Exception {
+        VirtualFile folder = vfsRoot.createFolder("arc");
+        folder.createFile("image.png", TEST_CONTENT);
+        folder.createFile("text.txt", TEST_CONTENT);
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+        new ZipArchiver(folder).compress(compressedFolder);
+
+        Map<String, Integer> methods = newHashMap();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(compressedFolder.toByteArray()))) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                methods.put(zipEntry.getName(), zipEntry.getMethod());
+            }
+        }
+        assertEquals(ZipEntry.STORED, (int)methods.get("image.png"));
+        assertEquals(ZipEntry.DEFLATED, (int)methods.get("text.txt"));
+    }
+
+    @Test
+    public void failsExtractArchiveWithTooHighCompressionRatio() throws Exception {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOut = new ZipOutputStream(byteOut)) {
+            zipOut.putNextEntry(new ZipEntry("bomb.txt"));
+            zipOut.write(new byte[10 * 1024 * 1024]);
+        }
+        VirtualFile folder = vfsRoot.createFolder("folder");
+
+        // content is written by virtual file system which reports failure of reading archive as server error
+        thrown.expect(ServerException.class);
+
+        new ZipArchiver(folder).extract(new ByteArrayInputStream(byteOut.toByteArray()), false, 0);
+    }
+
+    @Test
+    public void leavesFolderUntouchedWhenArchiveFailsToExtract() throws Exception {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOut = new ZipOutputStream(byteOut)) {
+            zipOut.putNextEntry(new ZipEntry("new.txt"));
+            zipOut.write(TEST_CONTENT_BYTES);
+            zipOut.putNextEntry(new ZipEntry("existed.txt"));
+            zipOut.write(TEST_CONTENT_BYTES);
+            zipOut.putNextEntry(new ZipEntry("bomb.txt"));
+            zipOut.write(new byte[10 * 1024 * 1024]);
+        }
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        VirtualFile existed = folder.createFile("existed.txt", "xxx");
+
+        try {
+            new ZipArchiver(folder).extract(new ByteArrayInputStream(byteOut.toByteArray()), true, 0);
+            fail("ServerException expected");
+        } catch (ServerException expected) {
+            assertEquals(newArrayList(existed), folder.getChildren());
+            assertEquals("xxx", existed.getContentAsString());
+            assertEquals(newArrayList(folder), vfsRoot.getChildren());
+        }
+    }
+
     @Test
     public void extractsArchiveToFolder() throws Exception {
         byte[] archive = createTestZipArchive();
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class CombinedSearcherProviderTest {
+    private SearcherProvider  fullTextSearcherProvider;
+    private SearcherProvider  regexSearcherProvider;
+    private Searcher          fullTextSearcher;
+    private Searcher          regexSearcher;
+    private VirtualFileSystem virtualFileSystem;
+
+    @Before
+    public void setUp() throws Exception {
+        fullTextSearcherProvider = mock(SearcherProvider.class);
+        regexSearcherProvider = mock(SearcherProvider.class);
+        fullTextSearcher = mock(Searcher.class);
+        regexSearcher = mock(Searcher.class);
+        virtualFileSystem = mock(VirtualFileSystem.class);
+        when(fullTextSearcherProvider.getSearcher(virtualFileSystem, true)).thenReturn(fullTextSearcher);
+        when(regexSearcherProvider.getSearcher(virtualFileSystem, true)).thenReturn(regexSearcher);
+    }
+
+    @Test
+    public void returnsFullTextSearcherWhenRegexSearchIsDisabled() throws Exception {
+        CombinedSearcherProvider provider = new CombinedSearcherProvider(fullTextSearcherProvider, regexSearcherProvider, false);
+
+        assertSame(fullTextSearcher, provider.getSearcher(virtualFileSystem));
+        provider.close();
+
+        verifyZeroInteractions(regexSearcherProvider);
+        verify(fullTextSearcherProvider).close();
+    }
+
+    @Test
+    public void doesNotCreateSearchersWhenCreationIsNotRequested() throws Exception {
+        CombinedSearcherProvider provider = new CombinedSearcherProvider(fullTextSearcherProvider, regexSearcherProvider, true);
+
+        assertNull(provider.getSearcher(virtualFileSystem, false));
+        verify(regexSearcherProvider, never()).getSearcher(virtualFileSystem, true);
+    }
+
+    @Test
+    public void routesQueriesByTypeOfText() throws Exception {
+        CombinedSearcherProvider provider = new CombinedSearcherProvider(fullTextSearcherProvider, regexSearcherProvider, true);
+        Searcher searcher = provider.getSearcher(virtualFileSystem);
+
+        QueryExpression fullTextQuery = new QueryExpression().setText("foo");
+        QueryExpression regexQuery = new QueryExpression().setText("fo+").setRegex(true);
+        searcher.search(fullTextQuery);
+        searcher.search(regexQuery);
+
+        verify(fullTextSearcher).search(fullTextQuery);
+        verify(regexSearcher).search(regexQuery);
+        verify(fullTextSearcher, never()).search(regexQuery);
+        verify(regexSearcher, never()).search(fullTextQuery);
+    }
+
+    @Test
+    public void updatesBothIndexes() throws Exception {
+        CombinedSearcherProvider provider = new CombinedSearcherProvider(fullTextSearcherProvider, regexSearcherProvider, true);
+        Searcher searcher = provider.getSearcher(virtualFileSystem);
+        VirtualFile file = mock(VirtualFile.class);
+
+        searcher.add(file);
+        searcher.update(file);
+        searcher.delete("/file", true);
+        searcher.close();
+
+        verify(fullTextSearcher).add(file);
+        verify(regexSearcher).add(file);
+        verify(fullTextSearcher).update(file);
+        verify(regexSearcher).update(file);
+        verify(fullTextSearcher).delete("/file", true);
+        verify(regexSearcher).delete("/file", true);
+        verify(fullTextSearcher).close();
+        verify(regexSearcher).close();
+    }
+
+    @Test
+    public void closesBothProviders() throws Exception {
+        CombinedSearcherProvider provider = new CombinedSearcherProvider(fullTextSearcherProvider, regexSearcherProvider, true);
+
+        provider.close();
+
+        verify(fullTextSearcherProvider).close();
+        verify(regexSearcherProvider).close();
+    }
+}
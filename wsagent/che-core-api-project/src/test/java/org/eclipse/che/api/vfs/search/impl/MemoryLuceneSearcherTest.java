@@ -12,12 +12,14 @@ package org.eclipse.che.api.vfs.search.impl;
 
 import com.google.common.base.Optional;
 
+import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.junit.After;
 import org.junit.Before;
@@ -25,11 +27,13 @@ import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
@@ -284,6 +288,110 @@ public class MemoryLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void retrievesSearchResultWithContinuationToken() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = newArrayList();
+        SearchResult page = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10));
+        assertEquals(10, page.getFilePaths().size());
+        paths.addAll(page.getFilePaths());
+
+        page = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10).setContinuationToken(page.getContinuationToken()));
+        assertEquals(10, page.getFilePaths().size());
+        paths.addAll(page.getFilePaths());
+
+        page = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10).setContinuationToken(page.getContinuationToken()));
+        assertEquals(5, page.getFilePaths().size());
+        assertNull(page.getContinuationToken());
+        paths.addAll(page.getFilePaths());
+
+        assertEquals(25, new HashSet<>(paths).size());
+    }
+
+    @Test
+    public void continuationTokenIsNotAffectedByMergeOfIndex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = newArrayList();
+        SearchResult page = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10));
+        paths.addAll(page.getFilePaths());
+
+        // ids of the documents which are left are shifted after deletion of the preceding documents and merge
+        for (int i = 1; i < 40; i += TEST_CONTENT.length) {
+            searcher.delete(String.format("/file%02d", i), true);
+        }
+        searcher.getIndexWriter().forceMerge(1);
+
+        while (page.getContinuationToken() != null) {
+            page = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10).setContinuationToken(page.getContinuationToken()));
+            paths.addAll(page.getFilePaths());
+        }
+
+        List<String> expected = newArrayList();
+        for (int i = 0; i < 100; i += TEST_CONTENT.length) {
+            expected.add(String.format("/file%02d", i));
+        }
+        assertEquals(expected, paths);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void failsWhenContinuationTokenIsMalformed() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        searcher.search(new QueryExpression().setText("spaceflight").setContinuationToken("12"));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void failsWhenRelevanceInContinuationTokenIsNotNumber() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        searcher.search(new QueryExpression().setText("spaceflight").setContinuationToken("high:/xxx.txt"));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void rejectsSearchByRegularExpression() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        searcher.search(new QueryExpression().setText("space.*").setRegex(true));
+    }
+
+    @Test
+    public void findsLinesAndOffsetsOfSearchedText() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", "Apollo set\nTo be or not to be\nbenefit");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be*").setIncludeOccurrences(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(3, occurrences.size());
+        assertOccurrence(occurrences.get(0), "be", 2, 14, 16);
+        assertOccurrence(occurrences.get(1), "be", 2, 27, 29);
+        assertOccurrence(occurrences.get(2), "benefit", 3, 30, 37);
+    }
+
+    private static void assertOccurrence(SearchOccurrence occurrence, String phrase, int lineNumber, int startOffset, int endOffset) {
+        assertEquals(phrase, occurrence.getPhrase());
+        assertEquals(lineNumber, occurrence.getLineNumber());
+        assertEquals(startOffset, occurrence.getStartOffset());
+        assertEquals(endOffset, occurrence.getEndOffset());
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
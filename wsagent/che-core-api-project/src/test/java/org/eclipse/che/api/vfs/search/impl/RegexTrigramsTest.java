@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RegexTrigramsTest {
+    private static final String[] REGEX_ATOMS = {
+            "a", "b", "c", "ab", "abc", "bca", "cab", "\\.", "\\d", "\\w", "\\bab", ".", "[ab]", "[^c]", "[a-c]",
+            "(abc)", "(?:bc)", "(ab|ca)", "(a(bc|ca)b)", "\\Qa.b\\E", "\\Qabc\\E", "(?i)ab", "x"
+    };
+    private static final String[] QUANTIFIERS = {"", "", "", "?", "*", "+", "{0,2}", "{1,2}", "{2}", "{0}", "??", "*+"};
+
+    @Test
+    public void takesTrigramsOfLiteral() {
+        assertBranches(RegexTrigrams.requiredTrigrams("getFooBar"), trigramsOf("getFooBar"));
+    }
+
+    @Test
+    public void trigramsAreCaseInsensitive() {
+        assertBranches(RegexTrigrams.requiredTrigrams("GETFOO"), trigramsOf("getfoo"));
+    }
+
+    @Test
+    public void dropsCharFollowedByOptionalQuantifier() {
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd?efg"), trigramsOf("abc", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd*efg"), trigramsOf("abc", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd??efg"), trigramsOf("abc", "efg"));
+    }
+
+    @Test
+    public void keepsCharFollowedByMandatoryQuantifier() {
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd+efg"), trigramsOf("abcd", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd{2}efg"), trigramsOf("abcd", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd{1,3}efg"), trigramsOf("abcd", "efg"));
+    }
+
+    @Test
+    public void dropsCharFollowedByRepetitionWithZeroMinimum() {
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd{0,3}efg"), trigramsOf("abc", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd{0}efg"), trigramsOf("abc", "efg"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abcd{0,}efg"), trigramsOf("abc", "efg"));
+    }
+
+    @Test
+    public void takesQuotedTextAsLiteral() {
+        assertBranches(RegexTrigrams.requiredTrigrams("\\Qa.b*c|d\\E"), trigramsOf("a.b*c|d"));
+        assertBranches(RegexTrigrams.requiredTrigrams("\\Qabcd\\E?"), trigramsOf("abc"));
+        assertBranches(RegexTrigrams.requiredTrigrams("ab\\Qcd"), trigramsOf("abcd"));
+    }
+
+    @Test
+    public void takesEscapedPunctuationAsLiteral() {
+        assertBranches(RegexTrigrams.requiredTrigrams("foo\\.bar\\("), trigramsOf("foo.bar("));
+    }
+
+    @Test
+    public void breaksRunsOnCharClassEscapes() {
+        assertBranches(RegexTrigrams.requiredTrigrams("\\bfoo\\d+bar\\u0041baz"), trigramsOf("foo", "bar", "baz"));
+    }
+
+    @Test
+    public void returnsTrigramsOfEachTopLevelBranch() {
+        assertBranches(RegexTrigrams.requiredTrigrams("foobar|bazqux"), trigramsOf("foobar"), trigramsOf("bazqux"));
+    }
+
+    @Test
+    public void returnsNullIfAnyBranchHasNoTrigram() {
+        assertNull(RegexTrigrams.requiredTrigrams("foobar|ba"));
+        assertNull(RegexTrigrams.requiredTrigrams("foobar|"));
+    }
+
+    @Test
+    public void doesNotSplitAlternationInsideGroupsAndCharClasses() {
+        assertBranches(RegexTrigrams.requiredTrigrams("foo(bar|baz)qux"), trigramsOf("foo", "qux"));
+        assertBranches(RegexTrigrams.requiredTrigrams("[a|b]cdef"), trigramsOf("cdef"));
+        assertBranches(RegexTrigrams.requiredTrigrams("\\|abc"), trigramsOf("|abc"));
+    }
+
+    @Test
+    public void skipsNestedGroups() {
+        assertBranches(RegexTrigrams.requiredTrigrams("abc((de)f|g(h))hij"), trigramsOf("abc", "hij"));
+        assertBranches(RegexTrigrams.requiredTrigrams("(?i)abcdef"), trigramsOf("abcdef"));
+        assertNull(RegexTrigrams.requiredTrigrams("(abcdef)"));
+    }
+
+    @Test
+    public void skipsCharClasses() {
+        assertBranches(RegexTrigrams.requiredTrigrams("abc[xyz]def"), trigramsOf("abc", "def"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abc[]x]def"), trigramsOf("abc", "def"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abc[^]x]def"), trigramsOf("abc", "def"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abc[a-z&&[^q]]def"), trigramsOf("abc", "def"));
+        assertBranches(RegexTrigrams.requiredTrigrams("abc[\\]]def"), trigramsOf("abc", "def"));
+    }
+
+    @Test
+    public void returnsNullInCommentsMode() {
+        assertNull(RegexTrigrams.requiredTrigrams("(?x) foo bar # comment"));
+        assertNull(RegexTrigrams.requiredTrigrams("(?ix)foobar"));
+    }
+
+    @Test
+    public void returnsNullIfNothingIsRequired() {
+        assertNull(RegexTrigrams.requiredTrigrams(".*"));
+        assertNull(RegexTrigrams.requiredTrigrams("ab.cd"));
+        assertNull(RegexTrigrams.requiredTrigrams(""));
+    }
+
+    /**
+     * Compares with brute force matching: every text which matches random expression must contain
+     * all trigrams of at least one branch, otherwise the index would miss it.
+     */
+    @Test
+    public void neverRejectsMatchingText() {
+        final Random random = new Random(42);
+        int matches = 0;
+        for (int i = 0; i < 3000; i++) {
+            final String regex = randomRegex(random);
+            final Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex, Pattern.MULTILINE);
+            } catch (PatternSyntaxException e) {
+                continue;
+            }
+            final List<long[]> branches = RegexTrigrams.requiredTrigrams(regex);
+            for (int j = 0; j < 50; j++) {
+                final String text = randomText(random);
+                if (!pattern.matcher(text).find()) {
+                    continue;
+                }
+                matches++;
+                if (branches != null) {
+                    final Set<Long> textTrigrams = trigramSet(text);
+                    assertTrue("Text '" + text + "' matches '" + regex + "' but doesn't contain its trigrams",
+                               branches.stream().anyMatch(branch -> Arrays.stream(branch).allMatch(textTrigrams::contains)));
+                }
+            }
+        }
+        assertTrue(matches > 1000);
+    }
+
+    private static String randomRegex(Random random) {
+        final StringBuilder regex = new StringBuilder();
+        final int atoms = 1 + random.nextInt(6);
+        for (int i = 0; i < atoms; i++) {
+            if (i > 0 && random.nextInt(8) == 0) {
+                regex.append('|');
+            }
+            regex.append(REGEX_ATOMS[random.nextInt(REGEX_ATOMS.length)]);
+            regex.append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+        }
+        return regex.toString();
+    }
+
+    private static String randomText(Random random) {
+        final String alphabet = "abcABC.1 \n";
+        final StringBuilder text = new StringBuilder();
+        final int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static Set<Long> trigramSet(String text) {
+        final Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 2 < text.length(); i++) {
+            trigrams.add(RegexTrigrams.trigram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+        }
+        return trigrams;
+    }
+
+    private static long[] trigramsOf(String... literals) {
+        final Set<Long> trigrams = new TreeSet<>();
+        for (String literal : literals) {
+            for (int i = 0; i + 2 < literal.length(); i++) {
+                trigrams.add(RegexTrigrams.trigram(literal.charAt(i), literal.charAt(i + 1), literal.charAt(i + 2)));
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void assertBranches(List<long[]> actual, long[]... expected) {
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual.get(i));
+        }
+    }
+}
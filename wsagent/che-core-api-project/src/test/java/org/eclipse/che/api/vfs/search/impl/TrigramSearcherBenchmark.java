@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares search through {@link TrigramSearcher} with matching of the pattern against content of every file
+ * on a generated tree of java-like sources.
+ * It is not a test, run it with {@code main} method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TrigramSearcherBenchmark {
+    private static final String[] WORDS = {
+            "project", "workspace", "machine", "server", "client", "event", "service", "manager", "config", "path",
+            "file", "folder", "search", "index", "value", "name", "type", "result", "request", "response"
+    };
+
+    @Param({"ProjectManager\\(", "get\\w+Service", "class \\w+Test extends"})
+    public String regex;
+
+    private TrigramSearcher   searcher;
+    private VirtualFileSystem virtualFileSystem;
+    private Pattern           pattern;
+
+    @Setup
+    public void setUp() throws Exception {
+        virtualFileSystem = new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
+        final Random random = new Random(42);
+        for (int folder = 0; folder < 50; folder++) {
+            final VirtualFile parent = virtualFileSystem.getRoot().createFolder("folder" + folder);
+            for (int file = 0; file < 40; file++) {
+                parent.createFile("Source" + file + ".java", source(random));
+            }
+        }
+        searcher = new TrigramSearcher(null);
+        searcher.init(virtualFileSystem);
+        pattern = Pattern.compile(regex, Pattern.MULTILINE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        searcher.close();
+    }
+
+    @Benchmark
+    public SearchResult searchFirstPage() throws Exception {
+        return searcher.search(new QueryExpression().setText(regex).setMaxItems(20).setIncludeOccurrences(true));
+    }
+
+    @Benchmark
+    public SearchResult searchAll() throws Exception {
+        return searcher.search(new QueryExpression().setText(regex));
+    }
+
+    @Benchmark
+    public List<String> matchEveryFile() throws Exception {
+        final List<String> paths = new ArrayList<>();
+        matchEveryFile(virtualFileSystem.getRoot(), paths);
+        return paths;
+    }
+
+    private void matchEveryFile(VirtualFile folder, List<String> paths) throws Exception {
+        for (VirtualFile child : folder.getChildren()) {
+            if (child.isFile()) {
+                if (pattern.matcher(child.getContentAsString()).find()) {
+                    paths.add(child.getPath().toString());
+                }
+            } else {
+                matchEveryFile(child, paths);
+            }
+        }
+    }
+
+    private static String source(Random random) {
+        final StringBuilder source = new StringBuilder();
+        final String className = word(random) + word(random);
+        source.append("public class ").append(className);
+        if (random.nextInt(10) == 0) {
+            source.append("Test extends ").append(word(random)).append("TestBase");
+        }
+        source.append(" {\n");
+        for (int method = 0; method < 30; method++) {
+            source.append("    public ").append(word(random)).append(' ').append("get").append(word(random)).append(word(random))
+                  .append("() {\n        return new ").append(word(random)).append(word(random)).append("(")
+                  .append(uncapitalized(word(random))).append(");\n    }\n\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String word(Random random) {
+        final String word = WORDS[random.nextInt(WORDS.length)];
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String uncapitalized(String word) {
+        return Character.toLowerCase(word.charAt(0)) + word.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TrigramSearcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
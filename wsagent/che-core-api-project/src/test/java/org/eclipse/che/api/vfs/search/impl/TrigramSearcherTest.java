@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.base.Strings;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
+import org.eclipse.che.api.vfs.search.SearchResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TrigramSearcherTest {
+    private static final String[] TEST_CONTENT = {
+            "public Foo getFooBar() {\n    return fooBar;\n}",
+            "void setFoo(Foo foo) {\n    this.foo = foo;\n}",
+            "int getBarCount() {\n    return barCount;\n}"
+    };
+
+    private TrigramSearcher                              searcher;
+    private VirtualFileFilter                            filter;
+    private AbstractLuceneSearcherProvider.CloseCallback closeCallback;
+
+    @Before
+    public void setUp() throws Exception {
+        filter = mock(VirtualFileFilter.class);
+        when(filter.accept(any(VirtualFile.class))).thenReturn(false);
+        closeCallback = mock(AbstractLuceneSearcherProvider.CloseCallback.class);
+        searcher = new TrigramSearcher(filter, closeCallback);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        searcher.close();
+    }
+
+    @Test
+    public void findsFilesByPartOfIdentifier() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.java", TEST_CONTENT[0]);
+        folder.createFile("yyy.java", TEST_CONTENT[1]);
+        folder.createFile("zzz.java", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("etFoo")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.java", "/folder/yyy.java"), paths);
+    }
+
+    @Test
+    public void findsFilesByRegularExpression() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.java", TEST_CONTENT[0]);
+        folder.createFile("yyy.java", TEST_CONTENT[1]);
+        folder.createFile("zzz.java", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("get\\w*Bar")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.java", "/folder/zzz.java"), paths);
+        paths = searcher.search(new QueryExpression().setText("getFoo.*Bar|^int")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.java", "/folder/zzz.java"), paths);
+        paths = searcher.search(new QueryExpression().setText("return f")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.java"), paths);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void failsWhenRegularExpressionIsInvalid() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        searcher.search(new QueryExpression().setText("getFoo(").setRegex(true));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void failsWhenRegularExpressionTakesTooLongToMatch() throws Exception {
+        searcher = new TrigramSearcher(filter, closeCallback, 100);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", Strings.repeat("a", 64) + "!");
+        searcher.init(virtualFileSystem);
+
+        searcher.search(new QueryExpression().setText("(.*a){20}[^!a]").setRegex(true));
+    }
+
+    @Test
+    public void verifiesCaseOfIndexedText() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        assertTrue(searcher.search(new QueryExpression().setText("GETFOO")).getFilePaths().isEmpty());
+        assertEquals(newArrayList("/xxx.java"), searcher.search(new QueryExpression().setText("(?i)GETFOO")).getFilePaths());
+    }
+
+    @Test
+    public void updatesSingleFileInIndex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile file = virtualFileSystem.getRoot().createFolder("aaa").createFile("aaa.java", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        assertTrue(searcher.search(new QueryExpression().setText("barCount")).getFilePaths().isEmpty());
+
+        file.updateContent(TEST_CONTENT[2]);
+        searcher.update(file);
+
+        assertEquals(newArrayList("/aaa/aaa.java"), searcher.search(new QueryExpression().setText("barCount")).getFilePaths());
+        assertTrue(searcher.search(new QueryExpression().setText("setFoo")).getFilePaths().isEmpty());
+    }
+
+    @Test
+    public void deletesFileTreeFromIndex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.java", TEST_CONTENT[0]);
+        virtualFileSystem.getRoot().createFile("yyy.java", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        searcher.delete("/folder", false);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("Foo")).getFilePaths();
+        assertEquals(newArrayList("/yyy.java"), paths);
+    }
+
+    @Test
+    public void searchesByTextAndPathAndFileName() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder1 = virtualFileSystem.getRoot().createFolder("folder1/a/b");
+        VirtualFile folder2 = virtualFileSystem.getRoot().createFolder("folder2/a/b");
+        folder1.createFile("xxx.java", TEST_CONTENT[0]);
+        folder1.createFile("yyy.txt", TEST_CONTENT[0]);
+        folder2.createFile("zzz.java", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("fooBar").setPath("/folder1").setName("*.java")).getFilePaths();
+        assertEquals(newArrayList("/folder1/a/b/xxx.java"), paths);
+    }
+
+    @Test
+    public void findsExcludedFilesByNameOnly() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", TEST_CONTENT[0]);
+        virtualFileSystem.getRoot().createFile("yyy.java", TEST_CONTENT[0]);
+
+        when(filter.accept(withName("yyy.java"))).thenReturn(true);
+        searcher.init(virtualFileSystem);
+
+        assertEquals(newArrayList("/xxx.java"), searcher.search(new QueryExpression().setText("fooBar")).getFilePaths());
+        assertEquals(newArrayList("/yyy.java"), searcher.search(new QueryExpression().setName("yyy.*")).getFilePaths());
+    }
+
+    @Test
+    public void retrievesSearchResultWithContinuationToken() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 75; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = newArrayList();
+        SearchResult page = searcher.search(new QueryExpression().setText("getF").setMaxItems(10));
+        assertEquals(10, page.getFilePaths().size());
+        paths.addAll(page.getFilePaths());
+
+        page = searcher.search(new QueryExpression().setText("getF").setMaxItems(10).setContinuationToken(page.getContinuationToken()));
+        assertEquals(10, page.getFilePaths().size());
+        paths.addAll(page.getFilePaths());
+
+        page = searcher.search(new QueryExpression().setText("getF").setMaxItems(10).setContinuationToken(page.getContinuationToken()));
+        assertEquals(5, page.getFilePaths().size());
+        assertNull(page.getContinuationToken());
+        paths.addAll(page.getFilePaths());
+
+        assertEquals(25, new HashSet<>(paths).size());
+    }
+
+    @Test
+    public void retrievesSearchResultWithPages() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 75; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("getF").setMaxItems(8));
+        assertEquals(8, firstPage.getFilePaths().size());
+
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        assertEquals(8, nextPageQueryExpression.getSkipCount());
+        nextPageQueryExpression.setMaxItems(100);
+
+        SearchResult lastPage = searcher.search(nextPageQueryExpression);
+        assertEquals(17, lastPage.getFilePaths().size());
+        assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
+    }
+
+    @Test
+    public void keepsRegularExpressionAndOccurrencesInNextPageQuery() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 10; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[0]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("get(Foo|Bar)").setRegex(true)
+                                                                      .setIncludeOccurrences(true).setMaxItems(4));
+
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        assertTrue(nextPageQueryExpression.isRegex());
+        assertTrue(nextPageQueryExpression.isIncludeOccurrences());
+        SearchResult nextPage = searcher.search(nextPageQueryExpression);
+        assertEquals(4, nextPage.getFilePaths().size());
+        assertFalse(nextPage.getResults().get(0).getOccurrences().isEmpty());
+    }
+
+    @Test
+    public void findsLinesAndOffsetsOfSearchedText() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("[fF]oo\\b").setIncludeOccurrences(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(5, occurrences.size());
+        assertOccurrence(occurrences.get(0), "Foo", 1, 8, 11);
+        assertOccurrence(occurrences.get(1), "Foo", 1, 12, 15);
+        assertOccurrence(occurrences.get(2), "foo", 1, 16, 19);
+        assertOccurrence(occurrences.get(3), "foo", 2, 32, 35);
+        assertOccurrence(occurrences.get(4), "foo", 2, 38, 41);
+    }
+
+    @Test
+    public void notifiesCallbackWhenSearcherClosed() throws Exception {
+        searcher.init(virtualFileSystem());
+
+        searcher.close();
+
+        assertTrue(searcher.isClosed());
+        verify(closeCallback).onClose();
+    }
+
+    private static void assertOccurrence(SearchOccurrence occurrence, String phrase, int lineNumber, int startOffset, int endOffset) {
+        assertEquals(phrase, occurrence.getPhrase());
+        assertEquals(lineNumber, occurrence.getLineNumber());
+        assertEquals(startOffset, occurrence.getStartOffset());
+        assertEquals(endOffset, occurrence.getEndOffset());
+    }
+
+    private VirtualFileSystem virtualFileSystem() throws Exception {
+        return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
+    }
+
+    private static VirtualFile withName(String name) {
+        return argThat(new ArgumentMatcher<VirtualFile>() {
+            @Override
+            public boolean matches(Object argument) {
+                return name.equals(((VirtualFile)argument).getName());
+            }
+        });
+    }
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Describes a batch of project changes which should be applied to the workspace config.
+ *
+ * <p>The diff is applied only if {@link #getRevision() revision} matches the revision
+ * of the projects currently stored in the workspace config, see {@link WorkspaceProjectsDto}.
+ */
+@DTO
+public interface ProjectsDiffDto {
+
+    /**
+     * Returns the revision of the workspace projects the diff was computed against,
+     * or null if the diff should be applied unconditionally.
+     */
+    String getRevision();
+
+    void setRevision(String revision);
+
+    ProjectsDiffDto withRevision(String revision);
+
+    /** Returns projects which should be added or replaced (matched by path). */
+    List<ProjectConfigDto> getUpdated();
+
+    void setUpdated(List<ProjectConfigDto> updated);
+
+    ProjectsDiffDto withUpdated(List<ProjectConfigDto> updated);
+
+    /** Returns paths of projects which should be removed. */
+    List<String> getRemoved();
+
+    void setRemoved(List<String> removed);
+
+    ProjectsDiffDto withRemoved(List<String> removed);
+}
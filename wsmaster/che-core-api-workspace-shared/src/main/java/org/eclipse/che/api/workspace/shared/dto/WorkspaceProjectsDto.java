@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Projects of the workspace config together with their revision.
+ */
+@DTO
+public interface WorkspaceProjectsDto {
+
+    /** Returns the revision of the projects, changes each time any project is modified. */
+    String getRevision();
+
+    void setRevision(String revision);
+
+    WorkspaceProjectsDto withRevision(String revision);
+
+    List<ProjectConfigDto> getProjects();
+
+    void setProjects(List<ProjectConfigDto> projects);
+
+    WorkspaceProjectsDto withProjects(List<ProjectConfigDto> projects);
+}
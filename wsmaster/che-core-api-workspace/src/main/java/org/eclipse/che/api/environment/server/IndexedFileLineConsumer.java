@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.environment.server;
+
+import org.eclipse.che.api.core.util.FileLineConsumer;
+import org.eclipse.che.commons.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Writes process logs into file together with sparse index of lines offsets,
+ * which allows {@link ProcessLogsReader} to read the range of logs without reading the whole file.
+ *
+ * <p>Index is a sequence of fixed size records {@code (line number, byte offset of the line, time in milliseconds)}
+ * written for the first line and then for every {@value #LINES_PER_RECORD}th line
+ * or for the first line written after {@value #MILLIS_PER_RECORD} milliseconds since the previous record.
+ */
+public class IndexedFileLineConsumer extends FileLineConsumer {
+    static final int  RECORD_SIZE       = 3 * Long.BYTES;
+    static final int  LINES_PER_RECORD  = 1000;
+    static final long MILLIS_PER_RECORD = 1000;
+
+    private final File             indexFile;
+    private final DataOutputStream index;
+    private final Charset          charset;
+
+    private boolean isOpen;
+    private long    lines;
+    private long    offset;
+    private long    linesSinceRecord;
+    private long    lastRecordTime;
+
+    public IndexedFileLineConsumer(File file,
+                                   File indexFile,
+                                   @Nullable ScheduledExecutorService flusher,
+                                   long flushDelayMs) throws IOException {
+        super(file, flusher, flushDelayMs);
+        this.indexFile = indexFile;
+        this.index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+        this.charset = Charset.defaultCharset();
+        this.isOpen = true;
+    }
+
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    @Override
+    public synchronized void writeLine(String line) throws IOException {
+        if (!isOpen) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (lines == 0 || linesSinceRecord >= LINES_PER_RECORD || now - lastRecordTime >= MILLIS_PER_RECORD) {
+            index.writeLong(lines);
+            index.writeLong(offset);
+            index.writeLong(now);
+            linesSinceRecord = 0;
+            lastRecordTime = now;
+        }
+        super.writeLine(line);
+        // line may contain line separators, so it takes more than one line in file
+        long written = 1;
+        if (line != null) {
+            for (int i = line.indexOf('\n'); i != -1; i = line.indexOf('\n', i + 1)) {
+                written++;
+            }
+            offset += line.getBytes(charset).length;
+        }
+        offset++;
+        lines += written;
+        linesSinceRecord += written;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        super.flush();
+        if (isOpen) {
+            index.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (isOpen) {
+            isOpen = false;
+            try {
+                super.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ package org.eclipse.che.api.environment.server;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
@@ -34,7 +35,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
-import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.File;
@@ -45,6 +45,7 @@ import java.nio.file.Files;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
@@ -67,6 +68,23 @@ public class MachineProcessManager {
     @VisibleForTesting
     final ExecutorService executor;
 
+    /** Writes buffered process logs into files and sends batched process output to websocket channels. */
+    private final ScheduledExecutorService logsFlusher;
+
+    /** Max delay between producing of a process output line and writing it into the process logs file. */
+    @Inject(optional = true)
+    @Named("che.workspace.process.logs_flush_delay_ms")
+    private long logsFlushDelayMs = 1000;
+
+    /**
+     * Max delay between producing of a process output line and sending it to the process output channel,
+     * lines produced within this delay are joined with '\n' and sent as a single message.
+     * If it is 0, each line is sent as a separate message.
+     */
+    @Inject(optional = true)
+    @Named("che.workspace.process.output_latency_ms")
+    private long outputLatencyMs = 0;
+
     @Inject
     public MachineProcessManager(@Named("che.workspace.logs") String machineLogsDir,
                                  EventService eventService,
@@ -80,6 +98,11 @@ public class MachineProcessManager {
                                                                                    LoggingUncaughtExceptionHandler.getInstance())
                                                                            .setDaemon(false)
                                                                            .build());
+        logsFlusher = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("MachineProcessLogsFlusher-%d")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
     }
 
     /**
@@ -219,13 +242,39 @@ public class MachineProcessManager {
         throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
     }
 
+    /**
+     * Gets reader of the process logs ranges.
+     *
+     * @param machineId
+     *         machine id whose process logs will be returned
+     * @param pid
+     *         process id
+     * @return reader which reads ranges of the process logs without reading the whole logs file
+     * @throws NotFoundException
+     *         if logs of the specified process are not available
+     */
+    public ProcessLogsReader getProcessLogsReader(String machineId, int pid) throws NotFoundException {
+        final File processLogsFile = getProcessLogsFile(machineId, pid);
+        if (processLogsFile.isFile()) {
+            return new ProcessLogsReader(processLogsFile, getProcessLogsIndexFile(machineId, pid));
+        }
+        throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+    }
+
     private File getProcessLogsFile(String machineId, int pid) {
         return new File(new File(machineLogsDir, machineId), Integer.toString(pid));
     }
 
+    private File getProcessLogsIndexFile(String machineId, int pid) {
+        return new File(new File(machineLogsDir, machineId), pid + ".idx");
+    }
+
     private FileLineConsumer getProcessFileLogger(String machineId, int pid) throws MachineException {
         try {
-            return new FileLineConsumer(getProcessLogsFile(machineId, pid));
+            return new IndexedFileLineConsumer(getProcessLogsFile(machineId, pid),
+                                               getProcessLogsIndexFile(machineId, pid),
+                                               logsFlusher,
+                                               logsFlushDelayMs);
         } catch (IOException e) {
             throw new MachineException(
                     String.format("Unable create log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
@@ -239,7 +288,11 @@ public class MachineProcessManager {
 
     private LineConsumer getLogger(LineConsumer fileLogger, String outputChannel) throws MachineException {
         if (outputChannel != null) {
-            return new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
+            final WebsocketLineConsumer websocketLogger = outputLatencyMs > 0 ? new WebsocketLineConsumer(outputChannel,
+                                                                                                          logsFlusher,
+                                                                                                          outputLatencyMs)
+                                                                              : new WebsocketLineConsumer(outputChannel);
+            return new CompositeLineConsumer(fileLogger, websocketLogger);
         }
         return fileLogger;
     }
@@ -278,6 +331,9 @@ public class MachineProcessManager {
             executor.shutdownNow();
         }
 
+        // processes loggers are closed at this point, so buffered logs are already written
+        logsFlusher.shutdownNow();
+
         if (interrupted) {
             Thread.currentThread().interrupt();
         }
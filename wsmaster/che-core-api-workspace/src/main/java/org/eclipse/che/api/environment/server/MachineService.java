@@ -38,6 +38,7 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -48,6 +49,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -274,8 +276,11 @@ public class MachineService extends Service {
     @GET
     @Path("/{machineId}/process/{pid}/logs")
     @Produces(MediaType.TEXT_PLAIN)
-    @ApiOperation(value = "Get logs of machine process")
+    @ApiOperation(value = "Get logs of machine process",
+                  notes = "Returns the whole logs if none of 'tail', 'from' and 'since' parameters is set")
     @ApiResponses({@ApiResponse(code = 200, message = "The response contains logs"),
+                   @ApiResponse(code = 400, message = "More than one of 'tail', 'from' and 'since' parameters is set, " +
+                                                      "or 'tail', 'from' or 'limit' parameter is negative"),
                    @ApiResponse(code = 404, message = "Machine or process with specified ID does not exist"),
                    @ApiResponse(code = 500, message = "Internal server error occurred")})
     public void getProcessLogs(@ApiParam(value = "Workspace ID")
@@ -287,14 +292,57 @@ public class MachineService extends Service {
                                @ApiParam(value = "Process ID")
                                @PathParam("pid")
                                int pid,
+                               @ApiParam(value = "Number of the last lines to return")
+                               @QueryParam("tail")
+                               Integer tail,
+                               @ApiParam(value = "Number of the first line to return, starting from 0")
+                               @QueryParam("from")
+                               Long fromLine,
+                               @ApiParam(value = "Return lines written since this time, in milliseconds since epoch")
+                               @QueryParam("since")
+                               Long since,
+                               @ApiParam(value = "Return lines written until this time, in milliseconds since epoch. " +
+                                                 "Used together with 'since' parameter")
+                               @QueryParam("until")
+                               Long until,
+                               @ApiParam(value = "Max number of lines to return. Used together with 'from' or 'since' parameter")
+                               @DefaultValue("1000")
+                               @QueryParam("limit")
+                               int limit,
                                @Context
                                HttpServletResponse httpServletResponse)
             throws NotFoundException,
                    ForbiddenException,
                    ServerException,
+                   BadRequestException,
                    IOException {
 
-        addProcessLogsToResponse(machineId, pid, httpServletResponse);
+        if (tail == null && fromLine == null && since == null) {
+            addProcessLogsToResponse(machineId, pid, httpServletResponse);
+            return;
+        }
+        if ((tail != null ? 1 : 0) + (fromLine != null ? 1 : 0) + (since != null ? 1 : 0) > 1) {
+            throw new BadRequestException("Only one of 'tail', 'from' and 'since' parameters is allowed");
+        }
+        requiredNotNegative(tail, "tail");
+        requiredNotNegative(fromLine, "from");
+        requiredNotNegative(limit, "limit");
+        final ProcessLogsReader logsReader = machineProcessManager.getProcessLogsReader(machineId, pid);
+        final List<String> lines;
+        if (tail != null) {
+            lines = logsReader.tail(tail);
+        } else if (fromLine != null) {
+            lines = logsReader.readLines(fromLine, limit);
+        } else {
+            lines = logsReader.readLines(since, until == null ? Long.MAX_VALUE : until, limit);
+        }
+        httpServletResponse.setContentType("text/plain");
+        final Writer writer = httpServletResponse.getWriter();
+        for (String line : lines) {
+            writer.write(line);
+            writer.write('\n');
+        }
+        writer.flush();
     }
 
     /**
@@ -318,6 +366,22 @@ public class MachineService extends Service {
         }
     }
 
+    /**
+     * Checks number is not negative
+     *
+     * @param number
+     *         number to check, {@code null} is allowed
+     * @param subject
+     *         used as subject of exception message "{subject} must not be negative"
+     * @throws BadRequestException
+     *         when number is negative
+     */
+    private void requiredNotNegative(Number number, String subject) throws BadRequestException {
+        if (number != null && number.longValue() < 0) {
+            throw new BadRequestException(subject + " must not be negative");
+        }
+    }
+
     private void addProcessLogsToResponse(String machineId, int pid, HttpServletResponse httpServletResponse) throws IOException,
                                                                                                                      NotFoundException,
                                                                                                                      MachineException {
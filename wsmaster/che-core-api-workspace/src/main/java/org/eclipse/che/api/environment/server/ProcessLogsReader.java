@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.environment.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.eclipse.che.api.environment.server.IndexedFileLineConsumer.RECORD_SIZE;
+
+/**
+ * Reads ranges of process logs written by {@link IndexedFileLineConsumer}.
+ *
+ * <p>Reading starts from the closest preceding index record, so only a small part of the file
+ * is read regardless of the range position. Logs written without index are read from the beginning.
+ * Time ranges are resolved with the precision of index records, so returned lines
+ * may start a bit earlier and end a bit later than requested.
+ */
+public class ProcessLogsReader {
+    private static final Record FIRST_LINE = new Record(0, 0, 0);
+
+    private final File    logsFile;
+    private final File    indexFile;
+    private final Charset charset;
+
+    public ProcessLogsReader(File logsFile, File indexFile) {
+        this.logsFile = logsFile;
+        this.indexFile = indexFile;
+        this.charset = Charset.defaultCharset();
+    }
+
+    /**
+     * Returns the last lines of logs.
+     *
+     * @param count
+     *         max number of lines to return
+     * @throws IllegalArgumentException
+     *         when count is negative
+     */
+    public List<String> tail(int count) throws IOException {
+        checkArgument(count >= 0, "Number of lines must not be negative");
+        final Record last;
+        try (RandomAccessFile index = openIndex()) {
+            final long records = records(index);
+            last = records == 0 ? FIRST_LINE : read(index, records - 1);
+        }
+        final long total = last.line + readLines(last, 0, Long.MAX_VALUE, null);
+        return readLines(Math.max(0, total - count), count);
+    }
+
+    /**
+     * Returns lines of logs starting from the given line.
+     *
+     * @param fromLine
+     *         number of the first line to return, starting from 0
+     * @param limit
+     *         max number of lines to return
+     * @throws IllegalArgumentException
+     *         when the first line number or limit is negative
+     */
+    public List<String> readLines(long fromLine, int limit) throws IOException {
+        checkArgument(fromLine >= 0, "Line number must not be negative");
+        checkArgument(limit >= 0, "Limit must not be negative");
+        final Record start;
+        try (RandomAccessFile index = openIndex()) {
+            start = floor(index, fromLine, true);
+        }
+        final List<String> lines = new ArrayList<>();
+        readLines(start, fromLine - start.line, limit, lines);
+        return lines;
+    }
+
+    /**
+     * Returns lines of logs written within the given time range.
+     *
+     * @param since
+     *         start of the range in milliseconds since epoch
+     * @param until
+     *         end of the range in milliseconds since epoch
+     * @param limit
+     *         max number of lines to return
+     * @throws IllegalArgumentException
+     *         when limit is negative
+     */
+    public List<String> readLines(long since, long until, int limit) throws IOException {
+        checkArgument(limit >= 0, "Limit must not be negative");
+        final Record start;
+        long end = Long.MAX_VALUE;
+        try (RandomAccessFile index = openIndex()) {
+            start = floor(index, since, false);
+            final long records = records(index);
+            // first record written after the end of the range bounds the lines to read
+            long low = 0;
+            long high = records - 1;
+            while (low <= high) {
+                final long middle = (low + high) >>> 1;
+                final Record record = read(index, middle);
+                if (record.time > until) {
+                    end = record.line;
+                    high = middle - 1;
+                } else {
+                    low = middle + 1;
+                }
+            }
+        }
+        final List<String> lines = new ArrayList<>();
+        readLines(start, 0, Math.min(limit, end - start.line), lines);
+        return lines;
+    }
+
+    /**
+     * Reads lines starting from the given record.
+     *
+     * @param start
+     *         record to start reading from
+     * @param skip
+     *         number of lines to skip
+     * @param limit
+     *         max number of lines to read after skipped ones
+     * @param lines
+     *         list to add read lines to, {@code null} if lines should be only counted
+     * @return number of read lines, excluding skipped ones
+     */
+    private long readLines(Record start, long skip, long limit, List<String> lines) throws IOException {
+        if (!logsFile.isFile() || limit <= 0) {
+            return 0;
+        }
+        try (RandomAccessFile logs = new RandomAccessFile(logsFile, "r")) {
+            logs.seek(start.offset);
+            final InputStream in = new BufferedInputStream(Channels.newInputStream(logs.getChannel()));
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long skipped = 0;
+            long read = 0;
+            int b;
+            while (read < limit && (b = in.read()) != -1) {
+                if (b != '\n') {
+                    if (skipped == skip && lines != null) {
+                        line.write(b);
+                    }
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                } else {
+                    if (lines != null) {
+                        lines.add(new String(line.toByteArray(), charset));
+                        line.reset();
+                    }
+                    read++;
+                }
+            }
+            // line which is not terminated yet
+            if (read < limit && skipped == skip && line.size() > 0) {
+                if (lines != null) {
+                    lines.add(new String(line.toByteArray(), charset));
+                }
+                read++;
+            }
+            return read;
+        }
+    }
+
+    private RandomAccessFile openIndex() throws IOException {
+        return indexFile.isFile() ? new RandomAccessFile(indexFile, "r") : null;
+    }
+
+    /** Returns the last record with line number (or time) less than or equal to the given one. */
+    private Record floor(RandomAccessFile index, long value, boolean byLine) throws IOException {
+        Record result = FIRST_LINE;
+        long low = 0;
+        long high = records(index) - 1;
+        while (low <= high) {
+            final long middle = (low + high) >>> 1;
+            final Record record = read(index, middle);
+            if ((byLine ? record.line : record.time) <= value) {
+                result = record;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    private static long records(RandomAccessFile index) throws IOException {
+        // the last record may be written partially
+        return index == null ? 0 : index.length() / RECORD_SIZE;
+    }
+
+    private static Record read(RandomAccessFile index, long position) throws IOException {
+        index.seek(position * RECORD_SIZE);
+        return new Record(index.readLong(), index.readLong(), index.readLong());
+    }
+
+    private static class Record {
+        final long line;
+        final long offset;
+        final long time;
+
+        Record(long line, long offset, long time) {
+            this.line = line;
+            this.offset = offset;
+            this.time = time;
+        }
+    }
+}
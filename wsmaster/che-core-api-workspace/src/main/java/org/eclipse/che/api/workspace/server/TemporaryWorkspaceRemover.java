@@ -64,8 +64,7 @@ public class TemporaryWorkspaceRemover {
     @VisibleForTesting
     void removeTemporaryWs() throws ServerException {
         final int count = 100;
-        int skip = 0;
-        List<WorkspaceImpl> workspaces = workspaceDao.getWorkspaces(true, skip, count);
+        List<WorkspaceImpl> workspaces = workspaceDao.getWorkspaces(true, (String)null, count);
         while (!workspaces.isEmpty()) {
             for (WorkspaceImpl workspace : workspaces) {
                 try {
@@ -74,8 +73,8 @@ public class TemporaryWorkspaceRemover {
                     LOG.error("Unable to cleanup temporary workspace {}. Reason is {}", workspace.getId(), e.getLocalizedMessage());
                 }
             }
-            skip = skip + count;
-            workspaces = workspaceDao.getWorkspaces(true, skip, count);
+            final String lastId = workspaces.get(workspaces.size() - 1).getId();
+            workspaces = workspaceDao.getWorkspaces(true, lastId, count);
         }
     }
 
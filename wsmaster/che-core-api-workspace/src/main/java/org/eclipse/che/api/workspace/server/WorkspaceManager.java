@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.workspace.server;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 
 import org.eclipse.che.account.api.AccountManager;
@@ -20,6 +22,7 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.machine.MachineConfig;
+import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.workspace.Workspace;
 import org.eclipse.che.api.core.model.workspace.WorkspaceConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -36,7 +39,10 @@ import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
+import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
+import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,9 +57,11 @@ import static com.google.common.base.Throwables.getCausalChain;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.workspace.server.DtoConverter.asDto;
 import static org.eclipse.che.api.workspace.shared.Constants.AUTO_CREATE_SNAPSHOT;
 import static org.eclipse.che.api.workspace.shared.Constants.AUTO_RESTORE_FROM_SNAPSHOT;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_BY;
@@ -84,6 +92,17 @@ public class WorkspaceManager {
     private final EventService        eventService;
     private final boolean             defaultAutoSnapshot;
     private final boolean             defaultAutoRestore;
+    private final StripedLocks        updateLocks;
+
+    /** Modification of the workspace projects, applied by {@link #updateProjects(String, String, ProjectsModification)}. */
+    public interface ProjectsModification {
+        /**
+         * Modifies projects of the given workspace configuration.
+         *
+         * @return true if the configuration was modified, false otherwise
+         */
+        boolean modify(WorkspaceConfigImpl config) throws BadRequestException, ServerException;
+    }
 
     @Inject
     public WorkspaceManager(WorkspaceDao workspaceDao,
@@ -102,6 +121,7 @@ public class WorkspaceManager {
         this.defaultAutoSnapshot = defaultAutoSnapshot;
         this.defaultAutoRestore = defaultAutoRestore;
         this.sharedPool = sharedPool;
+        this.updateLocks = new StripedLocks(16);
     }
 
     /**
@@ -315,6 +335,89 @@ public class WorkspaceManager {
         return workspaces;
     }
 
+    /**
+     * Gets a page of workspaces which has given namespace and status.
+     *
+     * <p>Workspaces are ordered by their identifiers, the next page
+     * may be fetched by passing the identifier of the last workspace
+     * from the previous page as {@code afterId}. Status is runtime state
+     * which is not persisted, so when it is specified, pages are read
+     * from the storage until {@code maxItems} matching workspaces are
+     * found or there are no workspaces left. The page is shorter than
+     * {@code maxItems} only if it is the last one.
+     *
+     * @param namespace
+     *         the namespace to find workspaces
+     * @param includeRuntimes
+     *         if <code>true</code>, will fetch runtime info for workspaces.
+     *         If <code>false</code>, will not fetch runtime info.
+     * @param status
+     *         the status of workspaces to return, or {@code null} to return
+     *         workspaces with any status
+     * @param afterId
+     *         the identifier of the last workspace from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         the maximum number of workspaces to return, 0 means no limit
+     * @return the list of workspaces or empty list if no matches
+     * @throws NullPointerException
+     *         when {@code namespace} is null
+     * @throws ServerException
+     *         when any server error occurs while getting workspaces with
+     *         {@link WorkspaceDao#getByNamespace(String, String, int)}
+     */
+    public List<WorkspaceImpl> getByNamespace(String namespace,
+                                              boolean includeRuntimes,
+                                              @Nullable WorkspaceStatus status,
+                                              @Nullable String afterId,
+                                              int maxItems) throws ServerException {
+        requireNonNull(namespace, "Required non-null namespace");
+        return readPage((lastId, pageSize) -> workspaceDao.getByNamespace(namespace, lastId, pageSize),
+                        includeRuntimes,
+                        status,
+                        afterId,
+                        maxItems);
+    }
+
+    /**
+     * Gets a page of workspaces which user can read and which have given status.
+     *
+     * <p>Pages are formed the same way as by
+     * {@link #getByNamespace(String, boolean, WorkspaceStatus, String, int)}.
+     *
+     * @param user
+     *         the id of the user
+     * @param includeRuntimes
+     *         if <code>true</code>, will fetch runtime info for workspaces.
+     *         If <code>false</code>, will not fetch runtime info.
+     * @param status
+     *         the status of workspaces to return, or {@code null} to return
+     *         workspaces with any status
+     * @param afterId
+     *         the identifier of the last workspace from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         the maximum number of workspaces to return, 0 means no limit
+     * @return the list of workspaces or empty list if user can't read any workspace
+     * @throws NullPointerException
+     *         when {@code user} is null
+     * @throws ServerException
+     *         when any server error occurs while getting workspaces with
+     *         {@link WorkspaceDao#getWorkspaces(String, String, int)}
+     */
+    public List<WorkspaceImpl> getWorkspaces(String user,
+                                             boolean includeRuntimes,
+                                             @Nullable WorkspaceStatus status,
+                                             @Nullable String afterId,
+                                             int maxItems) throws ServerException {
+        requireNonNull(user, "Required non-null user id");
+        return readPage((lastId, pageSize) -> workspaceDao.getWorkspaces(user, lastId, pageSize),
+                        includeRuntimes,
+                        status,
+                        afterId,
+                        maxItems);
+    }
+
     /**
      * Updates an existing workspace with a new configuration.
      *
@@ -338,14 +441,78 @@ public class WorkspaceManager {
                                                                              NotFoundException {
         requireNonNull(id, "Required non-null workspace id");
         requireNonNull(update, "Required non-null workspace update");
-        WorkspaceImpl workspace = workspaceDao.get(id);
-        workspace.setConfig(new WorkspaceConfigImpl(update.getConfig()));
-        update.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
-        workspace.setAttributes(update.getAttributes());
-        workspace.setTemporary(update.isTemporary());
-        WorkspaceImpl updated = workspaceDao.update(workspace);
-        runtimes.injectRuntime(updated);
-        return updated;
+        try (@SuppressWarnings("unused") Unlocker u = updateLocks.writeLock(id)) {
+            WorkspaceImpl workspace = workspaceDao.get(id);
+            workspace.setConfig(new WorkspaceConfigImpl(update.getConfig()));
+            update.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
+            workspace.setAttributes(update.getAttributes());
+            workspace.setTemporary(update.isTemporary());
+            WorkspaceImpl updated = workspaceDao.update(workspace);
+            runtimes.injectRuntime(updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Atomically modifies projects of the workspace if they were not modified since the given revision.
+     *
+     * <p>The check and the update are performed under the same lock which is also held
+     * by {@link #updateWorkspace(String, Workspace)}, so the workspace can't be updated
+     * between them.
+     *
+     * @param id
+     *         workspace id
+     * @param revision
+     *         revision of the projects the modification is based on,
+     *         null if the modification should be applied to any revision
+     * @param modification
+     *         modification of the projects
+     * @return the workspace with the modified projects or the workspace as is if nothing was modified
+     * @throws NullPointerException
+     *         when either {@code id} or {@code modification} is null
+     * @throws NotFoundException
+     *         when workspace with given id doesn't exist
+     * @throws ConflictException
+     *         when the projects were modified since the given revision
+     * @throws BadRequestException
+     *         when the modified configuration is not valid
+     * @throws ServerException
+     *         when any other error occurs
+     * @see #projectsRevision(List)
+     */
+    public WorkspaceImpl updateProjects(String id,
+                                        @Nullable String revision,
+                                        ProjectsModification modification) throws ConflictException,
+                                                                                   BadRequestException,
+                                                                                   NotFoundException,
+                                                                                   ServerException {
+        requireNonNull(id, "Required non-null workspace id");
+        requireNonNull(modification, "Required non-null projects modification");
+        try (@SuppressWarnings("unused") Unlocker u = updateLocks.writeLock(id)) {
+            final WorkspaceImpl workspace = workspaceDao.get(id);
+            if (revision != null && !revision.equals(projectsRevision(workspace.getConfig().getProjects()))) {
+                throw new ConflictException(format("Projects of workspace '%s' were modified since revision '%s'",
+                                                   id,
+                                                   revision));
+            }
+            if (!modification.modify(workspace.getConfig())) {
+                runtimes.injectRuntime(workspace);
+                return workspace;
+            }
+            return updateWorkspace(id, workspace);
+        }
+    }
+
+    /**
+     * Returns the revision of the given projects, revisions are equal
+     * only if the projects and their order are equal.
+     */
+    public static String projectsRevision(List<? extends ProjectConfig> projects) {
+        final Hasher hasher = Hashing.md5().newHasher();
+        for (ProjectConfig project : projects) {
+            hasher.putString(DtoFactory.getInstance().toJson(asDto(project)), UTF_8);
+        }
+        return hasher.hash().toString();
     }
 
     /**
@@ -845,6 +1012,46 @@ public class WorkspaceManager {
     }
 
 
+    /** Reads a page of workspaces from the storage. */
+    private interface PageReader {
+        List<WorkspaceImpl> read(@Nullable String afterId, int maxItems) throws ServerException;
+    }
+
+    /**
+     * Reads storage pages until {@code maxItems} workspaces with given status
+     * are found or there are no workspaces left.
+     */
+    private List<WorkspaceImpl> readPage(PageReader reader,
+                                         boolean includeRuntimes,
+                                         @Nullable WorkspaceStatus status,
+                                         @Nullable String afterId,
+                                         int maxItems) throws ServerException {
+        final List<WorkspaceImpl> result = new ArrayList<>();
+        String lastId = afterId;
+        List<WorkspaceImpl> page;
+        do {
+            page = reader.read(lastId, maxItems);
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            if (includeRuntimes) {
+                injectRuntimes(page);
+            } else {
+                injectStatuses(page);
+            }
+            for (WorkspaceImpl workspace : page) {
+                if (status == null || status == workspace.getStatus()) {
+                    result.add(workspace);
+                    if (result.size() == maxItems) {
+                        return result;
+                    }
+                }
+            }
+        } while (page.size() == maxItems);
+        return result;
+    }
+
     private void injectRuntimes(List<? extends WorkspaceImpl> workspaces) {
         for (WorkspaceImpl workspace : workspaces) {
             runtimes.injectRuntime(workspace);
@@ -59,18 +59,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -657,19 +661,84 @@ public class WorkspaceRuntimes {
         return state;
     }
 
+    /**
+     * Launches the agents and waits until all of them are launched,
+     * the callers which don't have to wait should use {@link #launchAgentsAsync(Instance, List)}.
+     */
     protected void launchAgents(Instance instance, List<String> agents) throws ServerException {
+        final CompletableFuture<Void> launched = launchAgentsAsync(instance, agents);
         try {
-            for (AgentKey agentKey : agentSorter.sort(agents)) {
-                if (!Thread.currentThread().isInterrupted()) {
-                    LOG.info("Launching '{}' agent at workspace {}", agentKey.getId(), instance.getWorkspaceId());
-                    Agent agent = agentRegistry.getAgent(agentKey);
-                    AgentLauncher launcher = launcherFactory.find(agentKey.getId(), instance.getConfig().getType());
-                    launcher.launch(instance, agent);
-                }
+            launched.get();
+        } catch (InterruptedException e) {
+            launched.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new MachineException(format("Launching agents of machine '%s' is interrupted", instance.getId()));
+        } catch (CancellationException e) {
+            throw new MachineException(format("Launching agents of machine '%s' is cancelled", instance.getId()));
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
             }
+            throw new MachineException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    /**
+     * Launches the agents one after another in the order of their dependencies,
+     * the next agent is launched by the shared pool when the previous one is launched,
+     * so no thread is blocked while an agent is being started.
+     * Cancellation of the returned future stops the launching.
+     */
+    protected CompletableFuture<Void> launchAgentsAsync(Instance instance, List<String> agents) {
+        final CompletableFuture<Void> launched = new CompletableFuture<>();
+        try {
+            launchNextAgent(instance, agentSorter.sort(agents).iterator(), launched);
         } catch (AgentException e) {
-            throw new MachineException(e.getMessage(), e);
+            launched.completeExceptionally(new MachineException(e.getMessage(), e));
         }
+        return launched;
+    }
+
+    private void launchNextAgent(Instance instance, Iterator<AgentKey> agentKeys, CompletableFuture<Void> launched) {
+        if (launched.isDone()) {
+            return;
+        }
+        if (!agentKeys.hasNext()) {
+            launched.complete(null);
+            return;
+        }
+        final AgentKey agentKey = agentKeys.next();
+        final CompletableFuture<Void> agentLaunched;
+        try {
+            LOG.info("Launching '{}' agent at workspace {}", agentKey.getId(), instance.getWorkspaceId());
+            Agent agent = agentRegistry.getAgent(agentKey);
+            AgentLauncher launcher = launcherFactory.find(agentKey.getId(), instance.getConfig().getType());
+            agentLaunched = launcher.launchAsync(instance, agent);
+        } catch (AgentException e) {
+            launched.completeExceptionally(new MachineException(e.getMessage(), e));
+            return;
+        } catch (RuntimeException e) {
+            launched.completeExceptionally(e);
+            return;
+        }
+        launched.whenComplete((ignored, error) -> agentLaunched.cancel(false));
+        agentLaunched.whenComplete((ignored, error) -> {
+            if (error != null) {
+                launched.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else if (agentKeys.hasNext()) {
+                try {
+                    sharedPool.execute(() -> launchNextAgent(instance, agentKeys, launched));
+                } catch (RejectedExecutionException e) {
+                    launched.completeExceptionally(new MachineException("Launching of agents is stopped"));
+                }
+            } else {
+                launched.complete(null);
+            }
+        });
     }
 
     /**
@@ -40,8 +40,10 @@ import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentRecipeDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsDiffDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceProjectsDto;
 import org.eclipse.che.api.workspace.shared.dto.WsAgentHealthStateDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 
@@ -70,6 +72,7 @@ import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static org.eclipse.che.api.workspace.server.DtoConverter.asDto;
+import static org.eclipse.che.api.workspace.server.WorkspaceManager.projectsRevision;
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_CREATE_WORKSPACE;
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_GET_BY_NAMESPACE;
 import static org.eclipse.che.api.workspace.shared.Constants.LINK_REL_GET_WORKSPACES;
@@ -203,17 +206,35 @@ public class WorkspaceService extends Service {
                                             @DefaultValue("0")
                                             @QueryParam("skipCount")
                                             Integer skipCount,
-                                            @ApiParam("The limit of the items in the response, default is 30")
-                                            @DefaultValue("30")
+                                            @ApiParam("The limit of the items in the response, " +
+                                                      "when absent all the workspaces are returned")
                                             @QueryParam("maxItems")
                                             Integer maxItems,
                                             @ApiParam("Workspace status")
                                             @QueryParam("status")
-                                            String status) throws ServerException, BadRequestException {
-        //TODO add maxItems & skipCount to manager
-        return workspaceManager.getWorkspaces(EnvironmentContext.getCurrent().getSubject().getUserId(), false)
+                                            String status,
+                                            @ApiParam("The id of the last workspace from the previous page")
+                                            @QueryParam("afterId")
+                                            String afterId) throws ServerException, BadRequestException {
+        if (skipCount < 0) {
+            throw new BadRequestException("The number of items to skip can't be negative");
+        }
+        final String userId = EnvironmentContext.getCurrent().getSubject().getUserId();
+        if (maxItems != null || afterId != null) {
+            // skipped workspaces are read as a part of the page, 0 means no limit
+            final int limit = maxItems == null || checkMaxItems(maxItems) == 0
+                              ? 0
+                              : (int)Math.min((long)maxItems + skipCount, Integer.MAX_VALUE);
+            return workspaceManager.getWorkspaces(userId, false, parseStatus(status), afterId, limit)
+                                   .stream()
+                                   .skip(skipCount)
+                                   .map(workspace -> linksInjector.injectLinks(asDto(workspace), getServiceContext()))
+                                   .collect(toList());
+        }
+        return workspaceManager.getWorkspaces(userId, false)
                                .stream()
                                .filter(ws -> status == null || status.equalsIgnoreCase(ws.getStatus().toString()))
+                               .skip(skipCount)
                                .map(workspace -> linksInjector.injectLinks(asDto(workspace), getServiceContext()))
                                .collect(toList());
     }
@@ -233,7 +254,24 @@ public class WorkspaceService extends Service {
                                              String status,
                                              @ApiParam("The namespace")
                                              @PathParam("namespace")
-                                             String namespace) throws ServerException, BadRequestException {
+                                             String namespace,
+                                             @ApiParam("The limit of the items in the response, " +
+                                                       "when absent all the workspaces are returned")
+                                             @QueryParam("maxItems")
+                                             Integer maxItems,
+                                             @ApiParam("The id of the last workspace from the previous page")
+                                             @QueryParam("afterId")
+                                             String afterId) throws ServerException, BadRequestException {
+        if (maxItems != null || afterId != null) {
+            return workspaceManager.getByNamespace(namespace,
+                                                   false,
+                                                   parseStatus(status),
+                                                   afterId,
+                                                   maxItems == null ? 0 : checkMaxItems(maxItems))
+                                   .stream()
+                                   .map(workspace -> linksInjector.injectLinks(asDto(workspace), getServiceContext()))
+                                   .collect(toList());
+        }
         return workspaceManager.getByNamespace(namespace, false)
                                .stream()
                                .filter(ws -> status == null || status.equalsIgnoreCase(ws.getStatus().toString()))
@@ -685,6 +723,70 @@ public class WorkspaceService extends Service {
         }
     }
 
+    @POST
+    @Path("/{id}/project/sync")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Apply a batch of project changes to the workspace",
+                  notes = "Projects from the 'updated' list replace the projects with the same path or are added, " +
+                          "projects with paths from the 'removed' list are removed. If the revision is specified " +
+                          "and it doesn't match the current revision of the workspace projects the diff is rejected. " +
+                          "This operation can be performed only by the workspace owner")
+    @ApiResponses({@ApiResponse(code = 200, message = "The diff successfully applied, " +
+                                                      "the response contains projects with their new revision"),
+                   @ApiResponse(code = 400, message = "Missed required parameters, parameters are not valid"),
+                   @ApiResponse(code = 403, message = "The user does not have access to update the projects"),
+                   @ApiResponse(code = 404, message = "The workspace not found"),
+                   @ApiResponse(code = 409, message = "The projects were modified since the given revision"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public WorkspaceProjectsDto syncProjects(@ApiParam("The workspace id")
+                                             @PathParam("id")
+                                             String id,
+                                             @ApiParam(value = "The projects diff", required = true)
+                                             ProjectsDiffDto diff) throws ServerException,
+                                                                          BadRequestException,
+                                                                          NotFoundException,
+                                                                          ConflictException,
+                                                                          ForbiddenException {
+        requiredNotNull(diff, "Projects diff");
+        final WorkspaceImpl workspace = workspaceManager.updateProjects(id, diff.getRevision(), config -> {
+            final List<ProjectConfigImpl> projects = config.getProjects();
+            boolean modified = false;
+            for (String path : diff.getRemoved()) {
+                final String normalizedPath = path.startsWith("/") ? path : '/' + path;
+                modified |= projects.removeIf(project -> project.getPath().equals(normalizedPath));
+            }
+            for (ProjectConfigDto update : diff.getUpdated()) {
+                final ProjectConfigImpl project = new ProjectConfigImpl(update);
+                if (!project.getPath().startsWith("/")) {
+                    project.setPath('/' + project.getPath());
+                }
+                projects.removeIf(existing -> existing.getPath().equals(project.getPath()));
+                projects.add(project);
+                modified = true;
+            }
+            if (modified) {
+                validator.validateConfig(config);
+            }
+            return modified;
+        });
+        return asProjectsDto(workspace.getConfig().getProjects());
+    }
+
+    @GET
+    @Path("/{id}/project/sync")
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Get the workspace projects together with their revision",
+                  notes = "The revision may be used for applying a batch of project changes to the workspace")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains projects with their revision"),
+                   @ApiResponse(code = 404, message = "The workspace not found"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public WorkspaceProjectsDto getProjects(@ApiParam("The workspace id")
+                                            @PathParam("id")
+                                            String id) throws NotFoundException, ServerException {
+        return asProjectsDto(workspaceManager.getWorkspace(id).getConfig().getProjects());
+    }
+
     @GET
     @Path("/{id}/check")
     @Produces(APPLICATION_JSON)
@@ -755,6 +857,35 @@ public class WorkspaceService extends Service {
         }
     }
 
+    private static int checkMaxItems(int maxItems) throws BadRequestException {
+        if (maxItems < 0) {
+            throw new BadRequestException("The number of items to return can't be negative");
+        }
+        return maxItems;
+    }
+
+    private static WorkspaceStatus parseStatus(String status) throws BadRequestException {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return WorkspaceStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException x) {
+            throw new BadRequestException("Unknown workspace status '" + status + "'");
+        }
+    }
+
+    /**
+     * Computes the revision of the given projects, the revision changes
+     * whenever any project is added, removed or modified.
+     */
+    private static WorkspaceProjectsDto asProjectsDto(List<ProjectConfigImpl> projects) {
+        return newDto(WorkspaceProjectsDto.class).withRevision(projectsRevision(projects))
+                                                 .withProjects(projects.stream()
+                                                                       .map(DtoConverter::asDto)
+                                                                       .collect(toList()));
+    }
+
     /*
      * Validate composite key.
      *
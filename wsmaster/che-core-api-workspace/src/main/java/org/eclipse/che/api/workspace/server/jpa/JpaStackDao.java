@@ -33,6 +33,7 @@ import javax.persistence.TypedQuery;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -126,6 +127,37 @@ public class JpaStackDao implements StackDao {
         }
     }
 
+    @Override
+    @Transactional
+    public List<StackImpl> searchStacks(@Nullable String user,
+                                        @Nullable List<String> tags,
+                                        @Nullable String afterId,
+                                        int maxItems) throws ServerException {
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        final String lastId = afterId == null ? "" : afterId;
+        final TypedQuery<StackImpl> query;
+        if (tags == null || tags.isEmpty()) {
+            query = managerProvider.get()
+                                   .createNamedQuery("Stack.getAllAfterId", StackImpl.class)
+                                   .setParameter("afterId", lastId);
+        } else {
+            query = managerProvider.get()
+                                   .createNamedQuery("Stack.getByTagsAfterId", StackImpl.class)
+                                   .setParameter("tags", tags)
+                                   .setParameter("tagsSize", tags.size())
+                                   .setParameter("afterId", lastId);
+        }
+        try {
+            return query.setMaxResults(maxItems)
+                        .getResultList()
+                        .stream()
+                        .map(StackImpl::new)
+                        .collect(Collectors.toList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
     @Transactional(rollbackOn = {RuntimeException.class, ApiException.class})
     protected void doCreate(StackImpl stack) throws ConflictException, ServerException {
         if (stack.getWorkspaceConfig() != null) {
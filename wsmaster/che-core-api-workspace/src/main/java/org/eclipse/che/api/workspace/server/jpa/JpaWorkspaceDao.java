@@ -23,6 +23,7 @@ import org.eclipse.che.api.workspace.server.event.WorkspaceRemovedEvent;
 import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
 import org.eclipse.che.core.db.jpa.DuplicateKeyException;
 
@@ -33,6 +34,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import javax.persistence.TypedQuery;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -163,17 +165,35 @@ public class JpaWorkspaceDao implements WorkspaceDao {
         }
     }
 
+    @Override
+    @Transactional
+    public List<WorkspaceImpl> getWorkspaces(String userId,
+                                             @Nullable String afterId,
+                                             int maxItems) throws ServerException {
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        try {
+            return limit(managerProvider.get()
+                                        .createNamedQuery("Workspace.getAllAfterId", WorkspaceImpl.class)
+                                        .setParameter("afterId", afterId == null ? "" : afterId), maxItems)
+                                  .getResultList()
+                                  .stream()
+                                  .map(WorkspaceImpl::new)
+                                  .collect(toList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
     @Override
     @Transactional
     public List<WorkspaceImpl> getWorkspaces(boolean isTemporary, int skipCount, int maxItems) throws ServerException {
         checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
         checkArgument(skipCount >= 0, "The number of items to skip can't be negative or greater than " + Integer.MAX_VALUE);
         try {
-            return managerProvider.get()
-                                  .createNamedQuery("Workspace.getByTemporary", WorkspaceImpl.class)
-                                  .setParameter("temporary", isTemporary)
-                                  .setMaxResults(maxItems)
-                                  .setFirstResult(skipCount)
+            return limit(managerProvider.get()
+                                        .createNamedQuery("Workspace.getByTemporary", WorkspaceImpl.class)
+                                        .setParameter("temporary", isTemporary)
+                                        .setFirstResult(skipCount), maxItems)
                                   .getResultList()
                                   .stream()
                                   .map(WorkspaceImpl::new)
@@ -183,6 +203,52 @@ public class JpaWorkspaceDao implements WorkspaceDao {
         }
     }
 
+    @Override
+    @Transactional
+    public List<WorkspaceImpl> getWorkspaces(boolean isTemporary,
+                                             @Nullable String afterId,
+                                             int maxItems) throws ServerException {
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        try {
+            return limit(managerProvider.get()
+                                        .createNamedQuery("Workspace.getByTemporaryAfterId", WorkspaceImpl.class)
+                                        .setParameter("temporary", isTemporary)
+                                        .setParameter("afterId", afterId == null ? "" : afterId), maxItems)
+                                  .getResultList()
+                                  .stream()
+                                  .map(WorkspaceImpl::new)
+                                  .collect(toList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<WorkspaceImpl> getByNamespace(String namespace,
+                                              @Nullable String afterId,
+                                              int maxItems) throws ServerException {
+        requireNonNull(namespace, "Required non-null namespace");
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        try {
+            return limit(managerProvider.get()
+                                        .createNamedQuery("Workspace.getByNamespaceAfterId", WorkspaceImpl.class)
+                                        .setParameter("namespace", namespace)
+                                        .setParameter("afterId", afterId == null ? "" : afterId), maxItems)
+                                  .getResultList()
+                                  .stream()
+                                  .map(WorkspaceImpl::new)
+                                  .collect(toList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
+    /** Limits the query results to {@code maxItems}, 0 means no limit. */
+    private static <T> TypedQuery<T> limit(TypedQuery<T> query, int maxItems) {
+        return maxItems == 0 ? query : query.setMaxResults(maxItems);
+    }
+
     @Transactional
     protected void doCreate(WorkspaceImpl workspace) {
         if (workspace.getConfig() != null) {
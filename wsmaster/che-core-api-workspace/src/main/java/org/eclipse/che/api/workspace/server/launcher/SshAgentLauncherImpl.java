@@ -11,6 +11,7 @@
 package org.eclipse.che.api.workspace.server.launcher;
 
 import org.eclipse.che.api.agent.server.launcher.AbstractAgentLauncher;
+import org.eclipse.che.api.agent.server.launcher.AgentReadinessMonitor;
 import org.eclipse.che.api.agent.server.launcher.CompositeAgentLaunchingChecker;
 import org.eclipse.che.api.agent.server.launcher.MappedPortIsListeningAgentChecker;
 import org.eclipse.che.api.agent.server.launcher.ProcessIsLaunchedChecker;
@@ -33,11 +34,13 @@ public class SshAgentLauncherImpl extends AbstractAgentLauncher {
 
     @Inject
     public SshAgentLauncherImpl(@Named("che.agent.dev.max_start_time_ms") long agentMaxStartTimeMs,
-                                @Named("che.agent.dev.ping_delay_ms") long agentPingDelayMs) {
+                                @Named("che.agent.dev.ping_delay_ms") long agentPingDelayMs,
+                                AgentReadinessMonitor readinessMonitor) {
         super(agentMaxStartTimeMs,
               agentPingDelayMs,
               new CompositeAgentLaunchingChecker(new ProcessIsLaunchedChecker("sshd"),
-                                                 new MappedPortIsListeningAgentChecker("22/tcp")));
+                                                 new MappedPortIsListeningAgentChecker("22/tcp")),
+              readinessMonitor);
     }
 
     @Override
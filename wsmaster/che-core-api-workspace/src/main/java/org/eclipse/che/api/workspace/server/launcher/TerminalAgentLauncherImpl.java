@@ -11,10 +11,10 @@
 package org.eclipse.che.api.workspace.server.launcher;
 
 import org.eclipse.che.api.agent.server.launcher.AbstractAgentLauncher;
+import org.eclipse.che.api.agent.server.launcher.AgentReadinessMonitor;
 import org.eclipse.che.api.agent.server.launcher.ProcessIsLaunchedChecker;
 import org.eclipse.che.api.agent.server.model.impl.AgentImpl;
 import org.eclipse.che.api.agent.shared.model.Agent;
-import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Starts terminal agent.
@@ -32,21 +33,30 @@ import javax.inject.Singleton;
 public class TerminalAgentLauncherImpl extends AbstractAgentLauncher {
     protected static final Logger LOG = LoggerFactory.getLogger(TerminalAgentLauncherImpl.class);
 
+    /** The line which is printed by the terminal agent when it starts accepting connections. */
+    private static final String LISTENING_OUTPUT_PREFIX = "Exec-agent server is listening on";
+
     private final String runCommand;
 
     @Inject
     public TerminalAgentLauncherImpl(@Named("che.agent.dev.max_start_time_ms") long agentMaxStartTimeMs,
                                      @Named("che.agent.dev.ping_delay_ms") long agentPingDelayMs,
-                                     @Named("machine.terminal_agent.run_command") String runCommand) {
-        super(agentMaxStartTimeMs, agentPingDelayMs, new ProcessIsLaunchedChecker("che-websocket-terminal"));
+                                     @Named("machine.terminal_agent.run_command") String runCommand,
+                                     AgentReadinessMonitor readinessMonitor) {
+        super(agentMaxStartTimeMs, agentPingDelayMs, new ProcessIsLaunchedChecker("che-websocket-terminal"), readinessMonitor);
         this.runCommand = runCommand;
     }
 
     @Override
-    public void launch(Instance machine, Agent agent) throws ServerException {
+    public CompletableFuture<Void> launchAsync(Instance machine, Agent agent) {
         final AgentImpl agentCopy = new AgentImpl(agent);
         agentCopy.setScript(agent.getScript() + "\n" + runCommand);
-        super.launch(machine, agentCopy);
+        return super.launchAsync(machine, agentCopy);
+    }
+
+    @Override
+    protected boolean isReadinessOutput(String line) {
+        return line.startsWith(LISTENING_OUTPUT_PREFIX);
     }
 
     @Override
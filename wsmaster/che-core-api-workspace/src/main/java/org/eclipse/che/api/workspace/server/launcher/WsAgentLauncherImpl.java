@@ -11,6 +11,7 @@
 package org.eclipse.che.api.workspace.server.launcher;
 
 import org.eclipse.che.api.agent.server.WsAgentPingRequestFactory;
+import org.eclipse.che.api.agent.server.launcher.AgentReadinessMonitor;
 import org.eclipse.che.api.agent.server.launcher.AgentLauncher;
 import org.eclipse.che.api.agent.shared.model.Agent;
 import org.eclipse.che.api.core.ApiException;
@@ -33,6 +34,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static org.eclipse.che.api.workspace.shared.Constants.WS_AGENT_PROCESS_NAME;
@@ -56,6 +58,7 @@ public class WsAgentLauncherImpl implements AgentLauncher {
     private final long                            wsAgentPingDelayMs;
     private final String                          pingTimedOutErrorMessage;
     private final String                          wsAgentRunCommand;
+    private final AgentReadinessMonitor           readinessMonitor;
 
     @Inject
     public WsAgentLauncherImpl(Provider<MachineProcessManager> machineProcessManagerProvider,
@@ -63,13 +66,15 @@ public class WsAgentLauncherImpl implements AgentLauncher {
                                @Nullable @Named("machine.ws_agent.run_command") String wsAgentRunCommand,
                                @Named("che.workspace.agent.dev.max_start_time_ms") long wsAgentMaxStartTimeMs,
                                @Named("che.workspace.agent.dev.ping_delay_ms") long wsAgentPingDelayMs,
-                               @Named("che.workspace.agent.dev.ping_timeout_error_msg") String pingTimedOutErrorMessage) {
+                               @Named("che.workspace.agent.dev.ping_timeout_error_msg") String pingTimedOutErrorMessage,
+                               AgentReadinessMonitor readinessMonitor) {
         this.machineProcessManagerProvider = machineProcessManagerProvider;
         this.wsAgentPingRequestFactory = wsAgentPingRequestFactory;
         this.wsAgentMaxStartTimeMs = wsAgentMaxStartTimeMs;
         this.wsAgentPingDelayMs = wsAgentPingDelayMs;
         this.pingTimedOutErrorMessage = pingTimedOutErrorMessage;
         this.wsAgentRunCommand = wsAgentRunCommand;
+        this.readinessMonitor = readinessMonitor;
     }
 
     @Override
@@ -84,11 +89,23 @@ public class WsAgentLauncherImpl implements AgentLauncher {
 
     @Override
     public void launch(Instance machine, Agent agent) throws ServerException {
+        try {
+            readinessMonitor.await(launchAsync(machine, agent));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Ws agent pinging is interrupted");
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> launchAsync(Instance machine, Agent agent) {
+        final CompletableFuture<Void> launched = new CompletableFuture<>();
         final HttpJsonRequest wsAgentPingRequest;
         try {
             wsAgentPingRequest = createPingRequest(machine);
         } catch (ServerException e) {
-            throw new MachineException(e.getServiceError());
+            launched.completeExceptionally(new MachineException(e.getServiceError()));
+            return launched;
         }
 
         String script = agent.getScript() + "\n" + firstNonNull(wsAgentRunCommand, DEFAULT_WS_AGENT_RUN_COMMAND);
@@ -104,28 +121,37 @@ public class WsAgentLauncherImpl implements AgentLauncher {
                                                      machine.getId(),
                                                      command,
                                                      getWsAgentProcessOutputChannel(machine.getWorkspaceId()));
-
-            final long pingStartTimestamp = System.currentTimeMillis();
-            LOG.debug("Starts pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
-                      machine.getWorkspaceId(),
-                      wsAgentPingUrl,
-                      pingStartTimestamp);
-
-            while (System.currentTimeMillis() - pingStartTimestamp < wsAgentMaxStartTimeMs) {
-                if (pingWsAgent(wsAgentPingRequest)) {
-                    return;
-                } else {
-                    Thread.sleep(wsAgentPingDelayMs);
-                }
-            }
         } catch (BadRequestException | ServerException | NotFoundException e) {
-            throw new ServerException(e.getServiceError());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ServerException("Ws agent pinging is interrupted");
+            launched.completeExceptionally(new ServerException(e.getServiceError()));
+            return launched;
         }
-        LOG.error("Fail pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}", machine.getWorkspaceId(), wsAgentPingUrl);
-        throw new ServerException(pingTimedOutErrorMessage);
+
+        final long pingStartTimestamp = System.currentTimeMillis();
+        LOG.debug("Starts pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
+                  machine.getWorkspaceId(),
+                  wsAgentPingUrl,
+                  pingStartTimestamp);
+
+        final CompletableFuture<Boolean> readiness = readinessMonitor.watch(machine.getId(),
+                                                                            getAgentId(),
+                                                                            () -> pingWsAgent(wsAgentPingRequest),
+                                                                            wsAgentPingDelayMs,
+                                                                            wsAgentMaxStartTimeMs);
+        readiness.whenComplete((ready, error) -> {
+            if (error != null) {
+                launched.completeExceptionally(error);
+            } else if (ready) {
+                launched.complete(null);
+            } else {
+                LOG.error("Fail pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
+                          machine.getWorkspaceId(),
+                          wsAgentPingUrl,
+                          pingStartTimestamp);
+                launched.completeExceptionally(new ServerException(pingTimedOutErrorMessage));
+            }
+        });
+        launched.whenComplete((ignored, error) -> readiness.cancel(false));
+        return launched;
     }
 
     public static String getWsAgentProcessOutputChannel(String workspaceId) {
@@ -137,7 +163,7 @@ public class WsAgentLauncherImpl implements AgentLauncher {
         return wsAgentPingRequestFactory.createRequest(machine);
     }
 
-    private boolean pingWsAgent(HttpJsonRequest wsAgentPingRequest) throws ServerException {
+    private boolean pingWsAgent(HttpJsonRequest wsAgentPingRequest) {
         try {
             final HttpJsonResponse pingResponse = wsAgentPingRequest.request();
             if (pingResponse.getResponseCode() == HttpURLConnection.HTTP_OK) {
@@ -61,7 +61,19 @@ import java.util.Objects;
                 @NamedQuery(name = "Workspace.getAll",
                             query = "SELECT w FROM Workspace w"),
                 @NamedQuery(name = "Workspace.getByTemporary",
-                            query = "SELECT w FROM Workspace w WHERE w.isTemporary = :temporary")
+                            query = "SELECT w FROM Workspace w WHERE w.isTemporary = :temporary ORDER BY w.id"),
+                @NamedQuery(name = "Workspace.getByTemporaryAfterId",
+                            query = "SELECT w " +
+                                    "FROM Workspace w " +
+                                    "WHERE w.isTemporary = :temporary AND w.id > :afterId " +
+                                    "ORDER BY w.id"),
+                @NamedQuery(name = "Workspace.getAllAfterId",
+                            query = "SELECT w FROM Workspace w WHERE w.id > :afterId ORDER BY w.id"),
+                @NamedQuery(name = "Workspace.getByNamespaceAfterId",
+                            query = "SELECT w " +
+                                    "FROM Workspace w " +
+                                    "WHERE w.account.name = :namespace AND w.id > :afterId " +
+                                    "ORDER BY w.id")
 
         }
 )
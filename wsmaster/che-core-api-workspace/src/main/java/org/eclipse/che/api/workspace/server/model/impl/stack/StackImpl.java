@@ -50,9 +50,19 @@ import static java.util.stream.Collectors.toList;
                                     "FROM Stack stack, stack.tags tag " +
                                     "WHERE tag IN :tags " +
                                     "GROUP BY stack.id " +
-                                    "HAVING COUNT(tag) = :tagsSize"),
+                                    "HAVING COUNT(tag) = :tagsSize " +
+                                    "ORDER BY stack.id"),
                 @NamedQuery(name = "Stack.getAll",
-                            query = "SELECT stack FROM Stack stack")
+                            query = "SELECT stack FROM Stack stack ORDER BY stack.id"),
+                @NamedQuery(name = "Stack.getByTagsAfterId",
+                            query = "SELECT stack " +
+                                    "FROM Stack stack, stack.tags tag " +
+                                    "WHERE tag IN :tags AND stack.id > :afterId " +
+                                    "GROUP BY stack.id " +
+                                    "HAVING COUNT(tag) = :tagsSize " +
+                                    "ORDER BY stack.id"),
+                @NamedQuery(name = "Stack.getAllAfterId",
+                            query = "SELECT stack FROM Stack stack WHERE stack.id > :afterId ORDER BY stack.id")
         }
 
 )
@@ -124,4 +124,32 @@ public interface StackDao {
      *         when {@code skipCount} or {@code maxItems} is negative
      */
     List<StackImpl> searchStacks(@Nullable String user, @Nullable List<String> tags, int skipCount, int maxItems) throws ServerException;
+
+    /**
+     * Returns the same stacks as {@link #searchStacks(String, List, int, int)}
+     * but uses keyset pagination instead of offset pagination.
+     *
+     * <p>Stacks are returned in ascending order of their identifiers,
+     * the next page may be fetched by passing the identifier of the last
+     * stack from the previous page as {@code afterId}.
+     *
+     * @param user
+     *         user id for permission checking
+     * @param tags
+     *         stack tags to search stacks, may be {@code null}
+     * @param afterId
+     *         the identifier of the last stack from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         max count of items to fetch
+     * @return list stacks which contains all of specified {@code tags}
+     * @throws ServerException
+     *         when any error occurs
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<StackImpl> searchStacks(@Nullable String user,
+                                 @Nullable List<String> tags,
+                                 @Nullable String afterId,
+                                 int maxItems) throws ServerException;
 }
@@ -14,6 +14,7 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.annotation.Nullable;
 
 import java.util.List;
 
@@ -141,6 +142,28 @@ public interface WorkspaceDao {
      */
     List<WorkspaceImpl> getWorkspaces(String userId) throws ServerException;
 
+    /**
+     * Gets workspaces which user can read using keyset pagination.
+     *
+     * <p>Workspaces are returned in ascending order of their identifiers,
+     * the next page may be fetched by passing the identifier of the last
+     * workspace from the previous page as {@code afterId}.
+     *
+     * @param userId
+     *         id of user
+     * @param afterId
+     *         the identifier of the last workspace from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         the maximum number of workspaces to return, 0 means no limit
+     * @return list of workspaces or empty list if no workspaces were found
+     * @throws ServerException
+     *         when any other error occurs during workspaces fetching
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<WorkspaceImpl> getWorkspaces(String userId, @Nullable String afterId, int maxItems) throws ServerException;
+
 
     /**
      * Gets workspaces by temporary attribute.
@@ -151,7 +174,7 @@ public interface WorkspaceDao {
      * @param skipCount
      *         the number of workspaces to skip
      * @param maxItems
-     *         the maximum number of workspaces to return
+     *         the maximum number of workspaces to return, 0 means no limit
      * @return list of workspaces or empty list if no workspaces were found
      * @throws ServerException
      *         when any other error occurs during workspaces fetching
@@ -159,4 +182,53 @@ public interface WorkspaceDao {
      *         when {@code maxItems} or {@code skipCount} is negative
      */
     List<WorkspaceImpl> getWorkspaces(boolean isTemporary, int skipCount, int maxItems) throws ServerException;
+
+    /**
+     * Gets workspaces by temporary attribute using keyset pagination.
+     *
+     * <p>Workspaces are returned in ascending order of their identifiers,
+     * the next page may be fetched by passing the identifier of the last
+     * workspace from the previous page as {@code afterId}. Unlike
+     * {@link #getWorkspaces(boolean, int, int)} the cost of fetching a page
+     * doesn't depend on its position in the result set.
+     *
+     * @param isTemporary
+     *         When {@code true}, only temporary workspaces should be retrieved.
+     *         When {@code false}, only non-temporary workspaces should be retrieved.
+     * @param afterId
+     *         the identifier of the last workspace from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         the maximum number of workspaces to return, 0 means no limit
+     * @return list of workspaces or empty list if no workspaces were found
+     * @throws ServerException
+     *         when any other error occurs during workspaces fetching
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<WorkspaceImpl> getWorkspaces(boolean isTemporary, @Nullable String afterId, int maxItems) throws ServerException;
+
+    /**
+     * Gets workspaces in given namespace using keyset pagination.
+     *
+     * <p>Workspaces are returned in ascending order of their identifiers,
+     * the next page may be fetched by passing the identifier of the last
+     * workspace from the previous page as {@code afterId}.
+     *
+     * @param namespace
+     *         workspace namespace
+     * @param afterId
+     *         the identifier of the last workspace from the previous page,
+     *         or {@code null} to fetch the first page
+     * @param maxItems
+     *         the maximum number of workspaces to return, 0 means no limit
+     * @return list of workspaces or empty list if no workspaces were found
+     * @throws NullPointerException
+     *         when {@code namespace} is null
+     * @throws ServerException
+     *         when any other error occurs during workspaces fetching
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<WorkspaceImpl> getByNamespace(String namespace, @Nullable String afterId, int maxItems) throws ServerException;
 }
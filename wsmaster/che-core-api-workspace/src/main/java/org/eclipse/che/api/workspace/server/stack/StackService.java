@@ -199,12 +199,21 @@ public class StackService extends Service {
                                        @ApiParam("The limit of the items in the response, default is 30")
                                        @DefaultValue("30")
                                        @QueryParam("maxItems")
-                                       final Integer maxItems) throws ServerException {
+                                       final Integer maxItems,
+                                       @ApiParam("The id of the last stack from the previous page, " +
+                                                 "when present skipCount is ignored")
+                                       @QueryParam("afterId")
+                                       final String afterId) throws ServerException {
         final String currentUser = EnvironmentContext.getCurrent().getSubject().getUserId();
-        return stackDao.searchStacks(currentUser, tags, skipCount, maxItems)
-                       .stream()
-                       .map(this::asStackDto)
-                       .collect(Collectors.toList());
+        final List<StackImpl> stacks;
+        if (afterId != null) {
+            stacks = stackDao.searchStacks(currentUser, tags, afterId, maxItems);
+        } else {
+            stacks = stackDao.searchStacks(currentUser, tags, skipCount, maxItems);
+        }
+        return stacks.stream()
+                     .map(this::asStackDto)
+                     .collect(Collectors.toList());
     }
 
     @GET
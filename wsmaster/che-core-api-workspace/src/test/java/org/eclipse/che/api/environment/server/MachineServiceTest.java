@@ -31,11 +31,16 @@ import static com.jayway.restassured.RestAssured.given;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_NAME;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
 import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -142,4 +147,82 @@ public class MachineServiceTest {
         // then
         assertEquals(response.getStatusCode(), 204);
     }
+
+    @Test
+    public void shouldReturnLastLinesOfProcessLogs() throws Exception {
+        // given
+        ProcessLogsReader logsReader = mock(ProcessLogsReader.class);
+        when(machineProcessManager.getProcessLogsReader("mcId", 3)).thenReturn(logsReader);
+        when(logsReader.tail(2)).thenReturn(asList("line 8", "line 9"));
+
+        // when
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/wsId/machine/mcId/process/3/logs?tail=2");
+
+        // then
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(response.asString(), "line 8\nline 9\n");
+    }
+
+    @Test
+    public void shouldReturnRangeOfProcessLogs() throws Exception {
+        // given
+        ProcessLogsReader logsReader = mock(ProcessLogsReader.class);
+        when(machineProcessManager.getProcessLogsReader("mcId", 3)).thenReturn(logsReader);
+        when(logsReader.readLines(5L, 2)).thenReturn(asList("line 5", "line 6"));
+
+        // when
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/wsId/machine/mcId/process/3/logs?from=5&limit=2");
+
+        // then
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(response.asString(), "line 5\nline 6\n");
+    }
+
+    @Test
+    public void shouldReturnProcessLogsWrittenWithinTimeRange() throws Exception {
+        // given
+        ProcessLogsReader logsReader = mock(ProcessLogsReader.class);
+        when(machineProcessManager.getProcessLogsReader("mcId", 3)).thenReturn(logsReader);
+        when(logsReader.readLines(1000L, Long.MAX_VALUE, 1000)).thenReturn(singletonList("line 1"));
+
+        // when
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/wsId/machine/mcId/process/3/logs?since=1000");
+
+        // then
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(response.asString(), "line 1\n");
+    }
+
+    @Test(dataProvider = "illegalProcessLogsRangeProvider")
+    public void shouldReturnErrorOnGetProcessLogsIfRangeIsInvalid(String query) throws Exception {
+        // when
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/wsId/machine/mcId/process/3/logs?" + query);
+
+        // then
+        assertEquals(response.getStatusCode(), 400);
+        verify(machineProcessManager, never()).getProcessLogsReader(anyString(), anyInt());
+    }
+
+    @DataProvider(name = "illegalProcessLogsRangeProvider")
+    public static Object[][] illegalProcessLogsRangeProvider() {
+        return new Object[][] {
+                {"tail=-1"},
+                {"from=-1"},
+                {"from=0&limit=-1"},
+                {"since=1000&limit=-1"},
+                {"tail=1&from=0"}
+        };
+    }
 }
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.environment.server;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ProcessLogsReader} and {@link IndexedFileLineConsumer}.
+ */
+public class ProcessLogsReaderTest {
+    private static final int LINES = IndexedFileLineConsumer.LINES_PER_RECORD * 3 + 5;
+
+    private File logsDir;
+    private File logsFile;
+    private File indexFile;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        logsDir = Files.createTempDirectory("process-logs").toFile();
+        logsFile = new File(logsDir, "1");
+        indexFile = new File(logsDir, "1.idx");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(logsDir);
+    }
+
+    @Test
+    public void shouldReturnLastLines() throws Exception {
+        writeLines(LINES);
+
+        List<String> lines = new ProcessLogsReader(logsFile, indexFile).tail(3);
+
+        assertEquals(lines, lines(LINES - 3, LINES));
+    }
+
+    @Test
+    public void shouldReturnAllLinesIfTailIsGreaterThanLogs() throws Exception {
+        writeLines(5);
+
+        List<String> lines = new ProcessLogsReader(logsFile, indexFile).tail(10);
+
+        assertEquals(lines, lines(0, 5));
+    }
+
+    @Test
+    public void shouldReturnRangeOfLines() throws Exception {
+        writeLines(LINES);
+
+        List<String> lines = new ProcessLogsReader(logsFile, indexFile).readLines(1998, 4);
+
+        assertEquals(lines, lines(1998, 2002));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectNegativeLineNumber() throws Exception {
+        writeLines(LINES);
+
+        new ProcessLogsReader(logsFile, indexFile).readLines(-1, 10);
+    }
+
+    @Test
+    public void shouldCountLinesWhichContainLineSeparators() throws Exception {
+        try (IndexedFileLineConsumer consumer = new IndexedFileLineConsumer(logsFile, indexFile, null, 0)) {
+            consumer.writeLine("first\nsecond");
+            consumer.writeLine("third");
+        }
+
+        ProcessLogsReader reader = new ProcessLogsReader(logsFile, indexFile);
+
+        assertEquals(reader.readLines(1, 5), asList("second", "third"));
+        assertEquals(reader.tail(1), asList("third"));
+    }
+
+    @Test
+    public void shouldReadLogsWrittenWithoutIndex() throws Exception {
+        Files.write(logsFile.toPath(), asList("first", "second", "third"));
+
+        ProcessLogsReader reader = new ProcessLogsReader(logsFile, indexFile);
+
+        assertEquals(reader.tail(2), asList("second", "third"));
+        assertEquals(reader.readLines(1, 1), asList("second"));
+    }
+
+    @Test
+    public void shouldReturnLinesWrittenWithinTimeRange() throws Exception {
+        final long start = System.currentTimeMillis();
+        writeLines(LINES);
+        final long end = System.currentTimeMillis();
+
+        ProcessLogsReader reader = new ProcessLogsReader(logsFile, indexFile);
+
+        assertEquals(reader.readLines(start, end, Integer.MAX_VALUE), lines(0, LINES));
+        assertEquals(reader.readLines(0, start - 1, 10), emptyList());
+    }
+
+    private void writeLines(int count) throws Exception {
+        try (IndexedFileLineConsumer consumer = new IndexedFileLineConsumer(logsFile, indexFile, null, 0)) {
+            for (String line : lines(0, count)) {
+                consumer.writeLine(line);
+            }
+        }
+    }
+
+    private static List<String> lines(long from, long to) {
+        return LongStream.range(from, to).mapToObj(i -> "line " + i).collect(Collectors.toList());
+    }
+}
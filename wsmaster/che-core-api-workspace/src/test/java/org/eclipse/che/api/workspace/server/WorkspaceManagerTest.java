@@ -31,6 +31,7 @@ import org.eclipse.che.api.machine.server.spi.SnapshotDao;
 import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
 import org.eclipse.che.api.workspace.server.model.impl.EnvironmentRecipeImpl;
 import org.eclipse.che.api.workspace.server.model.impl.ExtendedMachineImpl;
+import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
@@ -53,11 +54,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
@@ -77,6 +80,7 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -251,6 +255,42 @@ public class WorkspaceManagerTest {
         assertFalse(res1.isTemporary(), "Workspace must be permanent");
     }
 
+    @Test
+    public void shouldFillPageOfWorkspacesWithGivenStatusFromSeveralStoragePages() throws Exception {
+        final WorkspaceImpl ws1 = createAndMockWorkspace();
+        final WorkspaceImpl ws2 = createAndMockWorkspace();
+        final WorkspaceImpl ws3 = createAndMockWorkspace();
+        final WorkspaceImpl ws4 = createAndMockWorkspace();
+        final WorkspaceImpl ws5 = createAndMockWorkspace();
+        when(runtimes.getStatus(ws1.getId())).thenReturn(RUNNING);
+        when(runtimes.getStatus(ws2.getId())).thenReturn(STOPPED);
+        when(runtimes.getStatus(ws3.getId())).thenReturn(STOPPED);
+        when(runtimes.getStatus(ws4.getId())).thenReturn(RUNNING);
+        when(runtimes.getStatus(ws5.getId())).thenReturn(RUNNING);
+        when(workspaceDao.getByNamespace(NAMESPACE, null, 2)).thenReturn(asList(ws1, ws2));
+        when(workspaceDao.getByNamespace(NAMESPACE, ws2.getId(), 2)).thenReturn(asList(ws3, ws4));
+        when(workspaceDao.getByNamespace(NAMESPACE, ws4.getId(), 2)).thenReturn(singletonList(ws5));
+
+        final List<WorkspaceImpl> firstPage = workspaceManager.getByNamespace(NAMESPACE, false, RUNNING, null, 2);
+        final List<WorkspaceImpl> secondPage = workspaceManager.getByNamespace(NAMESPACE, false, RUNNING, ws4.getId(), 2);
+
+        assertEquals(firstPage, asList(ws1, ws4));
+        assertEquals(secondPage, singletonList(ws5));
+        verify(workspaceDao, never()).getByNamespace(NAMESPACE, ws5.getId(), 2);
+    }
+
+    @Test
+    public void shouldGetPageOfUserWorkspacesAfterGivenId() throws Exception {
+        final WorkspaceImpl ws1 = createAndMockWorkspace();
+        final WorkspaceImpl ws2 = createAndMockWorkspace();
+        when(workspaceDao.getWorkspaces(NAMESPACE, "ws-id", 2)).thenReturn(asList(ws1, ws2));
+
+        final List<WorkspaceImpl> page = workspaceManager.getWorkspaces(NAMESPACE, false, null, "ws-id", 2);
+
+        assertEquals(page, asList(ws1, ws2));
+        verify(workspaceDao, never()).getWorkspaces(NAMESPACE, ws2.getId(), 2);
+    }
+
     @Test
     public void getWorkspaceByNameShouldReturnWorkspaceWithStatusEqualToItsRuntimeStatus() throws Exception {
         final WorkspaceImpl workspace = createAndMockWorkspace();
@@ -283,6 +323,88 @@ public class WorkspaceManagerTest {
         assertEquals(updated.getStatus(), STARTING);
     }
 
+    @Test
+    public void shouldUpdateProjectsWhenRevisionMatches() throws Exception {
+        final WorkspaceImpl workspace = createAndMockWorkspace();
+        when(workspaceDao.update(any())).thenAnswer(inv -> inv.getArguments()[0]);
+        final String revision = WorkspaceManager.projectsRevision(workspace.getConfig().getProjects());
+
+        final WorkspaceImpl updated = workspaceManager.updateProjects(workspace.getId(), revision, config -> {
+            config.getProjects().add(createProject("/project"));
+            return true;
+        });
+
+        assertEquals(updated.getConfig().getProjects().size(), 1);
+        assertEquals(updated.getConfig().getProjects().get(0).getPath(), "/project");
+        verify(workspaceDao).update(any());
+        verify(runtimes).injectRuntime(updated);
+    }
+
+    @Test(expectedExceptions = ConflictException.class,
+          expectedExceptionsMessageRegExp = "Projects of workspace '.*' were modified since revision 'stale-revision'")
+    public void shouldNotUpdateProjectsWhenRevisionDoesNotMatch() throws Exception {
+        final WorkspaceImpl workspace = createAndMockWorkspace();
+
+        try {
+            workspaceManager.updateProjects(workspace.getId(), "stale-revision", config -> {
+                throw new AssertionError("Modification must not be applied");
+            });
+        } finally {
+            verify(workspaceDao, never()).update(any());
+        }
+    }
+
+    @Test
+    public void shouldNotUpdateWorkspaceWhenProjectsAreNotModified() throws Exception {
+        final WorkspaceImpl workspace = createAndMockWorkspace();
+
+        final WorkspaceImpl result = workspaceManager.updateProjects(workspace.getId(), null, config -> false);
+
+        assertEquals(result, workspace);
+        verify(workspaceDao, never()).update(any());
+        verify(runtimes).injectRuntime(workspace);
+    }
+
+    @Test
+    public void shouldNotUpdateWorkspaceWhileProjectsAreBeingModified() throws Exception {
+        final WorkspaceImpl workspace = createAndMockWorkspace();
+        when(workspaceDao.update(any())).thenAnswer(inv -> inv.getArguments()[0]);
+        final CountDownLatch modifying = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<WorkspaceImpl> projectsUpdate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return workspaceManager.updateProjects(workspace.getId(), null, config -> {
+                    modifying.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException x) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                });
+            } catch (Exception x) {
+                throw new RuntimeException(x);
+            }
+        });
+        assertTrue(modifying.await(10, SECONDS));
+        final CompletableFuture<WorkspaceImpl> workspaceUpdate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return workspaceManager.updateWorkspace(workspace.getId(), new WorkspaceImpl(workspace));
+            } catch (Exception x) {
+                throw new RuntimeException(x);
+            }
+        });
+
+        Thread.sleep(200);
+        assertFalse(workspaceUpdate.isDone());
+        verify(workspaceDao, never()).update(any());
+        release.countDown();
+        projectsUpdate.get(10, SECONDS);
+        workspaceUpdate.get(10, SECONDS);
+        verify(workspaceDao, times(2)).update(any());
+    }
+
     @Test
     public void shouldRemoveWorkspace() throws Exception {
         final WorkspaceImpl workspace = createAndMockWorkspace();
@@ -902,6 +1024,14 @@ public class WorkspaceManagerTest {
         when(runtimes.startAsync(anyObject(), anyString(), anyBoolean())).thenReturn(cmpFuture);
     }
 
+    private static ProjectConfigImpl createProject(String path) {
+        final ProjectConfigImpl project = new ProjectConfigImpl();
+        project.setPath(path);
+        project.setName(path.substring(1));
+        project.setType("blank");
+        return project;
+    }
+
     private static WorkspaceConfigImpl createConfig() {
         EnvironmentImpl environment = new EnvironmentImpl(new EnvironmentRecipeImpl("type",
                                                                                     "contentType",
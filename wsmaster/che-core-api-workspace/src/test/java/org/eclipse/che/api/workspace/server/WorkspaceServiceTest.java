@@ -20,6 +20,7 @@ import com.jayway.restassured.response.Response;
 import org.eclipse.che.account.shared.model.Account;
 import org.eclipse.che.account.spi.AccountImpl;
 import org.eclipse.che.api.agent.server.WsAgentHealthChecker;
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.model.machine.MachineStatus;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceConfig;
@@ -48,9 +49,11 @@ import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsDiffDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceProjectsDto;
 import org.eclipse.che.api.workspace.shared.dto.WsAgentHealthStateDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.subject.SubjectImpl;
@@ -106,6 +109,7 @@ import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
 import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -325,6 +329,36 @@ public class WorkspaceServiceTest {
                      asList(workspace1, workspace2));
     }
 
+    @Test
+    public void shouldGetPageOfWorkspacesAfterGivenId() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace(createConfigDto(), STARTING);
+        final WorkspaceImpl workspace2 = createWorkspace(createConfigDto(), STARTING);
+        when(wsManager.getWorkspaces(USER_ID, false, STARTING, "ws-id", 2)).thenReturn(asList(workspace1, workspace2));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace?status=starting&afterId=ws-id&maxItems=2");
+
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(unwrapDtoList(response, WorkspaceDto.class).stream()
+                                                                .map(ws -> new WorkspaceImpl(ws, TEST_ACCOUNT))
+                                                                .collect(toList()),
+                     asList(workspace1, workspace2));
+        verify(wsManager, never()).getWorkspaces(USER_ID, false);
+    }
+
+    @Test
+    public void shouldRejectNegativeMaxItemsWhenGettingWorkspaces() throws Exception {
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace?maxItems=-1");
+
+        assertEquals(response.getStatusCode(), 400);
+        verify(wsManager, never()).getWorkspaces(anyString(), anyBoolean(), any(), anyString(), anyInt());
+    }
+
     @Test
     public void shouldGetWorkspacesByNamespace() throws Exception {
         final WorkspaceImpl workspace1 = createWorkspace(createConfigDto());
@@ -789,6 +823,87 @@ public class WorkspaceServiceTest {
         verify(wsManager).updateWorkspace(any(), any());
     }
 
+    @Test
+    public void shouldApplyProjectsDiff() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        mockProjectsUpdate(workspace);
+        final ProjectConfig firstProject = workspace.getConfig().getProjects().iterator().next();
+        final ProjectConfigDto newProject = createProjectDto().withPath("/new-project");
+        final ProjectsDiffDto diff = newDto(ProjectsDiffDto.class).withRevision("revision")
+                                                                  .withUpdated(singletonList(newProject))
+                                                                  .withRemoved(singletonList(firstProject.getPath()));
+
+        final Response response = syncProjects(workspace.getId(), diff);
+
+        assertEquals(response.getStatusCode(), 200);
+        final WorkspaceProjectsDto result = unwrapDto(response, WorkspaceProjectsDto.class);
+        assertEquals(result.getRevision(), WorkspaceManager.projectsRevision(workspace.getConfig().getProjects()));
+        assertEquals(result.getProjects().stream().map(ProjectConfig::getPath).collect(toList()),
+                     singletonList("/new-project"));
+        verify(validator).validateConfig(workspace.getConfig());
+        verify(wsManager).updateProjects(eq(workspace.getId()), eq("revision"), any());
+    }
+
+    @Test
+    public void shouldNormalizePathsOfUpdatedProjects() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        mockProjectsUpdate(workspace);
+        final ProjectConfig firstProject = workspace.getConfig().getProjects().iterator().next();
+        final ProjectConfigDto update = createProjectDto().withPath(firstProject.getPath().substring(1))
+                                                          .withDescription("new description");
+
+        final Response response = syncProjects(workspace.getId(), newDto(ProjectsDiffDto.class).withUpdated(singletonList(update)));
+
+        assertEquals(response.getStatusCode(), 200);
+        final List<ProjectConfigDto> projects = unwrapDto(response, WorkspaceProjectsDto.class).getProjects();
+        assertEquals(projects.size(), 1);
+        assertEquals(projects.get(0).getPath(), firstProject.getPath());
+        assertEquals(projects.get(0).getDescription(), "new description");
+    }
+
+    @Test
+    public void shouldNotValidateConfigWhenProjectsDiffIsEmpty() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        mockProjectsUpdate(workspace);
+
+        final Response response = syncProjects(workspace.getId(), newDto(ProjectsDiffDto.class));
+
+        assertEquals(response.getStatusCode(), 200);
+        verify(validator, never()).validateConfig(any());
+    }
+
+    @Test
+    public void shouldRespond409WhenProjectsWereModifiedSinceRevision() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        when(wsManager.updateProjects(eq(workspace.getId()), eq("stale-revision"), any()))
+                .thenThrow(new ConflictException("Projects were modified"));
+        final ProjectsDiffDto diff = newDto(ProjectsDiffDto.class).withRevision("stale-revision")
+                                                                  .withUpdated(singletonList(createProjectDto()));
+
+        final Response response = syncProjects(workspace.getId(), diff);
+
+        assertEquals(response.getStatusCode(), 409);
+        assertEquals(unwrapError(response), "Projects were modified");
+    }
+
+    @Test
+    public void shouldGetProjectsWithRevision() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        when(wsManager.getWorkspace(workspace.getId())).thenReturn(workspace);
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/" + workspace.getId() + "/project/sync");
+
+        assertEquals(response.getStatusCode(), 200);
+        final WorkspaceProjectsDto result = unwrapDto(response, WorkspaceProjectsDto.class);
+        assertEquals(result.getRevision(), WorkspaceManager.projectsRevision(workspace.getConfig().getProjects()));
+        assertEquals(result.getProjects().stream().map(ProjectConfig::getPath).collect(toList()),
+                     workspace.getConfig().getProjects().stream().map(ProjectConfig::getPath).collect(toList()));
+        verify(wsManager, never()).updateProjects(any(), any(), any());
+    }
+
     @Test
     public void testWorkspaceLinks() throws Exception {
         // given
@@ -1008,6 +1123,23 @@ public class WorkspaceServiceTest {
         return DtoConverter.asDto(new CommandImpl("MCI", "mvn clean install", "maven"));
     }
 
+    private static Response syncProjects(String workspaceId, ProjectsDiffDto diff) {
+        return given().auth()
+                      .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                      .contentType("application/json")
+                      .body(diff)
+                      .when()
+                      .post(SECURE_PATH + "/workspace/" + workspaceId + "/project/sync");
+    }
+
+    private void mockProjectsUpdate(WorkspaceImpl workspace) throws Exception {
+        when(wsManager.updateProjects(eq(workspace.getId()), any(), any())).thenAnswer(inv -> {
+            final WorkspaceManager.ProjectsModification modification = (WorkspaceManager.ProjectsModification)inv.getArguments()[2];
+            modification.modify(workspace.getConfig());
+            return workspace;
+        });
+    }
+
     private static ProjectConfigDto createProjectDto() {
         return newDto(ProjectConfigDto.class).withName("project-name")
                                              .withPath("/project/path")
@@ -261,6 +261,31 @@ public class StackDaoTest {
         assertEquals(new HashSet<>(found), new HashSet<>(asList(stacks[0], stacks[3])));
     }
 
+    @Test(dependsOnMethods = "shouldUpdateStack")
+    public void shouldFindStacksWithSpecifiedTagsUsingKeysetPagination() throws Exception {
+        stacks[0].getTags().addAll(asList("search-tag1", "search-tag2"));
+        stacks[1].getTags().addAll(asList("search-tag1", "non-search-tag"));
+        stacks[2].getTags().addAll(asList("search-tag1", "search-tag2"));
+        stacks[3].getTags().addAll(asList("search-tag1", "search-tag2", "another-tag"));
+        updateAll();
+
+        final List<StackImpl> found = stackDao.searchStacks(null,
+                                                            asList("search-tag1", "search-tag2"),
+                                                            stacks[0].getId(),
+                                                            1);
+
+        assertEquals(found.size(), 1);
+        assertEquals(found.get(0).getId(), stacks[2].getId());
+    }
+
+    @Test
+    public void shouldReturnStacksAfterGivenIdWhenSearchingWithoutTags() throws Exception {
+        final List<StackImpl> found = stackDao.searchStacks(null, null, stacks[1].getId(), 0);
+
+        assertEquals(found.stream().map(StackImpl::getId).collect(toList()),
+                     Stream.of(stacks).skip(2).map(StackImpl::getId).collect(toList()));
+    }
+
     @Test
     public void shouldReturnAllStacksWhenSearchingWithoutTags() throws Exception {
         final List<StackImpl> found = stackDao.searchStacks(null, null, 0, 0);
@@ -51,6 +51,7 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 import static org.mockito.Matchers.any;
@@ -246,6 +247,53 @@ public class WorkspaceDaoTest {
         workspaceDao.getWorkspaces(true, -2, 0);
     }
 
+    @Test
+    public void shouldGetWorkspacesByNonTemporaryUsingKeysetPagination() throws Exception {
+        final List<WorkspaceImpl> firstPage = workspaceDao.getWorkspaces(false, (String)null, 3);
+        final String lastId = firstPage.get(firstPage.size() - 1).getId();
+        final List<WorkspaceImpl> secondPage = workspaceDao.getWorkspaces(false, lastId, 3);
+
+        assertEquals(firstPage, asList(workspaces[0], workspaces[1], workspaces[2]));
+        assertEquals(secondPage, asList(workspaces[3], workspaces[4]));
+    }
+
+    @Test
+    public void shouldGetWorkspacesByNamespaceUsingKeysetPagination() throws Exception {
+        final String namespace = workspaces[0].getNamespace();
+
+        final List<WorkspaceImpl> firstPage = workspaceDao.getByNamespace(namespace, null, 1);
+        final List<WorkspaceImpl> secondPage = workspaceDao.getByNamespace(namespace, firstPage.get(0).getId(), 1);
+        final List<WorkspaceImpl> thirdPage = workspaceDao.getByNamespace(namespace, secondPage.get(0).getId(), 1);
+
+        assertEquals(firstPage, singletonList(workspaces[0]));
+        assertEquals(secondPage, singletonList(workspaces[1]));
+        assertTrue(thirdPage.isEmpty());
+    }
+
+    @Test
+    public void shouldGetWorkspacesOfUserUsingKeysetPagination() throws Exception {
+        final List<WorkspaceImpl> firstPage = workspaceDao.getWorkspaces("user123", null, 3);
+        final String lastId = firstPage.get(firstPage.size() - 1).getId();
+        final List<WorkspaceImpl> secondPage = workspaceDao.getWorkspaces("user123", lastId, 3);
+
+        assertEquals(firstPage, asList(workspaces[0], workspaces[1], workspaces[2]));
+        assertEquals(secondPage, asList(workspaces[3], workspaces[4]));
+    }
+
+    @Test
+    public void shouldGetAllTheRestWorkspacesWhenKeysetPageSizeIsZero() throws Exception {
+        final String namespace = workspaces[0].getNamespace();
+
+        assertEquals(workspaceDao.getByNamespace(namespace, null, 0), asList(workspaces[0], workspaces[1]));
+        assertEquals(workspaceDao.getWorkspaces(false, workspaces[1].getId(), 0),
+                     asList(workspaces[2], workspaces[3], workspaces[4]));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionOnNegativeLimitWhenUsingKeysetPagination() throws Exception {
+        workspaceDao.getWorkspaces(true, (String)null, -2);
+    }
+
     @Test
     public void shouldPublicRemoveWorkspaceEventAfterRemoveWorkspace() throws Exception {
         final boolean[] isNotified = new boolean[] {false};
@@ -0,0 +1,16 @@
+--
+-- Copyright (c) 2012-2017 Codenvy, S.A.
+-- All rights reserved. This program and the accompanying materials
+-- are made available under the terms of the Eclipse Public License v1.0
+-- which accompanies this distribution, and is available at
+-- http://www.eclipse.org/legal/epl-v10.html
+--
+-- Contributors:
+--   Codenvy, S.A. - initial API and implementation
+--
+
+--indexes
+DROP INDEX index_workspace_istemporary;
+CREATE INDEX index_workspace_istemporary_id ON workspace (istemporary, id);
+CREATE INDEX index_workspace_accountid_id ON workspace (accountid, id);
+CREATE INDEX index_stack_tags_stack_id ON stack_tags (stack_id);
@@ -26,6 +26,7 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -127,4 +128,20 @@ public class LocalStackDaoImpl implements StackDao {
         }
         return stream.map(StackImpl::new).collect(toList());
     }
+
+    @Override
+    public synchronized List<StackImpl> searchStacks(String user,
+                                                     @Nullable List<String> tags,
+                                                     @Nullable String afterId,
+                                                     int maxItems) {
+        Stream<StackImpl> stream = stacks.values()
+                                         .stream()
+                                         .filter(s -> tags == null || s.getTags().containsAll(tags))
+                                         .filter(s -> afterId == null || s.getId().compareTo(afterId) > 0)
+                                         .sorted(Comparator.comparing(StackImpl::getId));
+        if (maxItems != 0) {
+            stream = stream.limit(maxItems);
+        }
+        return stream.map(StackImpl::new).collect(toList());
+    }
 }
@@ -27,12 +27,14 @@ import org.eclipse.che.api.workspace.server.WorkspaceConfigJsonAdapter;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.eclipse.che.commons.annotation.Nullable;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -175,6 +177,51 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
         return  stream.collect(toList());
     }
 
+    @Override
+    public synchronized List<WorkspaceImpl> getWorkspaces(String userId,
+                                                          @Nullable String afterId,
+                                                          int maxItems) throws ServerException {
+        Stream<WorkspaceImpl> stream = workspaces.values()
+                                                 .stream()
+                                                 .filter(ws -> afterId == null || ws.getId().compareTo(afterId) > 0)
+                                                 .sorted(Comparator.comparing(WorkspaceImpl::getId));
+        if (maxItems != 0) {
+            stream = stream.limit(maxItems);
+        }
+        return stream.map(ws -> new WorkspaceImpl(ws, ws.getAccount())).collect(toList());
+    }
+
+    @Override
+    public synchronized List<WorkspaceImpl> getWorkspaces(boolean isTemporary,
+                                                          @Nullable String afterId,
+                                                          int maxItems) throws ServerException {
+        Stream<WorkspaceImpl> stream = workspaces.values()
+                                                 .stream()
+                                                 .filter(ws -> ws.isTemporary() == isTemporary)
+                                                 .filter(ws -> afterId == null || ws.getId().compareTo(afterId) > 0)
+                                                 .sorted(Comparator.comparing(WorkspaceImpl::getId));
+        if (maxItems != 0) {
+            stream = stream.limit(maxItems);
+        }
+        return stream.map(ws -> new WorkspaceImpl(ws, ws.getAccount())).collect(toList());
+    }
+
+    @Override
+    public synchronized List<WorkspaceImpl> getByNamespace(String namespace,
+                                                           @Nullable String afterId,
+                                                           int maxItems) throws ServerException {
+        requireNonNull(namespace, "Required non-null namespace");
+        Stream<WorkspaceImpl> stream = workspaces.values()
+                                                 .stream()
+                                                 .filter(ws -> ws.getNamespace().equals(namespace))
+                                                 .filter(ws -> afterId == null || ws.getId().compareTo(afterId) > 0)
+                                                 .sorted(Comparator.comparing(WorkspaceImpl::getId));
+        if (maxItems != 0) {
+            stream = stream.limit(maxItems);
+        }
+        return stream.map(ws -> new WorkspaceImpl(ws, ws.getAccount())).collect(toList());
+    }
+
 
     private Optional<WorkspaceImpl> find(String name, String owner) {
         return workspaces.values()